@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// EGL extensions which are not exposed by the Java bindings.
+// All functions work on the display and draw surface which are current
+// on the calling thread, so no EGL handles have to cross JNI.
+
+#include <jni.h>
+#include <EGL/egl.h>
+
+#include <stddef.h>
+
+#define EXT_SWAP_BUFFERS_WITH_DAMAGE_KHR 1
+#define EXT_SWAP_BUFFERS_WITH_DAMAGE_EXT (1 << 1)
+#define EXT_SET_DAMAGE_REGION_KHR        (1 << 2)
+
+// DamageRegion.MAX_RECTS
+#define MAX_RECTS 8
+
+typedef EGLBoolean (EGLAPIENTRYP SwapBuffersWithDamageProc)(
+    EGLDisplay dpy, EGLSurface surface, EGLint *rects, EGLint n_rects);
+typedef EGLBoolean (EGLAPIENTRYP SetDamageRegionProc)(
+    EGLDisplay dpy, EGLSurface surface, EGLint *rects, EGLint n_rects);
+
+static SwapBuffersWithDamageProc swap_buffers_with_damage_khr;
+static SwapBuffersWithDamageProc swap_buffers_with_damage_ext;
+static SetDamageRegionProc set_damage_region_khr;
+
+JNIEXPORT jint JNICALL
+Java_com_hippo_tuxiang_EglExt_nativeInit(JNIEnv *env, jclass clazz) {
+  jint result = 0;
+
+  swap_buffers_with_damage_khr = (SwapBuffersWithDamageProc)
+      eglGetProcAddress("eglSwapBuffersWithDamageKHR");
+  swap_buffers_with_damage_ext = (SwapBuffersWithDamageProc)
+      eglGetProcAddress("eglSwapBuffersWithDamageEXT");
+  set_damage_region_khr = (SetDamageRegionProc)
+      eglGetProcAddress("eglSetDamageRegionKHR");
+
+  if (swap_buffers_with_damage_khr != NULL) {
+    result |= EXT_SWAP_BUFFERS_WITH_DAMAGE_KHR;
+  }
+  if (swap_buffers_with_damage_ext != NULL) {
+    result |= EXT_SWAP_BUFFERS_WITH_DAMAGE_EXT;
+  }
+  if (set_damage_region_khr != NULL) {
+    result |= EXT_SET_DAMAGE_REGION_KHR;
+  }
+  return result;
+}
+
+JNIEXPORT jint JNICALL
+Java_com_hippo_tuxiang_EglExt_nativeSwapBuffersWithDamage(JNIEnv *env, jclass clazz,
+    jboolean khr, jintArray rects, jint count) {
+  SwapBuffersWithDamageProc proc = khr ? swap_buffers_with_damage_khr : swap_buffers_with_damage_ext;
+  EGLDisplay display = eglGetCurrentDisplay();
+  EGLSurface surface = eglGetCurrentSurface(EGL_DRAW);
+  EGLBoolean success;
+  // Copied, the swap may block on vsync and a critical section would stall the GC
+  EGLint array[MAX_RECTS * 4];
+
+  if (proc == NULL || count < 0 || count > MAX_RECTS) {
+    success = eglSwapBuffers(display, surface);
+  } else {
+    (*env)->GetIntArrayRegion(env, rects, 0, count * 4, (jint *) array);
+    if ((*env)->ExceptionCheck(env)) {
+      return EGL_BAD_PARAMETER;
+    }
+    success = proc(display, surface, array, count);
+  }
+
+  return success ? EGL_SUCCESS : eglGetError();
+}
+
+JNIEXPORT jint JNICALL
+Java_com_hippo_tuxiang_EglExt_nativeSetDamageRegion(JNIEnv *env, jclass clazz,
+    jintArray rects, jint count) {
+  EGLBoolean success;
+  // Copied, it may block on buffer dequeue and a critical section would stall the GC
+  EGLint array[MAX_RECTS * 4];
+
+  if (set_damage_region_khr == NULL) {
+    return EGL_BAD_ACCESS;
+  }
+  if (count < 0 || count > MAX_RECTS) {
+    return EGL_BAD_PARAMETER;
+  }
+
+  (*env)->GetIntArrayRegion(env, rects, 0, count * 4, (jint *) array);
+  if ((*env)->ExceptionCheck(env)) {
+    return EGL_BAD_PARAMETER;
+  }
+  success = set_damage_region_khr(eglGetCurrentDisplay(), eglGetCurrentSurface(EGL_DRAW),
+      array, count);
+
+  return success ? EGL_SUCCESS : eglGetError();
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// GL extensions which are not exposed by the Java bindings.
+// Function pointers are resolved once, they are shared by all contexts.
+
+#include <jni.h>
+#include <EGL/egl.h>
+#include <GLES2/gl2.h>
+#include <GLES2/gl2ext.h>
+
+#include <stddef.h>
+#include <stdint.h>
+
+#define EXT_DISJOINT_TIMER_QUERY 1
+
+static PFNGLGENQUERIESEXTPROC gen_queries;
+static PFNGLDELETEQUERIESEXTPROC delete_queries;
+static PFNGLBEGINQUERYEXTPROC begin_query;
+static PFNGLENDQUERYEXTPROC end_query;
+static PFNGLGETQUERYOBJECTUIVEXTPROC get_query_objectuiv;
+static PFNGLGETQUERYOBJECTUI64VEXTPROC get_query_objectui64v;
+
+JNIEXPORT jint JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeInit(JNIEnv *env, jclass clazz) {
+  gen_queries = (PFNGLGENQUERIESEXTPROC) eglGetProcAddress("glGenQueriesEXT");
+  delete_queries = (PFNGLDELETEQUERIESEXTPROC) eglGetProcAddress("glDeleteQueriesEXT");
+  begin_query = (PFNGLBEGINQUERYEXTPROC) eglGetProcAddress("glBeginQueryEXT");
+  end_query = (PFNGLENDQUERYEXTPROC) eglGetProcAddress("glEndQueryEXT");
+  get_query_objectuiv = (PFNGLGETQUERYOBJECTUIVEXTPROC)
+      eglGetProcAddress("glGetQueryObjectuivEXT");
+  get_query_objectui64v = (PFNGLGETQUERYOBJECTUI64VEXTPROC)
+      eglGetProcAddress("glGetQueryObjectui64vEXT");
+
+  if (gen_queries != NULL && delete_queries != NULL && begin_query != NULL
+      && end_query != NULL && get_query_objectuiv != NULL && get_query_objectui64v != NULL) {
+    return EXT_DISJOINT_TIMER_QUERY;
+  } else {
+    return 0;
+  }
+}
+
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeGenQueries(JNIEnv *env, jclass clazz,
+    jint n, jintArray ids) {
+  jint *array = (*env)->GetPrimitiveArrayCritical(env, ids, NULL);
+  gen_queries(n, (GLuint *) array);
+  (*env)->ReleasePrimitiveArrayCritical(env, ids, array, 0);
+}
+
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeDeleteQueries(JNIEnv *env, jclass clazz,
+    jint n, jintArray ids) {
+  jint *array = (*env)->GetPrimitiveArrayCritical(env, ids, NULL);
+  delete_queries(n, (const GLuint *) array);
+  (*env)->ReleasePrimitiveArrayCritical(env, ids, array, JNI_ABORT);
+}
+
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeBeginQuery(JNIEnv *env, jclass clazz,
+    jint target, jint id) {
+  begin_query((GLenum) target, (GLuint) id);
+}
+
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeEndQuery(JNIEnv *env, jclass clazz, jint target) {
+  end_query((GLenum) target);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeGetQueryObjectui(JNIEnv *env, jclass clazz,
+    jint id, jint pname) {
+  GLuint result = 0;
+  get_query_objectuiv((GLuint) id, (GLenum) pname, &result);
+  return (jint) result;
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeGetQueryObjectui64(JNIEnv *env, jclass clazz,
+    jint id, jint pname) {
+  khronos_uint64_t result = 0;
+  get_query_objectui64v((GLuint) id, (GLenum) pname, &result);
+  return (jlong) result;
+}
+
+// GLES30 doesn't have a glTexSubImage2D overload which takes an offset
+// into the bound GL_PIXEL_UNPACK_BUFFER.
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeTexSubImage2D(JNIEnv *env, jclass clazz,
+    jint target, jint level, jint xoffset, jint yoffset, jint width, jint height,
+    jint format, jint type, jint offset) {
+  glTexSubImage2D((GLenum) target, level, xoffset, yoffset, width, height,
+      (GLenum) format, (GLenum) type, (const void *) (intptr_t) offset);
+}
+
+// GLES30.glReadPixels with an offset into the bound GL_PIXEL_PACK_BUFFER
+// was only added in API 24.
+JNIEXPORT void JNICALL
+Java_com_hippo_tuxiang_GlExt_nativeReadPixels(JNIEnv *env, jclass clazz,
+    jint x, jint y, jint width, jint height, jint format, jint type, jint offset) {
+  glReadPixels(x, y, width, height, (GLenum) format, (GLenum) type,
+      (void *) (intptr_t) offset);
+}
@@ -31,10 +31,32 @@ public abstract class BaseConfigChooser implements EGLConfigChooser {
         mConfigSpec = filterConfigSpec(configSpec);
     }
 
+    /**
+     * Prefer configs which support preserving the back buffer after swapping
+     * buffers, {@code EGL_SWAP_BEHAVIOR_PRESERVED_BIT}. If none of them
+     * matches, the other configs are used.
+     *
+     * @see GLStuff#setPreserveEGLBackBuffer(boolean)
+     */
+    public void setPreferPreservedBackBuffer(boolean prefer) {
+        mPreservedConfigSpec = prefer ? appendPreservedBit(mConfigSpec) : null;
+    }
+
     @Override
     public EGLConfig chooseConfig(EGL10 egl, EGLDisplay display) {
+        if (mPreservedConfigSpec != null) {
+            final EGLConfig config = chooseConfig(egl, display, mPreservedConfigSpec, false);
+            if (config != null) {
+                return config;
+            }
+        }
+        return chooseConfig(egl, display, mConfigSpec, true);
+    }
+
+    private EGLConfig chooseConfig(EGL10 egl, EGLDisplay display, int[] configSpec,
+            boolean required) {
         final int[] num_config = new int[1];
-        if (!egl.eglChooseConfig(display, mConfigSpec, null, 0,
+        if (!egl.eglChooseConfig(display, configSpec, null, 0,
                 num_config)) {
             throw new IllegalArgumentException("eglChooseConfig failed");
         }
@@ -42,17 +64,20 @@ public abstract class BaseConfigChooser implements EGLConfigChooser {
         final int numConfigs = num_config[0];
 
         if (numConfigs <= 0) {
+            if (!required) {
+                return null;
+            }
             throw new IllegalArgumentException(
                     "No configs match configSpec");
         }
 
         final EGLConfig[] configs = new EGLConfig[numConfigs];
-        if (!egl.eglChooseConfig(display, mConfigSpec, configs, numConfigs,
+        if (!egl.eglChooseConfig(display, configSpec, configs, numConfigs,
                 num_config)) {
             throw new IllegalArgumentException("eglChooseConfig#2 failed");
         }
         final EGLConfig config = chooseConfig(egl, display, configs);
-        if (config == null) {
+        if (config == null && required) {
             throw new IllegalArgumentException("No config chosen");
         }
         return config;
@@ -62,6 +87,20 @@ public abstract class BaseConfigChooser implements EGLConfigChooser {
             EGLConfig[] configs);
 
     protected int[] mConfigSpec;
+    private int[] mPreservedConfigSpec;
+
+    private static int[] appendPreservedBit(int[] configSpec) {
+        /* We know none of the subclasses define EGL_SURFACE_TYPE.
+         * And we know the configSpec is well formed.
+         */
+        final int len = configSpec.length;
+        final int[] newConfigSpec = new int[len + 2];
+        System.arraycopy(configSpec, 0, newConfigSpec, 0, len-1);
+        newConfigSpec[len-1] = EGL10.EGL_SURFACE_TYPE;
+        newConfigSpec[len] = EGL10.EGL_WINDOW_BIT | 0x0400; /* EGL_SWAP_BEHAVIOR_PRESERVED_BIT */
+        newConfigSpec[len+1] = EGL10.EGL_NONE;
+        return newConfigSpec;
+    }
 
     private int[] filterConfigSpec(int[] configSpec) {
         if (mEGLContextClientVersion != 2 && mEGLContextClientVersion != 3) {
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * Receives calls which were blocked longer than a threshold.
+ *
+ * @see BlockingMetrics#setBlockingListener(BlockingListener, long)
+ */
+public interface BlockingListener {
+
+    /**
+     * Called on the blocked thread after it leaves the monitor. It's usually
+     * the main thread, or the rendering thread for
+     * {@link BlockingMetrics#RENDER_THREAD}. Don't block here.
+     *
+     * @param operation the blocked call, one of the operations of {@link BlockingMetrics}
+     * @param activity what the rendering thread was doing when the call acquired
+     *                 the monitor, or what it acquired the monitor for with
+     *                 {@link BlockingMetrics#RENDER_THREAD}, one of the constants
+     *                 of {@link RenderActivity}
+     * @param lockWaitNanos the time spent acquiring the monitor
+     * @param waitNanos the time spent waiting for the rendering thread after
+     *                  acquiring the monitor
+     */
+    void onBlocked(int operation, int activity, long lockWaitNanos, long waitNanos);
+}
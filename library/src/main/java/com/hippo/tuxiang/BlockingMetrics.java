@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time spent blocked on the rendering thread of a view.
+ * <p>
+ * Every acquisition of the monitor shared by the rendering threads is
+ * timed, and calls like {@link GLStuff#onPause()} also count the time
+ * spent waiting for the rendering thread to react. Each call is attributed
+ * to the {@link RenderActivity} of the rendering thread when the call
+ * acquired the monitor.
+ * Read the statistics any time by {@link #snapshot()}, or get slow calls
+ * by {@link BlockingListener}.
+ *
+ * @see GLStuff#getBlockingMetrics()
+ */
+public final class BlockingMetrics {
+
+    /**
+     * {@link GLStuff#onPause()}, waits until the rendering thread is paused.
+     */
+    public static final int PAUSE = 0;
+
+    /**
+     * {@link GLStuff#onResume()}, waits until the rendering thread is resumed.
+     */
+    public static final int RESUME = 1;
+
+    /**
+     * The surface is created, waits until the EGL surface is created.
+     */
+    public static final int SURFACE_CREATED = 2;
+
+    /**
+     * The surface is destroyed, waits until the EGL surface is destroyed.
+     */
+    public static final int SURFACE_DESTROYED = 3;
+
+    /**
+     * The surface is resized, waits until a frame is drawn at the new size.
+     */
+    public static final int WINDOW_RESIZE = 4;
+
+    /**
+     * Waits until a requested frame is drawn, e.g. on surface redraw.
+     */
+    public static final int REQUEST_RENDER_AND_WAIT = 5;
+
+    /**
+     * Waits until the rendering thread exits.
+     */
+    public static final int REQUEST_EXIT = 6;
+
+    /**
+     * Other calls which only take the monitor, like
+     * {@link GLStuff#requestRender()} and {@link GLStuff#queueEvent(Runnable)}.
+     */
+    public static final int OTHER = 7;
+
+    /**
+     * Monitor acquisitions of the rendering thread itself. The monitor is
+     * shared by the rendering threads of all views, so the contention may
+     * come from other views. They are not counted by
+     * {@link #getActivityCount(int)} and {@link #getActivityNanos(int)}.
+     */
+    public static final int RENDER_THREAD = 8;
+
+    private static final int OPERATION_COUNT = 9;
+
+    private final LatencyHistogram[] mLockWaitHistograms = new LatencyHistogram[OPERATION_COUNT];
+    private final LatencyHistogram[] mWaitHistograms = new LatencyHistogram[OPERATION_COUNT];
+    private final AtomicLongArray mActivityCounts = new AtomicLongArray(RenderActivity.COUNT);
+    private final AtomicLongArray mActivityNanos = new AtomicLongArray(RenderActivity.COUNT);
+    private volatile BlockingListener mListener;
+    private volatile long mThresholdNanos;
+
+    BlockingMetrics() {
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            mLockWaitHistograms[i] = new LatencyHistogram();
+            mWaitHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Set a listener to receive calls blocked at least {@code thresholdNanos},
+     * counting both the monitor acquisition and the wait.
+     */
+    public void setBlockingListener(BlockingListener listener, long thresholdNanos) {
+        mThresholdNanos = thresholdNanos;
+        mListener = listener;
+    }
+
+    /**
+     * @return the live histogram of the time spent acquiring the monitor
+     */
+    public LatencyHistogram getLockWaitHistogram(int operation) {
+        return mLockWaitHistograms[operation];
+    }
+
+    /**
+     * @return the live histogram of the time spent waiting for the rendering
+     * thread after acquiring the monitor, empty for {@link #OTHER}
+     * and {@link #RENDER_THREAD}
+     */
+    public LatencyHistogram getWaitHistogram(int operation) {
+        return mWaitHistograms[operation];
+    }
+
+    /**
+     * @return the number of calls which acquired the monitor during the activity,
+     * excluding {@link #RENDER_THREAD}
+     */
+    public long getActivityCount(int activity) {
+        return mActivityCounts.get(activity);
+    }
+
+    /**
+     * @return the total time blocked by calls which acquired the monitor during
+     * the activity, excluding {@link #RENDER_THREAD}
+     */
+    public long getActivityNanos(int activity) {
+        return mActivityNanos.get(activity);
+    }
+
+    /**
+     * Clear all recorded calls.
+     */
+    public void reset() {
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            mLockWaitHistograms[i].reset();
+            mWaitHistograms[i].reset();
+        }
+        for (int i = 0; i < RenderActivity.COUNT; i++) {
+            mActivityCounts.set(i, 0);
+            mActivityNanos.set(i, 0);
+        }
+    }
+
+    /**
+     * @return a copy of all histograms and counters
+     */
+    public Snapshot snapshot() {
+        final LatencyHistogram.Snapshot[] lockWaits = new LatencyHistogram.Snapshot[OPERATION_COUNT];
+        final LatencyHistogram.Snapshot[] waits = new LatencyHistogram.Snapshot[OPERATION_COUNT];
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            lockWaits[i] = mLockWaitHistograms[i].snapshot();
+            waits[i] = mWaitHistograms[i].snapshot();
+        }
+        final long[] activityCounts = new long[RenderActivity.COUNT];
+        final long[] activityNanos = new long[RenderActivity.COUNT];
+        for (int i = 0; i < RenderActivity.COUNT; i++) {
+            activityCounts[i] = mActivityCounts.get(i);
+            activityNanos[i] = mActivityNanos.get(i);
+        }
+        return new Snapshot(lockWaits, waits, activityCounts, activityNanos);
+    }
+
+    /**
+     * Called after a call leaves the monitor.
+     *
+     * @param activity the activity of the rendering thread when the call acquired
+     *                 the monitor, or the one the monitor is acquired for with
+     *                 {@link #RENDER_THREAD}
+     * @param start the time the call started to acquire the monitor
+     * @param locked the time the call acquired the monitor
+     * @param end the time the call left the monitor
+     */
+    void record(int operation, int activity, long start, long locked, long end) {
+        final long lockWait = locked - start;
+        mLockWaitHistograms[operation].record(lockWait);
+        long wait = 0;
+        if (operation < OTHER) {
+            wait = end - locked;
+            mWaitHistograms[operation].record(wait);
+        }
+        if (operation != RENDER_THREAD) {
+            mActivityCounts.incrementAndGet(activity);
+            mActivityNanos.addAndGet(activity, lockWait + wait);
+        }
+
+        final BlockingListener listener = mListener;
+        if (listener != null && lockWait + wait >= mThresholdNanos) {
+            listener.onBlocked(operation, activity, lockWait, wait);
+        }
+    }
+
+    /**
+     * An immutable copy of {@link BlockingMetrics}.
+     */
+    public static final class Snapshot {
+
+        private final LatencyHistogram.Snapshot[] mLockWaitHistograms;
+        private final LatencyHistogram.Snapshot[] mWaitHistograms;
+        private final long[] mActivityCounts;
+        private final long[] mActivityNanos;
+
+        Snapshot(LatencyHistogram.Snapshot[] lockWaitHistograms,
+                LatencyHistogram.Snapshot[] waitHistograms, long[] activityCounts,
+                long[] activityNanos) {
+            mLockWaitHistograms = lockWaitHistograms;
+            mWaitHistograms = waitHistograms;
+            mActivityCounts = activityCounts;
+            mActivityNanos = activityNanos;
+        }
+
+        public LatencyHistogram.Snapshot getLockWaitHistogram(int operation) {
+            return mLockWaitHistograms[operation];
+        }
+
+        public LatencyHistogram.Snapshot getWaitHistogram(int operation) {
+            return mWaitHistograms[operation];
+        }
+
+        public long getActivityCount(int activity) {
+            return mActivityCounts[activity];
+        }
+
+        public long getActivityNanos(int activity) {
+            return mActivityNanos[activity];
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * The area of the surface which changes in a frame.
+ * <p>
+ * All rectangles are in window coordinates, the origin is the bottom left
+ * corner of the surface, the same as {@code glScissor()} and {@code glViewport()}.
+ * <p>
+ * An empty region means the whole surface is damaged.
+ *
+ * @see DamageRenderer
+ */
+public final class DamageRegion {
+
+    /**
+     * The max number of rectangles in a region. If more rectangles are added,
+     * all of them are merged into their bounds. Keep it in sync with egl_ext.c.
+     */
+    public static final int MAX_RECTS = 8;
+
+    // x, y, width, height
+    final int[] mRects = new int[MAX_RECTS * 4];
+    int mRectCount;
+    private boolean mFull;
+    private int mSurfaceWidth;
+    private int mSurfaceHeight;
+
+    private boolean mRepaintFull;
+    private int mRepaintX;
+    private int mRepaintY;
+    private int mRepaintWidth;
+    private int mRepaintHeight;
+
+    DamageRegion() {}
+
+    void reset(int surfaceWidth, int surfaceHeight) {
+        mRectCount = 0;
+        mFull = false;
+        mSurfaceWidth = surfaceWidth;
+        mSurfaceHeight = surfaceHeight;
+        setRepaintFull();
+    }
+
+    /**
+     * Add a damaged rectangle. The rectangle is clipped to the surface.
+     */
+    public void add(int x, int y, int width, int height) {
+        if (mFull) {
+            return;
+        }
+
+        // Clip
+        final int right = Math.min(x + width, mSurfaceWidth);
+        final int top = Math.min(y + height, mSurfaceHeight);
+        x = Math.max(x, 0);
+        y = Math.max(y, 0);
+        width = right - x;
+        height = top - y;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (mRectCount == MAX_RECTS) {
+            getBounds(mRects);
+            mRectCount = 1;
+        }
+
+        final int offset = mRectCount * 4;
+        mRects[offset] = x;
+        mRects[offset + 1] = y;
+        mRects[offset + 2] = width;
+        mRects[offset + 3] = height;
+        mRectCount++;
+    }
+
+    /**
+     * Mark the whole surface damaged.
+     */
+    public void addAll() {
+        mFull = true;
+        mRectCount = 0;
+    }
+
+    /**
+     * @return {@code true} if the whole surface is damaged
+     */
+    public boolean isFull() {
+        return mFull || mRectCount == 0;
+    }
+
+    public int getSurfaceWidth() {
+        return mSurfaceWidth;
+    }
+
+    public int getSurfaceHeight() {
+        return mSurfaceHeight;
+    }
+
+    /**
+     * Returns whether the renderer must repaint the whole surface in
+     * {@link Renderer#onDrawFrame}. It is valid after
+     * {@link DamageRenderer#onComputeDamage(DamageRegion)} returns.
+     * <p>
+     * It is {@code true} if the region is full or if the content of
+     * the back buffer is unknown.
+     */
+    public boolean isRepaintFull() {
+        return mRepaintFull;
+    }
+
+    /**
+     * The left of the area which must be repainted in {@link Renderer#onDrawFrame}.
+     * It is the damage of this frame plus the damage of previous frames which
+     * the back buffer hasn't seen yet. Usually passed to {@code glScissor()}.
+     */
+    public int getRepaintX() {
+        return mRepaintX;
+    }
+
+    /**
+     * @see #getRepaintX()
+     */
+    public int getRepaintY() {
+        return mRepaintY;
+    }
+
+    /**
+     * @see #getRepaintX()
+     */
+    public int getRepaintWidth() {
+        return mRepaintWidth;
+    }
+
+    /**
+     * @see #getRepaintX()
+     */
+    public int getRepaintHeight() {
+        return mRepaintHeight;
+    }
+
+    void setRepaintFull() {
+        mRepaintFull = true;
+        mRepaintX = 0;
+        mRepaintY = 0;
+        mRepaintWidth = mSurfaceWidth;
+        mRepaintHeight = mSurfaceHeight;
+    }
+
+    void setRepaint(int x, int y, int width, int height) {
+        mRepaintFull = x <= 0 && y <= 0 && width >= mSurfaceWidth && height >= mSurfaceHeight;
+        mRepaintX = x;
+        mRepaintY = y;
+        mRepaintWidth = width;
+        mRepaintHeight = height;
+    }
+
+    /**
+     * Store the bounds of all damaged rectangles to {@code out} as x, y, width, height.
+     */
+    void getBounds(int[] out) {
+        if (isFull()) {
+            out[0] = 0;
+            out[1] = 0;
+            out[2] = mSurfaceWidth;
+            out[3] = mSurfaceHeight;
+            return;
+        }
+
+        int left = Integer.MAX_VALUE;
+        int bottom = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int top = Integer.MIN_VALUE;
+        for (int i = 0, n = mRectCount * 4; i < n; i += 4) {
+            left = Math.min(left, mRects[i]);
+            bottom = Math.min(bottom, mRects[i + 1]);
+            right = Math.max(right, mRects[i] + mRects[i + 2]);
+            top = Math.max(top, mRects[i + 1] + mRects[i + 3]);
+        }
+        out[0] = left;
+        out[1] = bottom;
+        out[2] = right - left;
+        out[3] = top - bottom;
+    }
+}
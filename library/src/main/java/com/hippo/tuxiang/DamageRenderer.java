@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * A {@link Renderer} which reports the area of the surface it changes
+ * in each frame.
+ * <p>
+ * The damage is used to swap buffers with {@code EGL_KHR_swap_buffers_with_damage}
+ * and to limit rendering with {@code EGL_KHR_partial_update}, so the compositor
+ * and the GPU only touch the changed area. If the extensions are missing,
+ * the whole surface is swapped as usual.
+ * <p>
+ * The flow of a frame is:
+ * <ol>
+ * <li>{@link #onComputeDamage(DamageRegion)} adds the changed rectangles to the region.
+ * <li>The repaint area of the region is calculated from the age of the back buffer.
+ * <li>{@link #onDrawFrame(GL10)} repaints at least the repaint area,
+ * see {@link DamageRegion#getRepaintX()}.
+ * <li>Buffers are swapped with the damage of the region.
+ * </ol>
+ * If damage is reported, {@link #onDrawFrame(GL10)} should return {@code true}.
+ */
+public interface DamageRenderer extends Renderer {
+
+    /**
+     * Called right before {@link #onDrawFrame(GL10)} to collect the damage of the frame.
+     * <p>
+     * Leave the region empty, or call {@link DamageRegion#addAll()}, to damage
+     * the whole surface. The region is only valid until {@link #onDrawFrame(GL10)} returns.
+     *
+     * @param damage the empty damage region of this frame
+     */
+    void onComputeDamage(DamageRegion damage);
+}
@@ -35,6 +35,13 @@ public class DefaultContextFactory implements EGLContextFactory {
         mEGLContextClientVersion = eglContextClientVersion;
     }
 
+    /**
+     * @return the EGLContext client version of the created contexts
+     */
+    public int getEGLContextClientVersion() {
+        return mEGLContextClientVersion;
+    }
+
     @Override
     public EGLContext createContext(EGL10 egl, EGLDisplay display, EGLConfig config) {
         final int[] attrib_list = {EGL_CONTEXT_CLIENT_VERSION, mEGLContextClientVersion,
@@ -49,9 +56,7 @@ public class DefaultContextFactory implements EGLContextFactory {
             EGLContext context) {
         if (!egl.eglDestroyContext(display, context)) {
             Log.e("DefaultContextFactory", "display:" + display + " context: " + context);
-            if (GLStuff.LOG_THREADS) {
-                Log.i("DefaultContextFactory", "tid=" + Thread.currentThread().getId());
-            }
+            GLLog.log(GLLog.EGL_DESTROY_CONTEXT_FAILED);
             EglHelper.throwEglException("eglDestroyContex", egl.eglGetError());
         }
     }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A pool of direct {@link ByteBuffer}s for vertex and pixel data.
+ * <p>
+ * Buffers are grouped into power-of-two size classes. {@link #acquire(int)}
+ * returns a pooled buffer of the smallest fitting class without allocating
+ * if there is one, and {@link #release(ByteBuffer)} puts it back. Buffers
+ * larger than the largest class are allocated and dropped on every use.
+ * <p>
+ * Every acquired buffer must be released. Outstanding buffers are reported
+ * when the rendering thread exits; with {@link #setLeakTracking(boolean)},
+ * the stack trace of each leaked acquisition is logged too. Releasing
+ * a buffer which isn't outstanding, e.g. twice, is logged and ignored.
+ * Free buffers are dropped when the rendering thread exits.
+ * <p>
+ * The pool is thread-safe.
+ *
+ * @see GLStuff#getDirectBufferPool()
+ */
+public final class DirectBufferPool {
+
+    private static final String TAG = "DirectBufferPool";
+
+    private static final int MIN_SHIFT = 8;
+    private static final int MAX_SHIFT = 26;
+    private static final int CLASS_COUNT = MAX_SHIFT - MIN_SHIFT + 1;
+
+    /**
+     * The smallest buffer capacity in the pool.
+     */
+    public static final int MIN_CLASS_SIZE = 1 << MIN_SHIFT;
+
+    /**
+     * The largest buffer capacity in the pool.
+     */
+    public static final int MAX_CLASS_SIZE = 1 << MAX_SHIFT;
+
+    private final ByteBuffer[][] mFree = new ByteBuffer[CLASS_COUNT][];
+    private final int[] mFreeCount = new int[CLASS_COUNT];
+    private long mMaxPooledBytes = 32 * 1024 * 1024;
+
+    // Outstanding buffers, mapped to where they are acquired if leak tracking is on
+    private final IdentityHashMap<ByteBuffer, Throwable> mOutstanding = new IdentityHashMap<>();
+    private boolean mLeakTracking;
+
+    private long mAcquireCount;
+    private long mAllocationCount;
+    private long mOutstandingBytes;
+    private long mPeakOutstandingBytes;
+    private long mPooledBytes;
+
+    DirectBufferPool() {}
+
+    /**
+     * Set the maximum total capacity of free buffers kept in the pool.
+     * The default is 32 MB.
+     */
+    public synchronized void setMaxPooledBytes(long maxPooledBytes) {
+        mMaxPooledBytes = maxPooledBytes;
+        trimTo(maxPooledBytes);
+    }
+
+    /**
+     * Record where each buffer is acquired, so leaks can be traced.
+     * It allocates on every acquisition, only use it for debugging.
+     * Buffers acquired before it's enabled have no stack trace.
+     */
+    public synchronized void setLeakTracking(boolean enabled) {
+        mLeakTracking = enabled;
+    }
+
+    /**
+     * Get a direct buffer in native order. The position is 0 and the limit is
+     * {@code size}, the capacity could be larger.
+     */
+    public synchronized ByteBuffer acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be non-negative: " + size);
+        }
+        mAcquireCount++;
+
+        final ByteBuffer buffer;
+        if (size > MAX_CLASS_SIZE) {
+            mAllocationCount++;
+            buffer = ByteBuffer.allocateDirect(size);
+        } else {
+            final int index = getClassIndex(size);
+            final int count = mFreeCount[index];
+            if (count > 0) {
+                buffer = mFree[index][count - 1];
+                mFree[index][count - 1] = null;
+                mFreeCount[index] = count - 1;
+                mPooledBytes -= buffer.capacity();
+            } else {
+                mAllocationCount++;
+                buffer = ByteBuffer.allocateDirect(1 << (index + MIN_SHIFT));
+            }
+        }
+
+        mOutstanding.put(buffer, mLeakTracking ? new Throwable("Acquired here") : null);
+        mOutstandingBytes += buffer.capacity();
+        if (mOutstandingBytes > mPeakOutstandingBytes) {
+            mPeakOutstandingBytes = mOutstandingBytes;
+        }
+
+        buffer.clear();
+        buffer.limit(size);
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+
+    /**
+     * Return a buffer acquired from this pool. The buffer must not be used
+     * after it.
+     */
+    public synchronized void release(ByteBuffer buffer) {
+        if (!mOutstanding.containsKey(buffer)) {
+            Log.w(TAG, "The buffer isn't acquired from this pool, or it is released twice");
+            return;
+        }
+        mOutstanding.remove(buffer);
+
+        final int capacity = buffer.capacity();
+        mOutstandingBytes -= capacity;
+
+        if (capacity > MAX_CLASS_SIZE || mPooledBytes + capacity > mMaxPooledBytes) {
+            return;
+        }
+        final int index = getClassIndex(capacity);
+
+        ByteBuffer[] free = mFree[index];
+        final int count = mFreeCount[index];
+        if (free == null || count == free.length) {
+            final ByteBuffer[] newFree = new ByteBuffer[count == 0 ? 4 : count * 2];
+            if (free != null) {
+                System.arraycopy(free, 0, newFree, 0, count);
+            }
+            free = newFree;
+            mFree[index] = free;
+        }
+        free[count] = buffer;
+        mFreeCount[index] = count + 1;
+        mPooledBytes += capacity;
+    }
+
+    private static int getClassIndex(int size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        // ceil(log2(size))
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Drop all free buffers.
+     */
+    public synchronized void trim() {
+        trimTo(0);
+    }
+
+    private void trimTo(long maxPooledBytes) {
+        // Drop large buffers first
+        for (int i = CLASS_COUNT - 1; i >= 0 && mPooledBytes > maxPooledBytes; i--) {
+            final ByteBuffer[] free = mFree[i];
+            int count = mFreeCount[i];
+            while (count > 0 && mPooledBytes > maxPooledBytes) {
+                count--;
+                mPooledBytes -= free[count].capacity();
+                free[count] = null;
+            }
+            mFreeCount[i] = count;
+        }
+    }
+
+    /**
+     * Called when the rendering thread exits.
+     */
+    synchronized void onGLThreadExit() {
+        trim();
+        if (!mOutstanding.isEmpty()) {
+            Log.w(TAG, mOutstanding.size() + " buffers (" + mOutstandingBytes
+                    + " bytes) are not released");
+            for (Map.Entry<ByteBuffer, Throwable> entry : mOutstanding.entrySet()) {
+                if (entry.getValue() != null) {
+                    Log.w(TAG, "Leaked " + entry.getKey().capacity() + " bytes", entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of {@link #acquire(int)} calls
+     */
+    public synchronized long getAcquireCount() {
+        return mAcquireCount;
+    }
+
+    /**
+     * @return the number of buffers allocated because no free buffer fits
+     */
+    public synchronized long getAllocationCount() {
+        return mAllocationCount;
+    }
+
+    /**
+     * @return the number of acquired buffers not released yet
+     */
+    public synchronized int getOutstandingCount() {
+        return mOutstanding.size();
+    }
+
+    /**
+     * @return the total capacity of acquired buffers not released yet
+     */
+    public synchronized long getOutstandingBytes() {
+        return mOutstandingBytes;
+    }
+
+    /**
+     * @return the highest {@link #getOutstandingBytes()} ever
+     */
+    public synchronized long getPeakOutstandingBytes() {
+        return mPeakOutstandingBytes;
+    }
+
+    /**
+     * @return the total capacity of free buffers in the pool
+     */
+    public synchronized long getPooledBytes() {
+        return mPooledBytes;
+    }
+
+    /**
+     * @return the number of free buffers in the size class of {@code size}
+     */
+    public synchronized int getFreeCount(int size) {
+        return size > MAX_CLASS_SIZE ? 0 : mFreeCount[getClassIndex(size)];
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * EGL extension entry points which are not exposed by
+ * {@link javax.microedition.khronos.egl.EGL10} or {@link android.opengl.EGL14}.
+ * <p>
+ * All methods work on the display and the draw surface which are
+ * current on the calling thread.
+ */
+final class EglExt {
+
+    static final int SWAP_BUFFERS_WITH_DAMAGE_KHR = 1;
+    static final int SWAP_BUFFERS_WITH_DAMAGE_EXT = 1 << 1;
+    static final int SET_DAMAGE_REGION_KHR = 1 << 2;
+
+    private static boolean sInitialized;
+    private static int sEntryPoints;
+
+    private EglExt() {}
+
+    /**
+     * @return the entry points which could be resolved, a combination
+     * of the {@code SWAP_BUFFERS_WITH_DAMAGE_*} and
+     * {@code SET_DAMAGE_REGION_*} bits
+     */
+    public static synchronized int getEntryPoints() {
+        if (!sInitialized) {
+            sInitialized = true;
+            sEntryPoints = NativeLibrary.load() ? nativeInit() : 0;
+        }
+        return sEntryPoints;
+    }
+
+    /**
+     * eglSwapBuffersWithDamageKHR or eglSwapBuffersWithDamageEXT.
+     *
+     * @param rects x, y, width and height of each rectangle,
+     *              the origin is the bottom left corner of the surface
+     * @return the EGL error code
+     */
+    public static int swapBuffersWithDamage(boolean khr, int[] rects, int count) {
+        return nativeSwapBuffersWithDamage(khr, rects, count);
+    }
+
+    /**
+     * eglSetDamageRegionKHR.
+     *
+     * @param rects x, y, width and height of each rectangle,
+     *              the origin is the bottom left corner of the surface
+     * @return the EGL error code
+     */
+    public static int setDamageRegion(int[] rects, int count) {
+        return nativeSetDamageRegion(rects, count);
+    }
+
+    private static native int nativeInit();
+
+    private static native int nativeSwapBuffersWithDamage(boolean khr, int[] rects, int count);
+
+    private static native int nativeSetDamageRegion(int[] rects, int count);
+}
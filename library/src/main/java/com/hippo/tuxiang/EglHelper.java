@@ -16,8 +16,10 @@
 
 package com.hippo.tuxiang;
 
+import android.opengl.EGL14;
 import android.opengl.GLDebugHelper;
 import android.opengl.GLUtils;
+import android.os.Build;
 import android.support.annotation.NonNull;
 import android.util.Log;
 
@@ -38,21 +40,22 @@ import javax.microedition.khronos.opengles.GL;
  */
 class EglHelper {
     public EglHelper(WeakReference<GLStuff> glStuffWeakRef) {
+        this(glStuffWeakRef, (EGL10) EGLContext.getEGL());
+    }
+
+    /**
+     * @param egl the EGL implementation, tests pass a fake one
+     */
+    EglHelper(WeakReference<GLStuff> glStuffWeakRef, EGL10 egl) {
         mGLStuffViewWeakRef = glStuffWeakRef;
+        mEgl = egl;
     }
 
     /**
      * Initialize EGL for a given configuration spec.
      */
     public void start() {
-        if (GLStuff.LOG_EGL) {
-            Log.w("EglHelper", "start() tid=" + Thread.currentThread().getId());
-        }
-        /*
-         * Get an EGL instance
-         */
-        mEgl = (EGL10) EGLContext.getEGL();
-
+        GLLog.log(GLLog.EGL_START);
         /*
          * Get to the default display.
          */
@@ -69,6 +72,7 @@ class EglHelper {
         if(!mEgl.eglInitialize(mEglDisplay, version)) {
             throw new RuntimeException("eglInitialize failed");
         }
+        mExtensions = queryExtensions();
         final GLStuff stuff = mGLStuffViewWeakRef.get();
         if (stuff == null) {
             mEglConfig = null;
@@ -86,9 +90,7 @@ class EglHelper {
             mEglContext = null;
             throwEglException("createContext");
         }
-        if (GLStuff.LOG_EGL) {
-            Log.w("EglHelper", "createContext " + mEglContext + " tid=" + Thread.currentThread().getId());
-        }
+        GLLog.log(GLLog.EGL_CREATE_CONTEXT, System.identityHashCode(mEglContext));
 
         mEglSurface = null;
     }
@@ -96,13 +98,14 @@ class EglHelper {
     /**
      * Create an egl surface for the current SurfaceHolder surface. If a surface
      * already exists, destroy it before creating the new surface.
+     * <p>
+     * It isn't necessary to call it when only the size of the native window
+     * changes, see {@link #isNativeWindowChanged()}.
      *
      * @return true if the surface was created successfully.
      */
     public boolean createSurface() {
-        if (GLStuff.LOG_EGL) {
-            Log.w("EglHelper", "createSurface()  tid=" + Thread.currentThread().getId());
-        }
+        GLLog.log(GLLog.EGL_CREATE_SURFACE);
         /*
          * Check preconditions.
          */
@@ -117,7 +120,7 @@ class EglHelper {
         }
 
         /*
-         *  The window size has changed, so we need to create a new
+         *  The native window has changed, so we need to create a new
          *  surface.
          */
         destroySurfaceImp();
@@ -127,8 +130,9 @@ class EglHelper {
          */
         final GLStuff stuff = mGLStuffViewWeakRef.get();
         if (stuff != null) {
+            mNativeWindow = stuff.getNativeWindow();
             mEglSurface = stuff.getEGLWindowSurfaceFactory().createWindowSurface(mEgl,
-                    mEglDisplay, mEglConfig, stuff.getNativeWindow());
+                    mEglDisplay, mEglConfig, mNativeWindow);
         } else {
             mEglSurface = null;
         }
@@ -154,9 +158,65 @@ class EglHelper {
             return false;
         }
 
+        mBackBufferPreserved = stuff.getPreserveEGLBackBuffer() && preserveBackBuffer();
+
+        // The content of the new surface is unknown
+        invalidateDamageHistory();
+
         return true;
     }
 
+    /**
+     * Returns whether the native window of the view is not the one
+     * which the current surface is created for. The EGL window surface
+     * follows the size of its native window, so it only needs to be
+     * recreated if the native window itself has changed.
+     */
+    public boolean isNativeWindowChanged() {
+        if (mEglSurface == null) {
+            return true;
+        }
+        final GLStuff stuff = mGLStuffViewWeakRef.get();
+        return stuff != null && stuff.getNativeWindow() != mNativeWindow;
+    }
+
+    /**
+     * Forget the damage of previous frames, the next damaged frame
+     * will be repainted fully.
+     */
+    public void invalidateDamageHistory() {
+        mDamageHistorySize = 0;
+        mDamageRegionSet = false;
+    }
+
+    /**
+     * Set EGL_SWAP_BEHAVIOR of the current surface to EGL_BUFFER_PRESERVED.
+     * EGL10 can't set surface attributes, so EGL14 is used on the surface
+     * which has just been made current.
+     *
+     * @return true if the back buffer is preserved
+     */
+    private boolean preserveBackBuffer() {
+        if (!mEgl.eglGetConfigAttrib(mEglDisplay, mEglConfig, EGL10.EGL_SURFACE_TYPE, mValue)
+                || (mValue[0] & EGL_SWAP_BEHAVIOR_PRESERVED_BIT) == 0) {
+            GLLog.log(GLLog.EGL_NO_PRESERVED_BIT);
+            return false;
+        }
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return false;
+        }
+        if (!EGL14.eglSurfaceAttrib(EGL14.eglGetCurrentDisplay(),
+                EGL14.eglGetCurrentSurface(EGL14.EGL_DRAW),
+                EGL14.EGL_SWAP_BEHAVIOR, EGL14.EGL_BUFFER_PRESERVED)) {
+            logEglErrorAsWarning("EglHelper", "eglSurfaceAttrib", EGL14.eglGetError());
+            return false;
+        }
+
+        return mEgl.eglQuerySurface(mEglDisplay, mEglSurface, EGL14.EGL_SWAP_BEHAVIOR, mValue)
+                && mValue[0] == EGL14.EGL_BUFFER_PRESERVED;
+    }
+
     /**
      * Create a GL object for the current EGL context.
      */
@@ -168,6 +228,10 @@ class EglHelper {
             final GLWrapper glWrapper = stuff.getGLWrapper();
             if (glWrapper != null) {
                 gl = glWrapper.wrap(gl);
+                if (glWrapper instanceof StateCacheGLWrapper) {
+                    stuff.getGLResourceRegistry().addStateTracker(
+                            ((StateCacheGLWrapper) glWrapper).getTracker());
+                }
             }
 
             final int debugFlags = stuff.getDebugFlags();
@@ -186,21 +250,109 @@ class EglHelper {
         return gl;
     }
 
+    /**
+     * Calculate the repaint area of the damage region from the age of
+     * the back buffer, and limit rendering to it if EGL_KHR_partial_update
+     * is supported. Must be called before any rendering of the frame.
+     */
+    public void prepareDamage(DamageRegion damage) {
+        if (damage.isFull()) {
+            damage.setRepaintFull();
+            return;
+        }
+
+        int age = 0;
+        if (mBackBufferPreserved) {
+            // The back buffer always has the content of the last frame
+            age = 1;
+        } else if ((mExtensions & EXTENSION_BUFFER_AGE) != 0
+                && mEgl.eglQuerySurface(mEglDisplay, mEglSurface, EGL_BUFFER_AGE_EXT, mValue)) {
+            age = mValue[0];
+        }
+        // Age 0 means the content of the back buffer is unknown
+        if (age <= 0 || age - 1 > mDamageHistorySize) {
+            damage.setRepaintFull();
+            return;
+        }
+
+        // The back buffer misses the damage of the last (age - 1) frames
+        final int[] rect = mRepaintRect;
+        damage.getBounds(rect);
+        int left = rect[0];
+        int bottom = rect[1];
+        int right = rect[0] + rect[2];
+        int top = rect[1] + rect[3];
+        for (int i = 0, n = (age - 1) * 4; i < n; i += 4) {
+            left = Math.min(left, mDamageHistory[i]);
+            bottom = Math.min(bottom, mDamageHistory[i + 1]);
+            right = Math.max(right, mDamageHistory[i] + mDamageHistory[i + 2]);
+            top = Math.max(top, mDamageHistory[i + 1] + mDamageHistory[i + 3]);
+        }
+        damage.setRepaint(left, bottom, right - left, top - bottom);
+
+        // The damage region can only be set once between two swaps
+        if ((mExtensions & EXTENSION_PARTIAL_UPDATE) != 0 && !damage.isRepaintFull()
+                && !mDamageRegionSet) {
+            rect[0] = left;
+            rect[1] = bottom;
+            rect[2] = right - left;
+            rect[3] = top - bottom;
+            final int error = EglExt.setDamageRegion(rect, 1);
+            if (error == EGL10.EGL_SUCCESS) {
+                mDamageRegionSet = true;
+            } else {
+                logEglErrorAsWarning("EglHelper", "eglSetDamageRegionKHR", error);
+            }
+        }
+    }
+
     /**
      * Display the current render surface.
      * @return the EGL error code from eglSwapBuffers.
      */
     public int swap() {
-        if (! mEgl.eglSwapBuffers(mEglDisplay, mEglSurface)) {
-            return mEgl.eglGetError();
+        return swap(null);
+    }
+
+    /**
+     * Display the damaged area of the current render surface.
+     * Fall back to {@link #swap()} if EGL_KHR_swap_buffers_with_damage
+     * is not supported.
+     * @param damage the damage of this frame, {@code null} for the whole surface
+     * @return the EGL error code from eglSwapBuffers.
+     */
+    public int swap(DamageRegion damage) {
+        int error = EGL10.EGL_SUCCESS;
+        if (damage != null && !damage.isFull()
+                && (mExtensions & EXTENSION_SWAP_BUFFERS_WITH_DAMAGE) != 0) {
+            error = EglExt.swapBuffersWithDamage(
+                    (mExtensions & EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_KHR) != 0,
+                    damage.mRects, damage.mRectCount);
+        } else if (! mEgl.eglSwapBuffers(mEglDisplay, mEglSurface)) {
+            error = mEgl.eglGetError();
         }
-        return EGL10.EGL_SUCCESS;
+
+        if (error == EGL10.EGL_SUCCESS) {
+            mDamageRegionSet = false;
+            if (damage != null) {
+                pushDamageHistory(damage);
+            } else {
+                mDamageHistorySize = 0;
+            }
+        }
+        return error;
+    }
+
+    private void pushDamageHistory(DamageRegion damage) {
+        final int size = Math.min(mDamageHistorySize + 1, MAX_DAMAGE_HISTORY);
+        System.arraycopy(mDamageHistory, 0, mDamageHistory, 4, (size - 1) * 4);
+        damage.getBounds(mRepaintRect);
+        System.arraycopy(mRepaintRect, 0, mDamageHistory, 0, 4);
+        mDamageHistorySize = size;
     }
 
     public void destroySurface() {
-        if (GLStuff.LOG_EGL) {
-            Log.w("EglHelper", "destroySurface()  tid=" + Thread.currentThread().getId());
-        }
+        GLLog.log(GLLog.EGL_DESTROY_SURFACE);
         destroySurfaceImp();
     }
 
@@ -214,13 +366,13 @@ class EglHelper {
                 stuff.getEGLWindowSurfaceFactory().destroySurface(mEgl, mEglDisplay, mEglSurface);
             }
             mEglSurface = null;
+            mNativeWindow = null;
+            mBackBufferPreserved = false;
         }
     }
 
     public void finish() {
-        if (GLStuff.LOG_EGL) {
-            Log.w("EglHelper", "finish() tid=" + Thread.currentThread().getId());
-        }
+        GLLog.log(GLLog.EGL_FINISH);
         if (mEglContext != null) {
             final GLStuff stuff = mGLStuffViewWeakRef.get();
             if (stuff != null) {
@@ -239,12 +391,8 @@ class EglHelper {
     }
 
     public static void throwEglException(String function, int error) {
-        final String message = formatEglError(function, error);
-        if (GLStuff.LOG_THREADS) {
-            Log.e("EglHelper", "throwEglException tid=" + Thread.currentThread().getId() + " "
-                    + message);
-        }
-        throw new RuntimeException(message);
+        GLLog.log(GLLog.EGL_EXCEPTION, function, error);
+        throw new RuntimeException(formatEglError(function, error));
     }
 
     public static void logEglErrorAsWarning(String tag, String function, int error) {
@@ -255,13 +403,82 @@ class EglHelper {
         return function + " failed: " + GLUtils.getEGLErrorString(error);
     }
 
+    private int queryExtensions() {
+        final String extensions = mEgl.eglQueryString(mEglDisplay, EGL10.EGL_EXTENSIONS);
+        final boolean partialUpdate = hasExtension(extensions, "EGL_KHR_partial_update");
+        int result = 0;
+
+        if (partialUpdate || hasExtension(extensions, "EGL_EXT_buffer_age")) {
+            result |= EXTENSION_BUFFER_AGE;
+        }
+
+        // Only touch the native library if the display has something to offer
+        final boolean swapWithDamageKhr = hasExtension(extensions, "EGL_KHR_swap_buffers_with_damage");
+        final boolean swapWithDamageExt = hasExtension(extensions, "EGL_EXT_swap_buffers_with_damage");
+        if (partialUpdate || swapWithDamageKhr || swapWithDamageExt) {
+            final int entryPoints = EglExt.getEntryPoints();
+            if (swapWithDamageKhr && (entryPoints & EglExt.SWAP_BUFFERS_WITH_DAMAGE_KHR) != 0) {
+                result |= EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_KHR;
+            } else if (swapWithDamageExt && (entryPoints & EglExt.SWAP_BUFFERS_WITH_DAMAGE_EXT) != 0) {
+                result |= EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_EXT;
+            }
+            if (partialUpdate && (entryPoints & EglExt.SET_DAMAGE_REGION_KHR) != 0) {
+                result |= EXTENSION_PARTIAL_UPDATE;
+            }
+        }
+
+        GLLog.log(GLLog.EGL_EXTENSIONS, result);
+        return result;
+    }
+
+    /**
+     * Check whether a space-separated extension string contains the extension.
+     */
+    public static boolean hasExtension(String extensions, String name) {
+        if (extensions == null) {
+            return false;
+        }
+        final int length = extensions.length();
+        int start = 0;
+        while ((start = extensions.indexOf(name, start)) != -1) {
+            final int end = start + name.length();
+            if ((start == 0 || extensions.charAt(start - 1) == ' ')
+                    && (end == length || extensions.charAt(end) == ' ')) {
+                return true;
+            }
+            start = end;
+        }
+        return false;
+    }
+
+    private static final int EGL_BUFFER_AGE_EXT = 0x313D;
+    private static final int EGL_SWAP_BEHAVIOR_PRESERVED_BIT = 0x0400;
+
+    private static final int EXTENSION_BUFFER_AGE = 1;
+    private static final int EXTENSION_PARTIAL_UPDATE = 1 << 1;
+    private static final int EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_KHR = 1 << 2;
+    private static final int EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_EXT = 1 << 3;
+    private static final int EXTENSION_SWAP_BUFFERS_WITH_DAMAGE =
+            EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_KHR | EXTENSION_SWAP_BUFFERS_WITH_DAMAGE_EXT;
+
+    // Buffer ages larger than it cause a full repaint
+    private static final int MAX_DAMAGE_HISTORY = 4;
+
     private final WeakReference<GLStuff> mGLStuffViewWeakRef;
-    EGL10 mEgl;
+    final EGL10 mEgl;
     EGLDisplay mEglDisplay;
     EGLSurface mEglSurface;
     EGLConfig mEglConfig;
     EGLContext mEglContext;
-
+    private Object mNativeWindow;
+    private int mExtensions;
+    boolean mBackBufferPreserved;
+    private final int[] mValue = new int[1];
+    private final int[] mRepaintRect = new int[4];
+    // Damage bounds of the last swapped frames, the latest first
+    private final int[] mDamageHistory = new int[MAX_DAMAGE_HISTORY * 4];
+    private int mDamageHistorySize;
+    private boolean mDamageRegionSet;
 
     static class LogWriter extends Writer {
 
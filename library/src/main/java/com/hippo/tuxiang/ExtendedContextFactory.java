@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.util.Log;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+
+/**
+ * A {@link DefaultContextFactory} which also requests optional context attributes:
+ * <ul>
+ * <li>Context priority, {@code EGL_IMG_context_priority}
+ * <li>No error context, {@code EGL_KHR_create_context_no_error}
+ * </ul>
+ * Attributes which the display doesn't support are skipped. If the context
+ * can't be created with them, they are dropped one by one until it can.
+ * Call {@link #getGrantedPriority()} and {@link #isNoErrorGranted()} to
+ * know which ones the last created context got.
+ * <pre class="prettyprint">
+ * view.setEGLContextFactory(new ExtendedContextFactory.Builder()
+ *         .setClientVersion(2)
+ *         .setPriority(ExtendedContextFactory.PRIORITY_HIGH)
+ *         .setNoError(!BuildConfig.DEBUG)
+ *         .build());
+ * </pre>
+ */
+public class ExtendedContextFactory extends DefaultContextFactory {
+
+    private static final String TAG = "ExtendedContextFactory";
+
+    /**
+     * Don't request context priority.
+     */
+    public static final int PRIORITY_DEFAULT = 0;
+
+    /**
+     * {@code EGL_CONTEXT_PRIORITY_HIGH_IMG}
+     */
+    public static final int PRIORITY_HIGH = 0x3101;
+
+    /**
+     * {@code EGL_CONTEXT_PRIORITY_MEDIUM_IMG}
+     */
+    public static final int PRIORITY_MEDIUM = 0x3102;
+
+    /**
+     * {@code EGL_CONTEXT_PRIORITY_LOW_IMG}
+     */
+    public static final int PRIORITY_LOW = 0x3103;
+
+    private static final int EGL_CONTEXT_CLIENT_VERSION = 0x3098;
+    private static final int EGL_CONTEXT_PRIORITY_LEVEL_IMG = 0x3100;
+    private static final int EGL_CONTEXT_OPENGL_NO_ERROR_KHR = 0x31B3;
+
+    private final int mPriority;
+    private final boolean mNoError;
+
+    private volatile int mGrantedPriority = PRIORITY_DEFAULT;
+    private volatile boolean mNoErrorGranted;
+
+    private ExtendedContextFactory(Builder builder) {
+        super(builder.mClientVersion);
+        mPriority = builder.mPriority;
+        mNoError = builder.mNoError;
+    }
+
+    @Override
+    public EGLContext createContext(EGL10 egl, EGLDisplay display, EGLConfig config) {
+        final String extensions = egl.eglQueryString(display, EGL10.EGL_EXTENSIONS);
+        boolean priority = mPriority != PRIORITY_DEFAULT
+                && EglHelper.hasExtension(extensions, "EGL_IMG_context_priority");
+        // No error contexts are only defined for OpenGL ES 2.0 and later
+        boolean noError = mNoError && getEGLContextClientVersion() >= 2
+                && EglHelper.hasExtension(extensions, "EGL_KHR_create_context_no_error");
+
+        while (true) {
+            final EGLContext context = egl.eglCreateContext(display, config,
+                    EGL10.EGL_NO_CONTEXT, buildAttribList(priority, noError));
+
+            if (context != null && context != EGL10.EGL_NO_CONTEXT) {
+                mGrantedPriority = priority ? queryPriority(egl, display, context) : PRIORITY_DEFAULT;
+                mNoErrorGranted = noError;
+                GLLog.log(GLLog.EGL_CONTEXT_ATTRIBS, mGrantedPriority, mNoErrorGranted ? 1 : 0);
+                return context;
+            }
+
+            // Drop the optional attributes one by one
+            if (noError) {
+                Log.w(TAG, "Can't create no error context, retry without it");
+                noError = false;
+            } else if (priority) {
+                Log.w(TAG, "Can't create context with priority, retry without it");
+                priority = false;
+            } else {
+                mGrantedPriority = PRIORITY_DEFAULT;
+                mNoErrorGranted = false;
+                return context;
+            }
+        }
+    }
+
+    private int[] buildAttribList(boolean priority, boolean noError) {
+        final int clientVersion = getEGLContextClientVersion();
+        final int[] attribList = new int[7];
+        int i = 0;
+        if (clientVersion != 0) {
+            attribList[i++] = EGL_CONTEXT_CLIENT_VERSION;
+            attribList[i++] = clientVersion;
+        }
+        if (priority) {
+            attribList[i++] = EGL_CONTEXT_PRIORITY_LEVEL_IMG;
+            attribList[i++] = mPriority;
+        }
+        if (noError) {
+            attribList[i++] = EGL_CONTEXT_OPENGL_NO_ERROR_KHR;
+            attribList[i++] = 1; /* EGL_TRUE */
+        }
+        if (i == 0) {
+            return null;
+        }
+        attribList[i] = EGL10.EGL_NONE;
+        return attribList;
+    }
+
+    // The driver may create a context with a different priority silently
+    private static int queryPriority(EGL10 egl, EGLDisplay display, EGLContext context) {
+        final int[] value = new int[1];
+        if (egl.eglQueryContext(display, context, EGL_CONTEXT_PRIORITY_LEVEL_IMG, value)) {
+            return value[0];
+        }
+        return PRIORITY_DEFAULT;
+    }
+
+    /**
+     * Get the priority of the last created context, one of
+     * {@link #PRIORITY_HIGH}, {@link #PRIORITY_MEDIUM} and {@link #PRIORITY_LOW}.
+     * {@link #PRIORITY_DEFAULT} if the priority isn't requested, isn't supported,
+     * or no context has been created.
+     */
+    public int getGrantedPriority() {
+        return mGrantedPriority;
+    }
+
+    /**
+     * Returns whether the last created context is a no error context.
+     * {@code glGetError()} of a no error context may always return {@code GL_NO_ERROR},
+     * so {@link GLStuff#DEBUG_CHECK_GL_ERROR} is useless for it.
+     */
+    public boolean isNoErrorGranted() {
+        return mNoErrorGranted;
+    }
+
+    public static final class Builder {
+
+        private int mClientVersion;
+        private int mPriority = PRIORITY_DEFAULT;
+        private boolean mNoError;
+
+        /**
+         * Set EGLContext client version, the same as
+         * {@link GLStuff#setEGLContextClientVersion(int)}. The default is 0.
+         */
+        public Builder setClientVersion(int version) {
+            mClientVersion = version;
+            return this;
+        }
+
+        /**
+         * Set the priority of the context, one of the PRIORITY_X constants.
+         * The default is {@link #PRIORITY_DEFAULT}.
+         */
+        public Builder setPriority(int priority) {
+            if (priority != PRIORITY_DEFAULT && priority != PRIORITY_HIGH
+                    && priority != PRIORITY_MEDIUM && priority != PRIORITY_LOW) {
+                throw new IllegalArgumentException("priority");
+            }
+            mPriority = priority;
+            return this;
+        }
+
+        /**
+         * Request a no error context, which skips error validation in the driver.
+         * The behavior of invalid GL calls is undefined in it, so it should only
+         * be requested in release builds. The default is false.
+         */
+        public Builder setNoError(boolean noError) {
+            mNoError = noError;
+            return this;
+        }
+
+        public ExtendedContextFactory build() {
+            return new ExtendedContextFactory(this);
+        }
+    }
+}
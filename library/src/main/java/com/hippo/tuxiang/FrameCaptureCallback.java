@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the pixels of a frame captured by {@link GLStuff#captureFrameAsync}.
+ */
+public interface FrameCaptureCallback {
+
+    /**
+     * Called on a background thread when the frame is read back.
+     * <p>
+     * The pixels are RGBA, 4 bytes per pixel, rows are tightly packed
+     * from the bottom of the frame to the top, like {@code glReadPixels()}.
+     *
+     * @param pixels the pixels, or {@code null} if the frame can't be captured,
+     *               e.g. the EGL context is lost. It is only valid in this method.
+     * @param width the width of the frame
+     * @param height the height of the frame
+     */
+    void onFrameCaptured(ByteBuffer pixels, int width, int height);
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLContext;
+
+/**
+ * Reads frames back for {@link GLStuff#captureFrameAsync}.
+ * <p>
+ * On OpenGL ES 3.0 with the native library, the frame is read into a pixel pack buffer right before
+ * the swap and guarded by a fence. The buffer is mapped once the fence is
+ * signaled, which is checked before following frames, or by queued events
+ * if no frame is rendered. On OpenGL ES 2.0, the frame is read synchronously.
+ * Pixels are always delivered on a background thread, in buffers from
+ * the {@link DirectBufferPool} of the view.
+ */
+final class FrameCapturer {
+
+    private static final int MAX_IN_FLIGHT = 3;
+    private static final long POLL_DELAY_MILLIS = 4;
+
+    private final GLThread mGLThread;
+
+    private final Object mLock = new Object();
+    // Guarded by mLock
+    private final ArrayList<FrameCaptureCallback> mRequests = new ArrayList<>();
+    private HandlerThread mThread;
+    private Handler mHandler;
+
+    // Only accessed on the rendering thread
+    private boolean mInitialized;
+    private boolean mUseBuffers;
+    private final Slot[] mSlots = new Slot[MAX_IN_FLIGHT];
+    private int mBusyCount;
+    private boolean mPollScheduled;
+    private final int[] mValue = new int[1];
+
+    private final Runnable mPollEvent = new Runnable() {
+        @Override
+        public void run() {
+            mPollScheduled = false;
+            // The EGL context might be released while waiting
+            final EGL10 egl = (EGL10) EGLContext.getEGL();
+            if (egl.eglGetCurrentContext() != EGL10.EGL_NO_CONTEXT) {
+                poll();
+            }
+        }
+    };
+
+    private final Runnable mQueuePollEvent = new Runnable() {
+        @Override
+        public void run() {
+            mGLThread.queueEvent(mPollEvent);
+        }
+    };
+
+    FrameCapturer(GLThread glThread) {
+        mGLThread = glThread;
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            mSlots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Capture the next drawn frame. Could be called from any thread.
+     */
+    public void request(FrameCaptureCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("callback must not be null");
+        }
+        synchronized (mLock) {
+            mRequests.add(callback);
+        }
+    }
+
+    /**
+     * Called on the rendering thread after a frame is drawn, before it is swapped.
+     */
+    public void onFrameDrawn(int width, int height) {
+        synchronized (mLock) {
+            if (mRequests.isEmpty()) {
+                return;
+            }
+        }
+
+        if (!mInitialized) {
+            // The offset variant of glReadPixels is only in the native library
+            mUseBuffers = GlExt.isGLES3() && NativeLibrary.load();
+            if (mUseBuffers) {
+                final int[] buffers = new int[MAX_IN_FLIGHT];
+                GLES20.glGenBuffers(MAX_IN_FLIGHT, buffers, 0);
+                for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+                    mSlots[i].buffer = buffers[i];
+                }
+            }
+            mInitialized = true;
+        }
+
+        Slot slot = null;
+        if (mUseBuffers) {
+            for (Slot s : mSlots) {
+                if (s.callbacks.isEmpty()) {
+                    slot = s;
+                    break;
+                }
+            }
+            if (slot == null) {
+                // Wait for a free buffer, the requests get a later frame
+                return;
+            }
+        }
+
+        final ArrayList<FrameCaptureCallback> callbacks = new ArrayList<>();
+        synchronized (mLock) {
+            callbacks.addAll(mRequests);
+            mRequests.clear();
+        }
+
+        // Read the default framebuffer
+        GLES20.glGetIntegerv(GLES20.GL_FRAMEBUFFER_BINDING, mValue, 0);
+        final int framebuffer = mValue[0];
+        if (framebuffer != 0) {
+            GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, 0);
+        }
+
+        if (slot != null) {
+            readIntoBuffer(slot, width, height);
+            slot.callbacks.addAll(callbacks);
+            mBusyCount++;
+            schedulePoll();
+        } else {
+            final DirectBufferPool pool = mGLThread.getDirectBufferPool();
+            final ByteBuffer pixels = acquire(pool, width * height * 4);
+            GLES20.glReadPixels(0, 0, width, height, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE,
+                    pixels);
+            deliver(callbacks, pixels, width, height, pool);
+        }
+
+        if (framebuffer != 0) {
+            GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, framebuffer);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void readIntoBuffer(Slot slot, int width, int height) {
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_PACK_BUFFER, slot.buffer);
+        GLES20.glBufferData(GLES30.GL_PIXEL_PACK_BUFFER, width * height * 4, null,
+                GLES30.GL_STREAM_READ);
+        GlExt.glReadPixels(0, 0, width, height, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, 0);
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_PACK_BUFFER, 0);
+        slot.sync = GLES30.glFenceSync(GLES30.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        slot.width = width;
+        slot.height = height;
+    }
+
+    /**
+     * Deliver the frames which are read back. Called on the rendering thread.
+     */
+    public void poll() {
+        if (mBusyCount == 0) {
+            return;
+        }
+        for (Slot slot : mSlots) {
+            if (!slot.callbacks.isEmpty() && isSignaled(slot.sync)) {
+                deliverSlot(slot);
+                mBusyCount--;
+            }
+        }
+
+        if (mBusyCount != 0) {
+            schedulePoll();
+        }
+        synchronized (mLock) {
+            if (!mRequests.isEmpty()) {
+                // Some requests are waiting for a free buffer
+                mGLThread.requestRender();
+            }
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static boolean isSignaled(long sync) {
+        return GLES30.glClientWaitSync(sync, 0, 0) != GLES30.GL_TIMEOUT_EXPIRED;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void deliverSlot(Slot slot) {
+        GLES30.glDeleteSync(slot.sync);
+        slot.sync = 0;
+
+        final int size = slot.width * slot.height * 4;
+        final DirectBufferPool pool = mGLThread.getDirectBufferPool();
+        ByteBuffer pixels = null;
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_PACK_BUFFER, slot.buffer);
+        final ByteBuffer mapped = (ByteBuffer) GLES30.glMapBufferRange(
+                GLES30.GL_PIXEL_PACK_BUFFER, 0, size, GLES30.GL_MAP_READ_BIT);
+        if (mapped != null) {
+            pixels = acquire(pool, size);
+            pixels.put(mapped);
+            pixels.flip();
+            GLES30.glUnmapBuffer(GLES30.GL_PIXEL_PACK_BUFFER);
+        }
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_PACK_BUFFER, 0);
+
+        deliver(new ArrayList<>(slot.callbacks), pixels, slot.width, slot.height, pool);
+        slot.callbacks.clear();
+    }
+
+    private void schedulePoll() {
+        if (!mPollScheduled) {
+            mPollScheduled = true;
+            getHandler().postDelayed(mQueuePollEvent, POLL_DELAY_MILLIS);
+        }
+    }
+
+    private Handler getHandler() {
+        synchronized (mLock) {
+            if (mHandler == null) {
+                mThread = new HandlerThread("FrameCapturer");
+                mThread.start();
+                mHandler = new Handler(mThread.getLooper());
+            }
+            return mHandler;
+        }
+    }
+
+    private static ByteBuffer acquire(DirectBufferPool pool, int size) {
+        if (pool != null) {
+            return pool.acquire(size);
+        } else {
+            return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Deliver pixels on the background thread. The pixels are released
+     * to the pool after all callbacks return.
+     */
+    private void deliver(final ArrayList<FrameCaptureCallback> callbacks,
+            final ByteBuffer pixels, final int width, final int height,
+            final DirectBufferPool pool) {
+        getHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0, n = callbacks.size(); i < n; i++) {
+                        if (pixels != null) {
+                            pixels.position(0);
+                            pixels.limit(width * height * 4);
+                        }
+                        callbacks.get(i).onFrameCaptured(pixels, width, height);
+                    }
+                } finally {
+                    if (pixels != null && pool != null) {
+                        pool.release(pixels);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Called on the rendering thread when the EGL context is gone.
+     * Frames in flight are reported as failed.
+     */
+    public void onContextLost() {
+        for (Slot slot : mSlots) {
+            if (!slot.callbacks.isEmpty()) {
+                deliver(new ArrayList<>(slot.callbacks), null, slot.width, slot.height, null);
+                slot.callbacks.clear();
+            }
+            slot.buffer = 0;
+            slot.sync = 0;
+        }
+        mBusyCount = 0;
+        mInitialized = false;
+    }
+
+    /**
+     * Called when the rendering thread exits. Waiting requests are reported as failed.
+     * The buffer leak check of the pool runs after the pending deliveries,
+     * which still hold buffers from it.
+     */
+    public void release(final DirectBufferPool pool) {
+        onContextLost();
+        final ArrayList<FrameCaptureCallback> callbacks;
+        synchronized (mLock) {
+            callbacks = new ArrayList<>(mRequests);
+            mRequests.clear();
+        }
+        if (!callbacks.isEmpty()) {
+            deliver(callbacks, null, 0, 0, null);
+        }
+        synchronized (mLock) {
+            if (mThread != null) {
+                // Let the posted deliveries run
+                final HandlerThread thread = mThread;
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (pool != null) {
+                            pool.onGLThreadExit();
+                        }
+                        thread.quit();
+                    }
+                });
+                mThread = null;
+                mHandler = null;
+                return;
+            }
+        }
+        if (pool != null) {
+            pool.onGLThreadExit();
+        }
+    }
+
+    private static class Slot {
+        int buffer;
+        long sync;
+        int width;
+        int height;
+        final ArrayList<FrameCaptureCallback> callbacks = new ArrayList<>();
+    }
+}
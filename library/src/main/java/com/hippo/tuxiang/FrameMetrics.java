@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing of the frames rendered by the rendering thread of a view.
+ * <p>
+ * The rendering thread records the duration of each phase of each frame into
+ * {@link LatencyHistogram}s, without locking or allocating. Read them any time
+ * by {@link #snapshot()}, or get each frame by {@link FrameMetricsListener}.
+ * <p>
+ * A frame is dropped if the time between two frames covers more than one
+ * refresh period. Intervals in which the rendering thread waited for
+ * a render request are not counted, it was idle instead of late.
+ *
+ * @see GLStuff#getFrameMetrics()
+ */
+public final class FrameMetrics {
+
+    /**
+     * The time from the end of the previous frame to the end of this frame.
+     */
+    public static final int FRAME_INTERVAL = 0;
+
+    /**
+     * The time spent running queued events before the frame.
+     * Only recorded for frames with events.
+     */
+    public static final int EVENTS = 1;
+
+    /**
+     * The time spent in {@link Renderer#onSurfaceChanged}.
+     * Only recorded for frames after a size change.
+     */
+    public static final int SURFACE_CHANGED = 2;
+
+    /**
+     * The time spent in {@link Renderer#onDrawFrame}.
+     */
+    public static final int DRAW = 3;
+
+    /**
+     * The time spent swapping buffers.
+     */
+    public static final int SWAP = 4;
+
+    /**
+     * The time spent waiting on the monitor for something to do.
+     */
+    public static final int WAIT = 5;
+
+    private static final int METRIC_COUNT = 6;
+
+    private final LatencyHistogram[] mHistograms = new LatencyHistogram[METRIC_COUNT];
+    private final AtomicLong mFrameCount = new AtomicLong();
+    private final AtomicLong mDroppedFrameCount = new AtomicLong();
+    private volatile long mRefreshPeriod = 16666667;
+    private volatile FrameMetricsListener mListener;
+
+    // Only accessed on the rendering thread
+    private final long[] mLastFrameNanos = new long[METRIC_COUNT];
+    private int mLastDroppedFrames;
+
+    FrameMetrics() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            mHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Set the refresh period of the display, used to count dropped frames.
+     * The default is 60 Hz.
+     */
+    public void setRefreshPeriod(long nanos) {
+        mRefreshPeriod = nanos;
+    }
+
+    public long getRefreshPeriod() {
+        return mRefreshPeriod;
+    }
+
+    public void setFrameMetricsListener(FrameMetricsListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * @param metric one of {@link #FRAME_INTERVAL}, {@link #EVENTS},
+     *               {@link #SURFACE_CHANGED}, {@link #DRAW}, {@link #SWAP}
+     *               and {@link #WAIT}
+     * @return the live histogram of the metric
+     */
+    public LatencyHistogram getHistogram(int metric) {
+        return mHistograms[metric];
+    }
+
+    public long getFrameCount() {
+        return mFrameCount.get();
+    }
+
+    public long getDroppedFrameCount() {
+        return mDroppedFrameCount.get();
+    }
+
+    /**
+     * The duration of a metric in the last frame. Only valid on the rendering
+     * thread, e.g. in {@link FrameMetricsListener#onFrameMetrics(FrameMetrics)}.
+     *
+     * @return the duration in nanoseconds, 0 if it didn't happen
+     */
+    public long getLastFrameNanos(int metric) {
+        return mLastFrameNanos[metric];
+    }
+
+    /**
+     * The number of frames dropped before the last frame. Only valid on
+     * the rendering thread.
+     */
+    public int getLastDroppedFrames() {
+        return mLastDroppedFrames;
+    }
+
+    /**
+     * Clear all recorded frames.
+     */
+    public void reset() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            mHistograms[i].reset();
+        }
+        mFrameCount.set(0);
+        mDroppedFrameCount.set(0);
+    }
+
+    /**
+     * @return a copy of all histograms and counters
+     */
+    public Snapshot snapshot() {
+        final LatencyHistogram.Snapshot[] histograms = new LatencyHistogram.Snapshot[METRIC_COUNT];
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            histograms[i] = mHistograms[i].snapshot();
+        }
+        return new Snapshot(histograms, mFrameCount.get(), mDroppedFrameCount.get());
+    }
+
+    /**
+     * Called on the rendering thread after a frame.
+     *
+     * @param idle true if the rendering thread waited for a render request since the last frame
+     */
+    void onFrame(long interval, long events, long surfaceChanged, long draw, long swap,
+            long wait, boolean idle) {
+        final long[] last = mLastFrameNanos;
+        last[FRAME_INTERVAL] = interval;
+        last[EVENTS] = events;
+        last[SURFACE_CHANGED] = surfaceChanged;
+        last[DRAW] = draw;
+        last[SWAP] = swap;
+        last[WAIT] = wait;
+
+        if (interval > 0) {
+            mHistograms[FRAME_INTERVAL].record(interval);
+        }
+        if (events > 0) {
+            mHistograms[EVENTS].record(events);
+        }
+        if (surfaceChanged > 0) {
+            mHistograms[SURFACE_CHANGED].record(surfaceChanged);
+        }
+        mHistograms[DRAW].record(draw);
+        mHistograms[SWAP].record(swap);
+        mHistograms[WAIT].record(wait);
+        mFrameCount.incrementAndGet();
+
+        int dropped = 0;
+        final long period = mRefreshPeriod;
+        if (!idle && interval > 0 && period > 0) {
+            dropped = (int) ((interval + period / 2) / period) - 1;
+            if (dropped > 0) {
+                mDroppedFrameCount.addAndGet(dropped);
+            } else {
+                dropped = 0;
+            }
+        }
+        mLastDroppedFrames = dropped;
+
+        final FrameMetricsListener listener = mListener;
+        if (listener != null) {
+            listener.onFrameMetrics(this);
+        }
+    }
+
+    /**
+     * An immutable copy of {@link FrameMetrics}.
+     */
+    public static final class Snapshot {
+
+        private final LatencyHistogram.Snapshot[] mHistograms;
+        private final long mFrameCount;
+        private final long mDroppedFrameCount;
+
+        Snapshot(LatencyHistogram.Snapshot[] histograms, long frameCount,
+                long droppedFrameCount) {
+            mHistograms = histograms;
+            mFrameCount = frameCount;
+            mDroppedFrameCount = droppedFrameCount;
+        }
+
+        public LatencyHistogram.Snapshot getHistogram(int metric) {
+            return mHistograms[metric];
+        }
+
+        public long getFrameCount() {
+            return mFrameCount;
+        }
+
+        public long getDroppedFrameCount() {
+            return mDroppedFrameCount;
+        }
+    }
+}
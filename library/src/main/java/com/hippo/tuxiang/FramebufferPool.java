@@ -0,0 +1,371 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.opengl.GLES20;
+import android.util.Log;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * A pool of framebuffer objects for render-to-texture passes, keyed by
+ * size, color format and whether a depth buffer is attached.
+ * <p>
+ * {@link #acquire(int, int, int, boolean)} returns a free framebuffer
+ * with the same key if there is one, {@link #release(Framebuffer)} puts it
+ * back for the next pass. Free framebuffers are deleted when the pool grows
+ * over {@link #setMaxPooledBytes(long)}, and on memory pressure if the pool
+ * is registered by {@link android.content.Context#registerComponentCallbacks}.
+ * <p>
+ * The pool is a {@link GLResource}. After the EGL context is lost, free
+ * framebuffers are dropped and acquired ones are rebuilt, so
+ * {@link Framebuffer#getFramebuffer()} and {@link Framebuffer#getTexture()}
+ * should be read again instead of cached across frames. If a framebuffer
+ * can't be completed, the failure is logged; {@code acquire} returns
+ * {@code null} for a new one, and a rebuilt one keeps 0 as its names.
+ * <p>
+ * All methods except the {@link ComponentCallbacks2} ones must be called
+ * on the rendering thread.
+ */
+public final class FramebufferPool implements GLResource, ComponentCallbacks2 {
+
+    private static final String TAG = "FramebufferPool";
+
+    /**
+     * A framebuffer with a color texture and an optional depth renderbuffer.
+     */
+    public static final class Framebuffer {
+
+        private final int mWidth;
+        private final int mHeight;
+        private final int mFormat;
+        private final boolean mDepth;
+        private final int[] mNames = new int[3];
+        private boolean mAcquired;
+
+        Framebuffer(int width, int height, int format, boolean depth) {
+            mWidth = width;
+            mHeight = height;
+            mFormat = format;
+            mDepth = depth;
+        }
+
+        public int getFramebuffer() {
+            return mNames[0];
+        }
+
+        public int getTexture() {
+            return mNames[1];
+        }
+
+        /**
+         * @return the depth renderbuffer, or 0 if there isn't one
+         */
+        public int getDepthRenderbuffer() {
+            return mNames[2];
+        }
+
+        public int getWidth() {
+            return mWidth;
+        }
+
+        public int getHeight() {
+            return mHeight;
+        }
+
+        public int getFormat() {
+            return mFormat;
+        }
+
+        public boolean hasDepth() {
+            return mDepth;
+        }
+
+        boolean matches(int width, int height, int format, boolean depth) {
+            return mWidth == width && mHeight == height && mFormat == format && mDepth == depth;
+        }
+
+        long getByteCount() {
+            final long pixels = (long) mWidth * mHeight;
+            return pixels * (mFormat == GLES20.GL_RGB ? 3 : 4) + (mDepth ? pixels * 2 : 0);
+        }
+
+        /**
+         * @return false if the framebuffer is incomplete, nothing is left created
+         */
+        boolean create() {
+            GLES20.glGenTextures(1, mNames, 1);
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mNames[1]);
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+            GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, mFormat, mWidth, mHeight, 0,
+                    mFormat, GLES20.GL_UNSIGNED_BYTE, null);
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+
+            if (mDepth) {
+                GLES20.glGenRenderbuffers(1, mNames, 2);
+                GLES20.glBindRenderbuffer(GLES20.GL_RENDERBUFFER, mNames[2]);
+                GLES20.glRenderbufferStorage(GLES20.GL_RENDERBUFFER,
+                        GLES20.GL_DEPTH_COMPONENT16, mWidth, mHeight);
+                GLES20.glBindRenderbuffer(GLES20.GL_RENDERBUFFER, 0);
+            }
+
+            final int[] value = new int[1];
+            GLES20.glGetIntegerv(GLES20.GL_FRAMEBUFFER_BINDING, value, 0);
+            GLES20.glGenFramebuffers(1, mNames, 0);
+            GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, mNames[0]);
+            GLES20.glFramebufferTexture2D(GLES20.GL_FRAMEBUFFER, GLES20.GL_COLOR_ATTACHMENT0,
+                    GLES20.GL_TEXTURE_2D, mNames[1], 0);
+            if (mDepth) {
+                GLES20.glFramebufferRenderbuffer(GLES20.GL_FRAMEBUFFER,
+                        GLES20.GL_DEPTH_ATTACHMENT, GLES20.GL_RENDERBUFFER, mNames[2]);
+            }
+            final int status = GLES20.glCheckFramebufferStatus(GLES20.GL_FRAMEBUFFER);
+            GLES20.glBindFramebuffer(GLES20.GL_FRAMEBUFFER, value[0]);
+            if (status != GLES20.GL_FRAMEBUFFER_COMPLETE) {
+                Log.w(TAG, "Framebuffer incomplete: 0x" + Integer.toHexString(status)
+                        + ", " + mWidth + "x" + mHeight);
+                delete();
+                return false;
+            }
+            return true;
+        }
+
+        void delete() {
+            if (mNames[0] != 0) {
+                GLES20.glDeleteFramebuffers(1, mNames, 0);
+            }
+            if (mNames[1] != 0) {
+                GLES20.glDeleteTextures(1, mNames, 1);
+            }
+            if (mNames[2] != 0) {
+                GLES20.glDeleteRenderbuffers(1, mNames, 2);
+            }
+            forget();
+        }
+
+        void forget() {
+            mNames[0] = 0;
+            mNames[1] = 0;
+            mNames[2] = 0;
+        }
+    }
+
+    private final WeakReference<GLStuff> mGLStuffWeakRef;
+    private final GLResourceRegistry mRegistry;
+
+    // Free framebuffers, the most recently released last
+    private final ArrayList<Framebuffer> mFree = new ArrayList<>();
+    private final ArrayList<Framebuffer> mAcquired = new ArrayList<>();
+    private long mPooledBytes;
+    private long mMaxPooledBytes = 32 * 1024 * 1024;
+    private boolean mRestored;
+
+    private final Runnable mTrimEvent = new Runnable() {
+        @Override
+        public void run() {
+            trim();
+        }
+    };
+
+    private final Runnable mTrimHalfEvent = new Runnable() {
+        @Override
+        public void run() {
+            trimTo(mMaxPooledBytes / 2);
+        }
+    };
+
+    /**
+     * Create a pool and register it to the registry of the view.
+     */
+    public FramebufferPool(GLStuff stuff) {
+        mGLStuffWeakRef = new WeakReference<>(stuff);
+        mRegistry = stuff.getGLResourceRegistry();
+        mRegistry.register(this, GLResourceRegistry.PRIORITY_NORMAL);
+    }
+
+    /**
+     * Delete all framebuffers, including acquired ones, and unregister
+     * the pool from the registry.
+     */
+    public void release() {
+        if (mRestored) {
+            for (int i = 0, n = mFree.size(); i < n; i++) {
+                delete(mFree.get(i));
+            }
+            for (int i = 0, n = mAcquired.size(); i < n; i++) {
+                delete(mAcquired.get(i));
+            }
+        }
+        mFree.clear();
+        mAcquired.clear();
+        mPooledBytes = 0;
+        mRestored = false;
+        mRegistry.unregister(this);
+    }
+
+    /**
+     * Set the maximum total size of free framebuffers. The default is 32 MB.
+     */
+    public void setMaxPooledBytes(long maxPooledBytes) {
+        mMaxPooledBytes = maxPooledBytes;
+        trimTo(maxPooledBytes);
+    }
+
+    /**
+     * Get a framebuffer.
+     *
+     * @param format {@link GLES20#GL_RGBA} or {@link GLES20#GL_RGB}
+     * @param depth true to attach a 16-bit depth renderbuffer
+     * @return the framebuffer, or {@code null} if it can't be created
+     */
+    public Framebuffer acquire(int width, int height, int format, boolean depth) {
+        if (format != GLES20.GL_RGBA && format != GLES20.GL_RGB) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        mRegistry.ensureRestored(this);
+
+        Framebuffer framebuffer = null;
+        for (int i = mFree.size() - 1; i >= 0; i--) {
+            final Framebuffer f = mFree.get(i);
+            if (f.matches(width, height, format, depth)) {
+                mFree.remove(i);
+                mPooledBytes -= f.getByteCount();
+                framebuffer = f;
+                break;
+            }
+        }
+        if (framebuffer == null) {
+            framebuffer = new Framebuffer(width, height, format, depth);
+            final boolean created = framebuffer.create();
+            // The framebuffer binding is restored, renderbuffers are not tracked
+            mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+            if (!created) {
+                return null;
+            }
+        }
+        framebuffer.mAcquired = true;
+        mAcquired.add(framebuffer);
+        return framebuffer;
+    }
+
+    /**
+     * Put a framebuffer back to the pool. It must not be used after it.
+     */
+    public void release(Framebuffer framebuffer) {
+        if (!framebuffer.mAcquired || !mAcquired.remove(framebuffer)) {
+            throw new IllegalStateException("The framebuffer isn't acquired from this pool");
+        }
+        framebuffer.mAcquired = false;
+        if (framebuffer.getFramebuffer() == 0) {
+            // Created in a lost context
+            return;
+        }
+        mFree.add(framebuffer);
+        mPooledBytes += framebuffer.getByteCount();
+        trimTo(mMaxPooledBytes);
+    }
+
+    /**
+     * Delete all free framebuffers.
+     */
+    public void trim() {
+        trimTo(0);
+    }
+
+    private void trimTo(long maxPooledBytes) {
+        // Delete the least recently released first
+        while (mPooledBytes > maxPooledBytes && !mFree.isEmpty()) {
+            final Framebuffer framebuffer = mFree.remove(0);
+            mPooledBytes -= framebuffer.getByteCount();
+            delete(framebuffer);
+        }
+    }
+
+    private void delete(Framebuffer framebuffer) {
+        // Deleting a bound object reverts the binding to zero
+        mRegistry.onDeleteFramebuffers(1, framebuffer.mNames, 0);
+        mRegistry.onDeleteTextures(1, framebuffer.mNames, 1);
+        framebuffer.delete();
+    }
+
+    /**
+     * @return the total size of free framebuffers
+     */
+    public long getPooledBytes() {
+        return mPooledBytes;
+    }
+
+    public int getFreeCount() {
+        return mFree.size();
+    }
+
+    public int getAcquiredCount() {
+        return mAcquired.size();
+    }
+
+    @Override
+    public void onRestore() {
+        for (int i = 0, n = mAcquired.size(); i < n; i++) {
+            mAcquired.get(i).create();
+        }
+        mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        mRestored = true;
+    }
+
+    @Override
+    public void onContextLost() {
+        for (int i = 0, n = mFree.size(); i < n; i++) {
+            mFree.get(i).forget();
+        }
+        mFree.clear();
+        mPooledBytes = 0;
+        for (int i = 0, n = mAcquired.size(); i < n; i++) {
+            mAcquired.get(i).forget();
+        }
+        mRestored = false;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            queueEvent(mTrimEvent);
+        } else if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+            queueEvent(mTrimHalfEvent);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        queueEvent(mTrimEvent);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {}
+
+    private void queueEvent(Runnable event) {
+        final GLStuff stuff = mGLStuffWeakRef.get();
+        if (stuff != null) {
+            stuff.queueEvent(event);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * Identifiers of the GL entry points seen by {@link InterceptedGL}.
+ * Overloads of a method share one identifier.
+ */
+final class GLEntryPoints {
+
+    static final int GL_ACTIVE_TEXTURE = 0;
+    static final int GL_ALPHA_FUNC = 1;
+    static final int GL_ALPHA_FUNCX = 2;
+    static final int GL_BIND_TEXTURE = 3;
+    static final int GL_BLEND_FUNC = 4;
+    static final int GL_CLEAR = 5;
+    static final int GL_CLEAR_COLOR = 6;
+    static final int GL_CLEAR_COLORX = 7;
+    static final int GL_CLEAR_DEPTHF = 8;
+    static final int GL_CLEAR_DEPTHX = 9;
+    static final int GL_CLEAR_STENCIL = 10;
+    static final int GL_CLIENT_ACTIVE_TEXTURE = 11;
+    static final int GL_COLOR4F = 12;
+    static final int GL_COLOR4X = 13;
+    static final int GL_COLOR_MASK = 14;
+    static final int GL_COLOR_POINTER = 15;
+    static final int GL_COMPRESSED_TEX_IMAGE2_D = 16;
+    static final int GL_COMPRESSED_TEX_SUB_IMAGE2_D = 17;
+    static final int GL_COPY_TEX_IMAGE2_D = 18;
+    static final int GL_COPY_TEX_SUB_IMAGE2_D = 19;
+    static final int GL_CULL_FACE = 20;
+    static final int GL_DELETE_TEXTURES = 21;
+    static final int GL_DEPTH_FUNC = 22;
+    static final int GL_DEPTH_MASK = 23;
+    static final int GL_DEPTH_RANGEF = 24;
+    static final int GL_DEPTH_RANGEX = 25;
+    static final int GL_DISABLE = 26;
+    static final int GL_DISABLE_CLIENT_STATE = 27;
+    static final int GL_DRAW_ARRAYS = 28;
+    static final int GL_DRAW_ELEMENTS = 29;
+    static final int GL_ENABLE = 30;
+    static final int GL_ENABLE_CLIENT_STATE = 31;
+    static final int GL_FINISH = 32;
+    static final int GL_FLUSH = 33;
+    static final int GL_FOGF = 34;
+    static final int GL_FOGFV = 35;
+    static final int GL_FOGX = 36;
+    static final int GL_FOGXV = 37;
+    static final int GL_FRONT_FACE = 38;
+    static final int GL_FRUSTUMF = 39;
+    static final int GL_FRUSTUMX = 40;
+    static final int GL_GEN_TEXTURES = 41;
+    static final int GL_GET_ERROR = 42;
+    static final int GL_GET_INTEGERV = 43;
+    static final int GL_GET_STRING = 44;
+    static final int GL_HINT = 45;
+    static final int GL_LIGHT_MODELF = 46;
+    static final int GL_LIGHT_MODELFV = 47;
+    static final int GL_LIGHT_MODELX = 48;
+    static final int GL_LIGHT_MODELXV = 49;
+    static final int GL_LIGHTF = 50;
+    static final int GL_LIGHTFV = 51;
+    static final int GL_LIGHTX = 52;
+    static final int GL_LIGHTXV = 53;
+    static final int GL_LINE_WIDTH = 54;
+    static final int GL_LINE_WIDTHX = 55;
+    static final int GL_LOAD_IDENTITY = 56;
+    static final int GL_LOAD_MATRIXF = 57;
+    static final int GL_LOAD_MATRIXX = 58;
+    static final int GL_LOGIC_OP = 59;
+    static final int GL_MATERIALF = 60;
+    static final int GL_MATERIALFV = 61;
+    static final int GL_MATERIALX = 62;
+    static final int GL_MATERIALXV = 63;
+    static final int GL_MATRIX_MODE = 64;
+    static final int GL_MULT_MATRIXF = 65;
+    static final int GL_MULT_MATRIXX = 66;
+    static final int GL_MULTI_TEX_COORD4F = 67;
+    static final int GL_MULTI_TEX_COORD4X = 68;
+    static final int GL_NORMAL3F = 69;
+    static final int GL_NORMAL3X = 70;
+    static final int GL_NORMAL_POINTER = 71;
+    static final int GL_ORTHOF = 72;
+    static final int GL_ORTHOX = 73;
+    static final int GL_PIXEL_STOREI = 74;
+    static final int GL_POINT_SIZE = 75;
+    static final int GL_POINT_SIZEX = 76;
+    static final int GL_POLYGON_OFFSET = 77;
+    static final int GL_POLYGON_OFFSETX = 78;
+    static final int GL_POP_MATRIX = 79;
+    static final int GL_PUSH_MATRIX = 80;
+    static final int GL_READ_PIXELS = 81;
+    static final int GL_ROTATEF = 82;
+    static final int GL_ROTATEX = 83;
+    static final int GL_SAMPLE_COVERAGE = 84;
+    static final int GL_SAMPLE_COVERAGEX = 85;
+    static final int GL_SCALEF = 86;
+    static final int GL_SCALEX = 87;
+    static final int GL_SCISSOR = 88;
+    static final int GL_SHADE_MODEL = 89;
+    static final int GL_STENCIL_FUNC = 90;
+    static final int GL_STENCIL_MASK = 91;
+    static final int GL_STENCIL_OP = 92;
+    static final int GL_TEX_COORD_POINTER = 93;
+    static final int GL_TEX_ENVF = 94;
+    static final int GL_TEX_ENVFV = 95;
+    static final int GL_TEX_ENVX = 96;
+    static final int GL_TEX_ENVXV = 97;
+    static final int GL_TEX_IMAGE2_D = 98;
+    static final int GL_TEX_PARAMETERF = 99;
+    static final int GL_TEX_PARAMETERX = 100;
+    static final int GL_TEX_SUB_IMAGE2_D = 101;
+    static final int GL_TRANSLATEF = 102;
+    static final int GL_TRANSLATEX = 103;
+    static final int GL_VERTEX_POINTER = 104;
+    static final int GL_VIEWPORT = 105;
+    static final int GL_QUERY_MATRIXX_OES = 106;
+    static final int GL_GET_POINTERV = 107;
+    static final int GL_BIND_BUFFER = 108;
+    static final int GL_BUFFER_DATA = 109;
+    static final int GL_BUFFER_SUB_DATA = 110;
+    static final int GL_CLIP_PLANEF = 111;
+    static final int GL_CLIP_PLANEX = 112;
+    static final int GL_COLOR4UB = 113;
+    static final int GL_DELETE_BUFFERS = 114;
+    static final int GL_GEN_BUFFERS = 115;
+    static final int GL_GET_BOOLEANV = 116;
+    static final int GL_GET_BUFFER_PARAMETERIV = 117;
+    static final int GL_GET_CLIP_PLANEF = 118;
+    static final int GL_GET_CLIP_PLANEX = 119;
+    static final int GL_GET_FIXEDV = 120;
+    static final int GL_GET_FLOATV = 121;
+    static final int GL_GET_LIGHTFV = 122;
+    static final int GL_GET_LIGHTXV = 123;
+    static final int GL_GET_MATERIALFV = 124;
+    static final int GL_GET_MATERIALXV = 125;
+    static final int GL_GET_TEX_ENVIV = 126;
+    static final int GL_GET_TEX_ENVXV = 127;
+    static final int GL_GET_TEX_PARAMETERFV = 128;
+    static final int GL_GET_TEX_PARAMETERIV = 129;
+    static final int GL_GET_TEX_PARAMETERXV = 130;
+    static final int GL_IS_BUFFER = 131;
+    static final int GL_IS_ENABLED = 132;
+    static final int GL_IS_TEXTURE = 133;
+    static final int GL_POINT_PARAMETERF = 134;
+    static final int GL_POINT_PARAMETERFV = 135;
+    static final int GL_POINT_PARAMETERX = 136;
+    static final int GL_POINT_PARAMETERXV = 137;
+    static final int GL_POINT_SIZE_POINTER_OES = 138;
+    static final int GL_TEX_ENVI = 139;
+    static final int GL_TEX_ENVIV = 140;
+    static final int GL_TEX_PARAMETERFV = 141;
+    static final int GL_TEX_PARAMETERI = 142;
+    static final int GL_TEX_PARAMETERIV = 143;
+    static final int GL_TEX_PARAMETERXV = 144;
+    static final int GL_CURRENT_PALETTE_MATRIX_OES = 145;
+    static final int GL_DRAW_TEXF_OES = 146;
+    static final int GL_DRAW_TEXFV_OES = 147;
+    static final int GL_DRAW_TEXI_OES = 148;
+    static final int GL_DRAW_TEXIV_OES = 149;
+    static final int GL_DRAW_TEXS_OES = 150;
+    static final int GL_DRAW_TEXSV_OES = 151;
+    static final int GL_DRAW_TEXX_OES = 152;
+    static final int GL_DRAW_TEXXV_OES = 153;
+    static final int GL_LOAD_PALETTE_FROM_MODEL_VIEW_MATRIX_OES = 154;
+    static final int GL_MATRIX_INDEX_POINTER_OES = 155;
+    static final int GL_WEIGHT_POINTER_OES = 156;
+    static final int GL_BIND_FRAMEBUFFER_OES = 157;
+    static final int GL_BIND_RENDERBUFFER_OES = 158;
+    static final int GL_BLEND_EQUATION = 159;
+    static final int GL_BLEND_EQUATION_SEPARATE = 160;
+    static final int GL_BLEND_FUNC_SEPARATE = 161;
+    static final int GL_CHECK_FRAMEBUFFER_STATUS_OES = 162;
+    static final int GL_DELETE_FRAMEBUFFERS_OES = 163;
+    static final int GL_DELETE_RENDERBUFFERS_OES = 164;
+    static final int GL_FRAMEBUFFER_RENDERBUFFER_OES = 165;
+    static final int GL_FRAMEBUFFER_TEXTURE2_DOES = 166;
+    static final int GL_GENERATE_MIPMAP_OES = 167;
+    static final int GL_GEN_FRAMEBUFFERS_OES = 168;
+    static final int GL_GEN_RENDERBUFFERS_OES = 169;
+    static final int GL_GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV_OES = 170;
+    static final int GL_GET_RENDERBUFFER_PARAMETERIV_OES = 171;
+    static final int GL_GET_TEX_GENFV = 172;
+    static final int GL_GET_TEX_GENIV = 173;
+    static final int GL_GET_TEX_GENXV = 174;
+    static final int GL_IS_FRAMEBUFFER_OES = 175;
+    static final int GL_IS_RENDERBUFFER_OES = 176;
+    static final int GL_RENDERBUFFER_STORAGE_OES = 177;
+    static final int GL_TEX_GENF = 178;
+    static final int GL_TEX_GENFV = 179;
+    static final int GL_TEX_GENI = 180;
+    static final int GL_TEX_GENIV = 181;
+    static final int GL_TEX_GENX = 182;
+    static final int GL_TEX_GENXV = 183;
+
+    static final int COUNT = 184;
+
+    private static final String[] NAMES = {
+            "glActiveTexture",
+            "glAlphaFunc",
+            "glAlphaFuncx",
+            "glBindTexture",
+            "glBlendFunc",
+            "glClear",
+            "glClearColor",
+            "glClearColorx",
+            "glClearDepthf",
+            "glClearDepthx",
+            "glClearStencil",
+            "glClientActiveTexture",
+            "glColor4f",
+            "glColor4x",
+            "glColorMask",
+            "glColorPointer",
+            "glCompressedTexImage2D",
+            "glCompressedTexSubImage2D",
+            "glCopyTexImage2D",
+            "glCopyTexSubImage2D",
+            "glCullFace",
+            "glDeleteTextures",
+            "glDepthFunc",
+            "glDepthMask",
+            "glDepthRangef",
+            "glDepthRangex",
+            "glDisable",
+            "glDisableClientState",
+            "glDrawArrays",
+            "glDrawElements",
+            "glEnable",
+            "glEnableClientState",
+            "glFinish",
+            "glFlush",
+            "glFogf",
+            "glFogfv",
+            "glFogx",
+            "glFogxv",
+            "glFrontFace",
+            "glFrustumf",
+            "glFrustumx",
+            "glGenTextures",
+            "glGetError",
+            "glGetIntegerv",
+            "glGetString",
+            "glHint",
+            "glLightModelf",
+            "glLightModelfv",
+            "glLightModelx",
+            "glLightModelxv",
+            "glLightf",
+            "glLightfv",
+            "glLightx",
+            "glLightxv",
+            "glLineWidth",
+            "glLineWidthx",
+            "glLoadIdentity",
+            "glLoadMatrixf",
+            "glLoadMatrixx",
+            "glLogicOp",
+            "glMaterialf",
+            "glMaterialfv",
+            "glMaterialx",
+            "glMaterialxv",
+            "glMatrixMode",
+            "glMultMatrixf",
+            "glMultMatrixx",
+            "glMultiTexCoord4f",
+            "glMultiTexCoord4x",
+            "glNormal3f",
+            "glNormal3x",
+            "glNormalPointer",
+            "glOrthof",
+            "glOrthox",
+            "glPixelStorei",
+            "glPointSize",
+            "glPointSizex",
+            "glPolygonOffset",
+            "glPolygonOffsetx",
+            "glPopMatrix",
+            "glPushMatrix",
+            "glReadPixels",
+            "glRotatef",
+            "glRotatex",
+            "glSampleCoverage",
+            "glSampleCoveragex",
+            "glScalef",
+            "glScalex",
+            "glScissor",
+            "glShadeModel",
+            "glStencilFunc",
+            "glStencilMask",
+            "glStencilOp",
+            "glTexCoordPointer",
+            "glTexEnvf",
+            "glTexEnvfv",
+            "glTexEnvx",
+            "glTexEnvxv",
+            "glTexImage2D",
+            "glTexParameterf",
+            "glTexParameterx",
+            "glTexSubImage2D",
+            "glTranslatef",
+            "glTranslatex",
+            "glVertexPointer",
+            "glViewport",
+            "glQueryMatrixxOES",
+            "glGetPointerv",
+            "glBindBuffer",
+            "glBufferData",
+            "glBufferSubData",
+            "glClipPlanef",
+            "glClipPlanex",
+            "glColor4ub",
+            "glDeleteBuffers",
+            "glGenBuffers",
+            "glGetBooleanv",
+            "glGetBufferParameteriv",
+            "glGetClipPlanef",
+            "glGetClipPlanex",
+            "glGetFixedv",
+            "glGetFloatv",
+            "glGetLightfv",
+            "glGetLightxv",
+            "glGetMaterialfv",
+            "glGetMaterialxv",
+            "glGetTexEnviv",
+            "glGetTexEnvxv",
+            "glGetTexParameterfv",
+            "glGetTexParameteriv",
+            "glGetTexParameterxv",
+            "glIsBuffer",
+            "glIsEnabled",
+            "glIsTexture",
+            "glPointParameterf",
+            "glPointParameterfv",
+            "glPointParameterx",
+            "glPointParameterxv",
+            "glPointSizePointerOES",
+            "glTexEnvi",
+            "glTexEnviv",
+            "glTexParameterfv",
+            "glTexParameteri",
+            "glTexParameteriv",
+            "glTexParameterxv",
+            "glCurrentPaletteMatrixOES",
+            "glDrawTexfOES",
+            "glDrawTexfvOES",
+            "glDrawTexiOES",
+            "glDrawTexivOES",
+            "glDrawTexsOES",
+            "glDrawTexsvOES",
+            "glDrawTexxOES",
+            "glDrawTexxvOES",
+            "glLoadPaletteFromModelViewMatrixOES",
+            "glMatrixIndexPointerOES",
+            "glWeightPointerOES",
+            "glBindFramebufferOES",
+            "glBindRenderbufferOES",
+            "glBlendEquation",
+            "glBlendEquationSeparate",
+            "glBlendFuncSeparate",
+            "glCheckFramebufferStatusOES",
+            "glDeleteFramebuffersOES",
+            "glDeleteRenderbuffersOES",
+            "glFramebufferRenderbufferOES",
+            "glFramebufferTexture2DOES",
+            "glGenerateMipmapOES",
+            "glGenFramebuffersOES",
+            "glGenRenderbuffersOES",
+            "glGetFramebufferAttachmentParameterivOES",
+            "glGetRenderbufferParameterivOES",
+            "glGetTexGenfv",
+            "glGetTexGeniv",
+            "glGetTexGenxv",
+            "glIsFramebufferOES",
+            "glIsRenderbufferOES",
+            "glRenderbufferStorageOES",
+            "glTexGenf",
+            "glTexGenfv",
+            "glTexGeni",
+            "glTexGeniv",
+            "glTexGenx",
+            "glTexGenxv",
+    };
+
+    private GLEntryPoints() {}
+
+    /**
+     * @return the method name of the entry point
+     */
+    static String getName(int id) {
+        return NAMES[id];
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.opengl.GLU;
+import android.util.Log;
+
+import javax.microedition.khronos.opengles.GL;
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * A {@link GLWrapper} which checks GL errors at frame boundaries instead of
+ * after every call like {@link GLStuff#DEBUG_CHECK_GL_ERROR}. The check
+ * could be limited to every Nth frame. When an error is found, every call
+ * of the next frame is checked to find out which one causes the error.
+ * <p>
+ * The checker must be added as both the GL wrapper and a frame hook:
+ * <pre class="prettyprint">
+ * GLErrorChecker checker = new GLErrorChecker(60);
+ * view.setGLWrapper(checker);
+ * view.addGLFrameHook(checker);
+ * </pre>
+ */
+public class GLErrorChecker implements GLWrapper, GLFrameHook {
+
+    private static final String TAG = "GLErrorChecker";
+
+    // glGetError() keeps returning errors after the context is lost
+    private static final int MAX_ERRORS_PER_CHECK = 8;
+
+    /**
+     * Called on the rendering thread when a GL error is found.
+     */
+    public interface OnGLErrorListener {
+        /**
+         * @param error the GL error code
+         * @param entryPoint the GL method which causes the error,
+         *                   or {@code null} if it is found at the end of a frame
+         * @param frame the frame number
+         */
+        void onGLError(int error, String entryPoint, long frame);
+    }
+
+    private volatile int mCheckInterval;
+    private volatile OnGLErrorListener mListener;
+
+    // Only accessed on the rendering thread
+    private CheckingGL mGL;
+    private long mFrame;
+    private boolean mCheckNextFramePerCall;
+    private boolean mCheckPerCall;
+
+    public GLErrorChecker() {
+        this(1);
+    }
+
+    /**
+     * @param checkInterval check errors every {@code checkInterval} frames
+     */
+    public GLErrorChecker(int checkInterval) {
+        setCheckInterval(checkInterval);
+    }
+
+    /**
+     * Check errors every {@code checkInterval} frames. 1 means every frame,
+     * 0 disables checking. It could be called from any thread.
+     */
+    public void setCheckInterval(int checkInterval) {
+        if (checkInterval < 0) {
+            throw new IllegalArgumentException("checkInterval must be non-negative");
+        }
+        mCheckInterval = checkInterval;
+    }
+
+    public int getCheckInterval() {
+        return mCheckInterval;
+    }
+
+    /**
+     * Set a listener for found errors. If no listener is set, errors are logged.
+     */
+    public void setOnGLErrorListener(OnGLErrorListener listener) {
+        mListener = listener;
+    }
+
+    @Override
+    public GL wrap(GL gl) {
+        mGL = new CheckingGL(gl);
+        return mGL;
+    }
+
+    @Override
+    public void onFrameBegin(GL10 gl) {
+        mFrame++;
+        mCheckPerCall = mCheckNextFramePerCall;
+        mCheckNextFramePerCall = false;
+    }
+
+    @Override
+    public void onFrameEnd(GL10 gl, boolean drew) {
+        if (mCheckPerCall) {
+            mCheckPerCall = false;
+            return;
+        }
+        final int interval = mCheckInterval;
+        if (interval > 0 && mFrame % interval == 0) {
+            final GL10 target = mGL != null ? mGL.getWrappedGL() : gl;
+            if (checkErrors(target, null)) {
+                mCheckNextFramePerCall = true;
+            }
+        }
+    }
+
+    private boolean checkErrors(GL10 gl, String entryPoint) {
+        boolean found = false;
+        for (int i = 0; i < MAX_ERRORS_PER_CHECK; i++) {
+            final int error = gl.glGetError();
+            if (error == GL10.GL_NO_ERROR) {
+                break;
+            }
+            found = true;
+            onError(error, entryPoint);
+        }
+        return found;
+    }
+
+    private void onError(int error, String entryPoint) {
+        final OnGLErrorListener listener = mListener;
+        if (listener != null) {
+            listener.onGLError(error, entryPoint, mFrame);
+        } else if (entryPoint != null) {
+            Log.e(TAG, "frame " + mFrame + ": " + GLU.gluErrorString(error)
+                    + " after " + entryPoint);
+        } else {
+            Log.e(TAG, "frame " + mFrame + ": " + GLU.gluErrorString(error));
+        }
+    }
+
+    private class CheckingGL extends InterceptedGL {
+
+        CheckingGL(GL gl) {
+            super(gl);
+        }
+
+        @Override
+        protected long onCallStart(int id) {
+            return 0L;
+        }
+
+        @Override
+        protected void onCallEnd(int id, long token) {
+            // Don't steal errors from the renderer
+            if (mCheckPerCall && id != GLEntryPoints.GL_GET_ERROR) {
+                checkErrors(mgl, GLEntryPoints.getName(id));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * Observes the frames rendered by the rendering thread. Useful for
+ * instrumentation which works on frame boundaries.
+ *
+ * @see GLStuff#addGLFrameHook(GLFrameHook)
+ */
+public interface GLFrameHook {
+
+    /**
+     * Called on the rendering thread right before {@link Renderer#onDrawFrame(GL10)}.
+     *
+     * @param gl the GL interface passed to the renderer
+     */
+    void onFrameBegin(GL10 gl);
+
+    /**
+     * Called on the rendering thread right after {@link Renderer#onDrawFrame(GL10)},
+     * before buffers are swapped.
+     *
+     * @param gl the GL interface passed to the renderer
+     * @param drew the return value of {@link Renderer#onDrawFrame(GL10)}
+     */
+    void onFrameEnd(GL10 gl, boolean drew);
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * A copy-on-write list of {@link GLFrameHook}s. The rendering thread
+ * iterates the array without locking or allocation.
+ */
+final class GLFrameHooks {
+
+    private static final GLFrameHook[] EMPTY = new GLFrameHook[0];
+
+    private volatile GLFrameHook[] mHooks = EMPTY;
+
+    public synchronized void add(GLFrameHook hook) {
+        if (hook == null) {
+            throw new IllegalArgumentException("hook must not be null");
+        }
+        final GLFrameHook[] hooks = mHooks;
+        for (GLFrameHook h : hooks) {
+            if (h == hook) {
+                return;
+            }
+        }
+        final GLFrameHook[] newHooks = new GLFrameHook[hooks.length + 1];
+        System.arraycopy(hooks, 0, newHooks, 0, hooks.length);
+        newHooks[hooks.length] = hook;
+        mHooks = newHooks;
+    }
+
+    public synchronized void remove(GLFrameHook hook) {
+        final GLFrameHook[] hooks = mHooks;
+        for (int i = 0; i < hooks.length; i++) {
+            if (hooks[i] == hook) {
+                if (hooks.length == 1) {
+                    mHooks = EMPTY;
+                } else {
+                    final GLFrameHook[] newHooks = new GLFrameHook[hooks.length - 1];
+                    System.arraycopy(hooks, 0, newHooks, 0, i);
+                    System.arraycopy(hooks, i + 1, newHooks, i, hooks.length - i - 1);
+                    mHooks = newHooks;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the hooks, must not be modified
+     */
+    public GLFrameHook[] get() {
+        return mHooks;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Runtime switchable debug logging of the rendering threads, EGL and views.
+ * <p>
+ * Enabled events are written to a fixed size ring buffer of primitive
+ * records, shared by all views. Logging an event doesn't allocate or
+ * format anything, so it could be left on in the field. The ring buffer
+ * is formatted by {@link #dump(StringBuilder)}, or each event could also be
+ * formatted and printed to logcat immediately by
+ * {@link #setLogcatEnabled(boolean)}.
+ * <p>
+ * All categories are disabled by default.
+ */
+public final class GLLog {
+
+    private static final String TAG = "GLLog";
+
+    public static final int ATTACH_DETACH = 1;
+    public static final int THREADS = 1 << 1;
+    public static final int PAUSE_RESUME = 1 << 2;
+    public static final int SURFACE = 1 << 3;
+    public static final int RENDERER = 1 << 4;
+    public static final int RENDERER_DRAW_FRAME = 1 << 5;
+    public static final int EGL = 1 << 6;
+    public static final int ALL = (1 << 7) - 1;
+
+    private static final String[] CATEGORY_NAMES = {
+            "ATTACH_DETACH",
+            "THREADS",
+            "PAUSE_RESUME",
+            "SURFACE",
+            "RENDERER",
+            "RENDERER_DRAW_FRAME",
+            "EGL",
+    };
+
+    // Messages, formatted with the string as %1$s and the arguments as %2$d to %5$d
+    static final int THREAD_START = 0;
+    static final int THREAD_EXIT = 1;
+    static final int THREAD_WAIT = 2;
+    static final int PAUSED_CHANGED = 3;
+    static final int RELEASE_CONTEXT_ASKED = 4;
+    static final int RELEASE_SURFACE_PAUSED = 5;
+    static final int RELEASE_CONTEXT_PAUSED = 6;
+    static final int SURFACE_LOST = 7;
+    static final int SURFACE_ACQUIRED = 8;
+    static final int SEND_RENDER_NOTIFICATION = 9;
+    static final int WANT_RENDER_NOTIFICATION = 10;
+    static final int CREATE_SURFACE = 11;
+    static final int CONTEXT_LOST = 12;
+    static final int ON_SURFACE_CREATED = 13;
+    static final int ON_SURFACE_CHANGED = 14;
+    static final int ON_DRAW_FRAME = 15;
+    static final int SURFACE_CREATED = 16;
+    static final int SURFACE_DESTROYED = 17;
+    static final int PAUSE = 18;
+    static final int PAUSE_WAITING = 19;
+    static final int RESUME = 20;
+    static final int RESUME_WAITING = 21;
+    static final int RESIZE_WAITING = 22;
+    static final int EGL_START = 23;
+    static final int EGL_CREATE_CONTEXT = 24;
+    static final int EGL_CREATE_SURFACE = 25;
+    static final int EGL_NO_PRESERVED_BIT = 26;
+    static final int EGL_DESTROY_SURFACE = 27;
+    static final int EGL_FINISH = 28;
+    static final int EGL_EXCEPTION = 29;
+    static final int EGL_EXTENSIONS = 30;
+    static final int EGL_CONTEXT_ATTRIBS = 31;
+    static final int EGL_DESTROY_CONTEXT_FAILED = 32;
+    static final int ATTACHED = 33;
+    static final int DETACHED = 34;
+    private static final int MESSAGE_COUNT = 35;
+
+    // Flags of THREAD_WAIT
+    static final int WAIT_HAVE_EGL_CONTEXT = 1;
+    static final int WAIT_HAVE_EGL_SURFACE = 1 << 1;
+    static final int WAIT_FINISHED_CREATING_EGL_SURFACE = 1 << 2;
+    static final int WAIT_PAUSED = 1 << 3;
+    static final int WAIT_HAS_SURFACE = 1 << 4;
+    static final int WAIT_SURFACE_IS_BAD = 1 << 5;
+    static final int WAIT_WAITING_FOR_SURFACE = 1 << 6;
+    static final int WAIT_REQUEST_RENDER = 1 << 7;
+    static final int WAIT_RENDER_CONTINUOUSLY = 1 << 8;
+
+    private static final int[] CATEGORIES = new int[MESSAGE_COUNT];
+    private static final String[] FORMATS = new String[MESSAGE_COUNT];
+
+    static {
+        define(THREAD_START, THREADS, "starting tid=%2$d");
+        define(THREAD_EXIT, THREADS, "exiting tid=%2$d");
+        define(THREAD_WAIT, THREADS, "waiting tid=%2$d flags=0x%3$x (1 context, 2 egl surface,"
+                + " 4 finished creating egl surface, 8 paused, 10 has surface, 20 surface is bad,"
+                + " 40 waiting for surface, 80 request render, 100 render continuously)"
+                + " size=%4$dx%5$d");
+        define(PAUSED_CHANGED, PAUSE_RESUME, "mPaused is now %3$d tid=%2$d");
+        define(RELEASE_CONTEXT_ASKED, SURFACE,
+                "releasing EGL context because asked to tid=%2$d");
+        define(RELEASE_SURFACE_PAUSED, SURFACE, "releasing EGL surface because paused tid=%2$d");
+        define(RELEASE_CONTEXT_PAUSED, SURFACE, "releasing EGL context because paused tid=%2$d");
+        define(SURFACE_LOST, SURFACE, "noticed surfaceView surface lost tid=%2$d");
+        define(SURFACE_ACQUIRED, SURFACE, "noticed surfaceView surface acquired tid=%2$d");
+        define(SEND_RENDER_NOTIFICATION, SURFACE, "sending render notification tid=%2$d");
+        define(WANT_RENDER_NOTIFICATION, SURFACE,
+                "noticing that we want render notification tid=%2$d");
+        define(CREATE_SURFACE, SURFACE, "egl createSurface");
+        define(CONTEXT_LOST, SURFACE, "egl context lost tid=%2$d");
+        define(ON_SURFACE_CREATED, RENDERER, "onSurfaceCreated");
+        define(ON_SURFACE_CHANGED, RENDERER, "onSurfaceChanged(%2$d, %3$d)");
+        define(ON_DRAW_FRAME, RENDERER_DRAW_FRAME, "onDrawFrame tid=%2$d");
+        define(SURFACE_CREATED, THREADS, "surfaceCreated tid=%2$d");
+        define(SURFACE_DESTROYED, THREADS, "surfaceDestroyed tid=%2$d");
+        define(PAUSE, PAUSE_RESUME, "onPause tid=%2$d");
+        define(PAUSE_WAITING, PAUSE_RESUME, "onPause waiting for mPaused tid=%2$d");
+        define(RESUME, PAUSE_RESUME, "onResume tid=%2$d");
+        define(RESUME_WAITING, PAUSE_RESUME, "onResume waiting for !mPaused tid=%2$d");
+        define(RESIZE_WAITING, SURFACE, "onWindowResize waiting for render complete from tid=%2$d");
+        define(EGL_START, EGL, "start()");
+        define(EGL_CREATE_CONTEXT, EGL, "createContext 0x%2$x");
+        define(EGL_CREATE_SURFACE, EGL, "createSurface()");
+        define(EGL_NO_PRESERVED_BIT, EGL, "config doesn't support EGL_SWAP_BEHAVIOR_PRESERVED_BIT");
+        define(EGL_DESTROY_SURFACE, EGL, "destroySurface()");
+        define(EGL_FINISH, EGL, "finish()");
+        define(EGL_EXCEPTION, THREADS, "throwEglException %1$s failed: 0x%2$x");
+        define(EGL_EXTENSIONS, EGL, "extensions 0x%2$x");
+        define(EGL_CONTEXT_ATTRIBS, EGL, "priority: 0x%2$x no error: %3$d");
+        define(EGL_DESTROY_CONTEXT_FAILED, THREADS, "eglDestroyContext failed");
+        define(ATTACHED, ATTACH_DETACH, "onAttachedToWindow reattach=%2$d");
+        define(DETACHED, ATTACH_DETACH, "onDetachedFromWindow");
+    }
+
+    private static void define(int message, int category, String format) {
+        CATEGORIES[message] = category;
+        FORMATS[message] = format;
+    }
+
+    private static final int CAPACITY = 1024;
+    // Time, thread id, message and four arguments
+    private static final int FIELDS = 7;
+
+    private static volatile int sCategories;
+    private static volatile boolean sLogcatEnabled;
+
+    // Guarded by sRecords
+    private static final long[] sRecords = new long[CAPACITY * FIELDS];
+    private static final String[] sStrings = new String[CAPACITY];
+    private static long sCount;
+
+    private GLLog() {}
+
+    /**
+     * Set the enabled categories, a combination of {@link #ATTACH_DETACH},
+     * {@link #THREADS}, {@link #PAUSE_RESUME}, {@link #SURFACE},
+     * {@link #RENDERER}, {@link #RENDERER_DRAW_FRAME} and {@link #EGL}.
+     */
+    public static void setCategories(int categories) {
+        sCategories = categories;
+    }
+
+    public static int getCategories() {
+        return sCategories;
+    }
+
+    public static boolean isEnabled(int category) {
+        return (sCategories & category) != 0;
+    }
+
+    /**
+     * Also format each event and print it to logcat when it's logged.
+     * It allocates and takes time, only for development.
+     */
+    public static void setLogcatEnabled(boolean enabled) {
+        sLogcatEnabled = enabled;
+    }
+
+    /**
+     * Drop all events in the ring buffer.
+     */
+    public static void clear() {
+        synchronized (sRecords) {
+            sCount = 0;
+            Arrays.fill(sStrings, null);
+        }
+    }
+
+    /**
+     * Format the events in the ring buffer, oldest first, one per line.
+     * Each line has the {@link System#nanoTime()} in milliseconds, the id of
+     * the logging thread, the category and the message.
+     */
+    public static void dump(StringBuilder sb) {
+        final long[] records;
+        final String[] strings;
+        final int count;
+        final int first;
+        synchronized (sRecords) {
+            records = sRecords.clone();
+            strings = sStrings.clone();
+            count = (int) Math.min(sCount, CAPACITY);
+            first = (int) ((sCount - count) % CAPACITY);
+        }
+        for (int i = 0; i < count; i++) {
+            final int index = (first + i) % CAPACITY;
+            appendRecord(sb, records, index * FIELDS, strings[index]);
+            sb.append('\n');
+        }
+    }
+
+    private static void appendRecord(StringBuilder sb, long[] records, int offset, String string) {
+        final long time = records[offset];
+        final int message = (int) records[offset + 2];
+        sb.append(String.format(Locale.US, "%d.%03d %d %s ", time / 1000000,
+                time / 1000 % 1000, records[offset + 1],
+                getCategoryName(CATEGORIES[message])));
+        sb.append(String.format(Locale.US, FORMATS[message], string, records[offset + 3],
+                records[offset + 4], records[offset + 5], records[offset + 6]));
+    }
+
+    private static String getCategoryName(int category) {
+        return CATEGORY_NAMES[Integer.numberOfTrailingZeros(category)];
+    }
+
+    static void log(int message) {
+        if ((sCategories & CATEGORIES[message]) != 0) {
+            write(message, null, 0, 0, 0, 0);
+        }
+    }
+
+    static void log(int message, long arg0) {
+        if ((sCategories & CATEGORIES[message]) != 0) {
+            write(message, null, arg0, 0, 0, 0);
+        }
+    }
+
+    static void log(int message, long arg0, long arg1) {
+        if ((sCategories & CATEGORIES[message]) != 0) {
+            write(message, null, arg0, arg1, 0, 0);
+        }
+    }
+
+    static void log(int message, long arg0, long arg1, long arg2, long arg3) {
+        if ((sCategories & CATEGORIES[message]) != 0) {
+            write(message, null, arg0, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * @param string a string which already exists, to not allocate
+     */
+    static void log(int message, String string, long arg0) {
+        if ((sCategories & CATEGORIES[message]) != 0) {
+            write(message, string, arg0, 0, 0, 0);
+        }
+    }
+
+    private static void write(int message, String string,
+            long arg0, long arg1, long arg2, long arg3) {
+        final long time = System.nanoTime();
+        final long tid = Thread.currentThread().getId();
+        final long[] records = sRecords;
+        synchronized (records) {
+            final int index = (int) (sCount++ % CAPACITY);
+            final int offset = index * FIELDS;
+            records[offset] = time;
+            records[offset + 1] = tid;
+            records[offset + 2] = message;
+            records[offset + 3] = arg0;
+            records[offset + 4] = arg1;
+            records[offset + 5] = arg2;
+            records[offset + 6] = arg3;
+            sStrings[index] = string;
+        }
+
+        if (sLogcatEnabled) {
+            final StringBuilder sb = new StringBuilder();
+            final long[] record = {time, tid, message, arg0, arg1, arg2, arg3};
+            appendRecord(sb, record, 0, string);
+            Log.i(TAG, sb.toString());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.Arrays;
+
+import javax.microedition.khronos.opengles.GL;
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * A {@link GLWrapper} which records the call count and the cumulative CPU
+ * time of every GL entry point. Unlike {@link GLStuff#DEBUG_LOG_GL_CALLS},
+ * nothing is allocated or logged per call, the numbers are kept in
+ * preallocated arrays.
+ * <p>
+ * The profiler works on frame boundaries, so it must be added as both
+ * the GL wrapper and a frame hook:
+ * <pre class="prettyprint">
+ * GLProfiler profiler = new GLProfiler();
+ * view.setGLWrapper(profiler);
+ * view.addGLFrameHook(profiler);
+ * </pre>
+ * Only calls made inside {@link Renderer#onDrawFrame(GL10)} are recorded.
+ * When disabled, every call costs a field read and a branch.
+ * <p>
+ * The getters must be called on the rendering thread, for example in
+ * {@link OnFrameProfiledListener#onFrameProfiled(GLProfiler)}.
+ */
+public class GLProfiler implements GLWrapper, GLFrameHook {
+
+    /**
+     * Called on the rendering thread after each profiled frame.
+     */
+    public interface OnFrameProfiledListener {
+        void onFrameProfiled(GLProfiler profiler);
+    }
+
+    private volatile boolean mEnabled;
+    private volatile OnFrameProfiledListener mListener;
+
+    // Only accessed on the rendering thread
+    private boolean mActive;
+    private long mFrameStart;
+    private long mFrameDuration;
+    private long mFrameCount;
+    private final int[] mFrameCalls = new int[GLEntryPoints.COUNT];
+    private final long[] mFrameNanos = new long[GLEntryPoints.COUNT];
+    private final long[] mTotalCalls = new long[GLEntryPoints.COUNT];
+    private final long[] mTotalNanos = new long[GLEntryPoints.COUNT];
+
+    public GLProfiler() {
+        this(true);
+    }
+
+    public GLProfiler(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    /**
+     * Enable or disable profiling. It could be called from any thread,
+     * it takes effect from the next frame.
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public void setOnFrameProfiledListener(OnFrameProfiledListener listener) {
+        mListener = listener;
+    }
+
+    @Override
+    public GL wrap(GL gl) {
+        return new ProfilingGL(gl);
+    }
+
+    @Override
+    public void onFrameBegin(GL10 gl) {
+        mActive = mEnabled;
+        if (mActive) {
+            Arrays.fill(mFrameCalls, 0);
+            Arrays.fill(mFrameNanos, 0L);
+            mFrameStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onFrameEnd(GL10 gl, boolean drew) {
+        if (!mActive) {
+            return;
+        }
+        mActive = false;
+        mFrameDuration = System.nanoTime() - mFrameStart;
+        mFrameCount++;
+        for (int i = 0; i < GLEntryPoints.COUNT; i++) {
+            mTotalCalls[i] += mFrameCalls[i];
+            mTotalNanos[i] += mFrameNanos[i];
+        }
+
+        final OnFrameProfiledListener listener = mListener;
+        if (listener != null) {
+            listener.onFrameProfiled(this);
+        }
+    }
+
+    /**
+     * Clear all recorded numbers. Must be called on the rendering thread.
+     */
+    public void reset() {
+        Arrays.fill(mFrameCalls, 0);
+        Arrays.fill(mFrameNanos, 0L);
+        Arrays.fill(mTotalCalls, 0L);
+        Arrays.fill(mTotalNanos, 0L);
+        mFrameDuration = 0;
+        mFrameCount = 0;
+    }
+
+    /**
+     * @return the number of entry points, valid ids are from 0 to count - 1
+     */
+    public int getEntryPointCount() {
+        return GLEntryPoints.COUNT;
+    }
+
+    /**
+     * @return the method name of the entry point, like "glDrawArrays"
+     */
+    public String getEntryPointName(int id) {
+        return GLEntryPoints.getName(id);
+    }
+
+    /**
+     * @return the number of profiled frames
+     */
+    public long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return the duration of {@link Renderer#onDrawFrame(GL10)} in the last
+     * profiled frame, in nanoseconds
+     */
+    public long getFrameDuration() {
+        return mFrameDuration;
+    }
+
+    public int getFrameCalls(int id) {
+        return mFrameCalls[id];
+    }
+
+    public long getFrameNanos(int id) {
+        return mFrameNanos[id];
+    }
+
+    public long getTotalCalls(int id) {
+        return mTotalCalls[id];
+    }
+
+    public long getTotalNanos(int id) {
+        return mTotalNanos[id];
+    }
+
+    /**
+     * @return the number of GL calls in the last profiled frame
+     */
+    public int getFrameCalls() {
+        int calls = 0;
+        for (int i = 0; i < GLEntryPoints.COUNT; i++) {
+            calls += mFrameCalls[i];
+        }
+        return calls;
+    }
+
+    /**
+     * @return the CPU time spent in GL calls in the last profiled frame,
+     * in nanoseconds
+     */
+    public long getFrameNanos() {
+        long nanos = 0;
+        for (int i = 0; i < GLEntryPoints.COUNT; i++) {
+            nanos += mFrameNanos[i];
+        }
+        return nanos;
+    }
+
+    /**
+     * Append a summary of the last profiled frame to a StringBuilder.
+     * Each called entry point takes a line.
+     */
+    public void appendFrameSummary(StringBuilder sb) {
+        sb.append("frame ").append(mFrameCount)
+                .append(": ").append(getFrameCalls()).append(" calls, ")
+                .append(getFrameNanos() / 1000).append(" us in GL, ")
+                .append(mFrameDuration / 1000).append(" us total\n");
+        for (int i = 0; i < GLEntryPoints.COUNT; i++) {
+            final int calls = mFrameCalls[i];
+            if (calls != 0) {
+                sb.append("  ").append(GLEntryPoints.getName(i))
+                        .append(" x").append(calls)
+                        .append(' ').append(mFrameNanos[i] / 1000).append(" us\n");
+            }
+        }
+    }
+
+    /**
+     * Append a summary of all profiled frames to a StringBuilder.
+     * Each called entry point takes a line.
+     */
+    public void appendTotalSummary(StringBuilder sb) {
+        sb.append(mFrameCount).append(" frames\n");
+        for (int i = 0; i < GLEntryPoints.COUNT; i++) {
+            final long calls = mTotalCalls[i];
+            if (calls != 0) {
+                sb.append("  ").append(GLEntryPoints.getName(i))
+                        .append(" x").append(calls)
+                        .append(' ').append(mTotalNanos[i] / 1000).append(" us\n");
+            }
+        }
+    }
+
+    private class ProfilingGL extends InterceptedGL {
+
+        ProfilingGL(GL gl) {
+            super(gl);
+        }
+
+        @Override
+        protected long onCallStart(int id) {
+            return mActive ? System.nanoTime() : 0L;
+        }
+
+        @Override
+        protected void onCallEnd(int id, long token) {
+            if (mActive) {
+                mFrameNanos[id] += System.nanoTime() - token;
+                mFrameCalls[id]++;
+            }
+        }
+    }
+}
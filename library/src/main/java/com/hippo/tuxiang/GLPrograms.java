@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.opengl.GLES20;
+import android.util.Log;
+
+/**
+ * Helpers to build OpenGL ES 2.0 programs. All methods must be called
+ * on the rendering thread. Failures are logged with the info log and
+ * reported by returning 0, like {@link GLES20#glCreateProgram()}.
+ */
+public final class GLPrograms {
+
+    private static final String TAG = "GLPrograms";
+
+    private GLPrograms() {}
+
+    /**
+     * Compile a shader and check the compile status.
+     *
+     * @param type {@link GLES20#GL_VERTEX_SHADER} or {@link GLES20#GL_FRAGMENT_SHADER}
+     * @return the shader, or 0 if it can't be compiled
+     */
+    public static int loadShader(int type, String source) {
+        final int shader = GLES20.glCreateShader(type);
+        if (shader == 0) {
+            Log.e(TAG, "glCreateShader failed: 0x" + Integer.toHexString(GLES20.glGetError()));
+            return 0;
+        }
+        GLES20.glShaderSource(shader, source);
+        GLES20.glCompileShader(shader);
+        final int[] status = new int[1];
+        GLES20.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, status, 0);
+        if (status[0] == 0) {
+            Log.e(TAG, "Can't compile shader " + type + ": " + GLES20.glGetShaderInfoLog(shader));
+            GLES20.glDeleteShader(shader);
+            return 0;
+        }
+        return shader;
+    }
+
+    /**
+     * Compile the shaders, link the program and check the link status.
+     *
+     * @return the program, or 0 if it can't be built
+     */
+    public static int createProgram(String vertexSource, String fragmentSource) {
+        final int program = createUnlinkedProgram(vertexSource, fragmentSource, true);
+        if (program == 0) {
+            return 0;
+        }
+        GLES20.glLinkProgram(program);
+        return checkLinkStatus(program) ? program : 0;
+    }
+
+    /**
+     * Create a program with both shaders attached, but not linked yet.
+     * The shaders are flagged for deletion, they are deleted with the program.
+     *
+     * @param checkCompileStatus false to submit the shaders without waiting
+     *                           for the compiler, errors show up at link time
+     * @return the program, or 0 if it can't be created
+     */
+    static int createUnlinkedProgram(String vertexSource, String fragmentSource,
+            boolean checkCompileStatus) {
+        final int vertexShader;
+        final int fragmentShader;
+        if (checkCompileStatus) {
+            vertexShader = loadShader(GLES20.GL_VERTEX_SHADER, vertexSource);
+            if (vertexShader == 0) {
+                return 0;
+            }
+            fragmentShader = loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
+            if (fragmentShader == 0) {
+                GLES20.glDeleteShader(vertexShader);
+                return 0;
+            }
+        } else {
+            vertexShader = GLES20.glCreateShader(GLES20.GL_VERTEX_SHADER);
+            fragmentShader = GLES20.glCreateShader(GLES20.GL_FRAGMENT_SHADER);
+            if (vertexShader == 0 || fragmentShader == 0) {
+                Log.e(TAG, "glCreateShader failed: 0x" + Integer.toHexString(GLES20.glGetError()));
+                GLES20.glDeleteShader(vertexShader);
+                GLES20.glDeleteShader(fragmentShader);
+                return 0;
+            }
+            GLES20.glShaderSource(vertexShader, vertexSource);
+            GLES20.glCompileShader(vertexShader);
+            GLES20.glShaderSource(fragmentShader, fragmentSource);
+            GLES20.glCompileShader(fragmentShader);
+        }
+
+        final int program = GLES20.glCreateProgram();
+        if (program != 0) {
+            GLES20.glAttachShader(program, vertexShader);
+            GLES20.glAttachShader(program, fragmentShader);
+        } else {
+            Log.e(TAG, "glCreateProgram failed: 0x" + Integer.toHexString(GLES20.glGetError()));
+        }
+        GLES20.glDeleteShader(vertexShader);
+        GLES20.glDeleteShader(fragmentShader);
+        return program;
+    }
+
+    /**
+     * Check the link status of a program. The program is deleted
+     * if it isn't linked.
+     *
+     * @return true if the program is linked
+     */
+    static boolean checkLinkStatus(int program) {
+        final int[] status = new int[1];
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0);
+        if (status[0] == 0) {
+            Log.e(TAG, "Can't link program: " + GLES20.glGetProgramInfoLog(program));
+            GLES20.glDeleteProgram(program);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * A GL object, or a group of GL objects, which can be recreated cheaply
+ * after the EGL context is lost.
+ *
+ * @see GLResourceRegistry
+ */
+public interface GLResource {
+
+    /**
+     * Create the GL objects. Called on the rendering thread with
+     * the EGL context current, after the resource is registered
+     * and every time a new EGL context is created.
+     */
+    void onRestore();
+
+    /**
+     * Called on the rendering thread when the EGL context is going away,
+     * right before it's destroyed. All GL objects of the resource are
+     * deleted with it, forget their names but don't delete them.
+     * Contexts the resource created in the share group must be
+     * released before return.
+     */
+    void onContextLost();
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps {@link GLResource}s alive across EGL contexts.
+ * <p>
+ * When the EGL context is lost, every registered resource is told by
+ * {@link GLResource#onContextLost()}. After a new EGL context is created,
+ * the resources are restored lazily by {@link GLResource#onRestore()}
+ * in priority order, higher priority first. The restoration is spread
+ * across frames: before each {@link Renderer#onDrawFrame}, resources are
+ * restored until the restore budget runs out. Call {@link #ensureRestored(GLResource)}
+ * if a resource is needed right now.
+ * <p>
+ * All methods except {@link #getPendingCount()} must be called on the
+ * rendering thread, e.g. in {@link Renderer#onSurfaceCreated} or through
+ * {@link GLStuff#queueEvent(Runnable)}.
+ *
+ * @see GLStuff#getGLResourceRegistry()
+ */
+public final class GLResourceRegistry {
+
+    public static final int PRIORITY_LOW = -100;
+    public static final int PRIORITY_NORMAL = 0;
+    public static final int PRIORITY_HIGH = 100;
+
+    private static final long DEFAULT_RESTORE_BUDGET_NANOS = 4000000L;
+
+    // Sorted by priority, higher first
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+    private boolean mHasContext;
+    private volatile int mPendingCount;
+    private long mRestoreBudgetNanos = DEFAULT_RESTORE_BUDGET_NANOS;
+    // State caches of GLStateCache and StateCacheGLWrapper
+    private final ArrayList<GLStateTracker> mStateTrackers = new ArrayList<>();
+
+    GLResourceRegistry() {}
+
+    /**
+     * Register a resource. If there is an EGL context, the resource is restored
+     * before the next frame, or by {@link #ensureRestored(GLResource)}.
+     *
+     * @param priority resources with higher priority are restored first
+     */
+    public void register(GLResource resource, int priority) {
+        if (resource == null) {
+            throw new IllegalArgumentException("resource must not be null");
+        }
+        if (indexOf(resource) != -1) {
+            throw new IllegalStateException("The resource has already been registered");
+        }
+
+        int index = mEntries.size();
+        for (int i = 0, n = mEntries.size(); i < n; i++) {
+            if (mEntries.get(i).priority < priority) {
+                index = i;
+                break;
+            }
+        }
+        mEntries.add(index, new Entry(resource, priority));
+        mPendingCount++;
+    }
+
+    /**
+     * Unregister a resource. The GL objects of it are not deleted.
+     */
+    public void unregister(GLResource resource) {
+        final int index = indexOf(resource);
+        if (index != -1) {
+            final Entry entry = mEntries.remove(index);
+            if (!entry.restored) {
+                mPendingCount--;
+            }
+        }
+    }
+
+    /**
+     * @return true if the resource is registered and restored in the current EGL context
+     */
+    public boolean isRestored(GLResource resource) {
+        final int index = indexOf(resource);
+        return index != -1 && mEntries.get(index).restored;
+    }
+
+    /**
+     * Restore the resource now if it is waiting for restoration.
+     *
+     * @return true if the resource is restored in the current EGL context
+     */
+    public boolean ensureRestored(GLResource resource) {
+        final int index = indexOf(resource);
+        if (index == -1 || !mHasContext) {
+            return false;
+        }
+        final Entry entry = mEntries.get(index);
+        if (!entry.restored) {
+            restore(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Set how long resources may be restored before a frame. At least one
+     * resource is restored before a frame if any is waiting. The default is
+     * 4 milliseconds.
+     */
+    public void setRestoreBudget(long budgetNanos) {
+        mRestoreBudgetNanos = budgetNanos;
+    }
+
+    /**
+     * @return the number of resources waiting for restoration, may be called from any thread
+     */
+    public int getPendingCount() {
+        return mPendingCount;
+    }
+
+    /**
+     * Tell the {@link GLStateCache}s and the {@link StateCacheGLWrapper} of
+     * the view that the GL state has been changed behind them. The helpers
+     * of this library report the exact state they change instead, so it is
+     * only needed for GL calls made without the caches.
+     */
+    public void invalidateGLState() {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).invalidate();
+        }
+    }
+
+    // The helpers of this library report the state they change below,
+    // so the trackers keep the rest of their state.
+
+    void onActiveTexture(int texture) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setActiveTexture(texture);
+        }
+    }
+
+    /**
+     * The texture is bound to the active texture unit.
+     */
+    void onBindTexture(int target, int texture) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setTexture(target, texture);
+        }
+    }
+
+    void onDeleteTextures(int count, int[] textures, int offset) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).deleteTextures(count, textures, offset);
+        }
+    }
+
+    void onCapability(int cap, boolean enabled) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setCapability(cap, enabled);
+        }
+    }
+
+    void onUseProgram(int program) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setProgram(program);
+        }
+    }
+
+    void onDeleteProgram(int program) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).deleteProgram(program);
+        }
+    }
+
+    void onBlendFunc(int sfactor, int dfactor) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setBlendFunc(sfactor, dfactor);
+        }
+    }
+
+    void onBindBuffer(int target, int buffer) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).setBuffer(target, buffer);
+        }
+    }
+
+    void onDeleteBuffers(int count, int[] buffers, int offset) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).deleteBuffers(count, buffers, offset);
+        }
+    }
+
+    void onDeleteFramebuffers(int count, int[] framebuffers, int offset) {
+        for (int i = 0, n = mStateTrackers.size(); i < n; i++) {
+            mStateTrackers.get(i).deleteFramebuffers(count, framebuffers, offset);
+        }
+    }
+
+    void addStateTracker(GLStateTracker tracker) {
+        if (!mStateTrackers.contains(tracker)) {
+            mStateTrackers.add(tracker);
+        }
+    }
+
+    void removeStateTracker(GLStateTracker tracker) {
+        mStateTrackers.remove(tracker);
+    }
+
+    void onContextCreated() {
+        mHasContext = true;
+    }
+
+    void onContextLost() {
+        mHasContext = false;
+        for (int i = 0; i < mEntries.size(); i++) {
+            final Entry entry = mEntries.get(i);
+            if (entry.restored) {
+                entry.restored = false;
+                mPendingCount++;
+                entry.resource.onContextLost();
+            }
+        }
+    }
+
+    void restorePending() {
+        if (!mHasContext || mPendingCount == 0) {
+            return;
+        }
+        final long start = System.nanoTime();
+        while (mPendingCount > 0) {
+            // Resources may be registered or unregistered in onRestore(),
+            // so search from the start every time.
+            final Entry entry = firstPending();
+            if (entry == null) {
+                break;
+            }
+            restore(entry);
+            if (System.nanoTime() - start >= mRestoreBudgetNanos) {
+                break;
+            }
+        }
+    }
+
+    private void restore(Entry entry) {
+        entry.restored = true;
+        mPendingCount--;
+        entry.resource.onRestore();
+    }
+
+    private Entry firstPending() {
+        for (int i = 0, n = mEntries.size(); i < n; i++) {
+            final Entry entry = mEntries.get(i);
+            if (!entry.restored) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private int indexOf(GLResource resource) {
+        for (int i = 0, n = mEntries.size(); i < n; i++) {
+            if (mEntries.get(i).resource == resource) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        final GLResource resource;
+        final int priority;
+        boolean restored;
+
+        Entry(GLResource resource, int priority) {
+            this.resource = resource;
+            this.priority = priority;
+        }
+    }
+}
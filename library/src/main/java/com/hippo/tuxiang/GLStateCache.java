@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+
+import java.nio.IntBuffer;
+
+/**
+ * A cache of GL state for OpenGL ES 2.0 and 3.0 renderers. Use its methods
+ * instead of the {@link GLES20} ones, calls which would not change the
+ * state are dropped.
+ * <p>
+ * The cache registers itself to the {@link GLResourceRegistry}, so it
+ * is invalidated automatically when the EGL context is lost. If the
+ * tracked state is changed without the cache, for example by calling
+ * {@link GLES20} directly or by a third party library, {@link #invalidate()}
+ * must be called.
+ * <p>
+ * The helpers of this library which change the tracked state, like
+ * {@link SpriteBatch}, {@link TextureAtlas}, {@link StreamingTexture},
+ * {@link TextureUploader} and {@link FramebufferPool}, report the bindings
+ * they change to the cache, so the rest of the cached state is kept.
+ * <p>
+ * It must be created and used on the rendering thread.
+ *
+ * @see StateCacheGLWrapper
+ */
+public final class GLStateCache implements GLResource {
+
+    private final GLStateTracker mTracker = new GLStateTracker();
+    private final GLResourceRegistry mRegistry;
+
+    /**
+     * Create a cache and register it to the registry.
+     *
+     * @see GLStuff#getGLResourceRegistry()
+     */
+    public GLStateCache(GLResourceRegistry registry) {
+        mRegistry = registry;
+        registry.register(this, Integer.MAX_VALUE);
+        registry.addStateTracker(mTracker);
+    }
+
+    /**
+     * Unregister the cache from the registry.
+     */
+    public void release() {
+        mRegistry.unregister(this);
+        mRegistry.removeStateTracker(mTracker);
+    }
+
+    /**
+     * Forget all cached state.
+     */
+    public void invalidate() {
+        mTracker.invalidate();
+    }
+
+    /**
+     * @return the number of dropped calls
+     */
+    public long getElidedCallCount() {
+        return mTracker.getElidedCallCount();
+    }
+
+    public void resetElidedCallCount() {
+        mTracker.resetElidedCallCount();
+    }
+
+    @Override
+    public void onRestore() {
+        mTracker.invalidate();
+    }
+
+    @Override
+    public void onContextLost() {
+        mTracker.invalidate();
+    }
+
+    public void glActiveTexture(int texture) {
+        if (mTracker.activeTexture(texture)) {
+            GLES20.glActiveTexture(texture);
+        }
+    }
+
+    public void glBindTexture(int target, int texture) {
+        if (mTracker.bindTexture(target, texture)) {
+            GLES20.glBindTexture(target, texture);
+        }
+    }
+
+    public void glDeleteTextures(int n, int[] textures, int offset) {
+        mTracker.deleteTextures(n, textures, offset);
+        GLES20.glDeleteTextures(n, textures, offset);
+    }
+
+    public void glDeleteTextures(int n, IntBuffer textures) {
+        mTracker.deleteTextures(n, textures);
+        GLES20.glDeleteTextures(n, textures);
+    }
+
+    public void glEnable(int cap) {
+        if (mTracker.enable(cap)) {
+            GLES20.glEnable(cap);
+        }
+    }
+
+    public void glDisable(int cap) {
+        if (mTracker.disable(cap)) {
+            GLES20.glDisable(cap);
+        }
+    }
+
+    public void glUseProgram(int program) {
+        if (mTracker.useProgram(program)) {
+            GLES20.glUseProgram(program);
+        }
+    }
+
+    public void glDeleteProgram(int program) {
+        mTracker.deleteProgram(program);
+        GLES20.glDeleteProgram(program);
+    }
+
+    public void glBlendFunc(int sfactor, int dfactor) {
+        if (mTracker.blendFunc(sfactor, dfactor)) {
+            GLES20.glBlendFunc(sfactor, dfactor);
+        }
+    }
+
+    public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        if (mTracker.blendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha)) {
+            GLES20.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        }
+    }
+
+    public void glBindBuffer(int target, int buffer) {
+        if (mTracker.bindBuffer(target, buffer)) {
+            GLES20.glBindBuffer(target, buffer);
+        }
+    }
+
+    public void glDeleteBuffers(int n, int[] buffers, int offset) {
+        mTracker.deleteBuffers(n, buffers, offset);
+        GLES20.glDeleteBuffers(n, buffers, offset);
+    }
+
+    public void glDeleteBuffers(int n, IntBuffer buffers) {
+        mTracker.deleteBuffers(n, buffers);
+        GLES20.glDeleteBuffers(n, buffers);
+    }
+
+    /**
+     * OpenGL ES 3.0 only.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    public void glBindVertexArray(int array) {
+        mTracker.bindVertexArray();
+        GLES30.glBindVertexArray(array);
+    }
+
+    public void glBindFramebuffer(int target, int framebuffer) {
+        if (target != GLES20.GL_FRAMEBUFFER) {
+            mTracker.invalidateFramebuffer();
+            GLES20.glBindFramebuffer(target, framebuffer);
+        } else if (mTracker.bindFramebuffer(framebuffer)) {
+            GLES20.glBindFramebuffer(target, framebuffer);
+        }
+    }
+
+    public void glDeleteFramebuffers(int n, int[] framebuffers, int offset) {
+        mTracker.deleteFramebuffers(n, framebuffers, offset);
+        GLES20.glDeleteFramebuffers(n, framebuffers, offset);
+    }
+
+    public void glDeleteFramebuffers(int n, IntBuffer framebuffers) {
+        mTracker.deleteFramebuffers(n, framebuffers);
+        GLES20.glDeleteFramebuffers(n, framebuffers);
+    }
+
+    public void glViewport(int x, int y, int width, int height) {
+        if (mTracker.viewport(x, y, width, height)) {
+            GLES20.glViewport(x, y, width, height);
+        }
+    }
+}
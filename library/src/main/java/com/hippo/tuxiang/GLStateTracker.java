@@ -0,0 +1,388 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Tracks a part of the GL state of a context, to tell which calls would
+ * not change anything. The state starts unknown, so the first call of
+ * each kind always passes.
+ * <p>
+ * Each {@code boolean} method returns {@code true} if the call must be
+ * issued to GL, the state is updated as if it were.
+ */
+final class GLStateTracker {
+
+    private static final int UNKNOWN = -1;
+
+    // GL constants shared by GLES 1.x and 2.0
+    private static final int GL_TEXTURE0 = 0x84C0;
+    private static final int GL_TEXTURE_2D = 0x0DE1;
+    private static final int GL_TEXTURE_CUBE_MAP = 0x8513;
+    private static final int GL_TEXTURE_EXTERNAL_OES = 0x8D65;
+    private static final int GL_ARRAY_BUFFER = 0x8892;
+    private static final int GL_ELEMENT_ARRAY_BUFFER = 0x8893;
+
+    private static final int MAX_TEXTURE_UNITS = 32;
+    private static final int TEXTURE_TARGET_COUNT = 3;
+
+    // Capabilities which are not per texture unit
+    private static final int[] CAPS = {
+            0x0BE2, // GL_BLEND
+            0x0B44, // GL_CULL_FACE
+            0x0B71, // GL_DEPTH_TEST
+            0x0BD0, // GL_DITHER
+            0x8037, // GL_POLYGON_OFFSET_FILL
+            0x809E, // GL_SAMPLE_ALPHA_TO_COVERAGE
+            0x80A0, // GL_SAMPLE_COVERAGE
+            0x0C11, // GL_SCISSOR_TEST
+            0x0B90, // GL_STENCIL_TEST
+    };
+
+    private static final byte CAP_UNKNOWN = 0;
+    private static final byte CAP_ENABLED = 1;
+    private static final byte CAP_DISABLED = 2;
+
+    private int mActiveTexture;
+    private final int[] mTextures = new int[MAX_TEXTURE_UNITS * TEXTURE_TARGET_COUNT];
+    private final byte[] mCaps = new byte[CAPS.length];
+    private int mProgram;
+    private int mBlendSrcRgb;
+    private int mBlendDstRgb;
+    private int mBlendSrcAlpha;
+    private int mBlendDstAlpha;
+    private int mArrayBuffer;
+    private int mElementArrayBuffer;
+    private int mFramebuffer;
+    private int mViewportX;
+    private int mViewportY;
+    private int mViewportWidth;
+    private int mViewportHeight;
+
+    private long mElidedCalls;
+
+    GLStateTracker() {
+        invalidate();
+    }
+
+    /**
+     * Forget all state. Must be called if the context is recreated,
+     * or if the state is changed behind the tracker.
+     */
+    public void invalidate() {
+        mActiveTexture = UNKNOWN;
+        Arrays.fill(mTextures, UNKNOWN);
+        Arrays.fill(mCaps, CAP_UNKNOWN);
+        mProgram = UNKNOWN;
+        mBlendSrcRgb = UNKNOWN;
+        mBlendDstRgb = UNKNOWN;
+        mBlendSrcAlpha = UNKNOWN;
+        mBlendDstAlpha = UNKNOWN;
+        mArrayBuffer = UNKNOWN;
+        mElementArrayBuffer = UNKNOWN;
+        mFramebuffer = UNKNOWN;
+        mViewportX = UNKNOWN;
+        mViewportY = UNKNOWN;
+        mViewportWidth = UNKNOWN;
+        mViewportHeight = UNKNOWN;
+    }
+
+    /**
+     * @return the number of calls which are reported unnecessary
+     */
+    public long getElidedCallCount() {
+        return mElidedCalls;
+    }
+
+    public void resetElidedCallCount() {
+        mElidedCalls = 0;
+    }
+
+    private boolean elide() {
+        mElidedCalls++;
+        return false;
+    }
+
+    // The set methods are called after the state is changed behind the
+    // tracker to a known value. They don't count elided calls.
+
+    public void setActiveTexture(int texture) {
+        mActiveTexture = texture;
+    }
+
+    public void setTexture(int target, int texture) {
+        final int index = textureIndex(target);
+        if (index != -1) {
+            mTextures[index] = texture;
+        } else if (mActiveTexture == UNKNOWN && targetIndex(target) != -1) {
+            // It is not known which unit is changed
+            for (int i = targetIndex(target); i < mTextures.length; i += TEXTURE_TARGET_COUNT) {
+                mTextures[i] = UNKNOWN;
+            }
+        }
+    }
+
+    public void setCapability(int cap, boolean enabled) {
+        for (int i = 0; i < CAPS.length; i++) {
+            if (CAPS[i] == cap) {
+                mCaps[i] = enabled ? CAP_ENABLED : CAP_DISABLED;
+                return;
+            }
+        }
+    }
+
+    public void setProgram(int program) {
+        mProgram = program;
+    }
+
+    public void setBlendFunc(int sfactor, int dfactor) {
+        mBlendSrcRgb = sfactor;
+        mBlendDstRgb = dfactor;
+        mBlendSrcAlpha = sfactor;
+        mBlendDstAlpha = dfactor;
+    }
+
+    public void setBuffer(int target, int buffer) {
+        if (target == GL_ARRAY_BUFFER) {
+            mArrayBuffer = buffer;
+        } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+            mElementArrayBuffer = buffer;
+        }
+    }
+
+    public boolean activeTexture(int texture) {
+        if (mActiveTexture == texture) {
+            return elide();
+        }
+        mActiveTexture = texture;
+        return true;
+    }
+
+    public boolean bindTexture(int target, int texture) {
+        final int index = textureIndex(target);
+        if (index == -1) {
+            return true;
+        }
+        if (mTextures[index] == texture) {
+            return elide();
+        }
+        mTextures[index] = texture;
+        return true;
+    }
+
+    public void deleteTextures(int n, int[] textures, int offset) {
+        for (int i = 0; i < n; i++) {
+            unbindTexture(textures[offset + i]);
+        }
+    }
+
+    public void deleteTextures(int n, IntBuffer textures) {
+        final int position = textures.position();
+        for (int i = 0; i < n; i++) {
+            unbindTexture(textures.get(position + i));
+        }
+    }
+
+    // Deleting a bound texture reverts the binding to zero
+    private void unbindTexture(int texture) {
+        if (texture == 0) {
+            return;
+        }
+        for (int i = 0; i < mTextures.length; i++) {
+            if (mTextures[i] == texture) {
+                mTextures[i] = 0;
+            }
+        }
+    }
+
+    private int textureIndex(int target) {
+        final int unit = mActiveTexture - GL_TEXTURE0;
+        if (unit < 0 || unit >= MAX_TEXTURE_UNITS) {
+            return -1;
+        }
+        final int targetIndex = targetIndex(target);
+        if (targetIndex == -1) {
+            return -1;
+        }
+        return unit * TEXTURE_TARGET_COUNT + targetIndex;
+    }
+
+    private static int targetIndex(int target) {
+        switch (target) {
+            case GL_TEXTURE_2D:
+                return 0;
+            case GL_TEXTURE_CUBE_MAP:
+                return 1;
+            case GL_TEXTURE_EXTERNAL_OES:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    public boolean enable(int cap) {
+        return setCap(cap, CAP_ENABLED);
+    }
+
+    public boolean disable(int cap) {
+        return setCap(cap, CAP_DISABLED);
+    }
+
+    private boolean setCap(int cap, byte state) {
+        for (int i = 0; i < CAPS.length; i++) {
+            if (CAPS[i] == cap) {
+                if (mCaps[i] == state) {
+                    return elide();
+                }
+                mCaps[i] = state;
+                return true;
+            }
+        }
+        return true;
+    }
+
+    public boolean useProgram(int program) {
+        if (mProgram == program) {
+            return elide();
+        }
+        mProgram = program;
+        return true;
+    }
+
+    public void deleteProgram(int program) {
+        // The program stays in use until another one is used, but
+        // the name may be reused, so forget it.
+        if (program != 0 && mProgram == program) {
+            mProgram = UNKNOWN;
+        }
+    }
+
+    public boolean blendFunc(int sfactor, int dfactor) {
+        return blendFuncSeparate(sfactor, dfactor, sfactor, dfactor);
+    }
+
+    public boolean blendFuncSeparate(int srcRgb, int dstRgb, int srcAlpha, int dstAlpha) {
+        if (mBlendSrcRgb == srcRgb && mBlendDstRgb == dstRgb
+                && mBlendSrcAlpha == srcAlpha && mBlendDstAlpha == dstAlpha) {
+            return elide();
+        }
+        mBlendSrcRgb = srcRgb;
+        mBlendDstRgb = dstRgb;
+        mBlendSrcAlpha = srcAlpha;
+        mBlendDstAlpha = dstAlpha;
+        return true;
+    }
+
+    public boolean bindBuffer(int target, int buffer) {
+        if (target == GL_ARRAY_BUFFER) {
+            if (mArrayBuffer == buffer) {
+                return elide();
+            }
+            mArrayBuffer = buffer;
+        } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+            if (mElementArrayBuffer == buffer) {
+                return elide();
+            }
+            mElementArrayBuffer = buffer;
+        }
+        return true;
+    }
+
+    public void deleteBuffers(int n, int[] buffers, int offset) {
+        for (int i = 0; i < n; i++) {
+            unbindBuffer(buffers[offset + i]);
+        }
+    }
+
+    public void deleteBuffers(int n, IntBuffer buffers) {
+        final int position = buffers.position();
+        for (int i = 0; i < n; i++) {
+            unbindBuffer(buffers.get(position + i));
+        }
+    }
+
+    private void unbindBuffer(int buffer) {
+        if (buffer == 0) {
+            return;
+        }
+        if (mArrayBuffer == buffer) {
+            mArrayBuffer = 0;
+        }
+        if (mElementArrayBuffer == buffer) {
+            // Element array buffer binding is a part of VAO state,
+            // it is not known which VAO is bound.
+            mElementArrayBuffer = UNKNOWN;
+        }
+    }
+
+    public void bindVertexArray() {
+        // Element array buffer binding is a part of VAO state
+        mElementArrayBuffer = UNKNOWN;
+    }
+
+    /**
+     * Only {@code GL_FRAMEBUFFER} is tracked.
+     */
+    public boolean bindFramebuffer(int framebuffer) {
+        if (mFramebuffer == framebuffer) {
+            return elide();
+        }
+        mFramebuffer = framebuffer;
+        return true;
+    }
+
+    /**
+     * Called if other framebuffer targets are bound, which may change
+     * the {@code GL_FRAMEBUFFER} binding.
+     */
+    public void invalidateFramebuffer() {
+        mFramebuffer = UNKNOWN;
+    }
+
+    public void deleteFramebuffers(int n, int[] framebuffers, int offset) {
+        for (int i = 0; i < n; i++) {
+            unbindFramebuffer(framebuffers[offset + i]);
+        }
+    }
+
+    public void deleteFramebuffers(int n, IntBuffer framebuffers) {
+        final int position = framebuffers.position();
+        for (int i = 0; i < n; i++) {
+            unbindFramebuffer(framebuffers.get(position + i));
+        }
+    }
+
+    private void unbindFramebuffer(int framebuffer) {
+        if (framebuffer != 0 && mFramebuffer == framebuffer) {
+            mFramebuffer = 0;
+        }
+    }
+
+    public boolean viewport(int x, int y, int width, int height) {
+        if (mViewportX == x && mViewportY == y
+                && mViewportWidth == width && mViewportHeight == height) {
+            return elide();
+        }
+        mViewportX = x;
+        mViewportY = y;
+        mViewportWidth = width;
+        mViewportHeight = height;
+        return true;
+    }
+}
@@ -22,12 +22,40 @@ import javax.microedition.khronos.opengles.GL;
 
 public interface GLStuff {
 
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#ATTACH_DETACH}
+     */
+    @Deprecated
     boolean LOG_ATTACH_DETACH = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#THREADS}
+     */
+    @Deprecated
     boolean LOG_THREADS = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#PAUSE_RESUME}
+     */
+    @Deprecated
     boolean LOG_PAUSE_RESUME = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#SURFACE}
+     */
+    @Deprecated
     boolean LOG_SURFACE = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#RENDERER}
+     */
+    @Deprecated
     boolean LOG_RENDERER = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#RENDERER_DRAW_FRAME}
+     */
+    @Deprecated
     boolean LOG_RENDERER_DRAW_FRAME = false;
+    /**
+     * @deprecated use {@link GLLog#setCategories(int)} with {@link GLLog#EGL}
+     */
+    @Deprecated
     boolean LOG_EGL = false;
 
     /**
@@ -49,10 +77,33 @@ public interface GLStuff {
      */
     int RENDERMODE_CONTINUOUSLY = 1;
 
+    /**
+     * A size change of the surface blocks the caller until a frame
+     * at the new size has been rendered. Every size is passed to
+     * {@link Renderer#onSurfaceChanged}.
+     *
+     * @see #setResizePolicy(int)
+     */
+    int RESIZE_POLICY_BLOCKING = 0;
+
+    /**
+     * A size change of the surface doesn't block the caller. Sizes which
+     * change again within the settle delay are dropped, so only the
+     * settled size is passed to {@link Renderer#onSurfaceChanged}, and
+     * a frame at the settled size is always rendered.
+     *
+     * @see #setResizePolicy(int)
+     * @see #setResizeSettleDelay(long)
+     */
+    int RESIZE_POLICY_DEBOUNCED = 1;
+
     /**
      * Check glError() after every GL call and throw an exception if glError indicates
      * that an error has occurred. This can be used to help track down which OpenGL ES call
      * is causing an error.
+     * <p>
+     * Every check stalls the GL pipeline. Use {@link GLErrorChecker} to check
+     * errors at frame boundaries instead.
      *
      * @see #getDebugFlags
      * @see #setDebugFlags
@@ -61,6 +112,9 @@ public interface GLStuff {
 
     /**
      * Log GL calls to the system log at "verbose" level with tag "GLSurfaceView".
+     * <p>
+     * Every call is formatted and logged, which distorts timing. Use
+     * {@link GLProfiler} to measure GL calls instead.
      *
      * @see #getDebugFlags
      * @see #setDebugFlags
@@ -92,6 +146,27 @@ public interface GLStuff {
      */
     GLWrapper getGLWrapper();
 
+    /**
+     * Add a hook which is called before and after every
+     * {@link Renderer#onDrawFrame}. May be called from any thread,
+     * it takes effect from the next frame.
+     *
+     * @param hook the hook to add
+     */
+    void addGLFrameHook(GLFrameHook hook);
+
+    /**
+     * Remove a hook added by {@link #addGLFrameHook(GLFrameHook)}.
+     *
+     * @param hook the hook to remove
+     */
+    void removeGLFrameHook(GLFrameHook hook);
+
+    /**
+     * @return the installed hooks, the array must not be modified
+     */
+    GLFrameHook[] getGLFrameHooks();
+
     /**
      * Set the debug flags to a new value. The value is
      * constructed by OR-together zero or more
@@ -136,6 +211,46 @@ public interface GLStuff {
      */
     boolean getPreserveEGLContextOnPause();
 
+    /**
+     * Control whether the content of the back buffer is preserved after swapping buffers.
+     * <p>
+     * If set to true, the default EGLConfigChooser prefers configs with
+     * {@code EGL_SWAP_BEHAVIOR_PRESERVED_BIT}, and {@code EGL_SWAP_BEHAVIOR} of the
+     * EGL surface is set to {@code EGL_BUFFER_PRESERVED}. The renderer could then
+     * draw only the new content on top of the previous frame.
+     * <p>
+     * If no such config exists, or the surface attribute can't be set, the
+     * default behavior is used. Check {@link #isEGLBackBufferPreserved()} to
+     * know whether it is actually preserved.
+     * <p>
+     * If this method is called, it must be called before {@link #setRenderer(Renderer)}
+     * is called. If {@link #setEGLConfigChooser(EGLConfigChooser)} has been called, the supplied
+     * EGLConfigChooser is responsible for choosing a config that supports it,
+     * see {@link BaseConfigChooser#setPreferPreservedBackBuffer(boolean)}.
+     * <p>
+     * The default is false.
+     *
+     * @param preserve preserve the back buffer after swapping buffers
+     */
+    void setPreserveEGLBackBuffer(boolean preserve);
+
+    /**
+     * @return true if the back buffer is requested to be preserved
+     */
+    boolean getPreserveEGLBackBuffer();
+
+    /**
+     * Returns whether the back buffer of the current EGL surface is preserved.
+     * Even if it is preserved, the content is undefined after the EGL surface
+     * is created or resized, so the whole frame must be drawn after
+     * {@link Renderer#onSurfaceChanged} is called.
+     * <p>
+     * It should be called on the rendering thread.
+     *
+     * @return true if the back buffer of the current EGL surface is preserved
+     */
+    boolean isEGLBackBufferPreserved();
+
     /**
      * Set the renderer associated with this view. Also starts the thread that
      * will call the renderer, which in turn causes the rendering to start.
@@ -167,6 +282,37 @@ public interface GLStuff {
      */
     Renderer getRenderer();
 
+    /**
+     * Get the registry of GL resources which are restored automatically
+     * after the EGL context is lost. The registry lives as long as the view,
+     * so resources survive detaching from and attaching to windows.
+     *
+     * @return the GL resource registry of the view
+     */
+    GLResourceRegistry getGLResourceRegistry();
+
+    /**
+     * Get the pool of direct buffers of the view. Free buffers are dropped
+     * when the rendering thread exits.
+     *
+     * @return the direct buffer pool of the view
+     */
+    DirectBufferPool getDirectBufferPool();
+
+    /**
+     * Get the frame timing of the rendering thread of the view.
+     *
+     * @return the frame metrics of the view
+     */
+    FrameMetrics getFrameMetrics();
+
+    /**
+     * Get the time callers spent blocked on the rendering thread of the view.
+     *
+     * @return the blocking metrics of the view
+     */
+    BlockingMetrics getBlockingMetrics();
+
     /**
      * Install a custom EGLContextFactory.
      * <p>If this method is
@@ -287,6 +433,38 @@ public interface GLStuff {
      */
     void requestRender();
 
+    /**
+     * Set the resize policy. It takes effect from the next size change.
+     * The default is {@link #RESIZE_POLICY_BLOCKING}.
+     * <p>
+     * {@link #RESIZE_POLICY_DEBOUNCED} is useful for animated layout changes,
+     * which resize the surface in every animation step.
+     *
+     * @param policy one of the RESIZE_POLICY_X constants
+     * @see #RESIZE_POLICY_BLOCKING
+     * @see #RESIZE_POLICY_DEBOUNCED
+     */
+    void setResizePolicy(int policy);
+
+    /**
+     * @return the current resize policy
+     */
+    int getResizePolicy();
+
+    /**
+     * Set how long the size must stay unchanged before it is passed to the
+     * renderer, only used by {@link #RESIZE_POLICY_DEBOUNCED}. The first size
+     * of a surface is always passed immediately. The default is 100 milliseconds.
+     *
+     * @param delayMillis the settle delay in milliseconds
+     */
+    void setResizeSettleDelay(long delayMillis);
+
+    /**
+     * @return the settle delay in milliseconds
+     */
+    long getResizeSettleDelay();
+
     /**
      * Pause the rendering thread, optionally tearing down the EGL context
      * depending upon the value of {@link #setPreserveEGLContextOnPause(boolean)}.
@@ -317,4 +495,28 @@ public interface GLStuff {
      * @param r the runnable to be run on the GL rendering thread.
      */
     void queueEvent(Runnable r);
+
+    /**
+     * Capture the next frame drawn by the renderer. The frame is read back
+     * right before it is swapped, and delivered to the callback on
+     * a background thread once the GPU finishes it, so neither the
+     * rendering thread nor the GPU pipeline is stalled. On OpenGL ES 2.0
+     * the frame is read back synchronously.
+     * <p>
+     * Must not be called before a renderer is set.
+     *
+     * @param callback the callback to receive the pixels
+     */
+    void captureFrameAsync(FrameCaptureCallback callback);
+
+    /**
+     * Get a snapshot of the state of the rendering thread, like whether it's
+     * waiting for a surface or paused. It doesn't wait for the rendering
+     * thread, so it could be called any time from any thread, e.g. when
+     * a view stays black.
+     *
+     * @return the state of the rendering thread, or null if no renderer is set
+     * @see RenderThreadState#dump(StringBuilder)
+     */
+    RenderThreadState getRenderThreadState();
 }
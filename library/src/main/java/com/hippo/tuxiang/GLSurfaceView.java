@@ -18,7 +18,6 @@ package com.hippo.tuxiang;
 
 import android.content.Context;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
@@ -210,6 +209,21 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
         return mGLWrapper;
     }
 
+    @Override
+    public void addGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.add(hook);
+    }
+
+    @Override
+    public void removeGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.remove(hook);
+    }
+
+    @Override
+    public GLFrameHook[] getGLFrameHooks() {
+        return mGLFrameHooks.get();
+    }
+
     @Override
     public void setDebugFlags(int debugFlags) {
         mDebugFlags = debugFlags;
@@ -230,6 +244,22 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
         return mPreserveEGLContextOnPause;
     }
 
+    @Override
+    public void setPreserveEGLBackBuffer(boolean preserve) {
+        checkRenderThreadState();
+        mPreserveEGLBackBuffer = preserve;
+    }
+
+    @Override
+    public boolean getPreserveEGLBackBuffer() {
+        return mPreserveEGLBackBuffer;
+    }
+
+    @Override
+    public boolean isEGLBackBufferPreserved() {
+        return mGLThread != null && mGLThread.isEGLBackBufferPreserved();
+    }
+
     private void checkRenderThreadState() {
         if (mGLThread != null) {
             throw new IllegalStateException(
@@ -241,7 +271,10 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
     public void setRenderer(Renderer renderer) {
         checkRenderThreadState();
         if (mEGLConfigChooser == null) {
-            mEGLConfigChooser = new SimpleEGLConfigChooser(mEGLContextClientVersion, true);
+            final SimpleEGLConfigChooser chooser =
+                    new SimpleEGLConfigChooser(mEGLContextClientVersion, true);
+            chooser.setPreferPreservedBackBuffer(mPreserveEGLBackBuffer);
+            mEGLConfigChooser = chooser;
         }
         if (mEGLContextFactory == null) {
             mEGLContextFactory = new DefaultContextFactory(mEGLContextClientVersion);
@@ -259,6 +292,26 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
         return mRenderer;
     }
 
+    @Override
+    public GLResourceRegistry getGLResourceRegistry() {
+        return mGLResourceRegistry;
+    }
+
+    @Override
+    public DirectBufferPool getDirectBufferPool() {
+        return mDirectBufferPool;
+    }
+
+    @Override
+    public FrameMetrics getFrameMetrics() {
+        return mFrameMetrics;
+    }
+
+    @Override
+    public BlockingMetrics getBlockingMetrics() {
+        return mBlockingMetrics;
+    }
+
     @Override
     public void setEGLContextFactory(EGLContextFactory factory) {
         checkRenderThreadState();
@@ -318,6 +371,40 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
         mGLThread.requestRender();
     }
 
+    @Override
+    public void setResizePolicy(int policy) {
+        if (policy != RESIZE_POLICY_BLOCKING && policy != RESIZE_POLICY_DEBOUNCED) {
+            throw new IllegalArgumentException("policy");
+        }
+        mResizePolicy = policy;
+    }
+
+    @Override
+    public int getResizePolicy() {
+        return mResizePolicy;
+    }
+
+    @Override
+    public void setResizeSettleDelay(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("delayMillis < 0");
+        }
+        mResizeSettleDelay = delayMillis;
+    }
+
+    @Override
+    public long getResizeSettleDelay() {
+        return mResizeSettleDelay;
+    }
+
+    private void windowResize(int w, int h) {
+        if (mResizePolicy == RESIZE_POLICY_DEBOUNCED) {
+            mGLThread.onWindowResizeDebounced(w, h, mResizeSettleDelay);
+        } else {
+            mGLThread.onWindowResize(w, h);
+        }
+    }
+
     /**
      * This method is part of the SurfaceHolder.Callback2 interface, and is
      * not normally called or subclassed by clients of GLSurfaceView.
@@ -343,7 +430,7 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
      */
     @Override
     public void surfaceChanged(SurfaceHolder holder, int format, int w, int h) {
-        mGLThread.onWindowResize(w, h);
+        windowResize(w, h);
     }
 
     /**
@@ -383,6 +470,17 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
         mGLThread.queueEvent(r);
     }
 
+    @Override
+    public void captureFrameAsync(FrameCaptureCallback callback) {
+        mGLThread.captureFrameAsync(callback);
+    }
+
+    @Override
+    public RenderThreadState getRenderThreadState() {
+        final GLThread glThread = mGLThread;
+        return glThread != null ? glThread.getRenderThreadState() : null;
+    }
+
     /**
      * This method is used as part of the View class and is not normally
      * called or subclassed by clients of GLSurfaceView.
@@ -390,9 +488,7 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        if (LOG_ATTACH_DETACH) {
-            Log.d(TAG, "onAttachedToWindow reattach =" + mDetached);
-        }
+        GLLog.log(GLLog.ATTACHED, mDetached ? 1 : 0);
         if (mDetached && (mRenderer != null)) {
             int renderMode = RENDERMODE_CONTINUOUSLY;
             if (mGLThread != null) {
@@ -409,9 +505,7 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
 
     @Override
     protected void onDetachedFromWindow() {
-        if (LOG_ATTACH_DETACH) {
-            Log.d(TAG, "onDetachedFromWindow");
-        }
+        GLLog.log(GLLog.DETACHED);
         if (mGLThread != null) {
             mGLThread.requestExitAndWait();
         }
@@ -421,6 +515,10 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
 
     private final WeakReference<GLStuff> mThisWeakRef =
             new WeakReference<>((GLStuff) this);
+    private final GLResourceRegistry mGLResourceRegistry = new GLResourceRegistry();
+    private final DirectBufferPool mDirectBufferPool = new DirectBufferPool();
+    private final FrameMetrics mFrameMetrics = new FrameMetrics();
+    private final BlockingMetrics mBlockingMetrics = new BlockingMetrics();
     private GLThread mGLThread;
     private Renderer mRenderer;
     private boolean mDetached;
@@ -428,7 +526,11 @@ public class GLSurfaceView extends SurfaceView implements GLStuff, SurfaceHolder
     private EGLContextFactory mEGLContextFactory;
     private EGLWindowSurfaceFactory mEGLWindowSurfaceFactory;
     private GLWrapper mGLWrapper;
+    private final GLFrameHooks mGLFrameHooks = new GLFrameHooks();
     private int mDebugFlags;
     private int mEGLContextClientVersion;
     private boolean mPreserveEGLContextOnPause;
+    private boolean mPreserveEGLBackBuffer;
+    private int mResizePolicy = RESIZE_POLICY_BLOCKING;
+    private long mResizeSettleDelay = 100;
 }
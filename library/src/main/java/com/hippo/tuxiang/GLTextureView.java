@@ -3,7 +3,6 @@ package com.hippo.tuxiang;
 import android.content.Context;
 import android.graphics.SurfaceTexture;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.TextureView;
 
 import java.lang.ref.WeakReference;
@@ -61,6 +60,21 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
         return mGLWrapper;
     }
 
+    @Override
+    public void addGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.add(hook);
+    }
+
+    @Override
+    public void removeGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.remove(hook);
+    }
+
+    @Override
+    public GLFrameHook[] getGLFrameHooks() {
+        return mGLFrameHooks.get();
+    }
+
     @Override
     public void setDebugFlags(int debugFlags) {
         mDebugFlags = debugFlags;
@@ -81,6 +95,22 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
         return mPreserveEGLContextOnPause;
     }
 
+    @Override
+    public void setPreserveEGLBackBuffer(boolean preserve) {
+        checkRenderThreadState();
+        mPreserveEGLBackBuffer = preserve;
+    }
+
+    @Override
+    public boolean getPreserveEGLBackBuffer() {
+        return mPreserveEGLBackBuffer;
+    }
+
+    @Override
+    public boolean isEGLBackBufferPreserved() {
+        return mGLThread != null && mGLThread.isEGLBackBufferPreserved();
+    }
+
     private void checkRenderThreadState() {
         if (mGLThread != null) {
             throw new IllegalStateException(
@@ -92,7 +122,10 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
     public void setRenderer(Renderer renderer) {
         checkRenderThreadState();
         if (mEGLConfigChooser == null) {
-            mEGLConfigChooser = new SimpleEGLConfigChooser(mEGLContextClientVersion, true);
+            final SimpleEGLConfigChooser chooser =
+                    new SimpleEGLConfigChooser(mEGLContextClientVersion, true);
+            chooser.setPreferPreservedBackBuffer(mPreserveEGLBackBuffer);
+            mEGLConfigChooser = chooser;
         }
         if (mEGLContextFactory == null) {
             mEGLContextFactory = new DefaultContextFactory(mEGLContextClientVersion);
@@ -110,6 +143,26 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
         return mRenderer;
     }
 
+    @Override
+    public GLResourceRegistry getGLResourceRegistry() {
+        return mGLResourceRegistry;
+    }
+
+    @Override
+    public DirectBufferPool getDirectBufferPool() {
+        return mDirectBufferPool;
+    }
+
+    @Override
+    public FrameMetrics getFrameMetrics() {
+        return mFrameMetrics;
+    }
+
+    @Override
+    public BlockingMetrics getBlockingMetrics() {
+        return mBlockingMetrics;
+    }
+
     @Override
     public void setEGLContextFactory(EGLContextFactory factory) {
         checkRenderThreadState();
@@ -169,6 +222,40 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
         mGLThread.requestRender();
     }
 
+    @Override
+    public void setResizePolicy(int policy) {
+        if (policy != RESIZE_POLICY_BLOCKING && policy != RESIZE_POLICY_DEBOUNCED) {
+            throw new IllegalArgumentException("policy");
+        }
+        mResizePolicy = policy;
+    }
+
+    @Override
+    public int getResizePolicy() {
+        return mResizePolicy;
+    }
+
+    @Override
+    public void setResizeSettleDelay(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("delayMillis < 0");
+        }
+        mResizeSettleDelay = delayMillis;
+    }
+
+    @Override
+    public long getResizeSettleDelay() {
+        return mResizeSettleDelay;
+    }
+
+    private void windowResize(int w, int h) {
+        if (mResizePolicy == RESIZE_POLICY_DEBOUNCED) {
+            mGLThread.onWindowResizeDebounced(w, h, mResizeSettleDelay);
+        } else {
+            mGLThread.onWindowResize(w, h);
+        }
+    }
+
     /**
      * This method is part of the {@link android.view.TextureView.SurfaceTextureListener}
      * interface, and is not normally called or subclassed by clients of GLTextureView.
@@ -176,7 +263,7 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
     @Override
     public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
         mGLThread.surfaceCreated();
-        mGLThread.onWindowResize(width, height);
+        windowResize(width, height);
     }
 
     /**
@@ -185,7 +272,7 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
      */
     @Override
     public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
-        mGLThread.onWindowResize(width, height);
+        windowResize(width, height);
     }
 
     /**
@@ -223,6 +310,17 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
         mGLThread.queueEvent(r);
     }
 
+    @Override
+    public void captureFrameAsync(FrameCaptureCallback callback) {
+        mGLThread.captureFrameAsync(callback);
+    }
+
+    @Override
+    public RenderThreadState getRenderThreadState() {
+        final GLThread glThread = mGLThread;
+        return glThread != null ? glThread.getRenderThreadState() : null;
+    }
+
     /**
      * This method is used as part of the View class and is not normally
      * called or subclassed by clients of GLTextureView.
@@ -230,9 +328,7 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        if (LOG_ATTACH_DETACH) {
-            Log.d(TAG, "onAttachedToWindow reattach =" + mDetached);
-        }
+        GLLog.log(GLLog.ATTACHED, mDetached ? 1 : 0);
         if (mDetached && (mRenderer != null)) {
             int renderMode = RENDERMODE_CONTINUOUSLY;
             if (mGLThread != null) {
@@ -249,9 +345,7 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
 
     @Override
     protected void onDetachedFromWindow() {
-        if (LOG_ATTACH_DETACH) {
-            Log.d(TAG, "onDetachedFromWindow");
-        }
+        GLLog.log(GLLog.DETACHED);
         if (mGLThread != null) {
             mGLThread.requestExitAndWait();
         }
@@ -261,6 +355,10 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
 
     private final WeakReference<GLStuff> mThisWeakRef =
             new WeakReference<>((GLStuff) this);
+    private final GLResourceRegistry mGLResourceRegistry = new GLResourceRegistry();
+    private final DirectBufferPool mDirectBufferPool = new DirectBufferPool();
+    private final FrameMetrics mFrameMetrics = new FrameMetrics();
+    private final BlockingMetrics mBlockingMetrics = new BlockingMetrics();
     private GLThread mGLThread;
     private Renderer mRenderer;
     private boolean mDetached;
@@ -268,7 +366,11 @@ public class GLTextureView extends TextureView implements GLStuff, TextureView.S
     private EGLContextFactory mEGLContextFactory;
     private EGLWindowSurfaceFactory mEGLWindowSurfaceFactory;
     private GLWrapper mGLWrapper;
+    private final GLFrameHooks mGLFrameHooks = new GLFrameHooks();
     private int mDebugFlags;
     private int mEGLContextClientVersion;
     private boolean mPreserveEGLContextOnPause;
+    private boolean mPreserveEGLBackBuffer;
+    private int mResizePolicy = RESIZE_POLICY_BLOCKING;
+    private long mResizeSettleDelay = 100;
 }
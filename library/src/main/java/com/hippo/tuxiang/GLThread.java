@@ -16,6 +16,7 @@
 
 package com.hippo.tuxiang;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import java.lang.ref.WeakReference;
@@ -23,6 +24,9 @@ import java.util.ArrayList;
 
 import javax.microedition.khronos.egl.EGL10;
 import javax.microedition.khronos.egl.EGL11;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+import javax.microedition.khronos.egl.EGLSurface;
 import javax.microedition.khronos.opengles.GL10;
 
 // android-9.0.0_r30
@@ -35,24 +39,41 @@ import javax.microedition.khronos.opengles.GL10;
  * All potentially blocking synchronization is done through the
  * sGLThreadManager object. This avoids multiple-lock ordering issues.
  *
+ * The steady-state frame path, from taking the monitor to swapping buffers,
+ * doesn't allocate. Keep it that way: reuse arrays, log with {@link GLLog}
+ * instead of building strings, and only create GL wrappers with a new
+ * EGL surface. GLThreadAllocationTest runs the loop on a fake EGL and
+ * fails if it allocates.
  */
 class GLThread extends Thread {
     GLThread(WeakReference<GLStuff> glStuffWeakRef) {
+        this(glStuffWeakRef, (EGL10) EGLContext.getEGL());
+    }
+
+    /**
+     * @param egl the EGL implementation, tests pass a fake one
+     */
+    GLThread(WeakReference<GLStuff> glStuffWeakRef, EGL10 egl) {
         super();
+        mEgl = egl;
         mWidth = 0;
         mHeight = 0;
         mRequestRender = true;
         mRenderMode = GLStuff.RENDERMODE_CONTINUOUSLY;
         mWantRenderNotification = false;
         mGLStuffWeakRef = glStuffWeakRef;
+        mBlockingMetrics = glStuffWeakRef.get().getBlockingMetrics();
+        mTraceEventCounter = "GLThread " + getId() + " events";
+        mTraceRenderRequestCounter = "GLThread " + getId() + " pending render requests";
+        mTraceCookie = (int) getId();
+        // Not started yet, no one else could see the state
+        publishStateLocked();
     }
 
     @Override
     public void run() {
         setName("GLThread " + getId());
-        if (GLStuff.LOG_THREADS) {
-            Log.i("GLThread", "starting tid=" + getId());
-        }
+        GLLog.log(GLLog.THREAD_START, getId());
 
         GLStuff stuff;
 
@@ -67,12 +88,20 @@ class GLThread extends Thread {
         } catch (InterruptedException e) {
             // fall thru and exit normally
         } finally {
+            DirectBufferPool pool = null;
             stuff = mGLStuffWeakRef.get();
             if (stuff != null) {
                 stuff.getRenderer().onGLThreadExit();
+                pool = stuff.getDirectBufferPool();
                 stuff = null;
             }
+            mFrameCapturer.release(pool);
+            mActivity = RenderActivity.STOPPED;
+            final long exitStart = System.nanoTime();
             sGLThreadManager.threadExiting(this);
+            final long exitEnd = System.nanoTime();
+            mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD, RenderActivity.STOPPED,
+                    exitStart, exitEnd, exitEnd);
         }
     }
 
@@ -84,6 +113,7 @@ class GLThread extends Thread {
         if (mHaveEglSurface) {
             mHaveEglSurface = false;
             mEglHelper.destroySurface();
+            publishEglState();
         }
     }
 
@@ -93,14 +123,23 @@ class GLThread extends Thread {
      */
     private void stopEglContextLocked() {
         if (mHaveEglContext) {
+            // Resources may hold contexts in the share group, e.g. the
+            // TextureUploader worker, release them before eglTerminate
+            mFrameCapturer.onContextLost();
+            GLStuff stuff = mGLStuffWeakRef.get();
+            if (stuff != null) {
+                stuff.getGLResourceRegistry().onContextLost();
+                stuff = null;
+            }
             mEglHelper.finish();
+            publishEglState();
             mHaveEglContext = false;
             sGLThreadManager.releaseEglContextLocked(this);
         }
     }
 
     private void guardedRun() throws InterruptedException {
-        mEglHelper = new EglHelper(mGLStuffWeakRef);
+        mEglHelper = new EglHelper(mGLStuffWeakRef, mEgl);
         mHaveEglContext = false;
         mHaveEglSurface = false;
         mWantRenderNotification = false;
@@ -119,9 +158,20 @@ class GLThread extends Thread {
             int h = 0;
             Runnable event = null;
             Runnable finishDrawingRunnable = null;
+            // Frame timing, in nanoseconds
+            long lastFrameTime = 0;
+            long eventNanos = 0;
+            long waitNanos = 0;
+            long surfaceChangedNanos = 0;
+            boolean idle = false;
 
             while (true) {
+                final boolean tracing = GLTrace.isTracing();
+                final long lockStart = System.nanoTime();
+                final long locked;
                 synchronized (sGLThreadManager) {
+                    locked = System.nanoTime();
+                    mActivity = RenderActivity.MANAGING;
                     while (true) {
                         if (mShouldExit) {
                             return;
@@ -129,18 +179,25 @@ class GLThread extends Thread {
 
                         if (! mEventQueue.isEmpty()) {
                             event = mEventQueue.remove(0);
+                            if (tracing) {
+                                GLTrace.setCounter(mTraceEventCounter, mEventQueue.size());
+                            }
                             break;
                         }
 
+                        // Has the debounced size settled?
+                        if (mResizePending && SystemClock.uptimeMillis() >= mResizeDeadline) {
+                            applyPendingResizeLocked();
+                        }
+
                         // Update the pause state.
                         boolean pausing = false;
                         if (mPaused != mRequestPaused) {
                             pausing = mRequestPaused;
                             mPaused = mRequestPaused;
+                            publishStateLocked();
                             sGLThreadManager.notifyAll();
-                            if (GLStuff.LOG_PAUSE_RESUME) {
-                                Log.i("GLThread", "mPaused is now " + mPaused + " tid=" + getId());
-                            }
+                            GLLog.log(GLLog.PAUSED_CHANGED, getId(), mPaused ? 1 : 0);
                             GLStuff stuff = mGLStuffWeakRef.get();
                             if (stuff != null) {
                                 if (pausing) {
@@ -154,9 +211,7 @@ class GLThread extends Thread {
 
                         // Do we need to give up the EGL context?
                         if (mShouldReleaseEglContext) {
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "releasing EGL context because asked to tid=" + getId());
-                            }
+                            GLLog.log(GLLog.RELEASE_CONTEXT_ASKED, getId());
                             stopEglSurfaceLocked();
                             stopEglContextLocked();
                             mShouldReleaseEglContext = false;
@@ -172,9 +227,7 @@ class GLThread extends Thread {
 
                         // When pausing, release the EGL surface:
                         if (pausing && mHaveEglSurface) {
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "releasing EGL surface because paused tid=" + getId());
-                            }
+                            GLLog.log(GLLog.RELEASE_SURFACE_PAUSED, getId());
                             stopEglSurfaceLocked();
                         }
 
@@ -185,41 +238,36 @@ class GLThread extends Thread {
                                     false : stuff.getPreserveEGLContextOnPause();
                             if (!preserveEglContextOnPause) {
                                 stopEglContextLocked();
-                                if (GLStuff.LOG_SURFACE) {
-                                    Log.i("GLThread", "releasing EGL context because paused tid=" + getId());
-                                }
+                                GLLog.log(GLLog.RELEASE_CONTEXT_PAUSED, getId());
                             }
                         }
 
                         // Have we lost the SurfaceView surface?
                         if ((! mHasSurface) && (! mWaitingForSurface)) {
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "noticed surfaceView surface lost tid=" + getId());
-                            }
+                            GLLog.log(GLLog.SURFACE_LOST, getId());
                             if (mHaveEglSurface) {
                                 stopEglSurfaceLocked();
                             }
                             mWaitingForSurface = true;
                             mSurfaceIsBad = false;
+                            publishStateLocked();
                             sGLThreadManager.notifyAll();
                         }
 
                         // Have we acquired the surface view surface?
                         if (mHasSurface && mWaitingForSurface) {
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "noticed surfaceView surface acquired tid=" + getId());
-                            }
+                            GLLog.log(GLLog.SURFACE_ACQUIRED, getId());
                             mWaitingForSurface = false;
+                            publishStateLocked();
                             sGLThreadManager.notifyAll();
                         }
 
                         if (doRenderNotification) {
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "sending render notification tid=" + getId());
-                            }
+                            GLLog.log(GLLog.SEND_RENDER_NOTIFICATION, getId());
                             mWantRenderNotification = false;
                             doRenderNotification = false;
                             mRenderComplete = true;
+                            publishStateLocked();
                             sGLThreadManager.notifyAll();
                         }
 
@@ -236,15 +284,26 @@ class GLThread extends Thread {
                                 if (askedToReleaseEglContext) {
                                     askedToReleaseEglContext = false;
                                 } else {
+                                    if (tracing) {
+                                        GLTrace.beginSection("eglCreateContext");
+                                    }
+                                    mActivity = RenderActivity.CREATE_CONTEXT;
                                     try {
                                         mEglHelper.start();
+                                        publishEglState();
                                     } catch (RuntimeException t) {
                                         sGLThreadManager.releaseEglContextLocked(this);
                                         throw t;
+                                    } finally {
+                                        if (tracing) {
+                                            GLTrace.endSection();
+                                        }
+                                        mActivity = RenderActivity.MANAGING;
                                     }
                                     mHaveEglContext = true;
                                     createEglContext = true;
 
+                                    publishStateLocked();
                                     sGLThreadManager.notifyAll();
                                 }
                             }
@@ -262,18 +321,19 @@ class GLThread extends Thread {
                                     w = mWidth;
                                     h = mHeight;
                                     mWantRenderNotification = true;
-                                    if (GLStuff.LOG_SURFACE) {
-                                        Log.i("GLThread",
-                                                "noticing that we want render notification tid="
-                                                        + getId());
-                                    }
+                                    GLLog.log(GLLog.WANT_RENDER_NOTIFICATION, getId());
 
-                                    // Destroy and recreate the EGL surface.
-                                    createEglSurface = true;
+                                    // The EGL window surface follows the size of
+                                    // the native window, only recreate it if the
+                                    // native window itself has changed.
+                                    if (mEglHelper.isNativeWindowChanged()) {
+                                        createEglSurface = true;
+                                    }
 
                                     mSizeChanged = false;
                                 }
                                 mRequestRender = false;
+                                publishStateLocked();
                                 sGLThreadManager.notifyAll();
                                 if (mWantRenderNotification) {
                                     wantRenderNotification = true;
@@ -290,45 +350,70 @@ class GLThread extends Thread {
                         }
 
                         // By design, this is the only place in a GLThread thread where we wait().
-                        if (GLStuff.LOG_THREADS) {
-                            Log.i("GLThread", "waiting tid=" + getId()
-                                    + " mHaveEglContext: " + mHaveEglContext
-                                    + " mHaveEglSurface: " + mHaveEglSurface
-                                    + " mFinishedCreatingEglSurface: " + mFinishedCreatingEglSurface
-                                    + " mPaused: " + mPaused
-                                    + " mHasSurface: " + mHasSurface
-                                    + " mSurfaceIsBad: " + mSurfaceIsBad
-                                    + " mWaitingForSurface: " + mWaitingForSurface
-                                    + " mWidth: " + mWidth
-                                    + " mHeight: " + mHeight
-                                    + " mRequestRender: " + mRequestRender
-                                    + " mRenderMode: " + mRenderMode);
+                        if (GLLog.isEnabled(GLLog.THREADS)) {
+                            GLLog.log(GLLog.THREAD_WAIT, getId(), getWaitFlagsLocked(),
+                                    mWidth, mHeight);
                         }
-                        sGLThreadManager.wait();
+                        final long waitStart = System.nanoTime();
+                        mActivity = RenderActivity.IDLE;
+                        publishStateLocked();
+                        if (mResizePending) {
+                            // Wake up when the debounced size settles
+                            final long timeout = mResizeDeadline - SystemClock.uptimeMillis();
+                            sGLThreadManager.wait(Math.max(timeout, 1));
+                        } else {
+                            sGLThreadManager.wait();
+                        }
+                        mActivity = RenderActivity.MANAGING;
+                        waitNanos += System.nanoTime() - waitStart;
+                        idle = true;
                     }
+                    publishStateLocked();
                 } // end of synchronized(sGLThreadManager)
+                mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD, RenderActivity.MANAGING,
+                        lockStart, locked, locked);
 
                 if (event != null) {
+                    mActivity = RenderActivity.EVENT;
+                    final long eventStart = System.nanoTime();
+                    if (tracing) {
+                        GLTrace.beginSection("GLThread event");
+                    }
                     event.run();
+                    if (tracing) {
+                        GLTrace.endSection();
+                    }
+                    eventNanos += System.nanoTime() - eventStart;
                     event = null;
                     continue;
                 }
 
                 if (createEglSurface) {
-                    if (GLStuff.LOG_SURFACE) {
-                        Log.w("GLThread", "egl createSurface");
+                    GLLog.log(GLLog.CREATE_SURFACE);
+                    mActivity = RenderActivity.CREATE_SURFACE;
+                    if (tracing) {
+                        GLTrace.beginSection("eglCreateWindowSurface");
                     }
-                    if (mEglHelper.createSurface()) {
-                        synchronized(sGLThreadManager) {
-                            mFinishedCreatingEglSurface = true;
-                            sGLThreadManager.notifyAll();
-                        }
-                    } else {
-                        synchronized(sGLThreadManager) {
-                            mFinishedCreatingEglSurface = true;
+                    final boolean created = mEglHelper.createSurface();
+                    publishEglState();
+                    if (tracing) {
+                        GLTrace.endSection();
+                    }
+                    final long surfaceLockStart = System.nanoTime();
+                    final long surfaceLocked;
+                    synchronized(sGLThreadManager) {
+                        surfaceLocked = System.nanoTime();
+                        mFinishedCreatingEglSurface = true;
+                        if (!created) {
                             mSurfaceIsBad = true;
-                            sGLThreadManager.notifyAll();
                         }
+                        publishStateLocked();
+                        sGLThreadManager.notifyAll();
+                    }
+                    mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD,
+                            RenderActivity.CREATE_SURFACE, surfaceLockStart, surfaceLocked,
+                            surfaceLocked);
+                    if (!created) {
                         continue;
                     }
                     createEglSurface = false;
@@ -341,37 +426,81 @@ class GLThread extends Thread {
                 }
 
                 if (createEglContext) {
-                    if (GLStuff.LOG_RENDERER) {
-                        Log.w("GLThread", "onSurfaceCreated");
-                    }
+                    GLLog.log(GLLog.ON_SURFACE_CREATED);
                     GLStuff stuff = mGLStuffWeakRef.get();
                     if (stuff != null) {
+                        mActivity = RenderActivity.SURFACE_CREATED;
+                        stuff.getGLResourceRegistry().onContextCreated();
+                        if (tracing) {
+                            GLTrace.beginSection("onSurfaceCreated");
+                        }
                         stuff.getRenderer().onSurfaceCreated(gl, mEglHelper.mEglConfig);
+                        if (tracing) {
+                            GLTrace.endSection();
+                        }
                         stuff = null;
                     }
                     createEglContext = false;
                 }
 
                 if (sizeChanged) {
-                    if (GLStuff.LOG_RENDERER) {
-                        Log.w("GLThread", "onSurfaceChanged(" + w + ", " + h + ")");
-                    }
+                    mEglHelper.invalidateDamageHistory();
+                    GLLog.log(GLLog.ON_SURFACE_CHANGED, w, h);
                     GLStuff stuff = mGLStuffWeakRef.get();
                     if (stuff != null) {
+                        mActivity = RenderActivity.SURFACE_CHANGED;
+                        final long surfaceChangedStart = System.nanoTime();
+                        if (tracing) {
+                            GLTrace.beginSection("onSurfaceChanged");
+                        }
                         stuff.getRenderer().onSurfaceChanged(gl, w, h);
+                        if (tracing) {
+                            GLTrace.endSection();
+                        }
+                        surfaceChangedNanos += System.nanoTime() - surfaceChangedStart;
                         stuff = null;
                     }
                     sizeChanged = false;
                 }
 
-                if (GLStuff.LOG_RENDERER_DRAW_FRAME) {
-                    Log.w("GLThread", "onDrawFrame tid=" + getId());
-                }
+                GLLog.log(GLLog.ON_DRAW_FRAME, getId());
                 boolean drew = false;
+                DamageRegion damage = null;
+                FrameMetrics metrics = null;
+                long drawNanos = 0;
                 {
                     GLStuff stuff = mGLStuffWeakRef.get();
                     if (stuff != null) {
-                        drew = stuff.getRenderer().onDrawFrame(gl);
+                        mActivity = RenderActivity.DRAW;
+                        stuff.getGLResourceRegistry().restorePending();
+                        mFrameCapturer.poll();
+                        final Renderer renderer = stuff.getRenderer();
+                        if (renderer instanceof DamageRenderer) {
+                            damage = mDamageRegion;
+                            damage.reset(w, h);
+                            ((DamageRenderer) renderer).onComputeDamage(damage);
+                            mEglHelper.prepareDamage(damage);
+                        }
+                        final GLFrameHook[] hooks = stuff.getGLFrameHooks();
+                        for (GLFrameHook hook : hooks) {
+                            hook.onFrameBegin(gl);
+                        }
+                        final long drawStart = System.nanoTime();
+                        if (tracing) {
+                            GLTrace.beginSection("onDrawFrame");
+                        }
+                        drew = renderer.onDrawFrame(gl);
+                        if (tracing) {
+                            GLTrace.endSection();
+                        }
+                        drawNanos = System.nanoTime() - drawStart;
+                        for (GLFrameHook hook : hooks) {
+                            hook.onFrameEnd(gl, drew);
+                        }
+                        if (drew) {
+                            mFrameCapturer.onFrameDrawn(w, h);
+                        }
+                        metrics = stuff.getFrameMetrics();
                         stuff = null;
                         if (finishDrawingRunnable != null) {
                             finishDrawingRunnable.run();
@@ -379,15 +508,24 @@ class GLThread extends Thread {
                         }
                     }
                 }
+                long swapNanos = 0;
                 if (drew) {
-                    final int swapError = mEglHelper.swap();
+                    mActivity = RenderActivity.SWAP;
+                    final long swapStart = System.nanoTime();
+                    if (tracing) {
+                        GLTrace.beginSection("eglSwapBuffers");
+                    }
+                    final int swapError = mEglHelper.swap(damage);
+                    if (tracing) {
+                        GLTrace.endSection();
+                    }
+                    swapNanos = System.nanoTime() - swapStart;
+                    mStatePublisher.publishSwap(swapError, swapStart + swapNanos);
                     switch (swapError) {
                         case EGL10.EGL_SUCCESS:
                             break;
                         case EGL11.EGL_CONTEXT_LOST:
-                            if (GLStuff.LOG_SURFACE) {
-                                Log.i("GLThread", "egl context lost tid=" + getId());
-                            }
+                            GLLog.log(GLLog.CONTEXT_LOST, getId());
                             lostEglContext = true;
                             break;
                         default:
@@ -397,14 +535,36 @@ class GLThread extends Thread {
                             // Log the error to help developers understand why rendering stopped.
                             EglHelper.logEglErrorAsWarning("GLThread", "eglSwapBuffers", swapError);
 
+                            final long badLockStart = System.nanoTime();
+                            final long badLocked;
                             synchronized (sGLThreadManager) {
+                                badLocked = System.nanoTime();
                                 mSurfaceIsBad = true;
+                                publishStateLocked();
                                 sGLThreadManager.notifyAll();
                             }
+                            mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD,
+                                    RenderActivity.SWAP, badLockStart, badLocked, badLocked);
                             break;
                     }
                 }
 
+                if (tracing) {
+                    endRenderRequestTrace();
+                }
+
+                if (metrics != null) {
+                    final long now = System.nanoTime();
+                    metrics.onFrame(lastFrameTime != 0 ? now - lastFrameTime : 0,
+                            eventNanos, surfaceChangedNanos, drawNanos, swapNanos, waitNanos, idle);
+                    metrics = null;
+                    lastFrameTime = now;
+                    eventNanos = 0;
+                    waitNanos = 0;
+                    surfaceChangedNanos = 0;
+                    idle = false;
+                }
+
                 if (wantRenderNotification) {
                     doRenderNotification = true;
                     wantRenderNotification = false;
@@ -415,13 +575,142 @@ class GLThread extends Thread {
             /*
              * clean-up everything...
              */
+            final long lockStart = System.nanoTime();
+            final long locked;
             synchronized (sGLThreadManager) {
+                locked = System.nanoTime();
+                mActivity = RenderActivity.MANAGING;
                 stopEglSurfaceLocked();
                 stopEglContextLocked();
+                publishStateLocked();
             }
+            mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD, RenderActivity.MANAGING,
+                    lockStart, locked, locked);
         }
     }
 
+    public boolean isEGLBackBufferPreserved() {
+        final EglHelper eglHelper = mEglHelper;
+        return eglHelper != null && eglHelper.mBackBufferPreserved;
+    }
+
+    /*
+     * This private method should only be called inside a
+     * synchronized(sGLThreadManager) block.
+     */
+    private int getWaitFlagsLocked() {
+        int flags = 0;
+        if (mHaveEglContext) {
+            flags |= GLLog.WAIT_HAVE_EGL_CONTEXT;
+        }
+        if (mHaveEglSurface) {
+            flags |= GLLog.WAIT_HAVE_EGL_SURFACE;
+        }
+        if (mFinishedCreatingEglSurface) {
+            flags |= GLLog.WAIT_FINISHED_CREATING_EGL_SURFACE;
+        }
+        if (mPaused) {
+            flags |= GLLog.WAIT_PAUSED;
+        }
+        if (mHasSurface) {
+            flags |= GLLog.WAIT_HAS_SURFACE;
+        }
+        if (mSurfaceIsBad) {
+            flags |= GLLog.WAIT_SURFACE_IS_BAD;
+        }
+        if (mWaitingForSurface) {
+            flags |= GLLog.WAIT_WAITING_FOR_SURFACE;
+        }
+        if (mRequestRender) {
+            flags |= GLLog.WAIT_REQUEST_RENDER;
+        }
+        if (mRenderMode == GLStuff.RENDERMODE_CONTINUOUSLY) {
+            flags |= GLLog.WAIT_RENDER_CONTINUOUSLY;
+        }
+        return flags;
+    }
+
+    /*
+     * Publish the state for getRenderThreadState(). This method should only be called
+     * inside a synchronized(sGLThreadManager) block.
+     */
+    void publishStateLocked() {
+        int flags = 0;
+        if (mShouldExit) {
+            flags |= RenderThreadState.FLAG_EXIT_REQUESTED;
+        }
+        if (mExited) {
+            flags |= RenderThreadState.FLAG_EXITED;
+        }
+        if (mRequestPaused) {
+            flags |= RenderThreadState.FLAG_PAUSE_REQUESTED;
+        }
+        if (mPaused) {
+            flags |= RenderThreadState.FLAG_PAUSED;
+        }
+        if (mHasSurface) {
+            flags |= RenderThreadState.FLAG_HAS_SURFACE;
+        }
+        if (mSurfaceIsBad) {
+            flags |= RenderThreadState.FLAG_SURFACE_IS_BAD;
+        }
+        if (mWaitingForSurface) {
+            flags |= RenderThreadState.FLAG_WAITING_FOR_SURFACE;
+        }
+        if (mHaveEglContext) {
+            flags |= RenderThreadState.FLAG_HAVE_EGL_CONTEXT;
+        }
+        if (mHaveEglSurface) {
+            flags |= RenderThreadState.FLAG_HAVE_EGL_SURFACE;
+        }
+        if (mFinishedCreatingEglSurface) {
+            flags |= RenderThreadState.FLAG_FINISHED_CREATING_EGL_SURFACE;
+        }
+        if (mShouldReleaseEglContext) {
+            flags |= RenderThreadState.FLAG_RELEASE_EGL_CONTEXT_REQUESTED;
+        }
+        if (mRequestRender) {
+            flags |= RenderThreadState.FLAG_RENDER_REQUESTED;
+        }
+        if (mWantRenderNotification) {
+            flags |= RenderThreadState.FLAG_RENDER_NOTIFICATION_WANTED;
+        }
+        if (mRenderComplete) {
+            flags |= RenderThreadState.FLAG_RENDER_COMPLETE;
+        }
+        if (mSizeChanged) {
+            flags |= RenderThreadState.FLAG_SIZE_CHANGED;
+        }
+        if (mResizePending) {
+            flags |= RenderThreadState.FLAG_RESIZE_PENDING;
+        }
+        if (readyToDraw()) {
+            flags |= RenderThreadState.FLAG_READY_TO_DRAW;
+        }
+        mStatePublisher.publish(flags, mWidth, mHeight, mPendingWidth, mPendingHeight,
+                mRenderMode, mEventQueue.size());
+    }
+
+    /*
+     * Only called on the rendering thread.
+     */
+    private void publishEglState() {
+        final EglHelper eglHelper = mEglHelper;
+        final EGLSurface surface = eglHelper.mEglSurface;
+        final EGLContext context = eglHelper.mEglContext;
+        final EGLDisplay display = eglHelper.mEglDisplay;
+        mStatePublisher.publishEgl(display != EGL10.EGL_NO_DISPLAY ? display : null,
+                context != EGL10.EGL_NO_CONTEXT ? context : null,
+                surface != EGL10.EGL_NO_SURFACE ? surface : null);
+    }
+
+    /**
+     * @return a snapshot of the state, without taking the monitor
+     */
+    public RenderThreadState getRenderThreadState() {
+        return mStatePublisher.snapshot(mActivity);
+    }
+
     public boolean ableToDraw() {
         return mHaveEglContext && mHaveEglSurface && readyToDraw();
     }
@@ -436,27 +725,90 @@ class GLThread extends Thread {
         if ( !((GLStuff.RENDERMODE_WHEN_DIRTY <= renderMode) && (renderMode <= GLStuff.RENDERMODE_CONTINUOUSLY)) ) {
             throw new IllegalArgumentException("renderMode");
         }
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             mRenderMode = renderMode;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
         }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked,
+                System.nanoTime());
     }
 
     public int getRenderMode() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
+        final int renderMode;
         synchronized(sGLThreadManager) {
-            return mRenderMode;
+            locked = System.nanoTime();
+            activity = mActivity;
+            renderMode = mRenderMode;
         }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked, locked);
+        return renderMode;
     }
 
     public void requestRender() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             mRequestRender = true;
+            if (GLTrace.isTracing()) {
+                beginRenderRequestTraceLocked();
+            }
+            publishStateLocked();
             sGLThreadManager.notifyAll();
         }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked,
+                System.nanoTime());
+    }
+
+    /*
+     * Trace the time from a render request to the frame which serves it.
+     * This private method should only be called inside a
+     * synchronized(sGLThreadManager) block.
+     */
+    private void beginRenderRequestTraceLocked() {
+        GLTrace.setCounter(mTraceRenderRequestCounter, ++mPendingRenderRequests);
+        if (!mRenderRequestTraced) {
+            mRenderRequestTraced = true;
+            GLTrace.beginAsyncSection("requestRender", mTraceCookie);
+        }
+    }
+
+    private void endRenderRequestTrace() {
+        final long start = System.nanoTime();
+        final long locked;
+        synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            if (mRenderRequestTraced) {
+                mRenderRequestTraced = false;
+                GLTrace.endAsyncSection("requestRender", mTraceCookie);
+            }
+            if (mPendingRenderRequests != 0) {
+                mPendingRenderRequests = 0;
+                GLTrace.setCounter(mTraceRenderRequestCounter, 0);
+            }
+        }
+        mBlockingMetrics.record(BlockingMetrics.RENDER_THREAD, RenderActivity.SWAP,
+                start, locked, locked);
     }
 
     public void requestRenderAndNotify(Runnable finishDrawing) {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             // If we are already on the GL thread, this means a client callback
             // has caused reentrancy, for example via updating the SurfaceView parameters.
             // We will return to the client rendering code, so here we don't need to
@@ -470,12 +822,20 @@ class GLThread extends Thread {
             mRenderComplete = false;
             mFinishDrawingRunnable = finishDrawing;
 
+            publishStateLocked();
             sGLThreadManager.notifyAll();
         }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked,
+                System.nanoTime());
     }
 
     public void requestRenderAndWait() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             // If we are already on the GL thread, this means a client callback
             // has caused reentrancy, for example via updating the SurfaceView parameters.
             // We will return to the client rendering code, so here we don't need to
@@ -488,6 +848,7 @@ class GLThread extends Thread {
             mRequestRender = true;
             mRenderComplete = false;
 
+            publishStateLocked();
             sGLThreadManager.notifyAll();
 
             while (!mExited && !mPaused && !mRenderComplete && ableToDraw()) {
@@ -498,15 +859,21 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.REQUEST_RENDER_AND_WAIT, activity, start, locked,
+                System.nanoTime());
     }
 
     public void surfaceCreated() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
-            if (GLStuff.LOG_THREADS) {
-                Log.i("GLThread", "surfaceCreated tid=" + getId());
-            }
+            locked = System.nanoTime();
+            activity = mActivity;
+            GLLog.log(GLLog.SURFACE_CREATED, getId());
             mHasSurface = true;
             mFinishedCreatingEglSurface = false;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
             while (mWaitingForSurface
                     && !mFinishedCreatingEglSurface
@@ -518,14 +885,20 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.SURFACE_CREATED, activity, start, locked,
+                System.nanoTime());
     }
 
     public void surfaceDestroyed() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
-            if (GLStuff.LOG_THREADS) {
-                Log.i("GLThread", "surfaceDestroyed tid=" + getId());
-            }
+            locked = System.nanoTime();
+            activity = mActivity;
+            GLLog.log(GLLog.SURFACE_DESTROYED, getId());
             mHasSurface = false;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
             while((!mWaitingForSurface) && (!mExited)) {
                 try {
@@ -535,19 +908,23 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.SURFACE_DESTROYED, activity, start, locked,
+                System.nanoTime());
     }
 
     public void onPause() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized (sGLThreadManager) {
-            if (GLStuff.LOG_PAUSE_RESUME) {
-                Log.i("GLThread", "onPause tid=" + getId());
-            }
+            locked = System.nanoTime();
+            activity = mActivity;
+            GLLog.log(GLLog.PAUSE, getId());
             mRequestPaused = true;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
             while ((! mExited) && (! mPaused)) {
-                if (GLStuff.LOG_PAUSE_RESUME) {
-                    Log.i("Main thread", "onPause waiting for mPaused.");
-                }
+                GLLog.log(GLLog.PAUSE_WAITING, getId());
                 try {
                     sGLThreadManager.wait();
                 } catch (InterruptedException ex) {
@@ -555,21 +932,25 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.PAUSE, activity, start, locked,
+                System.nanoTime());
     }
 
     public void onResume() {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized (sGLThreadManager) {
-            if (GLStuff.LOG_PAUSE_RESUME) {
-                Log.i("GLThread", "onResume tid=" + getId());
-            }
+            locked = System.nanoTime();
+            activity = mActivity;
+            GLLog.log(GLLog.RESUME, getId());
             mRequestPaused = false;
             mRequestRender = true;
             mRenderComplete = false;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
             while ((! mExited) && mPaused && (!mRenderComplete)) {
-                if (GLStuff.LOG_PAUSE_RESUME) {
-                    Log.i("Main thread", "onResume waiting for !mPaused.");
-                }
+                GLLog.log(GLLog.RESUME_WAITING, getId());
                 try {
                     sGLThreadManager.wait();
                 } catch (InterruptedException ex) {
@@ -577,10 +958,18 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.RESUME, activity, start, locked,
+                System.nanoTime());
     }
 
     public void onWindowResize(int w, int h) {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized (sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
+            mResizePending = false;
             mWidth = w;
             mHeight = h;
             mSizeChanged = true;
@@ -596,14 +985,13 @@ class GLThread extends Thread {
                 return;
             }
 
+            publishStateLocked();
             sGLThreadManager.notifyAll();
 
             // Wait for thread to react to resize and render a frame
             while (! mExited && !mPaused && !mRenderComplete
                     && ableToDraw()) {
-                if (GLStuff.LOG_SURFACE) {
-                    Log.i("Main thread", "onWindowResize waiting for render complete from tid=" + getId());
-                }
+                GLLog.log(GLLog.RESIZE_WAITING, getId());
                 try {
                     sGLThreadManager.wait();
                 } catch (InterruptedException ex) {
@@ -611,13 +999,69 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.WINDOW_RESIZE, activity, start, locked,
+                System.nanoTime());
+    }
+
+    /**
+     * Like {@link #onWindowResize(int, int)}, but doesn't wait for the
+     * frame at the new size. The size is only applied after it has stayed
+     * unchanged for {@code settleDelayMillis}, so sizes of animation steps
+     * are coalesced. The first size of a surface is applied immediately.
+     */
+    public void onWindowResizeDebounced(int w, int h, long settleDelayMillis) {
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
+        synchronized (sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
+            if (mWidth <= 0 || mHeight <= 0 || !mHaveEglSurface) {
+                // Nothing has been drawn at the old size, don't wait
+                mResizePending = false;
+                mWidth = w;
+                mHeight = h;
+                mSizeChanged = true;
+                mRequestRender = true;
+            } else {
+                mResizePending = true;
+                mPendingWidth = w;
+                mPendingHeight = h;
+                mResizeDeadline = SystemClock.uptimeMillis() + settleDelayMillis;
+            }
+            publishStateLocked();
+            sGLThreadManager.notifyAll();
+        }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked,
+                System.nanoTime());
+    }
+
+    /*
+     * This private method should only be called inside a
+     * synchronized(sGLThreadManager) block.
+     */
+    private void applyPendingResizeLocked() {
+        mResizePending = false;
+        if (mWidth != mPendingWidth || mHeight != mPendingHeight) {
+            mWidth = mPendingWidth;
+            mHeight = mPendingHeight;
+            mSizeChanged = true;
+        }
+        // Always render a frame at the settled size
+        mRequestRender = true;
     }
 
     public void requestExitAndWait() {
         // don't call this from GLThread thread or it is a guaranteed
         // deadlock!
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             mShouldExit = true;
+            publishStateLocked();
             sGLThreadManager.notifyAll();
             while (! mExited) {
                 try {
@@ -627,13 +1071,33 @@ class GLThread extends Thread {
                 }
             }
         }
+        mBlockingMetrics.record(BlockingMetrics.REQUEST_EXIT, activity, start, locked,
+                System.nanoTime());
     }
 
     public void requestReleaseEglContextLocked() {
         mShouldReleaseEglContext = true;
+        publishStateLocked();
         sGLThreadManager.notifyAll();
     }
 
+    /**
+     * @return the direct buffer pool of the view, or null if the view is gone
+     */
+    DirectBufferPool getDirectBufferPool() {
+        final GLStuff stuff = mGLStuffWeakRef.get();
+        return stuff != null ? stuff.getDirectBufferPool() : null;
+    }
+
+    /**
+     * Capture the next drawn frame without stalling the GL pipeline.
+     * @param callback receives the pixels on a background thread.
+     */
+    public void captureFrameAsync(FrameCaptureCallback callback) {
+        mFrameCapturer.request(callback);
+        requestRender();
+    }
+
     /**
      * Queue an "event" to be run on the GL rendering thread.
      * @param r the runnable to be run on the GL rendering thread.
@@ -642,10 +1106,21 @@ class GLThread extends Thread {
         if (r == null) {
             throw new IllegalArgumentException("r must not be null");
         }
+        final int activity;
+        final long start = System.nanoTime();
+        final long locked;
         synchronized(sGLThreadManager) {
+            locked = System.nanoTime();
+            activity = mActivity;
             mEventQueue.add(r);
+            if (GLTrace.isTracing()) {
+                GLTrace.setCounter(mTraceEventCounter, mEventQueue.size());
+            }
+            publishStateLocked();
             sGLThreadManager.notifyAll();
         }
+        mBlockingMetrics.record(BlockingMetrics.OTHER, activity, start, locked,
+                System.nanoTime());
     }
 
     private static final GLThreadManager sGLThreadManager = new GLThreadManager();
@@ -672,10 +1147,26 @@ class GLThread extends Thread {
     private final ArrayList<Runnable> mEventQueue = new ArrayList<>();
     private boolean mSizeChanged = true;
     private Runnable mFinishDrawingRunnable = null;
+    private boolean mResizePending;
+    private int mPendingWidth;
+    private int mPendingHeight;
+    private long mResizeDeadline;
+    private int mPendingRenderRequests;
+    private boolean mRenderRequestTraced;
 
     // End of member variables protected by the sGLThreadManager monitor.
 
+    private final EGL10 mEgl;
     private EglHelper mEglHelper;
+    private final DamageRegion mDamageRegion = new DamageRegion();
+    private final FrameCapturer mFrameCapturer = new FrameCapturer(this);
+    private final BlockingMetrics mBlockingMetrics;
+    private final RenderThreadStatePublisher mStatePublisher = new RenderThreadStatePublisher();
+    // Written by the rendering thread only, read by any thread
+    private volatile int mActivity = RenderActivity.STOPPED;
+    private final String mTraceEventCounter;
+    private final String mTraceRenderRequestCounter;
+    private final Integer mTraceCookie;
 
     /**
      * Set once at thread construction time, nulled out when the parent view is garbage
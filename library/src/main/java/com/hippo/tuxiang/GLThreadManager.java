@@ -16,18 +16,15 @@
 
 package com.hippo.tuxiang;
 
-import android.util.Log;
-
 // android-9.0.0_r30
 
 final class GLThreadManager {
     private static final String TAG = "GLThreadManager";
 
     public synchronized void threadExiting(GLThread thread) {
-        if (GLStuff.LOG_THREADS) {
-            Log.i("GLThread", "exiting tid=" +  thread.getId());
-        }
+        GLLog.log(GLLog.THREAD_EXIT, thread.getId());
         thread.mExited = true;
+        thread.publishStateLocked();
         notifyAll();
     }
 
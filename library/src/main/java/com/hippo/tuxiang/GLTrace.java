@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits {@link Trace} sections, async slices and counters for the rendering
+ * thread, so it shows up in systrace and Perfetto.
+ * <p>
+ * Tracing is off until {@link #setEnabled(boolean)} is called with true.
+ * When it is off, or no trace is being captured, every call is a branch.
+ * Async slices and counters are not public before Android 10, they are
+ * reached by reflection. Whether a trace is being captured is checked at
+ * most every 100 ms, so sections may start that late after a capture.
+ */
+public final class GLTrace {
+
+    private static final String TAG = "GLTrace";
+
+    // Trace.TRACE_TAG_APP
+    private static final long TRACE_TAG_APP = 1L << 12;
+    private static final Long TRACE_TAG_APP_OBJECT = TRACE_TAG_APP;
+
+    private static final long TRACING_CHECK_INTERVAL_NANOS = 100 * 1000 * 1000L;
+
+    private static volatile boolean sEnabled;
+    // The cached result of sIsEnabled, races between rendering threads are harmless
+    private static volatile boolean sTracing;
+    private static volatile long sNextTracingCheck;
+
+    private static boolean sInitialized;
+    private static boolean sPublicApi;
+    private static Method sIsEnabled;
+    private static Object[] sIsEnabledArgs;
+    private static Method sBeginAsyncSection;
+    private static Method sEndAsyncSection;
+    private static Method sSetCounter;
+    // Reused to not allocate, guarded by GLTrace.class
+    private static Object[] sAsyncArgs;
+    private static Object[] sCounterArgs;
+
+    private GLTrace() {}
+
+    /**
+     * Enable or disable trace sections of all rendering threads.
+     * It requires Android 4.3.
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            init();
+            // Check it again right away
+            sNextTracingCheck = System.nanoTime();
+            sEnabled = true;
+        } else {
+            sEnabled = false;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    private static synchronized void init() {
+        if (sInitialized) {
+            return;
+        }
+        sInitialized = true;
+        try {
+            if (Build.VERSION.SDK_INT >= 29) {
+                sPublicApi = true;
+                sIsEnabled = Trace.class.getMethod("isEnabled");
+                sIsEnabledArgs = new Object[0];
+                sBeginAsyncSection = Trace.class.getMethod("beginAsyncSection",
+                        String.class, int.class);
+                sEndAsyncSection = Trace.class.getMethod("endAsyncSection",
+                        String.class, int.class);
+                sSetCounter = Trace.class.getMethod("setCounter", String.class, long.class);
+                sAsyncArgs = new Object[2];
+                sCounterArgs = new Object[2];
+            } else {
+                sIsEnabled = Trace.class.getMethod("isTagEnabled", long.class);
+                sIsEnabledArgs = new Object[] {TRACE_TAG_APP};
+                sBeginAsyncSection = Trace.class.getMethod("asyncTraceBegin",
+                        long.class, String.class, int.class);
+                sEndAsyncSection = Trace.class.getMethod("asyncTraceEnd",
+                        long.class, String.class, int.class);
+                sSetCounter = Trace.class.getMethod("traceCounter",
+                        long.class, String.class, int.class);
+                sAsyncArgs = new Object[] {TRACE_TAG_APP_OBJECT, null, null};
+                sCounterArgs = new Object[] {TRACE_TAG_APP_OBJECT, null, null};
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Can't find trace methods, only sections are emitted", e);
+            sIsEnabled = null;
+            sBeginAsyncSection = null;
+            sEndAsyncSection = null;
+            sSetCounter = null;
+        }
+    }
+
+    /**
+     * @return true if tracing is enabled and a trace is being captured.
+     * Callers check it once and pair sections by the result.
+     */
+    static boolean isTracing() {
+        if (!sEnabled) {
+            return false;
+        }
+        final Method isEnabled = sIsEnabled;
+        if (isEnabled == null) {
+            return true;
+        }
+        final long now = System.nanoTime();
+        if (now - sNextTracingCheck >= 0) {
+            boolean tracing;
+            try {
+                tracing = (Boolean) isEnabled.invoke(null, sIsEnabledArgs);
+            } catch (Exception e) {
+                tracing = false;
+            }
+            sTracing = tracing;
+            sNextTracingCheck = now + TRACING_CHECK_INTERVAL_NANOS;
+        }
+        return sTracing;
+    }
+
+    static void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * @param cookie boxed once by the caller, so tracing doesn't allocate
+     */
+    static void beginAsyncSection(String name, Integer cookie) {
+        invokeAsync(sBeginAsyncSection, name, cookie);
+    }
+
+    static void endAsyncSection(String name, Integer cookie) {
+        invokeAsync(sEndAsyncSection, name, cookie);
+    }
+
+    private static synchronized void invokeAsync(Method method, String name, Integer cookie) {
+        if (method == null) {
+            return;
+        }
+        final Object[] args = sAsyncArgs;
+        final int offset = sPublicApi ? 0 : 1;
+        args[offset] = name;
+        args[offset + 1] = cookie;
+        try {
+            method.invoke(null, args);
+        } catch (Exception e) {
+            // Ignore
+        }
+    }
+
+    /**
+     * Counter values are boxed, keep them small to hit the box caches.
+     */
+    static synchronized void setCounter(String name, int value) {
+        final Method method = sSetCounter;
+        if (method == null) {
+            return;
+        }
+        final Object[] args = sCounterArgs;
+        if (sPublicApi) {
+            args[0] = name;
+            args[1] = (long) value;
+        } else {
+            args[1] = name;
+            args[2] = value;
+        }
+        try {
+            method.invoke(null, args);
+        } catch (Exception e) {
+            // Ignore
+        }
+    }
+}
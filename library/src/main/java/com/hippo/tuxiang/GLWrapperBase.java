@@ -0,0 +1,1348 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import javax.microedition.khronos.opengles.GL;
+import javax.microedition.khronos.opengles.GL10;
+import javax.microedition.khronos.opengles.GL10Ext;
+import javax.microedition.khronos.opengles.GL11;
+import javax.microedition.khronos.opengles.GL11Ext;
+import javax.microedition.khronos.opengles.GL11ExtensionPack;
+
+/**
+ * The base class for a GL wrapper. Every GL method is delegated to the
+ * wrapped GL object, subclasses override the methods they care about.
+ * <p>
+ * Calling a method of an interface which the wrapped GL object
+ * doesn't implement causes a {@link NullPointerException}.
+ *
+ * @see GLWrapper
+ */
+public abstract class GLWrapperBase
+        implements GL, GL10, GL10Ext, GL11, GL11Ext, GL11ExtensionPack {
+
+    protected final GL10 mgl;
+    protected final GL10Ext mgl10Ext;
+    protected final GL11 mgl11;
+    protected final GL11Ext mgl11Ext;
+    protected final GL11ExtensionPack mgl11ExtensionPack;
+
+    public GLWrapperBase(GL gl) {
+        mgl = (GL10) gl;
+        mgl10Ext = gl instanceof GL10Ext ? (GL10Ext) gl : null;
+        mgl11 = gl instanceof GL11 ? (GL11) gl : null;
+        mgl11Ext = gl instanceof GL11Ext ? (GL11Ext) gl : null;
+        mgl11ExtensionPack = gl instanceof GL11ExtensionPack ? (GL11ExtensionPack) gl : null;
+    }
+
+    /**
+     * @return the wrapped GL object
+     */
+    public GL10 getWrappedGL() {
+        return mgl;
+    }
+
+    // ---------------------------------------------------------------------
+    // GL10 methods:
+
+    @Override
+    public void glActiveTexture(int texture) {
+        mgl.glActiveTexture(texture);
+    }
+
+    @Override
+    public void glAlphaFunc(int func, float ref) {
+        mgl.glAlphaFunc(func, ref);
+    }
+
+    @Override
+    public void glAlphaFuncx(int func, int ref) {
+        mgl.glAlphaFuncx(func, ref);
+    }
+
+    @Override
+    public void glBindTexture(int target, int texture) {
+        mgl.glBindTexture(target, texture);
+    }
+
+    @Override
+    public void glBlendFunc(int sfactor, int dfactor) {
+        mgl.glBlendFunc(sfactor, dfactor);
+    }
+
+    @Override
+    public void glClear(int mask) {
+        mgl.glClear(mask);
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        mgl.glClearColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glClearColorx(int red, int green, int blue, int alpha) {
+        mgl.glClearColorx(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glClearDepthf(float depth) {
+        mgl.glClearDepthf(depth);
+    }
+
+    @Override
+    public void glClearDepthx(int depth) {
+        mgl.glClearDepthx(depth);
+    }
+
+    @Override
+    public void glClearStencil(int s) {
+        mgl.glClearStencil(s);
+    }
+
+    @Override
+    public void glClientActiveTexture(int texture) {
+        mgl.glClientActiveTexture(texture);
+    }
+
+    @Override
+    public void glColor4f(float red, float green, float blue, float alpha) {
+        mgl.glColor4f(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glColor4x(int red, int green, int blue, int alpha) {
+        mgl.glColor4x(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+        mgl.glColorMask(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glColorPointer(int size, int type, int stride, Buffer pointer) {
+        mgl.glColorPointer(size, type, stride, pointer);
+    }
+
+    @Override
+    public void glCompressedTexImage2D(int target, int level, int internalformat, int width,
+            int height, int border, int imageSize, Buffer data) {
+        mgl.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize,
+                data);
+    }
+
+    @Override
+    public void glCompressedTexSubImage2D(int target, int level, int xoffset, int yoffset,
+            int width, int height, int format, int imageSize, Buffer data) {
+        mgl.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format,
+                imageSize, data);
+    }
+
+    @Override
+    public void glCopyTexImage2D(int target, int level, int internalformat, int x, int y, int width,
+            int height, int border) {
+        mgl.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+    }
+
+    @Override
+    public void glCopyTexSubImage2D(int target, int level, int xoffset, int yoffset, int x, int y,
+            int width, int height) {
+        mgl.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+    }
+
+    @Override
+    public void glCullFace(int mode) {
+        mgl.glCullFace(mode);
+    }
+
+    @Override
+    public void glDeleteTextures(int n, int[] textures, int offset) {
+        mgl.glDeleteTextures(n, textures, offset);
+    }
+
+    @Override
+    public void glDeleteTextures(int n, IntBuffer textures) {
+        mgl.glDeleteTextures(n, textures);
+    }
+
+    @Override
+    public void glDepthFunc(int func) {
+        mgl.glDepthFunc(func);
+    }
+
+    @Override
+    public void glDepthMask(boolean flag) {
+        mgl.glDepthMask(flag);
+    }
+
+    @Override
+    public void glDepthRangef(float zNear, float zFar) {
+        mgl.glDepthRangef(zNear, zFar);
+    }
+
+    @Override
+    public void glDepthRangex(int zNear, int zFar) {
+        mgl.glDepthRangex(zNear, zFar);
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        mgl.glDisable(cap);
+    }
+
+    @Override
+    public void glDisableClientState(int array) {
+        mgl.glDisableClientState(array);
+    }
+
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        mgl.glDrawArrays(mode, first, count);
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        mgl.glDrawElements(mode, count, type, indices);
+    }
+
+    @Override
+    public void glEnable(int cap) {
+        mgl.glEnable(cap);
+    }
+
+    @Override
+    public void glEnableClientState(int array) {
+        mgl.glEnableClientState(array);
+    }
+
+    @Override
+    public void glFinish() {
+        mgl.glFinish();
+    }
+
+    @Override
+    public void glFlush() {
+        mgl.glFlush();
+    }
+
+    @Override
+    public void glFogf(int pname, float param) {
+        mgl.glFogf(pname, param);
+    }
+
+    @Override
+    public void glFogfv(int pname, float[] params, int offset) {
+        mgl.glFogfv(pname, params, offset);
+    }
+
+    @Override
+    public void glFogfv(int pname, FloatBuffer params) {
+        mgl.glFogfv(pname, params);
+    }
+
+    @Override
+    public void glFogx(int pname, int param) {
+        mgl.glFogx(pname, param);
+    }
+
+    @Override
+    public void glFogxv(int pname, int[] params, int offset) {
+        mgl.glFogxv(pname, params, offset);
+    }
+
+    @Override
+    public void glFogxv(int pname, IntBuffer params) {
+        mgl.glFogxv(pname, params);
+    }
+
+    @Override
+    public void glFrontFace(int mode) {
+        mgl.glFrontFace(mode);
+    }
+
+    @Override
+    public void glFrustumf(float left, float right, float bottom, float top, float zNear,
+            float zFar) {
+        mgl.glFrustumf(left, right, bottom, top, zNear, zFar);
+    }
+
+    @Override
+    public void glFrustumx(int left, int right, int bottom, int top, int zNear, int zFar) {
+        mgl.glFrustumx(left, right, bottom, top, zNear, zFar);
+    }
+
+    @Override
+    public void glGenTextures(int n, int[] textures, int offset) {
+        mgl.glGenTextures(n, textures, offset);
+    }
+
+    @Override
+    public void glGenTextures(int n, IntBuffer textures) {
+        mgl.glGenTextures(n, textures);
+    }
+
+    @Override
+    public int glGetError() {
+        return mgl.glGetError();
+    }
+
+    @Override
+    public void glGetIntegerv(int pname, int[] params, int offset) {
+        mgl.glGetIntegerv(pname, params, offset);
+    }
+
+    @Override
+    public void glGetIntegerv(int pname, IntBuffer params) {
+        mgl.glGetIntegerv(pname, params);
+    }
+
+    @Override
+    public String glGetString(int name) {
+        return mgl.glGetString(name);
+    }
+
+    @Override
+    public void glHint(int target, int mode) {
+        mgl.glHint(target, mode);
+    }
+
+    @Override
+    public void glLightModelf(int pname, float param) {
+        mgl.glLightModelf(pname, param);
+    }
+
+    @Override
+    public void glLightModelfv(int pname, float[] params, int offset) {
+        mgl.glLightModelfv(pname, params, offset);
+    }
+
+    @Override
+    public void glLightModelfv(int pname, FloatBuffer params) {
+        mgl.glLightModelfv(pname, params);
+    }
+
+    @Override
+    public void glLightModelx(int pname, int param) {
+        mgl.glLightModelx(pname, param);
+    }
+
+    @Override
+    public void glLightModelxv(int pname, int[] params, int offset) {
+        mgl.glLightModelxv(pname, params, offset);
+    }
+
+    @Override
+    public void glLightModelxv(int pname, IntBuffer params) {
+        mgl.glLightModelxv(pname, params);
+    }
+
+    @Override
+    public void glLightf(int light, int pname, float param) {
+        mgl.glLightf(light, pname, param);
+    }
+
+    @Override
+    public void glLightfv(int light, int pname, float[] params, int offset) {
+        mgl.glLightfv(light, pname, params, offset);
+    }
+
+    @Override
+    public void glLightfv(int light, int pname, FloatBuffer params) {
+        mgl.glLightfv(light, pname, params);
+    }
+
+    @Override
+    public void glLightx(int light, int pname, int param) {
+        mgl.glLightx(light, pname, param);
+    }
+
+    @Override
+    public void glLightxv(int light, int pname, int[] params, int offset) {
+        mgl.glLightxv(light, pname, params, offset);
+    }
+
+    @Override
+    public void glLightxv(int light, int pname, IntBuffer params) {
+        mgl.glLightxv(light, pname, params);
+    }
+
+    @Override
+    public void glLineWidth(float width) {
+        mgl.glLineWidth(width);
+    }
+
+    @Override
+    public void glLineWidthx(int width) {
+        mgl.glLineWidthx(width);
+    }
+
+    @Override
+    public void glLoadIdentity() {
+        mgl.glLoadIdentity();
+    }
+
+    @Override
+    public void glLoadMatrixf(float[] m, int offset) {
+        mgl.glLoadMatrixf(m, offset);
+    }
+
+    @Override
+    public void glLoadMatrixf(FloatBuffer m) {
+        mgl.glLoadMatrixf(m);
+    }
+
+    @Override
+    public void glLoadMatrixx(int[] m, int offset) {
+        mgl.glLoadMatrixx(m, offset);
+    }
+
+    @Override
+    public void glLoadMatrixx(IntBuffer m) {
+        mgl.glLoadMatrixx(m);
+    }
+
+    @Override
+    public void glLogicOp(int opcode) {
+        mgl.glLogicOp(opcode);
+    }
+
+    @Override
+    public void glMaterialf(int face, int pname, float param) {
+        mgl.glMaterialf(face, pname, param);
+    }
+
+    @Override
+    public void glMaterialfv(int face, int pname, float[] params, int offset) {
+        mgl.glMaterialfv(face, pname, params, offset);
+    }
+
+    @Override
+    public void glMaterialfv(int face, int pname, FloatBuffer params) {
+        mgl.glMaterialfv(face, pname, params);
+    }
+
+    @Override
+    public void glMaterialx(int face, int pname, int param) {
+        mgl.glMaterialx(face, pname, param);
+    }
+
+    @Override
+    public void glMaterialxv(int face, int pname, int[] params, int offset) {
+        mgl.glMaterialxv(face, pname, params, offset);
+    }
+
+    @Override
+    public void glMaterialxv(int face, int pname, IntBuffer params) {
+        mgl.glMaterialxv(face, pname, params);
+    }
+
+    @Override
+    public void glMatrixMode(int mode) {
+        mgl.glMatrixMode(mode);
+    }
+
+    @Override
+    public void glMultMatrixf(float[] m, int offset) {
+        mgl.glMultMatrixf(m, offset);
+    }
+
+    @Override
+    public void glMultMatrixf(FloatBuffer m) {
+        mgl.glMultMatrixf(m);
+    }
+
+    @Override
+    public void glMultMatrixx(int[] m, int offset) {
+        mgl.glMultMatrixx(m, offset);
+    }
+
+    @Override
+    public void glMultMatrixx(IntBuffer m) {
+        mgl.glMultMatrixx(m);
+    }
+
+    @Override
+    public void glMultiTexCoord4f(int target, float s, float t, float r, float q) {
+        mgl.glMultiTexCoord4f(target, s, t, r, q);
+    }
+
+    @Override
+    public void glMultiTexCoord4x(int target, int s, int t, int r, int q) {
+        mgl.glMultiTexCoord4x(target, s, t, r, q);
+    }
+
+    @Override
+    public void glNormal3f(float nx, float ny, float nz) {
+        mgl.glNormal3f(nx, ny, nz);
+    }
+
+    @Override
+    public void glNormal3x(int nx, int ny, int nz) {
+        mgl.glNormal3x(nx, ny, nz);
+    }
+
+    @Override
+    public void glNormalPointer(int type, int stride, Buffer pointer) {
+        mgl.glNormalPointer(type, stride, pointer);
+    }
+
+    @Override
+    public void glOrthof(float left, float right, float bottom, float top, float zNear,
+            float zFar) {
+        mgl.glOrthof(left, right, bottom, top, zNear, zFar);
+    }
+
+    @Override
+    public void glOrthox(int left, int right, int bottom, int top, int zNear, int zFar) {
+        mgl.glOrthox(left, right, bottom, top, zNear, zFar);
+    }
+
+    @Override
+    public void glPixelStorei(int pname, int param) {
+        mgl.glPixelStorei(pname, param);
+    }
+
+    @Override
+    public void glPointSize(float size) {
+        mgl.glPointSize(size);
+    }
+
+    @Override
+    public void glPointSizex(int size) {
+        mgl.glPointSizex(size);
+    }
+
+    @Override
+    public void glPolygonOffset(float factor, float units) {
+        mgl.glPolygonOffset(factor, units);
+    }
+
+    @Override
+    public void glPolygonOffsetx(int factor, int units) {
+        mgl.glPolygonOffsetx(factor, units);
+    }
+
+    @Override
+    public void glPopMatrix() {
+        mgl.glPopMatrix();
+    }
+
+    @Override
+    public void glPushMatrix() {
+        mgl.glPushMatrix();
+    }
+
+    @Override
+    public void glReadPixels(int x, int y, int width, int height, int format, int type,
+            Buffer pixels) {
+        mgl.glReadPixels(x, y, width, height, format, type, pixels);
+    }
+
+    @Override
+    public void glRotatef(float angle, float x, float y, float z) {
+        mgl.glRotatef(angle, x, y, z);
+    }
+
+    @Override
+    public void glRotatex(int angle, int x, int y, int z) {
+        mgl.glRotatex(angle, x, y, z);
+    }
+
+    @Override
+    public void glSampleCoverage(float value, boolean invert) {
+        mgl.glSampleCoverage(value, invert);
+    }
+
+    @Override
+    public void glSampleCoveragex(int value, boolean invert) {
+        mgl.glSampleCoveragex(value, invert);
+    }
+
+    @Override
+    public void glScalef(float x, float y, float z) {
+        mgl.glScalef(x, y, z);
+    }
+
+    @Override
+    public void glScalex(int x, int y, int z) {
+        mgl.glScalex(x, y, z);
+    }
+
+    @Override
+    public void glScissor(int x, int y, int width, int height) {
+        mgl.glScissor(x, y, width, height);
+    }
+
+    @Override
+    public void glShadeModel(int mode) {
+        mgl.glShadeModel(mode);
+    }
+
+    @Override
+    public void glStencilFunc(int func, int ref, int mask) {
+        mgl.glStencilFunc(func, ref, mask);
+    }
+
+    @Override
+    public void glStencilMask(int mask) {
+        mgl.glStencilMask(mask);
+    }
+
+    @Override
+    public void glStencilOp(int fail, int zfail, int zpass) {
+        mgl.glStencilOp(fail, zfail, zpass);
+    }
+
+    @Override
+    public void glTexCoordPointer(int size, int type, int stride, Buffer pointer) {
+        mgl.glTexCoordPointer(size, type, stride, pointer);
+    }
+
+    @Override
+    public void glTexEnvf(int target, int pname, float param) {
+        mgl.glTexEnvf(target, pname, param);
+    }
+
+    @Override
+    public void glTexEnvfv(int target, int pname, float[] params, int offset) {
+        mgl.glTexEnvfv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexEnvfv(int target, int pname, FloatBuffer params) {
+        mgl.glTexEnvfv(target, pname, params);
+    }
+
+    @Override
+    public void glTexEnvx(int target, int pname, int param) {
+        mgl.glTexEnvx(target, pname, param);
+    }
+
+    @Override
+    public void glTexEnvxv(int target, int pname, int[] params, int offset) {
+        mgl.glTexEnvxv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexEnvxv(int target, int pname, IntBuffer params) {
+        mgl.glTexEnvxv(target, pname, params);
+    }
+
+    @Override
+    public void glTexImage2D(int target, int level, int internalformat, int width, int height,
+            int border, int format, int type, Buffer pixels) {
+        mgl.glTexImage2D(target, level, internalformat, width, height, border, format, type,
+                pixels);
+    }
+
+    @Override
+    public void glTexParameterf(int target, int pname, float param) {
+        mgl.glTexParameterf(target, pname, param);
+    }
+
+    @Override
+    public void glTexParameterx(int target, int pname, int param) {
+        mgl.glTexParameterx(target, pname, param);
+    }
+
+    @Override
+    public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width,
+            int height, int format, int type, Buffer pixels) {
+        mgl.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+    }
+
+    @Override
+    public void glTranslatef(float x, float y, float z) {
+        mgl.glTranslatef(x, y, z);
+    }
+
+    @Override
+    public void glTranslatex(int x, int y, int z) {
+        mgl.glTranslatex(x, y, z);
+    }
+
+    @Override
+    public void glVertexPointer(int size, int type, int stride, Buffer pointer) {
+        mgl.glVertexPointer(size, type, stride, pointer);
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        mgl.glViewport(x, y, width, height);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL10Ext methods:
+
+    @Override
+    public int glQueryMatrixxOES(int[] mantissa, int mantissaOffset, int[] exponent,
+            int exponentOffset) {
+        return mgl10Ext.glQueryMatrixxOES(mantissa, mantissaOffset, exponent, exponentOffset);
+    }
+
+    @Override
+    public int glQueryMatrixxOES(IntBuffer mantissa, IntBuffer exponent) {
+        return mgl10Ext.glQueryMatrixxOES(mantissa, exponent);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11 methods:
+
+    @Override
+    public void glGetPointerv(int pname, Buffer[] params) {
+        mgl11.glGetPointerv(pname, params);
+    }
+
+    @Override
+    public void glBindBuffer(int target, int buffer) {
+        mgl11.glBindBuffer(target, buffer);
+    }
+
+    @Override
+    public void glBufferData(int target, int size, Buffer data, int usage) {
+        mgl11.glBufferData(target, size, data, usage);
+    }
+
+    @Override
+    public void glBufferSubData(int target, int offset, int size, Buffer data) {
+        mgl11.glBufferSubData(target, offset, size, data);
+    }
+
+    @Override
+    public void glClipPlanef(int plane, float[] equation, int offset) {
+        mgl11.glClipPlanef(plane, equation, offset);
+    }
+
+    @Override
+    public void glClipPlanef(int plane, FloatBuffer equation) {
+        mgl11.glClipPlanef(plane, equation);
+    }
+
+    @Override
+    public void glClipPlanex(int plane, int[] equation, int offset) {
+        mgl11.glClipPlanex(plane, equation, offset);
+    }
+
+    @Override
+    public void glClipPlanex(int plane, IntBuffer equation) {
+        mgl11.glClipPlanex(plane, equation);
+    }
+
+    @Override
+    public void glColor4ub(byte red, byte green, byte blue, byte alpha) {
+        mgl11.glColor4ub(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glColorPointer(int size, int type, int stride, int offset) {
+        mgl11.glColorPointer(size, type, stride, offset);
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, int[] buffers, int offset) {
+        mgl11.glDeleteBuffers(n, buffers, offset);
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, IntBuffer buffers) {
+        mgl11.glDeleteBuffers(n, buffers);
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, int offset) {
+        mgl11.glDrawElements(mode, count, type, offset);
+    }
+
+    @Override
+    public void glGenBuffers(int n, int[] buffers, int offset) {
+        mgl11.glGenBuffers(n, buffers, offset);
+    }
+
+    @Override
+    public void glGenBuffers(int n, IntBuffer buffers) {
+        mgl11.glGenBuffers(n, buffers);
+    }
+
+    @Override
+    public void glGetBooleanv(int pname, boolean[] params, int offset) {
+        mgl11.glGetBooleanv(pname, params, offset);
+    }
+
+    @Override
+    public void glGetBooleanv(int pname, IntBuffer params) {
+        mgl11.glGetBooleanv(pname, params);
+    }
+
+    @Override
+    public void glGetBufferParameteriv(int target, int pname, int[] params, int offset) {
+        mgl11.glGetBufferParameteriv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glGetBufferParameteriv(int target, int pname, IntBuffer params) {
+        mgl11.glGetBufferParameteriv(target, pname, params);
+    }
+
+    @Override
+    public void glGetClipPlanef(int pname, float[] eqn, int offset) {
+        mgl11.glGetClipPlanef(pname, eqn, offset);
+    }
+
+    @Override
+    public void glGetClipPlanef(int pname, FloatBuffer eqn) {
+        mgl11.glGetClipPlanef(pname, eqn);
+    }
+
+    @Override
+    public void glGetClipPlanex(int pname, int[] eqn, int offset) {
+        mgl11.glGetClipPlanex(pname, eqn, offset);
+    }
+
+    @Override
+    public void glGetClipPlanex(int pname, IntBuffer eqn) {
+        mgl11.glGetClipPlanex(pname, eqn);
+    }
+
+    @Override
+    public void glGetFixedv(int pname, int[] params, int offset) {
+        mgl11.glGetFixedv(pname, params, offset);
+    }
+
+    @Override
+    public void glGetFixedv(int pname, IntBuffer params) {
+        mgl11.glGetFixedv(pname, params);
+    }
+
+    @Override
+    public void glGetFloatv(int pname, float[] params, int offset) {
+        mgl11.glGetFloatv(pname, params, offset);
+    }
+
+    @Override
+    public void glGetFloatv(int pname, FloatBuffer params) {
+        mgl11.glGetFloatv(pname, params);
+    }
+
+    @Override
+    public void glGetLightfv(int light, int pname, float[] params, int offset) {
+        mgl11.glGetLightfv(light, pname, params, offset);
+    }
+
+    @Override
+    public void glGetLightfv(int light, int pname, FloatBuffer params) {
+        mgl11.glGetLightfv(light, pname, params);
+    }
+
+    @Override
+    public void glGetLightxv(int light, int pname, int[] params, int offset) {
+        mgl11.glGetLightxv(light, pname, params, offset);
+    }
+
+    @Override
+    public void glGetLightxv(int light, int pname, IntBuffer params) {
+        mgl11.glGetLightxv(light, pname, params);
+    }
+
+    @Override
+    public void glGetMaterialfv(int face, int pname, float[] params, int offset) {
+        mgl11.glGetMaterialfv(face, pname, params, offset);
+    }
+
+    @Override
+    public void glGetMaterialfv(int face, int pname, FloatBuffer params) {
+        mgl11.glGetMaterialfv(face, pname, params);
+    }
+
+    @Override
+    public void glGetMaterialxv(int face, int pname, int[] params, int offset) {
+        mgl11.glGetMaterialxv(face, pname, params, offset);
+    }
+
+    @Override
+    public void glGetMaterialxv(int face, int pname, IntBuffer params) {
+        mgl11.glGetMaterialxv(face, pname, params);
+    }
+
+    @Override
+    public void glGetTexEnviv(int env, int pname, int[] params, int offset) {
+        mgl11.glGetTexEnviv(env, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexEnviv(int env, int pname, IntBuffer params) {
+        mgl11.glGetTexEnviv(env, pname, params);
+    }
+
+    @Override
+    public void glGetTexEnvxv(int env, int pname, int[] params, int offset) {
+        mgl11.glGetTexEnvxv(env, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexEnvxv(int env, int pname, IntBuffer params) {
+        mgl11.glGetTexEnvxv(env, pname, params);
+    }
+
+    @Override
+    public void glGetTexParameterfv(int target, int pname, float[] params, int offset) {
+        mgl11.glGetTexParameterfv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexParameterfv(int target, int pname, FloatBuffer params) {
+        mgl11.glGetTexParameterfv(target, pname, params);
+    }
+
+    @Override
+    public void glGetTexParameteriv(int target, int pname, int[] params, int offset) {
+        mgl11.glGetTexParameteriv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexParameteriv(int target, int pname, IntBuffer params) {
+        mgl11.glGetTexParameteriv(target, pname, params);
+    }
+
+    @Override
+    public void glGetTexParameterxv(int target, int pname, int[] params, int offset) {
+        mgl11.glGetTexParameterxv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexParameterxv(int target, int pname, IntBuffer params) {
+        mgl11.glGetTexParameterxv(target, pname, params);
+    }
+
+    @Override
+    public boolean glIsBuffer(int buffer) {
+        return mgl11.glIsBuffer(buffer);
+    }
+
+    @Override
+    public boolean glIsEnabled(int cap) {
+        return mgl11.glIsEnabled(cap);
+    }
+
+    @Override
+    public boolean glIsTexture(int texture) {
+        return mgl11.glIsTexture(texture);
+    }
+
+    @Override
+    public void glNormalPointer(int type, int stride, int offset) {
+        mgl11.glNormalPointer(type, stride, offset);
+    }
+
+    @Override
+    public void glPointParameterf(int pname, float param) {
+        mgl11.glPointParameterf(pname, param);
+    }
+
+    @Override
+    public void glPointParameterfv(int pname, float[] params, int offset) {
+        mgl11.glPointParameterfv(pname, params, offset);
+    }
+
+    @Override
+    public void glPointParameterfv(int pname, FloatBuffer params) {
+        mgl11.glPointParameterfv(pname, params);
+    }
+
+    @Override
+    public void glPointParameterx(int pname, int param) {
+        mgl11.glPointParameterx(pname, param);
+    }
+
+    @Override
+    public void glPointParameterxv(int pname, int[] params, int offset) {
+        mgl11.glPointParameterxv(pname, params, offset);
+    }
+
+    @Override
+    public void glPointParameterxv(int pname, IntBuffer params) {
+        mgl11.glPointParameterxv(pname, params);
+    }
+
+    @Override
+    public void glPointSizePointerOES(int type, int stride, Buffer pointer) {
+        mgl11.glPointSizePointerOES(type, stride, pointer);
+    }
+
+    @Override
+    public void glTexCoordPointer(int size, int type, int stride, int offset) {
+        mgl11.glTexCoordPointer(size, type, stride, offset);
+    }
+
+    @Override
+    public void glTexEnvi(int target, int pname, int param) {
+        mgl11.glTexEnvi(target, pname, param);
+    }
+
+    @Override
+    public void glTexEnviv(int target, int pname, int[] params, int offset) {
+        mgl11.glTexEnviv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexEnviv(int target, int pname, IntBuffer params) {
+        mgl11.glTexEnviv(target, pname, params);
+    }
+
+    @Override
+    public void glTexParameterfv(int target, int pname, float[] params, int offset) {
+        mgl11.glTexParameterfv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexParameterfv(int target, int pname, FloatBuffer params) {
+        mgl11.glTexParameterfv(target, pname, params);
+    }
+
+    @Override
+    public void glTexParameteri(int target, int pname, int param) {
+        mgl11.glTexParameteri(target, pname, param);
+    }
+
+    @Override
+    public void glTexParameteriv(int target, int pname, int[] params, int offset) {
+        mgl11.glTexParameteriv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexParameteriv(int target, int pname, IntBuffer params) {
+        mgl11.glTexParameteriv(target, pname, params);
+    }
+
+    @Override
+    public void glTexParameterxv(int target, int pname, int[] params, int offset) {
+        mgl11.glTexParameterxv(target, pname, params, offset);
+    }
+
+    @Override
+    public void glTexParameterxv(int target, int pname, IntBuffer params) {
+        mgl11.glTexParameterxv(target, pname, params);
+    }
+
+    @Override
+    public void glVertexPointer(int size, int type, int stride, int offset) {
+        mgl11.glVertexPointer(size, type, stride, offset);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11Ext methods:
+
+    @Override
+    public void glCurrentPaletteMatrixOES(int matrixpaletteindex) {
+        mgl11Ext.glCurrentPaletteMatrixOES(matrixpaletteindex);
+    }
+
+    @Override
+    public void glDrawTexfOES(float x, float y, float z, float width, float height) {
+        mgl11Ext.glDrawTexfOES(x, y, z, width, height);
+    }
+
+    @Override
+    public void glDrawTexfvOES(float[] coords, int offset) {
+        mgl11Ext.glDrawTexfvOES(coords, offset);
+    }
+
+    @Override
+    public void glDrawTexfvOES(FloatBuffer coords) {
+        mgl11Ext.glDrawTexfvOES(coords);
+    }
+
+    @Override
+    public void glDrawTexiOES(int x, int y, int z, int width, int height) {
+        mgl11Ext.glDrawTexiOES(x, y, z, width, height);
+    }
+
+    @Override
+    public void glDrawTexivOES(int[] coords, int offset) {
+        mgl11Ext.glDrawTexivOES(coords, offset);
+    }
+
+    @Override
+    public void glDrawTexivOES(IntBuffer coords) {
+        mgl11Ext.glDrawTexivOES(coords);
+    }
+
+    @Override
+    public void glDrawTexsOES(short x, short y, short z, short width, short height) {
+        mgl11Ext.glDrawTexsOES(x, y, z, width, height);
+    }
+
+    @Override
+    public void glDrawTexsvOES(short[] coords, int offset) {
+        mgl11Ext.glDrawTexsvOES(coords, offset);
+    }
+
+    @Override
+    public void glDrawTexsvOES(ShortBuffer coords) {
+        mgl11Ext.glDrawTexsvOES(coords);
+    }
+
+    @Override
+    public void glDrawTexxOES(int x, int y, int z, int width, int height) {
+        mgl11Ext.glDrawTexxOES(x, y, z, width, height);
+    }
+
+    @Override
+    public void glDrawTexxvOES(int[] coords, int offset) {
+        mgl11Ext.glDrawTexxvOES(coords, offset);
+    }
+
+    @Override
+    public void glDrawTexxvOES(IntBuffer coords) {
+        mgl11Ext.glDrawTexxvOES(coords);
+    }
+
+    @Override
+    public void glLoadPaletteFromModelViewMatrixOES() {
+        mgl11Ext.glLoadPaletteFromModelViewMatrixOES();
+    }
+
+    @Override
+    public void glMatrixIndexPointerOES(int size, int type, int stride, Buffer pointer) {
+        mgl11Ext.glMatrixIndexPointerOES(size, type, stride, pointer);
+    }
+
+    @Override
+    public void glMatrixIndexPointerOES(int size, int type, int stride, int offset) {
+        mgl11Ext.glMatrixIndexPointerOES(size, type, stride, offset);
+    }
+
+    @Override
+    public void glWeightPointerOES(int size, int type, int stride, Buffer pointer) {
+        mgl11Ext.glWeightPointerOES(size, type, stride, pointer);
+    }
+
+    @Override
+    public void glWeightPointerOES(int size, int type, int stride, int offset) {
+        mgl11Ext.glWeightPointerOES(size, type, stride, offset);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11ExtensionPack methods:
+
+    @Override
+    public void glBindFramebufferOES(int target, int framebuffer) {
+        mgl11ExtensionPack.glBindFramebufferOES(target, framebuffer);
+    }
+
+    @Override
+    public void glBindRenderbufferOES(int target, int renderbuffer) {
+        mgl11ExtensionPack.glBindRenderbufferOES(target, renderbuffer);
+    }
+
+    @Override
+    public void glBlendEquation(int mode) {
+        mgl11ExtensionPack.glBlendEquation(mode);
+    }
+
+    @Override
+    public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+        mgl11ExtensionPack.glBlendEquationSeparate(modeRGB, modeAlpha);
+    }
+
+    @Override
+    public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        mgl11ExtensionPack.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+    }
+
+    @Override
+    public int glCheckFramebufferStatusOES(int target) {
+        return mgl11ExtensionPack.glCheckFramebufferStatusOES(target);
+    }
+
+    @Override
+    public void glDeleteFramebuffersOES(int n, int[] framebuffers, int offset) {
+        mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers, offset);
+    }
+
+    @Override
+    public void glDeleteFramebuffersOES(int n, IntBuffer framebuffers) {
+        mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers);
+    }
+
+    @Override
+    public void glDeleteRenderbuffersOES(int n, int[] renderbuffers, int offset) {
+        mgl11ExtensionPack.glDeleteRenderbuffersOES(n, renderbuffers, offset);
+    }
+
+    @Override
+    public void glDeleteRenderbuffersOES(int n, IntBuffer renderbuffers) {
+        mgl11ExtensionPack.glDeleteRenderbuffersOES(n, renderbuffers);
+    }
+
+    @Override
+    public void glFramebufferRenderbufferOES(int target, int attachment, int renderbuffertarget,
+            int renderbuffer) {
+        mgl11ExtensionPack.glFramebufferRenderbufferOES(target, attachment, renderbuffertarget,
+                renderbuffer);
+    }
+
+    @Override
+    public void glFramebufferTexture2DOES(int target, int attachment, int textarget, int texture,
+            int level) {
+        mgl11ExtensionPack.glFramebufferTexture2DOES(target, attachment, textarget, texture, level);
+    }
+
+    @Override
+    public void glGenerateMipmapOES(int target) {
+        mgl11ExtensionPack.glGenerateMipmapOES(target);
+    }
+
+    @Override
+    public void glGenFramebuffersOES(int n, int[] framebuffers, int offset) {
+        mgl11ExtensionPack.glGenFramebuffersOES(n, framebuffers, offset);
+    }
+
+    @Override
+    public void glGenFramebuffersOES(int n, IntBuffer framebuffers) {
+        mgl11ExtensionPack.glGenFramebuffersOES(n, framebuffers);
+    }
+
+    @Override
+    public void glGenRenderbuffersOES(int n, int[] renderbuffers, int offset) {
+        mgl11ExtensionPack.glGenRenderbuffersOES(n, renderbuffers, offset);
+    }
+
+    @Override
+    public void glGenRenderbuffersOES(int n, IntBuffer renderbuffers) {
+        mgl11ExtensionPack.glGenRenderbuffersOES(n, renderbuffers);
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameterivOES(int target, int attachment, int pname,
+            int[] params, int offset) {
+        mgl11ExtensionPack.glGetFramebufferAttachmentParameterivOES(target, attachment, pname,
+                params, offset);
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameterivOES(int target, int attachment, int pname,
+            IntBuffer params) {
+        mgl11ExtensionPack.glGetFramebufferAttachmentParameterivOES(target, attachment, pname,
+                params);
+    }
+
+    @Override
+    public void glGetRenderbufferParameterivOES(int target, int pname, int[] params, int offset) {
+        mgl11ExtensionPack.glGetRenderbufferParameterivOES(target, pname, params, offset);
+    }
+
+    @Override
+    public void glGetRenderbufferParameterivOES(int target, int pname, IntBuffer params) {
+        mgl11ExtensionPack.glGetRenderbufferParameterivOES(target, pname, params);
+    }
+
+    @Override
+    public void glGetTexGenfv(int coord, int pname, float[] params, int offset) {
+        mgl11ExtensionPack.glGetTexGenfv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexGenfv(int coord, int pname, FloatBuffer params) {
+        mgl11ExtensionPack.glGetTexGenfv(coord, pname, params);
+    }
+
+    @Override
+    public void glGetTexGeniv(int coord, int pname, int[] params, int offset) {
+        mgl11ExtensionPack.glGetTexGeniv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexGeniv(int coord, int pname, IntBuffer params) {
+        mgl11ExtensionPack.glGetTexGeniv(coord, pname, params);
+    }
+
+    @Override
+    public void glGetTexGenxv(int coord, int pname, int[] params, int offset) {
+        mgl11ExtensionPack.glGetTexGenxv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glGetTexGenxv(int coord, int pname, IntBuffer params) {
+        mgl11ExtensionPack.glGetTexGenxv(coord, pname, params);
+    }
+
+    @Override
+    public boolean glIsFramebufferOES(int framebuffer) {
+        return mgl11ExtensionPack.glIsFramebufferOES(framebuffer);
+    }
+
+    @Override
+    public boolean glIsRenderbufferOES(int renderbuffer) {
+        return mgl11ExtensionPack.glIsRenderbufferOES(renderbuffer);
+    }
+
+    @Override
+    public void glRenderbufferStorageOES(int target, int internalformat, int width, int height) {
+        mgl11ExtensionPack.glRenderbufferStorageOES(target, internalformat, width, height);
+    }
+
+    @Override
+    public void glTexGenf(int coord, int pname, float param) {
+        mgl11ExtensionPack.glTexGenf(coord, pname, param);
+    }
+
+    @Override
+    public void glTexGenfv(int coord, int pname, float[] params, int offset) {
+        mgl11ExtensionPack.glTexGenfv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glTexGenfv(int coord, int pname, FloatBuffer params) {
+        mgl11ExtensionPack.glTexGenfv(coord, pname, params);
+    }
+
+    @Override
+    public void glTexGeni(int coord, int pname, int param) {
+        mgl11ExtensionPack.glTexGeni(coord, pname, param);
+    }
+
+    @Override
+    public void glTexGeniv(int coord, int pname, int[] params, int offset) {
+        mgl11ExtensionPack.glTexGeniv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glTexGeniv(int coord, int pname, IntBuffer params) {
+        mgl11ExtensionPack.glTexGeniv(coord, pname, params);
+    }
+
+    @Override
+    public void glTexGenx(int coord, int pname, int param) {
+        mgl11ExtensionPack.glTexGenx(coord, pname, param);
+    }
+
+    @Override
+    public void glTexGenxv(int coord, int pname, int[] params, int offset) {
+        mgl11ExtensionPack.glTexGenxv(coord, pname, params, offset);
+    }
+
+    @Override
+    public void glTexGenxv(int coord, int pname, IntBuffer params) {
+        mgl11ExtensionPack.glTexGenxv(coord, pname, params);
+    }
+}
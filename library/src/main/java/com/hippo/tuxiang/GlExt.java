@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.opengl.GLES20;
+import android.os.Build;
+
+/**
+ * GL extension entry points which are not exposed by
+ * {@link android.opengl.GLES20}. Availability of an entry point doesn't
+ * mean the extension is supported by the current context, check the
+ * extension string too.
+ */
+final class GlExt {
+
+    static final int DISJOINT_TIMER_QUERY = 1;
+
+    static final int GL_QUERY_RESULT_EXT = 0x8866;
+    static final int GL_QUERY_RESULT_AVAILABLE_EXT = 0x8867;
+    static final int GL_TIME_ELAPSED_EXT = 0x88BF;
+    static final int GL_GPU_DISJOINT_EXT = 0x8FBB;
+
+    private static boolean sInitialized;
+    private static int sEntryPoints;
+
+    private GlExt() {}
+
+    /**
+     * @return the entry points which could be resolved,
+     * a combination of the {@code DISJOINT_TIMER_QUERY} bit
+     */
+    public static synchronized int getEntryPoints() {
+        if (!sInitialized) {
+            sInitialized = true;
+            sEntryPoints = NativeLibrary.load() ? nativeInit() : 0;
+        }
+        return sEntryPoints;
+    }
+
+    /**
+     * @return true if the current context is OpenGL ES 3.0 or above
+     * and the GLES30 bindings are available
+     */
+    public static boolean isGLES3() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return false;
+        }
+        // "OpenGL ES N.M vendor-specific"
+        final String version = GLES20.glGetString(GLES20.GL_VERSION);
+        return version != null && version.startsWith("OpenGL ES ") && version.length() > 10
+                && version.charAt(10) >= '3' && version.charAt(10) <= '9';
+    }
+
+    public static void glGenQueries(int n, int[] ids) {
+        nativeGenQueries(n, ids);
+    }
+
+    public static void glDeleteQueries(int n, int[] ids) {
+        nativeDeleteQueries(n, ids);
+    }
+
+    public static void glBeginQuery(int target, int id) {
+        nativeBeginQuery(target, id);
+    }
+
+    public static void glEndQuery(int target) {
+        nativeEndQuery(target);
+    }
+
+    public static int glGetQueryObjectui(int id, int pname) {
+        return nativeGetQueryObjectui(id, pname);
+    }
+
+    public static long glGetQueryObjectui64(int id, int pname) {
+        return nativeGetQueryObjectui64(id, pname);
+    }
+
+    /**
+     * glTexSubImage2D with an offset into the bound pixel unpack buffer.
+     * Only requires the native library, it has nothing to do with
+     * {@link #getEntryPoints()}.
+     */
+    public static void glTexSubImage2D(int target, int level, int xoffset, int yoffset,
+            int width, int height, int format, int type, int offset) {
+        nativeTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, offset);
+    }
+
+    /**
+     * glReadPixels with an offset into the bound pixel pack buffer.
+     * {@code GLES30} only has it since Android 7.0. Only requires the
+     * native library, like {@link #glTexSubImage2D}.
+     */
+    public static void glReadPixels(int x, int y, int width, int height, int format, int type,
+            int offset) {
+        nativeReadPixels(x, y, width, height, format, type, offset);
+    }
+
+    private static native int nativeInit();
+
+    private static native void nativeGenQueries(int n, int[] ids);
+
+    private static native void nativeDeleteQueries(int n, int[] ids);
+
+    private static native void nativeBeginQuery(int target, int id);
+
+    private static native void nativeEndQuery(int target);
+
+    private static native int nativeGetQueryObjectui(int id, int pname);
+
+    private static native long nativeGetQueryObjectui64(int id, int pname);
+
+    private static native void nativeTexSubImage2D(int target, int level, int xoffset,
+            int yoffset, int width, int height, int format, int type, int offset);
+
+    private static native void nativeReadPixels(int x, int y, int width, int height,
+            int format, int type, int offset);
+}
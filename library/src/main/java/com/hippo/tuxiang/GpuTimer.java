@@ -0,0 +1,338 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.opengl.GLES20;
+
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * Measures how long the GPU takes to render each frame with
+ * {@code GL_EXT_disjoint_timer_query}. Frames could be split into named
+ * sections by {@link #beginSection(String)} and {@link #endSection()}.
+ * <p>
+ * Queries are read back a few frames later without stalling the pipeline,
+ * results are delivered by {@link OnGpuFrameTimedListener}. If the GPU
+ * reports a disjoint operation, like a frequency change, all results in
+ * flight are dropped.
+ * <p>
+ * Create the timer on the rendering thread, e.g. in {@link Renderer#onSurfaceCreated},
+ * and add it as a frame hook:
+ * <pre class="prettyprint">
+ * mGpuTimer = new GpuTimer(view.getGLResourceRegistry());
+ * view.addGLFrameHook(mGpuTimer);
+ * </pre>
+ * All methods except {@link #setEnabled(boolean)} and
+ * {@link #setOnGpuFrameTimedListener(OnGpuFrameTimedListener)}
+ * must be called on the rendering thread.
+ */
+public final class GpuTimer implements GLFrameHook, GLResource {
+
+    private static final String EXTENSION = "GL_EXT_disjoint_timer_query";
+
+    // Results are usually available after two or three frames
+    private static final int FRAME_SLOTS = 4;
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Called on the rendering thread when the result of a frame is available.
+     * The result could be read from the timer in the callback.
+     */
+    public interface OnGpuFrameTimedListener {
+        void onGpuFrameTimed(GpuTimer timer);
+    }
+
+    private final GLResourceRegistry mRegistry;
+
+    private volatile boolean mEnabled = true;
+    private volatile OnGpuFrameTimedListener mListener;
+
+    private boolean mSupported;
+    private boolean mReady;
+    private final int[] mValue = new int[1];
+
+    private long mFrame;
+    private long mDisjointCount;
+    private long mSkippedFrameCount;
+
+    // A ring of frames waiting for results
+    private final int[] mQueries = new int[FRAME_SLOTS * MAX_SEGMENTS];
+    private final String[] mSegmentNames = new String[FRAME_SLOTS * MAX_SEGMENTS];
+    private final int[] mSegmentCounts = new int[FRAME_SLOTS];
+    private final long[] mSlotFrames = new long[FRAME_SLOTS];
+    private int mHead;
+    private int mPendingCount;
+
+    private int mCurrentSlot = -1;
+    private boolean mInSection;
+    private boolean mSectionDropped;
+
+    // The last result
+    private long mResultFrame = -1;
+    private long mResultNanos;
+    private final String[] mResultSectionNames = new String[MAX_SEGMENTS];
+    private final long[] mResultSectionNanos = new long[MAX_SEGMENTS];
+    private int mResultSectionCount;
+
+    /**
+     * Create a timer and register it to the registry.
+     *
+     * @see GLStuff#getGLResourceRegistry()
+     */
+    public GpuTimer(GLResourceRegistry registry) {
+        mRegistry = registry;
+        registry.register(this, GLResourceRegistry.PRIORITY_HIGH);
+    }
+
+    /**
+     * Delete the queries and unregister the timer from the registry.
+     */
+    public void release() {
+        if (mReady) {
+            GlExt.glDeleteQueries(mQueries.length, mQueries);
+        }
+        onContextLost();
+        mRegistry.unregister(this);
+    }
+
+    /**
+     * Enable or disable timing. It could be called from any thread,
+     * it takes effect from the next frame.
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public void setOnGpuFrameTimedListener(OnGpuFrameTimedListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * @return true if the current EGL context supports timer queries
+     */
+    public boolean isSupported() {
+        return mSupported;
+    }
+
+    @Override
+    public void onRestore() {
+        mSupported = (GlExt.getEntryPoints() & GlExt.DISJOINT_TIMER_QUERY) != 0
+                && EglHelper.hasExtension(GLES20.glGetString(GLES20.GL_EXTENSIONS), EXTENSION);
+        if (mSupported) {
+            GlExt.glGenQueries(mQueries.length, mQueries);
+            // Clear the disjoint flag
+            GLES20.glGetIntegerv(GlExt.GL_GPU_DISJOINT_EXT, mValue, 0);
+            mReady = true;
+        }
+    }
+
+    @Override
+    public void onContextLost() {
+        mReady = false;
+        mPendingCount = 0;
+        mCurrentSlot = -1;
+        mInSection = false;
+        mSectionDropped = false;
+    }
+
+    @Override
+    public void onFrameBegin(GL10 gl) {
+        mFrame++;
+        if (!mReady) {
+            return;
+        }
+
+        poll();
+
+        if (!mEnabled) {
+            return;
+        }
+        if (mPendingCount == FRAME_SLOTS) {
+            // The GPU is too far behind, don't wait for it
+            mSkippedFrameCount++;
+            return;
+        }
+        mCurrentSlot = mHead;
+        mSegmentCounts[mCurrentSlot] = 0;
+        mSlotFrames[mCurrentSlot] = mFrame;
+        beginSegment(null);
+    }
+
+    @Override
+    public void onFrameEnd(GL10 gl, boolean drew) {
+        if (mCurrentSlot < 0) {
+            return;
+        }
+        GlExt.glEndQuery(GlExt.GL_TIME_ELAPSED_EXT);
+        mCurrentSlot = -1;
+        mInSection = false;
+        mSectionDropped = false;
+        mHead = (mHead + 1) % FRAME_SLOTS;
+        mPendingCount++;
+    }
+
+    /**
+     * Start a named section in {@link Renderer#onDrawFrame(GL10)}.
+     * Sections can't be nested. Sections with the same name
+     * in a frame are summed up.
+     */
+    public void beginSection(String name) {
+        if (mCurrentSlot < 0) {
+            return;
+        }
+        if (mInSection) {
+            throw new IllegalStateException("Sections can't be nested");
+        }
+        mInSection = true;
+        // A section takes two segments, one for itself and one for the rest
+        if (mSegmentCounts[mCurrentSlot] + 2 > MAX_SEGMENTS) {
+            mSectionDropped = true;
+            return;
+        }
+        GlExt.glEndQuery(GlExt.GL_TIME_ELAPSED_EXT);
+        beginSegment(name);
+    }
+
+    /**
+     * End the section started by {@link #beginSection(String)}.
+     */
+    public void endSection() {
+        if (mCurrentSlot < 0) {
+            return;
+        }
+        if (!mInSection) {
+            throw new IllegalStateException("No section to end");
+        }
+        mInSection = false;
+        if (mSectionDropped) {
+            mSectionDropped = false;
+            return;
+        }
+        GlExt.glEndQuery(GlExt.GL_TIME_ELAPSED_EXT);
+        beginSegment(null);
+    }
+
+    private void beginSegment(String name) {
+        final int index = mCurrentSlot * MAX_SEGMENTS + mSegmentCounts[mCurrentSlot]++;
+        mSegmentNames[index] = name;
+        GlExt.glBeginQuery(GlExt.GL_TIME_ELAPSED_EXT, mQueries[index]);
+    }
+
+    private void poll() {
+        while (mPendingCount > 0) {
+            final int slot = (mHead - mPendingCount + FRAME_SLOTS) % FRAME_SLOTS;
+            final int start = slot * MAX_SEGMENTS;
+            final int end = start + mSegmentCounts[slot];
+
+            // Queries complete in order, check the last one
+            if (GlExt.glGetQueryObjectui(mQueries[end - 1],
+                    GlExt.GL_QUERY_RESULT_AVAILABLE_EXT) == 0) {
+                break;
+            }
+
+            long total = 0;
+            mResultSectionCount = 0;
+            for (int i = start; i < end; i++) {
+                final long nanos = GlExt.glGetQueryObjectui64(mQueries[i],
+                        GlExt.GL_QUERY_RESULT_EXT);
+                total += nanos;
+                if (mSegmentNames[i] != null) {
+                    addSectionResult(mSegmentNames[i], nanos);
+                }
+            }
+            mPendingCount--;
+
+            GLES20.glGetIntegerv(GlExt.GL_GPU_DISJOINT_EXT, mValue, 0);
+            if (mValue[0] != 0) {
+                // Timing of all queries in flight is undefined
+                mDisjointCount++;
+                mPendingCount = 0;
+                mResultSectionCount = 0;
+                break;
+            }
+
+            mResultFrame = mSlotFrames[slot];
+            mResultNanos = total;
+            final OnGpuFrameTimedListener listener = mListener;
+            if (listener != null) {
+                listener.onGpuFrameTimed(this);
+            }
+        }
+    }
+
+    private void addSectionResult(String name, long nanos) {
+        for (int i = 0; i < mResultSectionCount; i++) {
+            if (mResultSectionNames[i].equals(name)) {
+                mResultSectionNanos[i] += nanos;
+                return;
+            }
+        }
+        mResultSectionNames[mResultSectionCount] = name;
+        mResultSectionNanos[mResultSectionCount] = nanos;
+        mResultSectionCount++;
+    }
+
+    /**
+     * @return the frame number of the last result, -1 if no result yet
+     */
+    public long getFrameNumber() {
+        return mResultFrame;
+    }
+
+    /**
+     * @return the GPU time of the last result, in nanoseconds
+     */
+    public long getFrameGpuTime() {
+        return mResultNanos;
+    }
+
+    /**
+     * @return the number of sections in the last result
+     */
+    public int getSectionCount() {
+        return mResultSectionCount;
+    }
+
+    public String getSectionName(int index) {
+        return mResultSectionNames[index];
+    }
+
+    /**
+     * @return the GPU time of the section in the last result, in nanoseconds
+     */
+    public long getSectionGpuTime(int index) {
+        return mResultSectionNanos[index];
+    }
+
+    /**
+     * @return the number of disjoint operations which invalidate results
+     */
+    public long getDisjointCount() {
+        return mDisjointCount;
+    }
+
+    /**
+     * @return the number of frames not timed because the GPU was too far behind
+     */
+    public long getSkippedFrameCount() {
+        return mSkippedFrameCount;
+    }
+}
@@ -0,0 +1,1848 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import javax.microedition.khronos.opengles.GL;
+
+/**
+ * A GL wrapper which reports every call to {@link #onCallStart(int)}
+ * and {@link #onCallEnd(int, long)}. The identifiers are the constants
+ * in {@link GLEntryPoints}.
+ */
+abstract class InterceptedGL extends GLWrapperBase {
+
+    InterceptedGL(GL gl) {
+        super(gl);
+    }
+
+    /**
+     * Called before a GL call.
+     *
+     * @param id the entry point
+     * @return a value passed to {@link #onCallEnd(int, long)}
+     */
+    protected abstract long onCallStart(int id);
+
+    /**
+     * Called after a GL call.
+     *
+     * @param id the entry point
+     * @param token the value returned by {@link #onCallStart(int)}
+     */
+    protected abstract void onCallEnd(int id, long token);
+
+    // ---------------------------------------------------------------------
+    // GL10 methods:
+
+    @Override
+    public void glActiveTexture(int texture) {
+        final long token = onCallStart(GLEntryPoints.GL_ACTIVE_TEXTURE);
+        mgl.glActiveTexture(texture);
+        onCallEnd(GLEntryPoints.GL_ACTIVE_TEXTURE, token);
+    }
+
+    @Override
+    public void glAlphaFunc(int func, float ref) {
+        final long token = onCallStart(GLEntryPoints.GL_ALPHA_FUNC);
+        mgl.glAlphaFunc(func, ref);
+        onCallEnd(GLEntryPoints.GL_ALPHA_FUNC, token);
+    }
+
+    @Override
+    public void glAlphaFuncx(int func, int ref) {
+        final long token = onCallStart(GLEntryPoints.GL_ALPHA_FUNCX);
+        mgl.glAlphaFuncx(func, ref);
+        onCallEnd(GLEntryPoints.GL_ALPHA_FUNCX, token);
+    }
+
+    @Override
+    public void glBindTexture(int target, int texture) {
+        final long token = onCallStart(GLEntryPoints.GL_BIND_TEXTURE);
+        mgl.glBindTexture(target, texture);
+        onCallEnd(GLEntryPoints.GL_BIND_TEXTURE, token);
+    }
+
+    @Override
+    public void glBlendFunc(int sfactor, int dfactor) {
+        final long token = onCallStart(GLEntryPoints.GL_BLEND_FUNC);
+        mgl.glBlendFunc(sfactor, dfactor);
+        onCallEnd(GLEntryPoints.GL_BLEND_FUNC, token);
+    }
+
+    @Override
+    public void glClear(int mask) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR);
+        mgl.glClear(mask);
+        onCallEnd(GLEntryPoints.GL_CLEAR, token);
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR_COLOR);
+        mgl.glClearColor(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_CLEAR_COLOR, token);
+    }
+
+    @Override
+    public void glClearColorx(int red, int green, int blue, int alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR_COLORX);
+        mgl.glClearColorx(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_CLEAR_COLORX, token);
+    }
+
+    @Override
+    public void glClearDepthf(float depth) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR_DEPTHF);
+        mgl.glClearDepthf(depth);
+        onCallEnd(GLEntryPoints.GL_CLEAR_DEPTHF, token);
+    }
+
+    @Override
+    public void glClearDepthx(int depth) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR_DEPTHX);
+        mgl.glClearDepthx(depth);
+        onCallEnd(GLEntryPoints.GL_CLEAR_DEPTHX, token);
+    }
+
+    @Override
+    public void glClearStencil(int s) {
+        final long token = onCallStart(GLEntryPoints.GL_CLEAR_STENCIL);
+        mgl.glClearStencil(s);
+        onCallEnd(GLEntryPoints.GL_CLEAR_STENCIL, token);
+    }
+
+    @Override
+    public void glClientActiveTexture(int texture) {
+        final long token = onCallStart(GLEntryPoints.GL_CLIENT_ACTIVE_TEXTURE);
+        mgl.glClientActiveTexture(texture);
+        onCallEnd(GLEntryPoints.GL_CLIENT_ACTIVE_TEXTURE, token);
+    }
+
+    @Override
+    public void glColor4f(float red, float green, float blue, float alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR4F);
+        mgl.glColor4f(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_COLOR4F, token);
+    }
+
+    @Override
+    public void glColor4x(int red, int green, int blue, int alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR4X);
+        mgl.glColor4x(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_COLOR4X, token);
+    }
+
+    @Override
+    public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR_MASK);
+        mgl.glColorMask(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_COLOR_MASK, token);
+    }
+
+    @Override
+    public void glColorPointer(int size, int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR_POINTER);
+        mgl.glColorPointer(size, type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_COLOR_POINTER, token);
+    }
+
+    @Override
+    public void glCompressedTexImage2D(int target, int level, int internalformat, int width,
+            int height, int border, int imageSize, Buffer data) {
+        final long token = onCallStart(GLEntryPoints.GL_COMPRESSED_TEX_IMAGE2_D);
+        mgl.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize,
+                data);
+        onCallEnd(GLEntryPoints.GL_COMPRESSED_TEX_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glCompressedTexSubImage2D(int target, int level, int xoffset, int yoffset,
+            int width, int height, int format, int imageSize, Buffer data) {
+        final long token = onCallStart(GLEntryPoints.GL_COMPRESSED_TEX_SUB_IMAGE2_D);
+        mgl.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format,
+                imageSize, data);
+        onCallEnd(GLEntryPoints.GL_COMPRESSED_TEX_SUB_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glCopyTexImage2D(int target, int level, int internalformat, int x, int y, int width,
+            int height, int border) {
+        final long token = onCallStart(GLEntryPoints.GL_COPY_TEX_IMAGE2_D);
+        mgl.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+        onCallEnd(GLEntryPoints.GL_COPY_TEX_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glCopyTexSubImage2D(int target, int level, int xoffset, int yoffset, int x, int y,
+            int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_COPY_TEX_SUB_IMAGE2_D);
+        mgl.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+        onCallEnd(GLEntryPoints.GL_COPY_TEX_SUB_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glCullFace(int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_CULL_FACE);
+        mgl.glCullFace(mode);
+        onCallEnd(GLEntryPoints.GL_CULL_FACE, token);
+    }
+
+    @Override
+    public void glDeleteTextures(int n, int[] textures, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_TEXTURES);
+        mgl.glDeleteTextures(n, textures, offset);
+        onCallEnd(GLEntryPoints.GL_DELETE_TEXTURES, token);
+    }
+
+    @Override
+    public void glDeleteTextures(int n, IntBuffer textures) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_TEXTURES);
+        mgl.glDeleteTextures(n, textures);
+        onCallEnd(GLEntryPoints.GL_DELETE_TEXTURES, token);
+    }
+
+    @Override
+    public void glDepthFunc(int func) {
+        final long token = onCallStart(GLEntryPoints.GL_DEPTH_FUNC);
+        mgl.glDepthFunc(func);
+        onCallEnd(GLEntryPoints.GL_DEPTH_FUNC, token);
+    }
+
+    @Override
+    public void glDepthMask(boolean flag) {
+        final long token = onCallStart(GLEntryPoints.GL_DEPTH_MASK);
+        mgl.glDepthMask(flag);
+        onCallEnd(GLEntryPoints.GL_DEPTH_MASK, token);
+    }
+
+    @Override
+    public void glDepthRangef(float zNear, float zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_DEPTH_RANGEF);
+        mgl.glDepthRangef(zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_DEPTH_RANGEF, token);
+    }
+
+    @Override
+    public void glDepthRangex(int zNear, int zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_DEPTH_RANGEX);
+        mgl.glDepthRangex(zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_DEPTH_RANGEX, token);
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        final long token = onCallStart(GLEntryPoints.GL_DISABLE);
+        mgl.glDisable(cap);
+        onCallEnd(GLEntryPoints.GL_DISABLE, token);
+    }
+
+    @Override
+    public void glDisableClientState(int array) {
+        final long token = onCallStart(GLEntryPoints.GL_DISABLE_CLIENT_STATE);
+        mgl.glDisableClientState(array);
+        onCallEnd(GLEntryPoints.GL_DISABLE_CLIENT_STATE, token);
+    }
+
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_ARRAYS);
+        mgl.glDrawArrays(mode, first, count);
+        onCallEnd(GLEntryPoints.GL_DRAW_ARRAYS, token);
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_ELEMENTS);
+        mgl.glDrawElements(mode, count, type, indices);
+        onCallEnd(GLEntryPoints.GL_DRAW_ELEMENTS, token);
+    }
+
+    @Override
+    public void glEnable(int cap) {
+        final long token = onCallStart(GLEntryPoints.GL_ENABLE);
+        mgl.glEnable(cap);
+        onCallEnd(GLEntryPoints.GL_ENABLE, token);
+    }
+
+    @Override
+    public void glEnableClientState(int array) {
+        final long token = onCallStart(GLEntryPoints.GL_ENABLE_CLIENT_STATE);
+        mgl.glEnableClientState(array);
+        onCallEnd(GLEntryPoints.GL_ENABLE_CLIENT_STATE, token);
+    }
+
+    @Override
+    public void glFinish() {
+        final long token = onCallStart(GLEntryPoints.GL_FINISH);
+        mgl.glFinish();
+        onCallEnd(GLEntryPoints.GL_FINISH, token);
+    }
+
+    @Override
+    public void glFlush() {
+        final long token = onCallStart(GLEntryPoints.GL_FLUSH);
+        mgl.glFlush();
+        onCallEnd(GLEntryPoints.GL_FLUSH, token);
+    }
+
+    @Override
+    public void glFogf(int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGF);
+        mgl.glFogf(pname, param);
+        onCallEnd(GLEntryPoints.GL_FOGF, token);
+    }
+
+    @Override
+    public void glFogfv(int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGFV);
+        mgl.glFogfv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_FOGFV, token);
+    }
+
+    @Override
+    public void glFogfv(int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGFV);
+        mgl.glFogfv(pname, params);
+        onCallEnd(GLEntryPoints.GL_FOGFV, token);
+    }
+
+    @Override
+    public void glFogx(int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGX);
+        mgl.glFogx(pname, param);
+        onCallEnd(GLEntryPoints.GL_FOGX, token);
+    }
+
+    @Override
+    public void glFogxv(int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGXV);
+        mgl.glFogxv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_FOGXV, token);
+    }
+
+    @Override
+    public void glFogxv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_FOGXV);
+        mgl.glFogxv(pname, params);
+        onCallEnd(GLEntryPoints.GL_FOGXV, token);
+    }
+
+    @Override
+    public void glFrontFace(int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_FRONT_FACE);
+        mgl.glFrontFace(mode);
+        onCallEnd(GLEntryPoints.GL_FRONT_FACE, token);
+    }
+
+    @Override
+    public void glFrustumf(float left, float right, float bottom, float top, float zNear,
+            float zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_FRUSTUMF);
+        mgl.glFrustumf(left, right, bottom, top, zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_FRUSTUMF, token);
+    }
+
+    @Override
+    public void glFrustumx(int left, int right, int bottom, int top, int zNear, int zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_FRUSTUMX);
+        mgl.glFrustumx(left, right, bottom, top, zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_FRUSTUMX, token);
+    }
+
+    @Override
+    public void glGenTextures(int n, int[] textures, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_TEXTURES);
+        mgl.glGenTextures(n, textures, offset);
+        onCallEnd(GLEntryPoints.GL_GEN_TEXTURES, token);
+    }
+
+    @Override
+    public void glGenTextures(int n, IntBuffer textures) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_TEXTURES);
+        mgl.glGenTextures(n, textures);
+        onCallEnd(GLEntryPoints.GL_GEN_TEXTURES, token);
+    }
+
+    @Override
+    public int glGetError() {
+        final long token = onCallStart(GLEntryPoints.GL_GET_ERROR);
+        final int result = mgl.glGetError();
+        onCallEnd(GLEntryPoints.GL_GET_ERROR, token);
+        return result;
+    }
+
+    @Override
+    public void glGetIntegerv(int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_INTEGERV);
+        mgl.glGetIntegerv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_INTEGERV, token);
+    }
+
+    @Override
+    public void glGetIntegerv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_INTEGERV);
+        mgl.glGetIntegerv(pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_INTEGERV, token);
+    }
+
+    @Override
+    public String glGetString(int name) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_STRING);
+        final String result = mgl.glGetString(name);
+        onCallEnd(GLEntryPoints.GL_GET_STRING, token);
+        return result;
+    }
+
+    @Override
+    public void glHint(int target, int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_HINT);
+        mgl.glHint(target, mode);
+        onCallEnd(GLEntryPoints.GL_HINT, token);
+    }
+
+    @Override
+    public void glLightModelf(int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELF);
+        mgl.glLightModelf(pname, param);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELF, token);
+    }
+
+    @Override
+    public void glLightModelfv(int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELFV);
+        mgl.glLightModelfv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELFV, token);
+    }
+
+    @Override
+    public void glLightModelfv(int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELFV);
+        mgl.glLightModelfv(pname, params);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELFV, token);
+    }
+
+    @Override
+    public void glLightModelx(int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELX);
+        mgl.glLightModelx(pname, param);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELX, token);
+    }
+
+    @Override
+    public void glLightModelxv(int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELXV);
+        mgl.glLightModelxv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELXV, token);
+    }
+
+    @Override
+    public void glLightModelxv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHT_MODELXV);
+        mgl.glLightModelxv(pname, params);
+        onCallEnd(GLEntryPoints.GL_LIGHT_MODELXV, token);
+    }
+
+    @Override
+    public void glLightf(int light, int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTF);
+        mgl.glLightf(light, pname, param);
+        onCallEnd(GLEntryPoints.GL_LIGHTF, token);
+    }
+
+    @Override
+    public void glLightfv(int light, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTFV);
+        mgl.glLightfv(light, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_LIGHTFV, token);
+    }
+
+    @Override
+    public void glLightfv(int light, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTFV);
+        mgl.glLightfv(light, pname, params);
+        onCallEnd(GLEntryPoints.GL_LIGHTFV, token);
+    }
+
+    @Override
+    public void glLightx(int light, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTX);
+        mgl.glLightx(light, pname, param);
+        onCallEnd(GLEntryPoints.GL_LIGHTX, token);
+    }
+
+    @Override
+    public void glLightxv(int light, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTXV);
+        mgl.glLightxv(light, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_LIGHTXV, token);
+    }
+
+    @Override
+    public void glLightxv(int light, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_LIGHTXV);
+        mgl.glLightxv(light, pname, params);
+        onCallEnd(GLEntryPoints.GL_LIGHTXV, token);
+    }
+
+    @Override
+    public void glLineWidth(float width) {
+        final long token = onCallStart(GLEntryPoints.GL_LINE_WIDTH);
+        mgl.glLineWidth(width);
+        onCallEnd(GLEntryPoints.GL_LINE_WIDTH, token);
+    }
+
+    @Override
+    public void glLineWidthx(int width) {
+        final long token = onCallStart(GLEntryPoints.GL_LINE_WIDTHX);
+        mgl.glLineWidthx(width);
+        onCallEnd(GLEntryPoints.GL_LINE_WIDTHX, token);
+    }
+
+    @Override
+    public void glLoadIdentity() {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_IDENTITY);
+        mgl.glLoadIdentity();
+        onCallEnd(GLEntryPoints.GL_LOAD_IDENTITY, token);
+    }
+
+    @Override
+    public void glLoadMatrixf(float[] m, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_MATRIXF);
+        mgl.glLoadMatrixf(m, offset);
+        onCallEnd(GLEntryPoints.GL_LOAD_MATRIXF, token);
+    }
+
+    @Override
+    public void glLoadMatrixf(FloatBuffer m) {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_MATRIXF);
+        mgl.glLoadMatrixf(m);
+        onCallEnd(GLEntryPoints.GL_LOAD_MATRIXF, token);
+    }
+
+    @Override
+    public void glLoadMatrixx(int[] m, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_MATRIXX);
+        mgl.glLoadMatrixx(m, offset);
+        onCallEnd(GLEntryPoints.GL_LOAD_MATRIXX, token);
+    }
+
+    @Override
+    public void glLoadMatrixx(IntBuffer m) {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_MATRIXX);
+        mgl.glLoadMatrixx(m);
+        onCallEnd(GLEntryPoints.GL_LOAD_MATRIXX, token);
+    }
+
+    @Override
+    public void glLogicOp(int opcode) {
+        final long token = onCallStart(GLEntryPoints.GL_LOGIC_OP);
+        mgl.glLogicOp(opcode);
+        onCallEnd(GLEntryPoints.GL_LOGIC_OP, token);
+    }
+
+    @Override
+    public void glMaterialf(int face, int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALF);
+        mgl.glMaterialf(face, pname, param);
+        onCallEnd(GLEntryPoints.GL_MATERIALF, token);
+    }
+
+    @Override
+    public void glMaterialfv(int face, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALFV);
+        mgl.glMaterialfv(face, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_MATERIALFV, token);
+    }
+
+    @Override
+    public void glMaterialfv(int face, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALFV);
+        mgl.glMaterialfv(face, pname, params);
+        onCallEnd(GLEntryPoints.GL_MATERIALFV, token);
+    }
+
+    @Override
+    public void glMaterialx(int face, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALX);
+        mgl.glMaterialx(face, pname, param);
+        onCallEnd(GLEntryPoints.GL_MATERIALX, token);
+    }
+
+    @Override
+    public void glMaterialxv(int face, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALXV);
+        mgl.glMaterialxv(face, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_MATERIALXV, token);
+    }
+
+    @Override
+    public void glMaterialxv(int face, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_MATERIALXV);
+        mgl.glMaterialxv(face, pname, params);
+        onCallEnd(GLEntryPoints.GL_MATERIALXV, token);
+    }
+
+    @Override
+    public void glMatrixMode(int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_MATRIX_MODE);
+        mgl.glMatrixMode(mode);
+        onCallEnd(GLEntryPoints.GL_MATRIX_MODE, token);
+    }
+
+    @Override
+    public void glMultMatrixf(float[] m, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_MULT_MATRIXF);
+        mgl.glMultMatrixf(m, offset);
+        onCallEnd(GLEntryPoints.GL_MULT_MATRIXF, token);
+    }
+
+    @Override
+    public void glMultMatrixf(FloatBuffer m) {
+        final long token = onCallStart(GLEntryPoints.GL_MULT_MATRIXF);
+        mgl.glMultMatrixf(m);
+        onCallEnd(GLEntryPoints.GL_MULT_MATRIXF, token);
+    }
+
+    @Override
+    public void glMultMatrixx(int[] m, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_MULT_MATRIXX);
+        mgl.glMultMatrixx(m, offset);
+        onCallEnd(GLEntryPoints.GL_MULT_MATRIXX, token);
+    }
+
+    @Override
+    public void glMultMatrixx(IntBuffer m) {
+        final long token = onCallStart(GLEntryPoints.GL_MULT_MATRIXX);
+        mgl.glMultMatrixx(m);
+        onCallEnd(GLEntryPoints.GL_MULT_MATRIXX, token);
+    }
+
+    @Override
+    public void glMultiTexCoord4f(int target, float s, float t, float r, float q) {
+        final long token = onCallStart(GLEntryPoints.GL_MULTI_TEX_COORD4F);
+        mgl.glMultiTexCoord4f(target, s, t, r, q);
+        onCallEnd(GLEntryPoints.GL_MULTI_TEX_COORD4F, token);
+    }
+
+    @Override
+    public void glMultiTexCoord4x(int target, int s, int t, int r, int q) {
+        final long token = onCallStart(GLEntryPoints.GL_MULTI_TEX_COORD4X);
+        mgl.glMultiTexCoord4x(target, s, t, r, q);
+        onCallEnd(GLEntryPoints.GL_MULTI_TEX_COORD4X, token);
+    }
+
+    @Override
+    public void glNormal3f(float nx, float ny, float nz) {
+        final long token = onCallStart(GLEntryPoints.GL_NORMAL3F);
+        mgl.glNormal3f(nx, ny, nz);
+        onCallEnd(GLEntryPoints.GL_NORMAL3F, token);
+    }
+
+    @Override
+    public void glNormal3x(int nx, int ny, int nz) {
+        final long token = onCallStart(GLEntryPoints.GL_NORMAL3X);
+        mgl.glNormal3x(nx, ny, nz);
+        onCallEnd(GLEntryPoints.GL_NORMAL3X, token);
+    }
+
+    @Override
+    public void glNormalPointer(int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_NORMAL_POINTER);
+        mgl.glNormalPointer(type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_NORMAL_POINTER, token);
+    }
+
+    @Override
+    public void glOrthof(float left, float right, float bottom, float top, float zNear,
+            float zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_ORTHOF);
+        mgl.glOrthof(left, right, bottom, top, zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_ORTHOF, token);
+    }
+
+    @Override
+    public void glOrthox(int left, int right, int bottom, int top, int zNear, int zFar) {
+        final long token = onCallStart(GLEntryPoints.GL_ORTHOX);
+        mgl.glOrthox(left, right, bottom, top, zNear, zFar);
+        onCallEnd(GLEntryPoints.GL_ORTHOX, token);
+    }
+
+    @Override
+    public void glPixelStorei(int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_PIXEL_STOREI);
+        mgl.glPixelStorei(pname, param);
+        onCallEnd(GLEntryPoints.GL_PIXEL_STOREI, token);
+    }
+
+    @Override
+    public void glPointSize(float size) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_SIZE);
+        mgl.glPointSize(size);
+        onCallEnd(GLEntryPoints.GL_POINT_SIZE, token);
+    }
+
+    @Override
+    public void glPointSizex(int size) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_SIZEX);
+        mgl.glPointSizex(size);
+        onCallEnd(GLEntryPoints.GL_POINT_SIZEX, token);
+    }
+
+    @Override
+    public void glPolygonOffset(float factor, float units) {
+        final long token = onCallStart(GLEntryPoints.GL_POLYGON_OFFSET);
+        mgl.glPolygonOffset(factor, units);
+        onCallEnd(GLEntryPoints.GL_POLYGON_OFFSET, token);
+    }
+
+    @Override
+    public void glPolygonOffsetx(int factor, int units) {
+        final long token = onCallStart(GLEntryPoints.GL_POLYGON_OFFSETX);
+        mgl.glPolygonOffsetx(factor, units);
+        onCallEnd(GLEntryPoints.GL_POLYGON_OFFSETX, token);
+    }
+
+    @Override
+    public void glPopMatrix() {
+        final long token = onCallStart(GLEntryPoints.GL_POP_MATRIX);
+        mgl.glPopMatrix();
+        onCallEnd(GLEntryPoints.GL_POP_MATRIX, token);
+    }
+
+    @Override
+    public void glPushMatrix() {
+        final long token = onCallStart(GLEntryPoints.GL_PUSH_MATRIX);
+        mgl.glPushMatrix();
+        onCallEnd(GLEntryPoints.GL_PUSH_MATRIX, token);
+    }
+
+    @Override
+    public void glReadPixels(int x, int y, int width, int height, int format, int type,
+            Buffer pixels) {
+        final long token = onCallStart(GLEntryPoints.GL_READ_PIXELS);
+        mgl.glReadPixels(x, y, width, height, format, type, pixels);
+        onCallEnd(GLEntryPoints.GL_READ_PIXELS, token);
+    }
+
+    @Override
+    public void glRotatef(float angle, float x, float y, float z) {
+        final long token = onCallStart(GLEntryPoints.GL_ROTATEF);
+        mgl.glRotatef(angle, x, y, z);
+        onCallEnd(GLEntryPoints.GL_ROTATEF, token);
+    }
+
+    @Override
+    public void glRotatex(int angle, int x, int y, int z) {
+        final long token = onCallStart(GLEntryPoints.GL_ROTATEX);
+        mgl.glRotatex(angle, x, y, z);
+        onCallEnd(GLEntryPoints.GL_ROTATEX, token);
+    }
+
+    @Override
+    public void glSampleCoverage(float value, boolean invert) {
+        final long token = onCallStart(GLEntryPoints.GL_SAMPLE_COVERAGE);
+        mgl.glSampleCoverage(value, invert);
+        onCallEnd(GLEntryPoints.GL_SAMPLE_COVERAGE, token);
+    }
+
+    @Override
+    public void glSampleCoveragex(int value, boolean invert) {
+        final long token = onCallStart(GLEntryPoints.GL_SAMPLE_COVERAGEX);
+        mgl.glSampleCoveragex(value, invert);
+        onCallEnd(GLEntryPoints.GL_SAMPLE_COVERAGEX, token);
+    }
+
+    @Override
+    public void glScalef(float x, float y, float z) {
+        final long token = onCallStart(GLEntryPoints.GL_SCALEF);
+        mgl.glScalef(x, y, z);
+        onCallEnd(GLEntryPoints.GL_SCALEF, token);
+    }
+
+    @Override
+    public void glScalex(int x, int y, int z) {
+        final long token = onCallStart(GLEntryPoints.GL_SCALEX);
+        mgl.glScalex(x, y, z);
+        onCallEnd(GLEntryPoints.GL_SCALEX, token);
+    }
+
+    @Override
+    public void glScissor(int x, int y, int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_SCISSOR);
+        mgl.glScissor(x, y, width, height);
+        onCallEnd(GLEntryPoints.GL_SCISSOR, token);
+    }
+
+    @Override
+    public void glShadeModel(int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_SHADE_MODEL);
+        mgl.glShadeModel(mode);
+        onCallEnd(GLEntryPoints.GL_SHADE_MODEL, token);
+    }
+
+    @Override
+    public void glStencilFunc(int func, int ref, int mask) {
+        final long token = onCallStart(GLEntryPoints.GL_STENCIL_FUNC);
+        mgl.glStencilFunc(func, ref, mask);
+        onCallEnd(GLEntryPoints.GL_STENCIL_FUNC, token);
+    }
+
+    @Override
+    public void glStencilMask(int mask) {
+        final long token = onCallStart(GLEntryPoints.GL_STENCIL_MASK);
+        mgl.glStencilMask(mask);
+        onCallEnd(GLEntryPoints.GL_STENCIL_MASK, token);
+    }
+
+    @Override
+    public void glStencilOp(int fail, int zfail, int zpass) {
+        final long token = onCallStart(GLEntryPoints.GL_STENCIL_OP);
+        mgl.glStencilOp(fail, zfail, zpass);
+        onCallEnd(GLEntryPoints.GL_STENCIL_OP, token);
+    }
+
+    @Override
+    public void glTexCoordPointer(int size, int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_COORD_POINTER);
+        mgl.glTexCoordPointer(size, type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_TEX_COORD_POINTER, token);
+    }
+
+    @Override
+    public void glTexEnvf(int target, int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVF);
+        mgl.glTexEnvf(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVF, token);
+    }
+
+    @Override
+    public void glTexEnvfv(int target, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVFV);
+        mgl.glTexEnvfv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVFV, token);
+    }
+
+    @Override
+    public void glTexEnvfv(int target, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVFV);
+        mgl.glTexEnvfv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVFV, token);
+    }
+
+    @Override
+    public void glTexEnvx(int target, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVX);
+        mgl.glTexEnvx(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVX, token);
+    }
+
+    @Override
+    public void glTexEnvxv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVXV);
+        mgl.glTexEnvxv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVXV, token);
+    }
+
+    @Override
+    public void glTexEnvxv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVXV);
+        mgl.glTexEnvxv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVXV, token);
+    }
+
+    @Override
+    public void glTexImage2D(int target, int level, int internalformat, int width, int height,
+            int border, int format, int type, Buffer pixels) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_IMAGE2_D);
+        mgl.glTexImage2D(target, level, internalformat, width, height, border, format, type,
+                pixels);
+        onCallEnd(GLEntryPoints.GL_TEX_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glTexParameterf(int target, int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERF);
+        mgl.glTexParameterf(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERF, token);
+    }
+
+    @Override
+    public void glTexParameterx(int target, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERX);
+        mgl.glTexParameterx(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERX, token);
+    }
+
+    @Override
+    public void glTexSubImage2D(int target, int level, int xoffset, int yoffset, int width,
+            int height, int format, int type, Buffer pixels) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_SUB_IMAGE2_D);
+        mgl.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+        onCallEnd(GLEntryPoints.GL_TEX_SUB_IMAGE2_D, token);
+    }
+
+    @Override
+    public void glTranslatef(float x, float y, float z) {
+        final long token = onCallStart(GLEntryPoints.GL_TRANSLATEF);
+        mgl.glTranslatef(x, y, z);
+        onCallEnd(GLEntryPoints.GL_TRANSLATEF, token);
+    }
+
+    @Override
+    public void glTranslatex(int x, int y, int z) {
+        final long token = onCallStart(GLEntryPoints.GL_TRANSLATEX);
+        mgl.glTranslatex(x, y, z);
+        onCallEnd(GLEntryPoints.GL_TRANSLATEX, token);
+    }
+
+    @Override
+    public void glVertexPointer(int size, int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_VERTEX_POINTER);
+        mgl.glVertexPointer(size, type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_VERTEX_POINTER, token);
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_VIEWPORT);
+        mgl.glViewport(x, y, width, height);
+        onCallEnd(GLEntryPoints.GL_VIEWPORT, token);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL10Ext methods:
+
+    @Override
+    public int glQueryMatrixxOES(int[] mantissa, int mantissaOffset, int[] exponent,
+            int exponentOffset) {
+        final long token = onCallStart(GLEntryPoints.GL_QUERY_MATRIXX_OES);
+        final int result =
+                mgl10Ext.glQueryMatrixxOES(mantissa, mantissaOffset, exponent, exponentOffset);
+        onCallEnd(GLEntryPoints.GL_QUERY_MATRIXX_OES, token);
+        return result;
+    }
+
+    @Override
+    public int glQueryMatrixxOES(IntBuffer mantissa, IntBuffer exponent) {
+        final long token = onCallStart(GLEntryPoints.GL_QUERY_MATRIXX_OES);
+        final int result = mgl10Ext.glQueryMatrixxOES(mantissa, exponent);
+        onCallEnd(GLEntryPoints.GL_QUERY_MATRIXX_OES, token);
+        return result;
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11 methods:
+
+    @Override
+    public void glGetPointerv(int pname, Buffer[] params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_POINTERV);
+        mgl11.glGetPointerv(pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_POINTERV, token);
+    }
+
+    @Override
+    public void glBindBuffer(int target, int buffer) {
+        final long token = onCallStart(GLEntryPoints.GL_BIND_BUFFER);
+        mgl11.glBindBuffer(target, buffer);
+        onCallEnd(GLEntryPoints.GL_BIND_BUFFER, token);
+    }
+
+    @Override
+    public void glBufferData(int target, int size, Buffer data, int usage) {
+        final long token = onCallStart(GLEntryPoints.GL_BUFFER_DATA);
+        mgl11.glBufferData(target, size, data, usage);
+        onCallEnd(GLEntryPoints.GL_BUFFER_DATA, token);
+    }
+
+    @Override
+    public void glBufferSubData(int target, int offset, int size, Buffer data) {
+        final long token = onCallStart(GLEntryPoints.GL_BUFFER_SUB_DATA);
+        mgl11.glBufferSubData(target, offset, size, data);
+        onCallEnd(GLEntryPoints.GL_BUFFER_SUB_DATA, token);
+    }
+
+    @Override
+    public void glClipPlanef(int plane, float[] equation, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_CLIP_PLANEF);
+        mgl11.glClipPlanef(plane, equation, offset);
+        onCallEnd(GLEntryPoints.GL_CLIP_PLANEF, token);
+    }
+
+    @Override
+    public void glClipPlanef(int plane, FloatBuffer equation) {
+        final long token = onCallStart(GLEntryPoints.GL_CLIP_PLANEF);
+        mgl11.glClipPlanef(plane, equation);
+        onCallEnd(GLEntryPoints.GL_CLIP_PLANEF, token);
+    }
+
+    @Override
+    public void glClipPlanex(int plane, int[] equation, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_CLIP_PLANEX);
+        mgl11.glClipPlanex(plane, equation, offset);
+        onCallEnd(GLEntryPoints.GL_CLIP_PLANEX, token);
+    }
+
+    @Override
+    public void glClipPlanex(int plane, IntBuffer equation) {
+        final long token = onCallStart(GLEntryPoints.GL_CLIP_PLANEX);
+        mgl11.glClipPlanex(plane, equation);
+        onCallEnd(GLEntryPoints.GL_CLIP_PLANEX, token);
+    }
+
+    @Override
+    public void glColor4ub(byte red, byte green, byte blue, byte alpha) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR4UB);
+        mgl11.glColor4ub(red, green, blue, alpha);
+        onCallEnd(GLEntryPoints.GL_COLOR4UB, token);
+    }
+
+    @Override
+    public void glColorPointer(int size, int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_COLOR_POINTER);
+        mgl11.glColorPointer(size, type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_COLOR_POINTER, token);
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, int[] buffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_BUFFERS);
+        mgl11.glDeleteBuffers(n, buffers, offset);
+        onCallEnd(GLEntryPoints.GL_DELETE_BUFFERS, token);
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, IntBuffer buffers) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_BUFFERS);
+        mgl11.glDeleteBuffers(n, buffers);
+        onCallEnd(GLEntryPoints.GL_DELETE_BUFFERS, token);
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_ELEMENTS);
+        mgl11.glDrawElements(mode, count, type, offset);
+        onCallEnd(GLEntryPoints.GL_DRAW_ELEMENTS, token);
+    }
+
+    @Override
+    public void glGenBuffers(int n, int[] buffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_BUFFERS);
+        mgl11.glGenBuffers(n, buffers, offset);
+        onCallEnd(GLEntryPoints.GL_GEN_BUFFERS, token);
+    }
+
+    @Override
+    public void glGenBuffers(int n, IntBuffer buffers) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_BUFFERS);
+        mgl11.glGenBuffers(n, buffers);
+        onCallEnd(GLEntryPoints.GL_GEN_BUFFERS, token);
+    }
+
+    @Override
+    public void glGetBooleanv(int pname, boolean[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_BOOLEANV);
+        mgl11.glGetBooleanv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_BOOLEANV, token);
+    }
+
+    @Override
+    public void glGetBooleanv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_BOOLEANV);
+        mgl11.glGetBooleanv(pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_BOOLEANV, token);
+    }
+
+    @Override
+    public void glGetBufferParameteriv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_BUFFER_PARAMETERIV);
+        mgl11.glGetBufferParameteriv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_BUFFER_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glGetBufferParameteriv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_BUFFER_PARAMETERIV);
+        mgl11.glGetBufferParameteriv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_BUFFER_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glGetClipPlanef(int pname, float[] eqn, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_CLIP_PLANEF);
+        mgl11.glGetClipPlanef(pname, eqn, offset);
+        onCallEnd(GLEntryPoints.GL_GET_CLIP_PLANEF, token);
+    }
+
+    @Override
+    public void glGetClipPlanef(int pname, FloatBuffer eqn) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_CLIP_PLANEF);
+        mgl11.glGetClipPlanef(pname, eqn);
+        onCallEnd(GLEntryPoints.GL_GET_CLIP_PLANEF, token);
+    }
+
+    @Override
+    public void glGetClipPlanex(int pname, int[] eqn, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_CLIP_PLANEX);
+        mgl11.glGetClipPlanex(pname, eqn, offset);
+        onCallEnd(GLEntryPoints.GL_GET_CLIP_PLANEX, token);
+    }
+
+    @Override
+    public void glGetClipPlanex(int pname, IntBuffer eqn) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_CLIP_PLANEX);
+        mgl11.glGetClipPlanex(pname, eqn);
+        onCallEnd(GLEntryPoints.GL_GET_CLIP_PLANEX, token);
+    }
+
+    @Override
+    public void glGetFixedv(int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FIXEDV);
+        mgl11.glGetFixedv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_FIXEDV, token);
+    }
+
+    @Override
+    public void glGetFixedv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FIXEDV);
+        mgl11.glGetFixedv(pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_FIXEDV, token);
+    }
+
+    @Override
+    public void glGetFloatv(int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FLOATV);
+        mgl11.glGetFloatv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_FLOATV, token);
+    }
+
+    @Override
+    public void glGetFloatv(int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FLOATV);
+        mgl11.glGetFloatv(pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_FLOATV, token);
+    }
+
+    @Override
+    public void glGetLightfv(int light, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_LIGHTFV);
+        mgl11.glGetLightfv(light, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_LIGHTFV, token);
+    }
+
+    @Override
+    public void glGetLightfv(int light, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_LIGHTFV);
+        mgl11.glGetLightfv(light, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_LIGHTFV, token);
+    }
+
+    @Override
+    public void glGetLightxv(int light, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_LIGHTXV);
+        mgl11.glGetLightxv(light, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_LIGHTXV, token);
+    }
+
+    @Override
+    public void glGetLightxv(int light, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_LIGHTXV);
+        mgl11.glGetLightxv(light, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_LIGHTXV, token);
+    }
+
+    @Override
+    public void glGetMaterialfv(int face, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_MATERIALFV);
+        mgl11.glGetMaterialfv(face, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_MATERIALFV, token);
+    }
+
+    @Override
+    public void glGetMaterialfv(int face, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_MATERIALFV);
+        mgl11.glGetMaterialfv(face, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_MATERIALFV, token);
+    }
+
+    @Override
+    public void glGetMaterialxv(int face, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_MATERIALXV);
+        mgl11.glGetMaterialxv(face, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_MATERIALXV, token);
+    }
+
+    @Override
+    public void glGetMaterialxv(int face, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_MATERIALXV);
+        mgl11.glGetMaterialxv(face, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_MATERIALXV, token);
+    }
+
+    @Override
+    public void glGetTexEnviv(int env, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_ENVIV);
+        mgl11.glGetTexEnviv(env, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_ENVIV, token);
+    }
+
+    @Override
+    public void glGetTexEnviv(int env, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_ENVIV);
+        mgl11.glGetTexEnviv(env, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_ENVIV, token);
+    }
+
+    @Override
+    public void glGetTexEnvxv(int env, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_ENVXV);
+        mgl11.glGetTexEnvxv(env, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_ENVXV, token);
+    }
+
+    @Override
+    public void glGetTexEnvxv(int env, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_ENVXV);
+        mgl11.glGetTexEnvxv(env, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_ENVXV, token);
+    }
+
+    @Override
+    public void glGetTexParameterfv(int target, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERFV);
+        mgl11.glGetTexParameterfv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glGetTexParameterfv(int target, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERFV);
+        mgl11.glGetTexParameterfv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glGetTexParameteriv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERIV);
+        mgl11.glGetTexParameteriv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glGetTexParameteriv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERIV);
+        mgl11.glGetTexParameteriv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glGetTexParameterxv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERXV);
+        mgl11.glGetTexParameterxv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERXV, token);
+    }
+
+    @Override
+    public void glGetTexParameterxv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_PARAMETERXV);
+        mgl11.glGetTexParameterxv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_PARAMETERXV, token);
+    }
+
+    @Override
+    public boolean glIsBuffer(int buffer) {
+        final long token = onCallStart(GLEntryPoints.GL_IS_BUFFER);
+        final boolean result = mgl11.glIsBuffer(buffer);
+        onCallEnd(GLEntryPoints.GL_IS_BUFFER, token);
+        return result;
+    }
+
+    @Override
+    public boolean glIsEnabled(int cap) {
+        final long token = onCallStart(GLEntryPoints.GL_IS_ENABLED);
+        final boolean result = mgl11.glIsEnabled(cap);
+        onCallEnd(GLEntryPoints.GL_IS_ENABLED, token);
+        return result;
+    }
+
+    @Override
+    public boolean glIsTexture(int texture) {
+        final long token = onCallStart(GLEntryPoints.GL_IS_TEXTURE);
+        final boolean result = mgl11.glIsTexture(texture);
+        onCallEnd(GLEntryPoints.GL_IS_TEXTURE, token);
+        return result;
+    }
+
+    @Override
+    public void glNormalPointer(int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_NORMAL_POINTER);
+        mgl11.glNormalPointer(type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_NORMAL_POINTER, token);
+    }
+
+    @Override
+    public void glPointParameterf(int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERF);
+        mgl11.glPointParameterf(pname, param);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERF, token);
+    }
+
+    @Override
+    public void glPointParameterfv(int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERFV);
+        mgl11.glPointParameterfv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glPointParameterfv(int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERFV);
+        mgl11.glPointParameterfv(pname, params);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glPointParameterx(int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERX);
+        mgl11.glPointParameterx(pname, param);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERX, token);
+    }
+
+    @Override
+    public void glPointParameterxv(int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERXV);
+        mgl11.glPointParameterxv(pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERXV, token);
+    }
+
+    @Override
+    public void glPointParameterxv(int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_PARAMETERXV);
+        mgl11.glPointParameterxv(pname, params);
+        onCallEnd(GLEntryPoints.GL_POINT_PARAMETERXV, token);
+    }
+
+    @Override
+    public void glPointSizePointerOES(int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_POINT_SIZE_POINTER_OES);
+        mgl11.glPointSizePointerOES(type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_POINT_SIZE_POINTER_OES, token);
+    }
+
+    @Override
+    public void glTexCoordPointer(int size, int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_COORD_POINTER);
+        mgl11.glTexCoordPointer(size, type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_COORD_POINTER, token);
+    }
+
+    @Override
+    public void glTexEnvi(int target, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVI);
+        mgl11.glTexEnvi(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVI, token);
+    }
+
+    @Override
+    public void glTexEnviv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVIV);
+        mgl11.glTexEnviv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVIV, token);
+    }
+
+    @Override
+    public void glTexEnviv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_ENVIV);
+        mgl11.glTexEnviv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_ENVIV, token);
+    }
+
+    @Override
+    public void glTexParameterfv(int target, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERFV);
+        mgl11.glTexParameterfv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glTexParameterfv(int target, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERFV);
+        mgl11.glTexParameterfv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERFV, token);
+    }
+
+    @Override
+    public void glTexParameteri(int target, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERI);
+        mgl11.glTexParameteri(target, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERI, token);
+    }
+
+    @Override
+    public void glTexParameteriv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERIV);
+        mgl11.glTexParameteriv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glTexParameteriv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERIV);
+        mgl11.glTexParameteriv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERIV, token);
+    }
+
+    @Override
+    public void glTexParameterxv(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERXV);
+        mgl11.glTexParameterxv(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERXV, token);
+    }
+
+    @Override
+    public void glTexParameterxv(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_PARAMETERXV);
+        mgl11.glTexParameterxv(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_PARAMETERXV, token);
+    }
+
+    @Override
+    public void glVertexPointer(int size, int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_VERTEX_POINTER);
+        mgl11.glVertexPointer(size, type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_VERTEX_POINTER, token);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11Ext methods:
+
+    @Override
+    public void glCurrentPaletteMatrixOES(int matrixpaletteindex) {
+        final long token = onCallStart(GLEntryPoints.GL_CURRENT_PALETTE_MATRIX_OES);
+        mgl11Ext.glCurrentPaletteMatrixOES(matrixpaletteindex);
+        onCallEnd(GLEntryPoints.GL_CURRENT_PALETTE_MATRIX_OES, token);
+    }
+
+    @Override
+    public void glDrawTexfOES(float x, float y, float z, float width, float height) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXF_OES);
+        mgl11Ext.glDrawTexfOES(x, y, z, width, height);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXF_OES, token);
+    }
+
+    @Override
+    public void glDrawTexfvOES(float[] coords, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXFV_OES);
+        mgl11Ext.glDrawTexfvOES(coords, offset);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXFV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexfvOES(FloatBuffer coords) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXFV_OES);
+        mgl11Ext.glDrawTexfvOES(coords);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXFV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexiOES(int x, int y, int z, int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXI_OES);
+        mgl11Ext.glDrawTexiOES(x, y, z, width, height);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXI_OES, token);
+    }
+
+    @Override
+    public void glDrawTexivOES(int[] coords, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXIV_OES);
+        mgl11Ext.glDrawTexivOES(coords, offset);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXIV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexivOES(IntBuffer coords) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXIV_OES);
+        mgl11Ext.glDrawTexivOES(coords);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXIV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexsOES(short x, short y, short z, short width, short height) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXS_OES);
+        mgl11Ext.glDrawTexsOES(x, y, z, width, height);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXS_OES, token);
+    }
+
+    @Override
+    public void glDrawTexsvOES(short[] coords, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXSV_OES);
+        mgl11Ext.glDrawTexsvOES(coords, offset);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXSV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexsvOES(ShortBuffer coords) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXSV_OES);
+        mgl11Ext.glDrawTexsvOES(coords);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXSV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexxOES(int x, int y, int z, int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXX_OES);
+        mgl11Ext.glDrawTexxOES(x, y, z, width, height);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXX_OES, token);
+    }
+
+    @Override
+    public void glDrawTexxvOES(int[] coords, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXXV_OES);
+        mgl11Ext.glDrawTexxvOES(coords, offset);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXXV_OES, token);
+    }
+
+    @Override
+    public void glDrawTexxvOES(IntBuffer coords) {
+        final long token = onCallStart(GLEntryPoints.GL_DRAW_TEXXV_OES);
+        mgl11Ext.glDrawTexxvOES(coords);
+        onCallEnd(GLEntryPoints.GL_DRAW_TEXXV_OES, token);
+    }
+
+    @Override
+    public void glLoadPaletteFromModelViewMatrixOES() {
+        final long token = onCallStart(GLEntryPoints.GL_LOAD_PALETTE_FROM_MODEL_VIEW_MATRIX_OES);
+        mgl11Ext.glLoadPaletteFromModelViewMatrixOES();
+        onCallEnd(GLEntryPoints.GL_LOAD_PALETTE_FROM_MODEL_VIEW_MATRIX_OES, token);
+    }
+
+    @Override
+    public void glMatrixIndexPointerOES(int size, int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_MATRIX_INDEX_POINTER_OES);
+        mgl11Ext.glMatrixIndexPointerOES(size, type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_MATRIX_INDEX_POINTER_OES, token);
+    }
+
+    @Override
+    public void glMatrixIndexPointerOES(int size, int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_MATRIX_INDEX_POINTER_OES);
+        mgl11Ext.glMatrixIndexPointerOES(size, type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_MATRIX_INDEX_POINTER_OES, token);
+    }
+
+    @Override
+    public void glWeightPointerOES(int size, int type, int stride, Buffer pointer) {
+        final long token = onCallStart(GLEntryPoints.GL_WEIGHT_POINTER_OES);
+        mgl11Ext.glWeightPointerOES(size, type, stride, pointer);
+        onCallEnd(GLEntryPoints.GL_WEIGHT_POINTER_OES, token);
+    }
+
+    @Override
+    public void glWeightPointerOES(int size, int type, int stride, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_WEIGHT_POINTER_OES);
+        mgl11Ext.glWeightPointerOES(size, type, stride, offset);
+        onCallEnd(GLEntryPoints.GL_WEIGHT_POINTER_OES, token);
+    }
+
+    // ---------------------------------------------------------------------
+    // GL11ExtensionPack methods:
+
+    @Override
+    public void glBindFramebufferOES(int target, int framebuffer) {
+        final long token = onCallStart(GLEntryPoints.GL_BIND_FRAMEBUFFER_OES);
+        mgl11ExtensionPack.glBindFramebufferOES(target, framebuffer);
+        onCallEnd(GLEntryPoints.GL_BIND_FRAMEBUFFER_OES, token);
+    }
+
+    @Override
+    public void glBindRenderbufferOES(int target, int renderbuffer) {
+        final long token = onCallStart(GLEntryPoints.GL_BIND_RENDERBUFFER_OES);
+        mgl11ExtensionPack.glBindRenderbufferOES(target, renderbuffer);
+        onCallEnd(GLEntryPoints.GL_BIND_RENDERBUFFER_OES, token);
+    }
+
+    @Override
+    public void glBlendEquation(int mode) {
+        final long token = onCallStart(GLEntryPoints.GL_BLEND_EQUATION);
+        mgl11ExtensionPack.glBlendEquation(mode);
+        onCallEnd(GLEntryPoints.GL_BLEND_EQUATION, token);
+    }
+
+    @Override
+    public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+        final long token = onCallStart(GLEntryPoints.GL_BLEND_EQUATION_SEPARATE);
+        mgl11ExtensionPack.glBlendEquationSeparate(modeRGB, modeAlpha);
+        onCallEnd(GLEntryPoints.GL_BLEND_EQUATION_SEPARATE, token);
+    }
+
+    @Override
+    public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        final long token = onCallStart(GLEntryPoints.GL_BLEND_FUNC_SEPARATE);
+        mgl11ExtensionPack.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+        onCallEnd(GLEntryPoints.GL_BLEND_FUNC_SEPARATE, token);
+    }
+
+    @Override
+    public int glCheckFramebufferStatusOES(int target) {
+        final long token = onCallStart(GLEntryPoints.GL_CHECK_FRAMEBUFFER_STATUS_OES);
+        final int result = mgl11ExtensionPack.glCheckFramebufferStatusOES(target);
+        onCallEnd(GLEntryPoints.GL_CHECK_FRAMEBUFFER_STATUS_OES, token);
+        return result;
+    }
+
+    @Override
+    public void glDeleteFramebuffersOES(int n, int[] framebuffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_FRAMEBUFFERS_OES);
+        mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers, offset);
+        onCallEnd(GLEntryPoints.GL_DELETE_FRAMEBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glDeleteFramebuffersOES(int n, IntBuffer framebuffers) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_FRAMEBUFFERS_OES);
+        mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers);
+        onCallEnd(GLEntryPoints.GL_DELETE_FRAMEBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glDeleteRenderbuffersOES(int n, int[] renderbuffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_RENDERBUFFERS_OES);
+        mgl11ExtensionPack.glDeleteRenderbuffersOES(n, renderbuffers, offset);
+        onCallEnd(GLEntryPoints.GL_DELETE_RENDERBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glDeleteRenderbuffersOES(int n, IntBuffer renderbuffers) {
+        final long token = onCallStart(GLEntryPoints.GL_DELETE_RENDERBUFFERS_OES);
+        mgl11ExtensionPack.glDeleteRenderbuffersOES(n, renderbuffers);
+        onCallEnd(GLEntryPoints.GL_DELETE_RENDERBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glFramebufferRenderbufferOES(int target, int attachment, int renderbuffertarget,
+            int renderbuffer) {
+        final long token = onCallStart(GLEntryPoints.GL_FRAMEBUFFER_RENDERBUFFER_OES);
+        mgl11ExtensionPack.glFramebufferRenderbufferOES(target, attachment, renderbuffertarget,
+                renderbuffer);
+        onCallEnd(GLEntryPoints.GL_FRAMEBUFFER_RENDERBUFFER_OES, token);
+    }
+
+    @Override
+    public void glFramebufferTexture2DOES(int target, int attachment, int textarget, int texture,
+            int level) {
+        final long token = onCallStart(GLEntryPoints.GL_FRAMEBUFFER_TEXTURE2_DOES);
+        mgl11ExtensionPack.glFramebufferTexture2DOES(target, attachment, textarget, texture, level);
+        onCallEnd(GLEntryPoints.GL_FRAMEBUFFER_TEXTURE2_DOES, token);
+    }
+
+    @Override
+    public void glGenerateMipmapOES(int target) {
+        final long token = onCallStart(GLEntryPoints.GL_GENERATE_MIPMAP_OES);
+        mgl11ExtensionPack.glGenerateMipmapOES(target);
+        onCallEnd(GLEntryPoints.GL_GENERATE_MIPMAP_OES, token);
+    }
+
+    @Override
+    public void glGenFramebuffersOES(int n, int[] framebuffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_FRAMEBUFFERS_OES);
+        mgl11ExtensionPack.glGenFramebuffersOES(n, framebuffers, offset);
+        onCallEnd(GLEntryPoints.GL_GEN_FRAMEBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glGenFramebuffersOES(int n, IntBuffer framebuffers) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_FRAMEBUFFERS_OES);
+        mgl11ExtensionPack.glGenFramebuffersOES(n, framebuffers);
+        onCallEnd(GLEntryPoints.GL_GEN_FRAMEBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glGenRenderbuffersOES(int n, int[] renderbuffers, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_RENDERBUFFERS_OES);
+        mgl11ExtensionPack.glGenRenderbuffersOES(n, renderbuffers, offset);
+        onCallEnd(GLEntryPoints.GL_GEN_RENDERBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glGenRenderbuffersOES(int n, IntBuffer renderbuffers) {
+        final long token = onCallStart(GLEntryPoints.GL_GEN_RENDERBUFFERS_OES);
+        mgl11ExtensionPack.glGenRenderbuffersOES(n, renderbuffers);
+        onCallEnd(GLEntryPoints.GL_GEN_RENDERBUFFERS_OES, token);
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameterivOES(int target, int attachment, int pname,
+            int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV_OES);
+        mgl11ExtensionPack.glGetFramebufferAttachmentParameterivOES(target, attachment, pname,
+                params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV_OES, token);
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameterivOES(int target, int attachment, int pname,
+            IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV_OES);
+        mgl11ExtensionPack.glGetFramebufferAttachmentParameterivOES(target, attachment, pname,
+                params);
+        onCallEnd(GLEntryPoints.GL_GET_FRAMEBUFFER_ATTACHMENT_PARAMETERIV_OES, token);
+    }
+
+    @Override
+    public void glGetRenderbufferParameterivOES(int target, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_RENDERBUFFER_PARAMETERIV_OES);
+        mgl11ExtensionPack.glGetRenderbufferParameterivOES(target, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_RENDERBUFFER_PARAMETERIV_OES, token);
+    }
+
+    @Override
+    public void glGetRenderbufferParameterivOES(int target, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_RENDERBUFFER_PARAMETERIV_OES);
+        mgl11ExtensionPack.glGetRenderbufferParameterivOES(target, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_RENDERBUFFER_PARAMETERIV_OES, token);
+    }
+
+    @Override
+    public void glGetTexGenfv(int coord, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENFV);
+        mgl11ExtensionPack.glGetTexGenfv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENFV, token);
+    }
+
+    @Override
+    public void glGetTexGenfv(int coord, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENFV);
+        mgl11ExtensionPack.glGetTexGenfv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENFV, token);
+    }
+
+    @Override
+    public void glGetTexGeniv(int coord, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENIV);
+        mgl11ExtensionPack.glGetTexGeniv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENIV, token);
+    }
+
+    @Override
+    public void glGetTexGeniv(int coord, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENIV);
+        mgl11ExtensionPack.glGetTexGeniv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENIV, token);
+    }
+
+    @Override
+    public void glGetTexGenxv(int coord, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENXV);
+        mgl11ExtensionPack.glGetTexGenxv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENXV, token);
+    }
+
+    @Override
+    public void glGetTexGenxv(int coord, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_GET_TEX_GENXV);
+        mgl11ExtensionPack.glGetTexGenxv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_GET_TEX_GENXV, token);
+    }
+
+    @Override
+    public boolean glIsFramebufferOES(int framebuffer) {
+        final long token = onCallStart(GLEntryPoints.GL_IS_FRAMEBUFFER_OES);
+        final boolean result = mgl11ExtensionPack.glIsFramebufferOES(framebuffer);
+        onCallEnd(GLEntryPoints.GL_IS_FRAMEBUFFER_OES, token);
+        return result;
+    }
+
+    @Override
+    public boolean glIsRenderbufferOES(int renderbuffer) {
+        final long token = onCallStart(GLEntryPoints.GL_IS_RENDERBUFFER_OES);
+        final boolean result = mgl11ExtensionPack.glIsRenderbufferOES(renderbuffer);
+        onCallEnd(GLEntryPoints.GL_IS_RENDERBUFFER_OES, token);
+        return result;
+    }
+
+    @Override
+    public void glRenderbufferStorageOES(int target, int internalformat, int width, int height) {
+        final long token = onCallStart(GLEntryPoints.GL_RENDERBUFFER_STORAGE_OES);
+        mgl11ExtensionPack.glRenderbufferStorageOES(target, internalformat, width, height);
+        onCallEnd(GLEntryPoints.GL_RENDERBUFFER_STORAGE_OES, token);
+    }
+
+    @Override
+    public void glTexGenf(int coord, int pname, float param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENF);
+        mgl11ExtensionPack.glTexGenf(coord, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_GENF, token);
+    }
+
+    @Override
+    public void glTexGenfv(int coord, int pname, float[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENFV);
+        mgl11ExtensionPack.glTexGenfv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_GENFV, token);
+    }
+
+    @Override
+    public void glTexGenfv(int coord, int pname, FloatBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENFV);
+        mgl11ExtensionPack.glTexGenfv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_GENFV, token);
+    }
+
+    @Override
+    public void glTexGeni(int coord, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENI);
+        mgl11ExtensionPack.glTexGeni(coord, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_GENI, token);
+    }
+
+    @Override
+    public void glTexGeniv(int coord, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENIV);
+        mgl11ExtensionPack.glTexGeniv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_GENIV, token);
+    }
+
+    @Override
+    public void glTexGeniv(int coord, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENIV);
+        mgl11ExtensionPack.glTexGeniv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_GENIV, token);
+    }
+
+    @Override
+    public void glTexGenx(int coord, int pname, int param) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENX);
+        mgl11ExtensionPack.glTexGenx(coord, pname, param);
+        onCallEnd(GLEntryPoints.GL_TEX_GENX, token);
+    }
+
+    @Override
+    public void glTexGenxv(int coord, int pname, int[] params, int offset) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENXV);
+        mgl11ExtensionPack.glTexGenxv(coord, pname, params, offset);
+        onCallEnd(GLEntryPoints.GL_TEX_GENXV, token);
+    }
+
+    @Override
+    public void glTexGenxv(int coord, int pname, IntBuffer params) {
+        final long token = onCallStart(GLEntryPoints.GL_TEX_GENXV);
+        mgl11ExtensionPack.glTexGenxv(coord, pname, params);
+        onCallEnd(GLEntryPoints.GL_TEX_GENXV, token);
+    }
+}
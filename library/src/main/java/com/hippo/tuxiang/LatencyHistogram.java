@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations. Recording never allocates or blocks,
+ * so it can be called on the rendering thread every frame, while other
+ * threads read it.
+ * <p>
+ * Durations are kept in microseconds, in buckets of 16 per power of two,
+ * so percentiles are accurate to about 6%.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Values below it have their own buckets
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+    private static final long MAX_MICROS = Integer.MAX_VALUE;
+    private static final int BUCKET_COUNT = getBucketIndex(MAX_MICROS) + 1;
+
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mSum = new AtomicLong();
+    private final AtomicLong mMax = new AtomicLong();
+
+    LatencyHistogram() {}
+
+    private static int getBucketIndex(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT * shift + (int) (micros >> shift);
+    }
+
+    private static long getBucketValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (index - SUB_BUCKET_COUNT * shift) << shift;
+    }
+
+    /**
+     * Record a duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        final long micros = Math.min(nanos / 1000, MAX_MICROS);
+        mBuckets.incrementAndGet(getBucketIndex(micros));
+        mCount.incrementAndGet();
+        mSum.addAndGet(nanos);
+        long max;
+        while (nanos > (max = mMax.get()) && !mMax.compareAndSet(max, nanos)) {
+            // Retry
+        }
+    }
+
+    /**
+     * Clear all recorded durations. Durations recorded at the same time
+     * may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mSum.set(0);
+        mMax.set(0);
+    }
+
+    /**
+     * @return a copy of the histogram
+     */
+    public Snapshot snapshot() {
+        final long[] buckets = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = mBuckets.get(i);
+            count += buckets[i];
+        }
+        return new Snapshot(buckets, count, mSum.get(), mMax.get());
+    }
+
+    /**
+     * An immutable copy of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] mBuckets;
+        private final long mCount;
+        private final long mSum;
+        private final long mMax;
+
+        Snapshot(long[] buckets, long count, long sum, long max) {
+            mBuckets = buckets;
+            mCount = count;
+            mSum = sum;
+            mMax = max;
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        /**
+         * @return the mean duration in nanoseconds, 0 if empty
+         */
+        public long getMean() {
+            return mCount == 0 ? 0 : mSum / mCount;
+        }
+
+        /**
+         * @return the maximum duration in nanoseconds
+         */
+        public long getMax() {
+            return mMax;
+        }
+
+        /**
+         * @param percentile from 0 to 100
+         * @return the lower bound of the bucket at the percentile,
+         * in nanoseconds, 0 if empty
+         */
+        public long getPercentile(double percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(mCount * Math.min(Math.max(percentile, 0.0), 100.0)
+                    / 100.0);
+            long seen = 0;
+            for (int i = 0; i < mBuckets.length; i++) {
+                seen += mBuckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(getBucketValue(i) * 1000, mMax);
+                }
+            }
+            return mMax;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.util.Log;
+
+/**
+ * Loads the native part of the library. The native part is optional,
+ * every feature that depends on it has a pure Java fallback.
+ */
+final class NativeLibrary {
+    private static final String TAG = "NativeLibrary";
+
+    private static boolean sTried;
+    private static boolean sLoaded;
+
+    private NativeLibrary() {}
+
+    /**
+     * @return {@code true} if the native library is loaded
+     */
+    public static synchronized boolean load() {
+        if (!sTried) {
+            sTried = true;
+            try {
+                System.loadLibrary("tuxiang");
+                sLoaded = true;
+            } catch (UnsatisfiedLinkError e) {
+                Log.w(TAG, "Can't load native library, fall back to java only", e);
+                sLoaded = false;
+            }
+        }
+        return sLoaded;
+    }
+}
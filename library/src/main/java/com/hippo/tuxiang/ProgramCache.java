@@ -0,0 +1,317 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+/**
+ * Caches linked programs on disk with {@code glGetProgramBinary} and
+ * {@code glProgramBinary}, so programs don't have to be compiled again
+ * when a new EGL context is created.
+ * <p>
+ * A program is keyed by its shader sources and the GL vendor, renderer and
+ * version strings, so a driver update invalidates the cache. Each file
+ * carries a checksum. If the cache can't be used, because the context isn't
+ * OpenGL ES 3.0, the file is broken or the driver rejects the binary,
+ * the program is compiled from the sources.
+ * <p>
+ * All methods must be called on the rendering thread, e.g. in
+ * {@link Renderer#onSurfaceCreated}.
+ */
+public final class ProgramCache {
+
+    private static final String TAG = "ProgramCache";
+
+    private static final String DIR_NAME = "tuxiang_programs";
+
+    // "TXPB"
+    private static final int MAGIC = 0x54585042;
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+    private static final int GL_PROGRAM_BINARY_RETRIEVABLE_HINT = 0x8257;
+    private static final int GL_PROGRAM_BINARY_LENGTH = 0x8741;
+    private static final int GL_NUM_PROGRAM_BINARY_FORMATS = 0x87FE;
+
+    private final File mDir;
+    private final int[] mValue = new int[1];
+    private final int[] mFormat = new int[1];
+
+    private int mHitCount;
+    private int mMissCount;
+
+    /**
+     * Store programs in the code cache directory of the app.
+     */
+    public ProgramCache(Context context) {
+        this(new File(getCacheDir(context), DIR_NAME));
+    }
+
+    /**
+     * Store programs in a directory.
+     */
+    public ProgramCache(File dir) {
+        mDir = dir;
+    }
+
+    private static File getCacheDir(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            // Cleared on app updates
+            return context.getCodeCacheDir();
+        } else {
+            return context.getCacheDir();
+        }
+    }
+
+    /**
+     * Get a linked program from the cache, or build it from
+     * the sources and store it into the cache.
+     *
+     * @return the program, or 0 if it can't be built
+     */
+    public int getProgram(String vertexSource, String fragmentSource) {
+        if (!isBinarySupported()) {
+            return GLPrograms.createProgram(vertexSource, fragmentSource);
+        }
+
+        final File file = new File(mDir, getKey(vertexSource, fragmentSource));
+        int program = loadProgram(file);
+        if (program != 0) {
+            mHitCount++;
+            return program;
+        }
+
+        mMissCount++;
+        program = GLPrograms.createUnlinkedProgram(vertexSource, fragmentSource, true);
+        if (program == 0) {
+            return 0;
+        }
+        setRetrievableHint(program);
+        GLES20.glLinkProgram(program);
+        if (!GLPrograms.checkLinkStatus(program)) {
+            return 0;
+        }
+        saveProgram(program, file);
+        return program;
+    }
+
+    /**
+     * Delete all cached programs.
+     */
+    public void clear() {
+        final File[] files = mDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * @return the number of programs loaded from the cache
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * @return the number of programs compiled from the sources
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    private boolean isBinarySupported() {
+        if (!GlExt.isGLES3()) {
+            return false;
+        }
+        GLES20.glGetIntegerv(GL_NUM_PROGRAM_BINARY_FORMATS, mValue, 0);
+        return mValue[0] > 0;
+    }
+
+    private static String getKey(String vertexSource, String fragmentSource) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, vertexSource);
+        update(digest, fragmentSource);
+        update(digest, GLES20.glGetString(GLES20.GL_VENDOR));
+        update(digest, GLES20.glGetString(GLES20.GL_RENDERER));
+        update(digest, GLES20.glGetString(GLES20.GL_VERSION));
+
+        final byte[] hash = digest.digest();
+        final char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = Character.forDigit((hash[i] >> 4) & 0xf, 16);
+            chars[i * 2 + 1] = Character.forDigit(hash[i] & 0xf, 16);
+        }
+        return new String(chars);
+    }
+
+    private static void update(MessageDigest digest, String str) {
+        if (str != null) {
+            final int length = str.length();
+            for (int i = 0; i < length; i++) {
+                final char c = str.charAt(i);
+                digest.update((byte) (c >> 8));
+                digest.update((byte) c);
+            }
+        }
+        // Separator, so "ab" + "c" differs from "a" + "bc"
+        digest.update((byte) 0xff);
+        digest.update((byte) 0xff);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void setRetrievableHint(int program) {
+        GLES30.glProgramParameteri(program, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GLES20.GL_TRUE);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private int loadProgram(File file) {
+        if (!file.isFile()) {
+            return 0;
+        }
+
+        final byte[] binary;
+        final int format;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(file));
+            final int magic = in.readInt();
+            final int version = in.readInt();
+            format = in.readInt();
+            final int length = in.readInt();
+            final long crc = in.readLong();
+            if (magic != MAGIC || version != FILE_VERSION
+                    || length <= 0 || length != file.length() - HEADER_SIZE) {
+                throw new IOException("Invalid header");
+            }
+            binary = new byte[length];
+            in.readFully(binary);
+            final CRC32 crc32 = new CRC32();
+            crc32.update(binary);
+            if (crc32.getValue() != crc) {
+                throw new IOException("Checksum mismatch");
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Can't read " + file, e);
+            file.delete();
+            return 0;
+        } finally {
+            closeQuietly(in);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(binary.length)
+                .order(ByteOrder.nativeOrder());
+        buffer.put(binary).position(0);
+
+        final int program = GLES20.glCreateProgram();
+        if (program == 0) {
+            return 0;
+        }
+        GLES30.glProgramBinary(program, format, buffer, binary.length);
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, mValue, 0);
+        if (mValue[0] == 0) {
+            // The driver rejects it, maybe it's updated without changing the version string
+            Log.w(TAG, "Binary rejected: " + file.getName());
+            GLES20.glDeleteProgram(program);
+            file.delete();
+            return 0;
+        }
+        return program;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void saveProgram(int program, File file) {
+        GLES20.glGetProgramiv(program, GL_PROGRAM_BINARY_LENGTH, mValue, 0);
+        final int length = mValue[0];
+        if (length <= 0) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+        // A failed call writes nothing, so a zero length tells the failure
+        // without glGetError(), which would steal errors from the renderer
+        mValue[0] = 0;
+        GLES30.glGetProgramBinary(program, length, mValue, 0, mFormat, 0, buffer);
+        if (mValue[0] <= 0) {
+            return;
+        }
+        final byte[] binary = new byte[mValue[0]];
+        buffer.get(binary);
+        final CRC32 crc32 = new CRC32();
+        crc32.update(binary);
+
+        if (!mDir.isDirectory() && !mDir.mkdirs()) {
+            Log.w(TAG, "Can't create " + mDir);
+            return;
+        }
+        // Write to a temporary file, so a crash never leaves a partial file
+        final File temp = new File(mDir, file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(temp));
+            out.writeInt(MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(mFormat[0]);
+            out.writeInt(binary.length);
+            out.writeLong(crc32.getValue());
+            out.write(binary);
+            out.close();
+            out = null;
+            if (!temp.renameTo(file)) {
+                throw new IOException("Can't rename " + temp);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Can't write " + file, e);
+            temp.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.opengl.GLES20;
+
+import java.util.ArrayList;
+
+/**
+ * Builds programs without blocking the rendering thread on the compiler.
+ * <p>
+ * Submit all programs in {@link Renderer#onSurfaceCreated}, then call
+ * {@link #poll()} in every {@link Renderer#onDrawFrame}, and render fallback
+ * content until the needed programs are ready:
+ * <pre class="prettyprint">
+ * public boolean onDrawFrame(GL10 gl) {
+ *     mCompiler.poll();
+ *     if (mCompiler.isReady(mSpriteProgram)) {
+ *         drawSprites(mCompiler.getProgram(mSpriteProgram));
+ *     } else {
+ *         drawPlaceholder();
+ *     }
+ *     return true;
+ * }
+ * </pre>
+ * If {@code GL_KHR_parallel_shader_compile} is supported, all programs are
+ * compiled and linked by the driver in parallel, and completion is checked
+ * without waiting. Otherwise, one program is built in each {@link #poll()}.
+ * <p>
+ * A compiler works for the EGL context it is created in. All methods must be
+ * called on the rendering thread.
+ */
+public final class ProgramCompiler {
+
+    private static final String EXTENSION = "GL_KHR_parallel_shader_compile";
+
+    private static final int GL_COMPLETION_STATUS_KHR = 0x91B1;
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_COMPILING = 1;
+    private static final int STATE_READY = 2;
+    private static final int STATE_FAILED = 3;
+
+    private final boolean mParallel;
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+    private final int[] mValue = new int[1];
+    private int mUnfinishedCount;
+
+    public ProgramCompiler() {
+        mParallel = EglHelper.hasExtension(GLES20.glGetString(GLES20.GL_EXTENSIONS), EXTENSION);
+    }
+
+    /**
+     * @return true if the programs are compiled in parallel by the driver
+     */
+    public boolean isParallel() {
+        return mParallel;
+    }
+
+    /**
+     * Submit a program.
+     *
+     * @return a handle of the program
+     */
+    public int submit(String vertexSource, String fragmentSource) {
+        final Entry entry = new Entry(vertexSource, fragmentSource);
+        if (mParallel) {
+            start(entry);
+        }
+        mEntries.add(entry);
+        mUnfinishedCount++;
+        return mEntries.size() - 1;
+    }
+
+    /**
+     * Check programs in progress. Call it once per frame.
+     *
+     * @return true if all submitted programs are finished
+     */
+    public boolean poll() {
+        if (mUnfinishedCount == 0) {
+            return true;
+        }
+
+        for (int i = 0, n = mEntries.size(); i < n; i++) {
+            final Entry entry = mEntries.get(i);
+            if (mParallel) {
+                if (entry.state == STATE_COMPILING) {
+                    GLES20.glGetProgramiv(entry.program, GL_COMPLETION_STATUS_KHR, mValue, 0);
+                    if (mValue[0] != 0) {
+                        finish(entry);
+                    }
+                }
+            } else if (entry.state == STATE_PENDING) {
+                // Build one program per frame
+                start(entry);
+                if (entry.state == STATE_COMPILING) {
+                    finish(entry);
+                }
+                break;
+            }
+        }
+
+        return mUnfinishedCount == 0;
+    }
+
+    /**
+     * Build the program now if it isn't finished, blocking until it is done.
+     *
+     * @return the program, or 0 if it can't be built
+     */
+    public int finishProgram(int handle) {
+        final Entry entry = mEntries.get(handle);
+        if (entry.state == STATE_PENDING) {
+            start(entry);
+        }
+        if (entry.state == STATE_COMPILING) {
+            finish(entry);
+        }
+        return entry.program;
+    }
+
+    /**
+     * @return true if the program is linked successfully
+     */
+    public boolean isReady(int handle) {
+        return mEntries.get(handle).state == STATE_READY;
+    }
+
+    /**
+     * @return true if the program can't be built, the error is logged
+     */
+    public boolean isFailed(int handle) {
+        return mEntries.get(handle).state == STATE_FAILED;
+    }
+
+    /**
+     * @return the program if it is ready, otherwise 0
+     */
+    public int getProgram(int handle) {
+        final Entry entry = mEntries.get(handle);
+        return entry.state == STATE_READY ? entry.program : 0;
+    }
+
+    /**
+     * @return the number of programs not finished yet
+     */
+    public int getUnfinishedCount() {
+        return mUnfinishedCount;
+    }
+
+    private void start(Entry entry) {
+        // Don't check compile status, the link status tells it
+        final int program = GLPrograms.createUnlinkedProgram(
+                entry.vertexSource, entry.fragmentSource, false);
+        entry.vertexSource = null;
+        entry.fragmentSource = null;
+        if (program == 0) {
+            entry.state = STATE_FAILED;
+            mUnfinishedCount--;
+            return;
+        }
+        GLES20.glLinkProgram(program);
+        entry.program = program;
+        entry.state = STATE_COMPILING;
+    }
+
+    private void finish(Entry entry) {
+        if (GLPrograms.checkLinkStatus(entry.program)) {
+            entry.state = STATE_READY;
+        } else {
+            entry.program = 0;
+            entry.state = STATE_FAILED;
+        }
+        mUnfinishedCount--;
+    }
+
+    private static class Entry {
+        String vertexSource;
+        String fragmentSource;
+        int program;
+        int state = STATE_PENDING;
+
+        Entry(String vertexSource, String fragmentSource) {
+            this.vertexSource = vertexSource;
+            this.fragmentSource = fragmentSource;
+        }
+    }
+}
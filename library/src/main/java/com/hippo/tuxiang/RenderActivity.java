@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * What the rendering thread is doing.
+ *
+ * @see BlockingMetrics
+ */
+public final class RenderActivity {
+
+    /**
+     * Waiting on the monitor for something to do.
+     */
+    public static final int IDLE = 0;
+
+    /**
+     * Updating its state while holding the monitor, including
+     * {@link Renderer#onGLThreadPause()} and {@link Renderer#onGLThreadResume()}.
+     */
+    public static final int MANAGING = 1;
+
+    /**
+     * Running a queued event.
+     */
+    public static final int EVENT = 2;
+
+    /**
+     * Creating the EGL context.
+     */
+    public static final int CREATE_CONTEXT = 3;
+
+    /**
+     * Creating the EGL surface.
+     */
+    public static final int CREATE_SURFACE = 4;
+
+    /**
+     * In {@link Renderer#onSurfaceCreated}.
+     */
+    public static final int SURFACE_CREATED = 5;
+
+    /**
+     * In {@link Renderer#onSurfaceChanged}.
+     */
+    public static final int SURFACE_CHANGED = 6;
+
+    /**
+     * Drawing a frame, including frame hooks.
+     */
+    public static final int DRAW = 7;
+
+    /**
+     * Swapping buffers.
+     */
+    public static final int SWAP = 8;
+
+    /**
+     * Not started or exited.
+     */
+    public static final int STOPPED = 9;
+
+    static final int COUNT = 10;
+
+    private static final String[] NAMES = {
+            "IDLE",
+            "MANAGING",
+            "EVENT",
+            "CREATE_CONTEXT",
+            "CREATE_SURFACE",
+            "SURFACE_CREATED",
+            "SURFACE_CHANGED",
+            "DRAW",
+            "SWAP",
+            "STOPPED",
+    };
+
+    private RenderActivity() {}
+
+    /**
+     * @return the name of the activity, or "UNKNOWN"
+     */
+    public static String getName(int activity) {
+        return activity >= 0 && activity < COUNT ? NAMES[activity] : "UNKNOWN";
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.util.Locale;
+
+/**
+ * A consistent snapshot of the state of a rendering thread, for diagnosing
+ * views which don't draw.
+ *
+ * @see GLStuff#getRenderThreadState()
+ */
+public final class RenderThreadState {
+
+    static final int FLAG_EXIT_REQUESTED = 1;
+    static final int FLAG_EXITED = 1 << 1;
+    static final int FLAG_PAUSE_REQUESTED = 1 << 2;
+    static final int FLAG_PAUSED = 1 << 3;
+    static final int FLAG_HAS_SURFACE = 1 << 4;
+    static final int FLAG_SURFACE_IS_BAD = 1 << 5;
+    static final int FLAG_WAITING_FOR_SURFACE = 1 << 6;
+    static final int FLAG_HAVE_EGL_CONTEXT = 1 << 7;
+    static final int FLAG_HAVE_EGL_SURFACE = 1 << 8;
+    static final int FLAG_FINISHED_CREATING_EGL_SURFACE = 1 << 9;
+    static final int FLAG_RELEASE_EGL_CONTEXT_REQUESTED = 1 << 10;
+    static final int FLAG_RENDER_REQUESTED = 1 << 11;
+    static final int FLAG_RENDER_NOTIFICATION_WANTED = 1 << 12;
+    static final int FLAG_RENDER_COMPLETE = 1 << 13;
+    static final int FLAG_SIZE_CHANGED = 1 << 14;
+    static final int FLAG_RESIZE_PENDING = 1 << 15;
+    static final int FLAG_READY_TO_DRAW = 1 << 16;
+
+    private final long mTime;
+    private final int mFlags;
+    private final int mWidth;
+    private final int mHeight;
+    private final int mPendingWidth;
+    private final int mPendingHeight;
+    private final int mRenderMode;
+    private final int mEventQueueSize;
+    private final int mActivity;
+    private final long mFrameCount;
+    private final long mLastFrameTime;
+    private final int mEglDisplay;
+    private final int mEglContext;
+    private final int mEglSurface;
+    private final int mLastSwapError;
+
+    RenderThreadState(long time, int flags, int width, int height, int pendingWidth,
+            int pendingHeight, int renderMode, int eventQueueSize, int activity,
+            long frameCount, long lastFrameTime, int eglDisplay, int eglContext,
+            int eglSurface, int lastSwapError) {
+        mTime = time;
+        mFlags = flags;
+        mWidth = width;
+        mHeight = height;
+        mPendingWidth = pendingWidth;
+        mPendingHeight = pendingHeight;
+        mRenderMode = renderMode;
+        mEventQueueSize = eventQueueSize;
+        mActivity = activity;
+        mFrameCount = frameCount;
+        mLastFrameTime = lastFrameTime;
+        mEglDisplay = eglDisplay;
+        mEglContext = eglContext;
+        mEglSurface = eglSurface;
+        mLastSwapError = lastSwapError;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} when the snapshot was taken
+     */
+    public long getTime() {
+        return mTime;
+    }
+
+    public boolean isExitRequested() {
+        return (mFlags & FLAG_EXIT_REQUESTED) != 0;
+    }
+
+    public boolean isExited() {
+        return (mFlags & FLAG_EXITED) != 0;
+    }
+
+    public boolean isPauseRequested() {
+        return (mFlags & FLAG_PAUSE_REQUESTED) != 0;
+    }
+
+    public boolean isPaused() {
+        return (mFlags & FLAG_PAUSED) != 0;
+    }
+
+    /**
+     * @return true if the view has a surface
+     */
+    public boolean hasSurface() {
+        return (mFlags & FLAG_HAS_SURFACE) != 0;
+    }
+
+    /**
+     * @return true if the EGL surface can't be created or swapped
+     */
+    public boolean isSurfaceBad() {
+        return (mFlags & FLAG_SURFACE_IS_BAD) != 0;
+    }
+
+    /**
+     * @return true if the rendering thread has noticed that the surface is lost
+     */
+    public boolean isWaitingForSurface() {
+        return (mFlags & FLAG_WAITING_FOR_SURFACE) != 0;
+    }
+
+    public boolean hasEglContext() {
+        return (mFlags & FLAG_HAVE_EGL_CONTEXT) != 0;
+    }
+
+    public boolean hasEglSurface() {
+        return (mFlags & FLAG_HAVE_EGL_SURFACE) != 0;
+    }
+
+    public boolean isFinishedCreatingEglSurface() {
+        return (mFlags & FLAG_FINISHED_CREATING_EGL_SURFACE) != 0;
+    }
+
+    public boolean isReleaseEglContextRequested() {
+        return (mFlags & FLAG_RELEASE_EGL_CONTEXT_REQUESTED) != 0;
+    }
+
+    public boolean isRenderRequested() {
+        return (mFlags & FLAG_RENDER_REQUESTED) != 0;
+    }
+
+    public boolean isRenderNotificationWanted() {
+        return (mFlags & FLAG_RENDER_NOTIFICATION_WANTED) != 0;
+    }
+
+    public boolean isRenderComplete() {
+        return (mFlags & FLAG_RENDER_COMPLETE) != 0;
+    }
+
+    public boolean isSizeChanged() {
+        return (mFlags & FLAG_SIZE_CHANGED) != 0;
+    }
+
+    /**
+     * @return true if a debounced size is waiting to settle
+     */
+    public boolean isResizePending() {
+        return (mFlags & FLAG_RESIZE_PENDING) != 0;
+    }
+
+    /**
+     * @return true if the rendering thread would draw a frame
+     */
+    public boolean isReadyToDraw() {
+        return (mFlags & FLAG_READY_TO_DRAW) != 0;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public int getPendingWidth() {
+        return mPendingWidth;
+    }
+
+    public int getPendingHeight() {
+        return mPendingHeight;
+    }
+
+    public int getRenderMode() {
+        return mRenderMode;
+    }
+
+    public int getEventQueueSize() {
+        return mEventQueueSize;
+    }
+
+    /**
+     * @return one of the constants of {@link RenderActivity}
+     */
+    public int getActivity() {
+        return mActivity;
+    }
+
+    /**
+     * @return the number of frames swapped
+     */
+    public long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} when the last frame was swapped,
+     * 0 if no frame is swapped
+     */
+    public long getLastFrameTime() {
+        return mLastFrameTime;
+    }
+
+    /**
+     * @return the identity hash code of the EGL display, 0 if there is no display
+     */
+    public int getEglDisplay() {
+        return mEglDisplay;
+    }
+
+    /**
+     * @return the identity hash code of the EGL context, 0 if there is no context
+     */
+    public int getEglContext() {
+        return mEglContext;
+    }
+
+    /**
+     * @return the identity hash code of the EGL surface, 0 if there is no surface
+     */
+    public int getEglSurface() {
+        return mEglSurface;
+    }
+
+    /**
+     * @return the error of the last eglSwapBuffers
+     */
+    public int getLastSwapError() {
+        return mLastSwapError;
+    }
+
+    /**
+     * @return why the rendering thread doesn't draw, or null if it's ready to draw
+     */
+    public String getNotDrawingReason() {
+        if (isExited()) {
+            return "exited";
+        } else if (isPaused()) {
+            return "paused";
+        } else if (!hasSurface()) {
+            return "waiting for surface";
+        } else if (isSurfaceBad()) {
+            return "surface is bad";
+        } else if (mWidth <= 0 || mHeight <= 0) {
+            return isResizePending() ? "waiting for size to settle" : "waiting for size";
+        } else if (!isReadyToDraw()) {
+            return "waiting for render request";
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Append a human readable description, for bug reports.
+     */
+    public void dump(StringBuilder sb) {
+        final String reason = getNotDrawingReason();
+        sb.append("RenderThreadState:");
+        sb.append("\n  activity: ").append(RenderActivity.getName(mActivity));
+        sb.append("\n  drawing: ").append(reason == null ? "ready" : reason);
+        sb.append("\n  exitRequested: ").append(isExitRequested())
+                .append(", exited: ").append(isExited());
+        sb.append("\n  pauseRequested: ").append(isPauseRequested())
+                .append(", paused: ").append(isPaused());
+        sb.append("\n  hasSurface: ").append(hasSurface())
+                .append(", surfaceIsBad: ").append(isSurfaceBad())
+                .append(", waitingForSurface: ").append(isWaitingForSurface());
+        sb.append("\n  haveEglContext: ").append(hasEglContext())
+                .append(", haveEglSurface: ").append(hasEglSurface())
+                .append(", finishedCreatingEglSurface: ").append(isFinishedCreatingEglSurface())
+                .append(", releaseEglContextRequested: ").append(isReleaseEglContextRequested());
+        sb.append("\n  eglDisplay: ").append(Integer.toHexString(mEglDisplay))
+                .append(", eglContext: ").append(Integer.toHexString(mEglContext))
+                .append(", eglSurface: ").append(Integer.toHexString(mEglSurface))
+                .append(", lastSwapError: 0x").append(Integer.toHexString(mLastSwapError));
+        sb.append("\n  size: ").append(mWidth).append('x').append(mHeight)
+                .append(", sizeChanged: ").append(isSizeChanged())
+                .append(", resizePending: ").append(isResizePending());
+        if (isResizePending()) {
+            sb.append(", pendingSize: ").append(mPendingWidth).append('x').append(mPendingHeight);
+        }
+        sb.append("\n  renderMode: ").append(mRenderMode == GLStuff.RENDERMODE_CONTINUOUSLY
+                ? "CONTINUOUSLY" : "WHEN_DIRTY")
+                .append(", renderRequested: ").append(isRenderRequested())
+                .append(", renderNotificationWanted: ").append(isRenderNotificationWanted())
+                .append(", renderComplete: ").append(isRenderComplete());
+        sb.append("\n  eventQueueSize: ").append(mEventQueueSize);
+        sb.append("\n  frameCount: ").append(mFrameCount);
+        if (mLastFrameTime != 0) {
+            sb.append(", lastFrame: ").append(String.format(Locale.US, "%.1f",
+                    (mTime - mLastFrameTime) / 1000000.0)).append(" ms ago");
+        }
+        sb.append('\n');
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        dump(sb);
+        return sb.toString();
+    }
+}
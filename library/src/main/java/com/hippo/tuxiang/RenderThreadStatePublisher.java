@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+/**
+ * Publishes the state of a rendering thread to other threads.
+ * <p>
+ * All fields are written under a sequence number which is odd while they
+ * are being written. Readers retry until they see the same even sequence
+ * number before and after reading, so they never take a lock and never
+ * stall the rendering thread. Writers are serialized by a private lock:
+ * the monitor state is published by any thread holding the monitor, the
+ * EGL state and frame counters by the rendering thread without it.
+ */
+final class RenderThreadStatePublisher {
+
+    private static final int MAX_SPINS = 100;
+
+    // Held by writers only, never while taking the monitor
+    private final Object mWriteLock = new Object();
+
+    private volatile int mSequence;
+    private volatile int mFlags;
+    private volatile int mWidth;
+    private volatile int mHeight;
+    private volatile int mPendingWidth;
+    private volatile int mPendingHeight;
+    private volatile int mRenderMode;
+    private volatile int mEventQueueSize;
+    private volatile long mFrameCount;
+    private volatile long mLastFrameTime;
+    private volatile int mEglDisplay;
+    private volatile int mEglContext;
+    private volatile int mEglSurface;
+    private volatile int mLastSwapError = 0x3000; // EGL_SUCCESS
+
+    /**
+     * Must be called inside a synchronized(sGLThreadManager) block.
+     */
+    void publish(int flags, int width, int height, int pendingWidth, int pendingHeight,
+            int renderMode, int eventQueueSize) {
+        synchronized (mWriteLock) {
+            final int sequence = mSequence;
+            mSequence = sequence + 1;
+            mFlags = flags;
+            mWidth = width;
+            mHeight = height;
+            mPendingWidth = pendingWidth;
+            mPendingHeight = pendingHeight;
+            mRenderMode = renderMode;
+            mEventQueueSize = eventQueueSize;
+            mSequence = sequence + 2;
+        }
+    }
+
+    /**
+     * Called on the rendering thread.
+     */
+    void publishEgl(Object display, Object context, Object surface) {
+        final int eglDisplay = display != null ? System.identityHashCode(display) : 0;
+        final int eglContext = context != null ? System.identityHashCode(context) : 0;
+        final int eglSurface = surface != null ? System.identityHashCode(surface) : 0;
+        synchronized (mWriteLock) {
+            final int sequence = mSequence;
+            mSequence = sequence + 1;
+            mEglDisplay = eglDisplay;
+            mEglContext = eglContext;
+            mEglSurface = eglSurface;
+            mSequence = sequence + 2;
+        }
+    }
+
+    /**
+     * Called on the rendering thread.
+     */
+    void publishSwap(int error, long time) {
+        synchronized (mWriteLock) {
+            final int sequence = mSequence;
+            mSequence = sequence + 1;
+            mLastSwapError = error;
+            mLastFrameTime = time;
+            mFrameCount = mFrameCount + 1;
+            mSequence = sequence + 2;
+        }
+    }
+
+    RenderThreadState snapshot(int activity) {
+        int flags;
+        int width;
+        int height;
+        int pendingWidth;
+        int pendingHeight;
+        int renderMode;
+        int eventQueueSize;
+        long frameCount;
+        long lastFrameTime;
+        int eglDisplay;
+        int eglContext;
+        int eglSurface;
+        int lastSwapError;
+        int spins = 0;
+        while (true) {
+            final int sequence = mSequence;
+            flags = mFlags;
+            width = mWidth;
+            height = mHeight;
+            pendingWidth = mPendingWidth;
+            pendingHeight = mPendingHeight;
+            renderMode = mRenderMode;
+            eventQueueSize = mEventQueueSize;
+            frameCount = mFrameCount;
+            lastFrameTime = mLastFrameTime;
+            eglDisplay = mEglDisplay;
+            eglContext = mEglContext;
+            eglSurface = mEglSurface;
+            lastSwapError = mLastSwapError;
+            if ((sequence & 1) == 0 && sequence == mSequence) {
+                break;
+            }
+            if (++spins >= MAX_SPINS) {
+                Thread.yield();
+                spins = 0;
+            }
+        }
+        return new RenderThreadState(System.nanoTime(), flags, width, height,
+                pendingWidth, pendingHeight, renderMode, eventQueueSize, activity,
+                frameCount, lastFrameTime, eglDisplay, eglContext, eglSurface,
+                lastSwapError);
+    }
+}
@@ -52,7 +52,8 @@ import javax.microedition.khronos.opengles.GL10;
  * associated with that context will be automatically deleted. In order to
  * keep rendering correctly, a renderer must recreate any lost resources
  * that it still needs. The {@link #onSurfaceCreated(GL10, EGLConfig)} method
- * is a convenient place to do this.
+ * is a convenient place to do this. Alternatively, register them with
+ * {@link GLStuff#getGLResourceRegistry()} to restore them lazily.
  *
  * @see GLStuff#setRenderer(Renderer)
  */
@@ -0,0 +1,555 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Draws textured quads in batches.
+ * <p>
+ * Sprites are collected between {@link #begin(float[])} and {@link #end()},
+ * then sorted by layer, blend mode and texture, and drawn with one call for
+ * each run of sprites sharing a texture and blend mode. Sprites in the same
+ * layer may be reordered, put overlapping translucent sprites in different
+ * layers to keep their order. On OpenGL ES 3.0, each sprite is an instance
+ * of a single quad; on OpenGL ES 2.0, four vertices are written for it.
+ * <p>
+ * Layers are only sorted within a flush. If more sprites than the capacity
+ * are drawn in one batch, the collected ones are flushed first, and sprites
+ * after it are drawn on top of them whatever their layers are. Choose
+ * a capacity which fits a whole frame if layer order matters.
+ * <p>
+ * Textures are expected to have premultiplied alpha, like bitmaps uploaded by
+ * {@link android.opengl.GLUtils}. The batch changes the current program,
+ * the blend state, the buffer bindings and the texture bound to unit 0.
+ * <p>
+ * The batch is a {@link GLResource}, its program and buffers are recreated
+ * after the EGL context is lost. If the program can't be built, the failure
+ * is logged and sprites are dropped until the next context.
+ * All methods must be called on the rendering thread.
+ */
+public final class SpriteBatch implements GLResource {
+
+    private static final String TAG = "SpriteBatch";
+
+    public static final int BLEND_NONE = 0;
+    public static final int BLEND_ALPHA = 1;
+    public static final int BLEND_ADDITIVE = 2;
+
+    private static final int MIN_LAYER = -1024;
+    private static final int MAX_LAYER = 1023;
+
+    // 4 vertices of x, y, u, v floats and 4 color bytes
+    private static final int QUAD_BYTES = 4 * (4 * 4 + 4);
+    // x, y, w, h, u0, v0, u1, v1 floats and 4 color bytes
+    private static final int INSTANCE_BYTES = 8 * 4 + 4;
+    // Limited by unsigned short indices
+    private static final int MAX_INDEXED_SPRITES = 65536 / 4;
+
+    private static final String VERTEX_SHADER =
+            "uniform mat4 uMatrix;\n" +
+            "attribute vec2 aPosition;\n" +
+            "attribute vec2 aTexCoord;\n" +
+            "attribute vec4 aColor;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "varying vec4 vColor;\n" +
+            "void main() {\n" +
+            "    gl_Position = uMatrix * vec4(aPosition, 0.0, 1.0);\n" +
+            "    vTexCoord = aTexCoord;\n" +
+            "    vColor = vec4(aColor.rgb * aColor.a, aColor.a);\n" +
+            "}\n";
+
+    private static final String INSTANCED_VERTEX_SHADER =
+            "uniform mat4 uMatrix;\n" +
+            "attribute vec2 aCorner;\n" +
+            "attribute vec4 aRect;\n" +
+            "attribute vec4 aTexRect;\n" +
+            "attribute vec4 aColor;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "varying vec4 vColor;\n" +
+            "void main() {\n" +
+            "    gl_Position = uMatrix * vec4(aRect.xy + aCorner * aRect.zw, 0.0, 1.0);\n" +
+            "    vTexCoord = mix(aTexRect.xy, aTexRect.zw, aCorner);\n" +
+            "    vColor = vec4(aColor.rgb * aColor.a, aColor.a);\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "precision mediump float;\n" +
+            "uniform sampler2D uTexture;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "varying vec4 vColor;\n" +
+            "void main() {\n" +
+            "    gl_FragColor = texture2D(uTexture, vTexCoord) * vColor;\n" +
+            "}\n";
+
+    private final GLResourceRegistry mRegistry;
+    private final int mCapacity;
+
+    // Sprites of the current batch
+    private final float[] mRects;
+    private final int[] mColors;
+    private final int[] mTextures;
+    private final byte[] mBlendModes;
+    private final long[] mKeys;
+    private int mCount;
+    private int mLayer;
+    private int mBlendMode = BLEND_ALPHA;
+    private boolean mDrawing;
+    private final float[] mMatrix = new float[16];
+
+    private final ByteBuffer mStream;
+
+    private boolean mRestored;
+    private boolean mInstanced;
+    private int mProgram;
+    private int mMatrixLocation;
+    private int mTextureLocation;
+    private int mCornerLocation;
+    private int mPositionLocation;
+    private int mTexCoordLocation;
+    private int mRectLocation;
+    private int mTexRectLocation;
+    private int mColorLocation;
+    private final int[] mBuffers = new int[2];
+
+    private int mDrawCallCount;
+
+    /**
+     * Create a batch and register it to the registry.
+     *
+     * @param capacity the maximum number of sprites in one flush,
+     *                 more sprites cause extra flushes and break layer order
+     * @see GLStuff#getGLResourceRegistry()
+     */
+    public SpriteBatch(GLResourceRegistry registry, int capacity) {
+        if (capacity <= 0 || capacity > MAX_INDEXED_SPRITES) {
+            throw new IllegalArgumentException("capacity must be in [1, "
+                    + MAX_INDEXED_SPRITES + "]: " + capacity);
+        }
+        mRegistry = registry;
+        mCapacity = capacity;
+        mRects = new float[capacity * 8];
+        mColors = new int[capacity];
+        mTextures = new int[capacity];
+        mBlendModes = new byte[capacity];
+        mKeys = new long[capacity];
+        mStream = ByteBuffer.allocateDirect(capacity * Math.max(QUAD_BYTES, INSTANCE_BYTES))
+                .order(ByteOrder.nativeOrder());
+        registry.register(this, GLResourceRegistry.PRIORITY_NORMAL);
+    }
+
+    /**
+     * Delete the program and buffers, and unregister the batch from the registry.
+     */
+    public void release() {
+        if (mRestored) {
+            GLES20.glDeleteProgram(mProgram);
+            GLES20.glDeleteBuffers(2, mBuffers, 0);
+            mRegistry.onDeleteProgram(mProgram);
+            mRegistry.onDeleteBuffers(2, mBuffers, 0);
+        }
+        onContextLost();
+        mRegistry.unregister(this);
+    }
+
+    /**
+     * Start a batch.
+     *
+     * @param matrix the 4x4 column-major matrix which maps sprite
+     *               coordinates to clip space
+     */
+    public void begin(float[] matrix) {
+        if (mDrawing) {
+            throw new IllegalStateException("end() must be called before begin()");
+        }
+        System.arraycopy(matrix, 0, mMatrix, 0, 16);
+        mDrawing = true;
+        mDrawCallCount = 0;
+        mLayer = 0;
+        mBlendMode = BLEND_ALPHA;
+    }
+
+    /**
+     * Set the layer of following sprites. Layers are drawn in ascending order.
+     */
+    public void setLayer(int layer) {
+        if (layer < MIN_LAYER || layer > MAX_LAYER) {
+            throw new IllegalArgumentException("layer must be in [" + MIN_LAYER + ", "
+                    + MAX_LAYER + "]: " + layer);
+        }
+        mLayer = layer;
+    }
+
+    /**
+     * Set the blend mode of following sprites.
+     *
+     * @param blendMode {@link #BLEND_NONE}, {@link #BLEND_ALPHA} or {@link #BLEND_ADDITIVE}
+     */
+    public void setBlendMode(int blendMode) {
+        if (blendMode < BLEND_NONE || blendMode > BLEND_ADDITIVE) {
+            throw new IllegalArgumentException("Invalid blend mode: " + blendMode);
+        }
+        mBlendMode = blendMode;
+    }
+
+    /**
+     * Draw the whole texture.
+     */
+    public void draw(int texture, float x, float y, float width, float height) {
+        draw(texture, x, y, width, height, 0.0f, 0.0f, 1.0f, 1.0f, 0xffffffff);
+    }
+
+    /**
+     * Draw a part of the texture.
+     *
+     * @param color the color multiplied with the texture, as {@link android.graphics.Color}
+     */
+    public void draw(int texture, float x, float y, float width, float height,
+            float u0, float v0, float u1, float v1, int color) {
+        if (!mDrawing) {
+            throw new IllegalStateException("begin() must be called before draw()");
+        }
+        if (mCount == mCapacity) {
+            flush();
+        }
+
+        final int index = mCount++;
+        final float[] rects = mRects;
+        final int offset = index * 8;
+        rects[offset] = x;
+        rects[offset + 1] = y;
+        rects[offset + 2] = width;
+        rects[offset + 3] = height;
+        rects[offset + 4] = u0;
+        rects[offset + 5] = v0;
+        rects[offset + 6] = u1;
+        rects[offset + 7] = v1;
+        mColors[index] = color;
+        mTextures[index] = texture;
+        mBlendModes[index] = (byte) mBlendMode;
+        // The index keeps the order of equal sprites
+        mKeys[index] = ((long) (mLayer - MIN_LAYER) << 52) | ((long) mBlendMode << 48)
+                | ((long) (texture & 0xffffff) << 24) | index;
+    }
+
+    /**
+     * Draw all collected sprites and finish the batch.
+     */
+    public void end() {
+        if (!mDrawing) {
+            throw new IllegalStateException("begin() must be called before end()");
+        }
+        flush();
+        mDrawing = false;
+    }
+
+    /**
+     * @return the number of draw calls in the last batch
+     */
+    public int getDrawCallCount() {
+        return mDrawCallCount;
+    }
+
+    /**
+     * @return true if sprites are drawn with instancing
+     */
+    public boolean isInstanced() {
+        return mInstanced;
+    }
+
+    private void flush() {
+        final int count = mCount;
+        // mRestored is false if the program can't be built
+        if (count == 0 || !mRegistry.ensureRestored(this) || !mRestored) {
+            mCount = 0;
+            return;
+        }
+
+        final long[] keys = mKeys;
+        Arrays.sort(keys, 0, count);
+
+        final ByteBuffer stream = mStream;
+        stream.clear();
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (keys[i] & 0xffffff);
+            if (mInstanced) {
+                writeInstance(stream, index);
+            } else {
+                writeQuad(stream, index);
+            }
+        }
+        stream.flip();
+
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, mBuffers[0]);
+        // Orphan the storage used by the last flush
+        GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, stream.capacity(), null,
+                GLES20.GL_STREAM_DRAW);
+        GLES20.glBufferSubData(GLES20.GL_ARRAY_BUFFER, 0, stream.limit(), stream);
+
+        GLES20.glUseProgram(mProgram);
+        GLES20.glUniformMatrix4fv(mMatrixLocation, 1, false, mMatrix, 0);
+        GLES20.glUniform1i(mTextureLocation, 0);
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        if (mInstanced) {
+            beginInstanced();
+        } else {
+            beginIndexed();
+        }
+
+        int blendMode = -1;
+        int blendFuncMode = -1;
+        int start = 0;
+        for (int i = 1; i <= count; i++) {
+            final int startIndex = (int) (keys[start] & 0xffffff);
+            if (i < count) {
+                final int index = (int) (keys[i] & 0xffffff);
+                if (mTextures[index] == mTextures[startIndex]
+                        && mBlendModes[index] == mBlendModes[startIndex]) {
+                    continue;
+                }
+            }
+
+            if (mBlendModes[startIndex] != blendMode) {
+                blendMode = mBlendModes[startIndex];
+                applyBlendMode(blendMode);
+                if (blendMode != BLEND_NONE) {
+                    blendFuncMode = blendMode;
+                }
+            }
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTextures[startIndex]);
+            if (mInstanced) {
+                drawInstanced(start, i - start);
+            } else {
+                GLES20.glDrawElements(GLES20.GL_TRIANGLES, (i - start) * 6,
+                        GLES20.GL_UNSIGNED_SHORT, start * 6 * 2);
+            }
+            mDrawCallCount++;
+            start = i;
+        }
+
+        if (mInstanced) {
+            endInstanced();
+        } else {
+            endIndexed();
+        }
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+
+        // Vertex attributes are not tracked by the state caches
+        final GLResourceRegistry registry = mRegistry;
+        registry.onUseProgram(mProgram);
+        registry.onActiveTexture(GLES20.GL_TEXTURE0);
+        registry.onBindTexture(GLES20.GL_TEXTURE_2D, mTextures[(int) (keys[count - 1] & 0xffffff)]);
+        registry.onBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        if (!mInstanced) {
+            registry.onBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        }
+        registry.onCapability(GLES20.GL_BLEND, blendMode != BLEND_NONE);
+        if (blendFuncMode != -1) {
+            registry.onBlendFunc(GLES20.GL_ONE, blendFuncMode == BLEND_ALPHA
+                    ? GLES20.GL_ONE_MINUS_SRC_ALPHA : GLES20.GL_ONE);
+        }
+        mCount = 0;
+    }
+
+    private void writeQuad(ByteBuffer stream, int index) {
+        final float[] rects = mRects;
+        final int offset = index * 8;
+        final float x0 = rects[offset];
+        final float y0 = rects[offset + 1];
+        final float x1 = x0 + rects[offset + 2];
+        final float y1 = y0 + rects[offset + 3];
+        final float u0 = rects[offset + 4];
+        final float v0 = rects[offset + 5];
+        final float u1 = rects[offset + 6];
+        final float v1 = rects[offset + 7];
+        final int color = mColors[index];
+        writeVertex(stream, x0, y0, u0, v0, color);
+        writeVertex(stream, x1, y0, u1, v0, color);
+        writeVertex(stream, x0, y1, u0, v1, color);
+        writeVertex(stream, x1, y1, u1, v1, color);
+    }
+
+    private static void writeVertex(ByteBuffer stream, float x, float y, float u, float v,
+            int color) {
+        stream.putFloat(x);
+        stream.putFloat(y);
+        stream.putFloat(u);
+        stream.putFloat(v);
+        writeColor(stream, color);
+    }
+
+    private void writeInstance(ByteBuffer stream, int index) {
+        final float[] rects = mRects;
+        final int offset = index * 8;
+        for (int i = 0; i < 8; i++) {
+            stream.putFloat(rects[offset + i]);
+        }
+        writeColor(stream, mColors[index]);
+    }
+
+    private static void writeColor(ByteBuffer stream, int color) {
+        // ARGB to RGBA bytes
+        stream.put((byte) (color >> 16));
+        stream.put((byte) (color >> 8));
+        stream.put((byte) color);
+        stream.put((byte) (color >> 24));
+    }
+
+    private static void applyBlendMode(int blendMode) {
+        switch (blendMode) {
+            case BLEND_NONE:
+                GLES20.glDisable(GLES20.GL_BLEND);
+                break;
+            case BLEND_ALPHA:
+                GLES20.glEnable(GLES20.GL_BLEND);
+                GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+            case BLEND_ADDITIVE:
+                GLES20.glEnable(GLES20.GL_BLEND);
+                GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE);
+                break;
+        }
+    }
+
+    private void beginIndexed() {
+        final int stride = QUAD_BYTES / 4;
+        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, mBuffers[1]);
+        GLES20.glEnableVertexAttribArray(mPositionLocation);
+        GLES20.glEnableVertexAttribArray(mTexCoordLocation);
+        GLES20.glEnableVertexAttribArray(mColorLocation);
+        GLES20.glVertexAttribPointer(mPositionLocation, 2, GLES20.GL_FLOAT, false, stride, 0);
+        GLES20.glVertexAttribPointer(mTexCoordLocation, 2, GLES20.GL_FLOAT, false, stride, 8);
+        GLES20.glVertexAttribPointer(mColorLocation, 4, GLES20.GL_UNSIGNED_BYTE, true, stride, 16);
+    }
+
+    private void endIndexed() {
+        GLES20.glDisableVertexAttribArray(mPositionLocation);
+        GLES20.glDisableVertexAttribArray(mTexCoordLocation);
+        GLES20.glDisableVertexAttribArray(mColorLocation);
+        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void beginInstanced() {
+        // The unit quad
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, mBuffers[1]);
+        GLES20.glEnableVertexAttribArray(mCornerLocation);
+        GLES20.glVertexAttribPointer(mCornerLocation, 2, GLES20.GL_FLOAT, false, 0, 0);
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, mBuffers[0]);
+
+        GLES20.glEnableVertexAttribArray(mRectLocation);
+        GLES20.glEnableVertexAttribArray(mTexRectLocation);
+        GLES20.glEnableVertexAttribArray(mColorLocation);
+        GLES30.glVertexAttribDivisor(mRectLocation, 1);
+        GLES30.glVertexAttribDivisor(mTexRectLocation, 1);
+        GLES30.glVertexAttribDivisor(mColorLocation, 1);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void drawInstanced(int start, int count) {
+        // There is no base instance in OpenGL ES 3.0, move the pointers instead
+        final int offset = start * INSTANCE_BYTES;
+        GLES20.glVertexAttribPointer(mRectLocation, 4, GLES20.GL_FLOAT, false,
+                INSTANCE_BYTES, offset);
+        GLES20.glVertexAttribPointer(mTexRectLocation, 4, GLES20.GL_FLOAT, false,
+                INSTANCE_BYTES, offset + 16);
+        GLES20.glVertexAttribPointer(mColorLocation, 4, GLES20.GL_UNSIGNED_BYTE, true,
+                INSTANCE_BYTES, offset + 32);
+        GLES30.glDrawArraysInstanced(GLES20.GL_TRIANGLE_STRIP, 0, 4, count);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void endInstanced() {
+        // Divisors are vertex array state, don't leak them to other renderers
+        GLES30.glVertexAttribDivisor(mRectLocation, 0);
+        GLES30.glVertexAttribDivisor(mTexRectLocation, 0);
+        GLES30.glVertexAttribDivisor(mColorLocation, 0);
+        GLES20.glDisableVertexAttribArray(mCornerLocation);
+        GLES20.glDisableVertexAttribArray(mRectLocation);
+        GLES20.glDisableVertexAttribArray(mTexRectLocation);
+        GLES20.glDisableVertexAttribArray(mColorLocation);
+    }
+
+    @Override
+    public void onRestore() {
+        mInstanced = GlExt.isGLES3();
+        mProgram = GLPrograms.createProgram(
+                mInstanced ? INSTANCED_VERTEX_SHADER : VERTEX_SHADER, FRAGMENT_SHADER);
+        if (mProgram == 0) {
+            // Don't throw on the rendering thread, leave the batch unusable
+            Log.w(TAG, "Can't build the sprite program, sprites are dropped");
+            return;
+        }
+        mMatrixLocation = GLES20.glGetUniformLocation(mProgram, "uMatrix");
+        mTextureLocation = GLES20.glGetUniformLocation(mProgram, "uTexture");
+        mColorLocation = GLES20.glGetAttribLocation(mProgram, "aColor");
+        if (mInstanced) {
+            mCornerLocation = GLES20.glGetAttribLocation(mProgram, "aCorner");
+            mRectLocation = GLES20.glGetAttribLocation(mProgram, "aRect");
+            mTexRectLocation = GLES20.glGetAttribLocation(mProgram, "aTexRect");
+        } else {
+            mPositionLocation = GLES20.glGetAttribLocation(mProgram, "aPosition");
+            mTexCoordLocation = GLES20.glGetAttribLocation(mProgram, "aTexCoord");
+        }
+
+        GLES20.glGenBuffers(2, mBuffers, 0);
+        if (mInstanced) {
+            final ByteBuffer corners = ByteBuffer.allocateDirect(4 * 2 * 4)
+                    .order(ByteOrder.nativeOrder());
+            corners.putFloat(0.0f).putFloat(0.0f).putFloat(1.0f).putFloat(0.0f)
+                    .putFloat(0.0f).putFloat(1.0f).putFloat(1.0f).putFloat(1.0f);
+            corners.flip();
+            GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, mBuffers[1]);
+            GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, corners.limit(), corners,
+                    GLES20.GL_STATIC_DRAW);
+            GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+            mRegistry.onBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        } else {
+            final ByteBuffer indices = ByteBuffer.allocateDirect(mCapacity * 6 * 2)
+                    .order(ByteOrder.nativeOrder());
+            for (int i = 0; i < mCapacity; i++) {
+                final short base = (short) (i * 4);
+                indices.putShort(base).putShort((short) (base + 1)).putShort((short) (base + 2))
+                        .putShort((short) (base + 2)).putShort((short) (base + 1))
+                        .putShort((short) (base + 3));
+            }
+            indices.flip();
+            GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, mBuffers[1]);
+            GLES20.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, indices.limit(), indices,
+                    GLES20.GL_STATIC_DRAW);
+            GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+            mRegistry.onBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        }
+        mRestored = true;
+    }
+
+    @Override
+    public void onContextLost() {
+        mProgram = 0;
+        mBuffers[0] = 0;
+        mBuffers[1] = 0;
+        mRestored = false;
+    }
+}
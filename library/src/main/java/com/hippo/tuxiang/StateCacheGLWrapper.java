@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.nio.IntBuffer;
+
+import javax.microedition.khronos.opengles.GL;
+
+/**
+ * A {@link GLWrapper} which drops GL calls that would not change the state,
+ * for renderers using the {@link javax.microedition.khronos.opengles.GL10}
+ * object. Texture bindings, capabilities, blend functions, buffer and
+ * framebuffer bindings, and the viewport are tracked.
+ * <p>
+ * {@link #wrap(GL)} is called whenever a new EGL surface is created,
+ * which always happens after a new EGL context is created, so the cache
+ * is invalidated automatically with the context. The helpers of this
+ * library report the bindings they change to the cache. Call
+ * {@link GLResourceRegistry#invalidateGLState()} if the tracked state is
+ * changed by other code.
+ * <p>
+ * OpenGL ES 2.0 and 3.0 renderers should use {@link GLStateCache} instead.
+ *
+ * @see GLStuff#setGLWrapper(GLWrapper)
+ */
+public class StateCacheGLWrapper implements GLWrapper {
+
+    private final GLStateTracker mTracker = new GLStateTracker();
+
+    @Override
+    public GL wrap(GL gl) {
+        mTracker.invalidate();
+        return new StateCacheGL(gl, mTracker);
+    }
+
+    /**
+     * Forget all cached state. Must be called on the rendering thread
+     * if the state is changed without the wrapped GL object.
+     */
+    public void invalidate() {
+        mTracker.invalidate();
+    }
+
+    GLStateTracker getTracker() {
+        return mTracker;
+    }
+
+    /**
+     * @return the number of dropped calls
+     */
+    public long getElidedCallCount() {
+        return mTracker.getElidedCallCount();
+    }
+
+    public void resetElidedCallCount() {
+        mTracker.resetElidedCallCount();
+    }
+
+    private static class StateCacheGL extends GLWrapperBase {
+
+        private static final int GL_FRAMEBUFFER_OES = 0x8D40;
+
+        private final GLStateTracker mTracker;
+
+        StateCacheGL(GL gl, GLStateTracker tracker) {
+            super(gl);
+            mTracker = tracker;
+        }
+
+        @Override
+        public void glActiveTexture(int texture) {
+            if (mTracker.activeTexture(texture)) {
+                mgl.glActiveTexture(texture);
+            }
+        }
+
+        @Override
+        public void glBindTexture(int target, int texture) {
+            if (mTracker.bindTexture(target, texture)) {
+                mgl.glBindTexture(target, texture);
+            }
+        }
+
+        @Override
+        public void glDeleteTextures(int n, int[] textures, int offset) {
+            mTracker.deleteTextures(n, textures, offset);
+            mgl.glDeleteTextures(n, textures, offset);
+        }
+
+        @Override
+        public void glDeleteTextures(int n, IntBuffer textures) {
+            mTracker.deleteTextures(n, textures);
+            mgl.glDeleteTextures(n, textures);
+        }
+
+        @Override
+        public void glEnable(int cap) {
+            if (mTracker.enable(cap)) {
+                mgl.glEnable(cap);
+            }
+        }
+
+        @Override
+        public void glDisable(int cap) {
+            if (mTracker.disable(cap)) {
+                mgl.glDisable(cap);
+            }
+        }
+
+        @Override
+        public void glBlendFunc(int sfactor, int dfactor) {
+            if (mTracker.blendFunc(sfactor, dfactor)) {
+                mgl.glBlendFunc(sfactor, dfactor);
+            }
+        }
+
+        @Override
+        public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+            if (mTracker.blendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha)) {
+                mgl11ExtensionPack.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+            }
+        }
+
+        @Override
+        public void glViewport(int x, int y, int width, int height) {
+            if (mTracker.viewport(x, y, width, height)) {
+                mgl.glViewport(x, y, width, height);
+            }
+        }
+
+        @Override
+        public void glBindBuffer(int target, int buffer) {
+            if (mTracker.bindBuffer(target, buffer)) {
+                mgl11.glBindBuffer(target, buffer);
+            }
+        }
+
+        @Override
+        public void glDeleteBuffers(int n, int[] buffers, int offset) {
+            mTracker.deleteBuffers(n, buffers, offset);
+            mgl11.glDeleteBuffers(n, buffers, offset);
+        }
+
+        @Override
+        public void glDeleteBuffers(int n, IntBuffer buffers) {
+            mTracker.deleteBuffers(n, buffers);
+            mgl11.glDeleteBuffers(n, buffers);
+        }
+
+        @Override
+        public void glBindFramebufferOES(int target, int framebuffer) {
+            if (target != GL_FRAMEBUFFER_OES) {
+                mTracker.invalidateFramebuffer();
+                mgl11ExtensionPack.glBindFramebufferOES(target, framebuffer);
+            } else if (mTracker.bindFramebuffer(framebuffer)) {
+                mgl11ExtensionPack.glBindFramebufferOES(target, framebuffer);
+            }
+        }
+
+        @Override
+        public void glDeleteFramebuffersOES(int n, int[] framebuffers, int offset) {
+            mTracker.deleteFramebuffers(n, framebuffers, offset);
+            mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers, offset);
+        }
+
+        @Override
+        public void glDeleteFramebuffersOES(int n, IntBuffer framebuffers) {
+            mTracker.deleteFramebuffers(n, framebuffers);
+            mgl11ExtensionPack.glDeleteFramebuffersOES(n, framebuffers);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A texture whose content is replaced frequently, like video frames.
+ * <p>
+ * On OpenGL ES 3.0 with the native library, pixels are copied into a ring of pixel buffer objects,
+ * and the texture is updated from the buffer, so {@code glTexSubImage2D}
+ * returns without waiting for the transfer and the next update doesn't wait
+ * for the previous one. Otherwise, pixels are uploaded from client
+ * memory directly.
+ * <p>
+ * The texture is a {@link GLResource}, the texture and buffers are
+ * recreated with blank content after the EGL context is lost. All methods
+ * must be called on the rendering thread.
+ */
+public final class StreamingTexture implements GLResource {
+
+    private static final int BUFFER_COUNT = 3;
+
+    private final GLResourceRegistry mRegistry;
+    private final int mFormat;
+    private final int mBytesPerPixel;
+    private int mWidth;
+    private int mHeight;
+
+    private boolean mRestored;
+    private boolean mUseBuffers;
+    private final int[] mTexture = new int[1];
+    private final int[] mBuffers = new int[BUFFER_COUNT];
+    private int mBufferIndex;
+
+    /**
+     * Create a texture and register it to the registry.
+     *
+     * @param format {@link GLES20#GL_RGBA}, {@link GLES20#GL_RGB},
+     *               {@link GLES20#GL_LUMINANCE_ALPHA}, {@link GLES20#GL_LUMINANCE}
+     *               or {@link GLES20#GL_ALPHA}, the type is always
+     *               {@link GLES20#GL_UNSIGNED_BYTE}
+     * @see GLStuff#getGLResourceRegistry()
+     */
+    public StreamingTexture(GLResourceRegistry registry, int width, int height, int format) {
+        mRegistry = registry;
+        mFormat = format;
+        mBytesPerPixel = getBytesPerPixel(format);
+        mWidth = width;
+        mHeight = height;
+        registry.register(this, GLResourceRegistry.PRIORITY_NORMAL);
+    }
+
+    private static int getBytesPerPixel(int format) {
+        switch (format) {
+            case GLES20.GL_RGBA:
+                return 4;
+            case GLES20.GL_RGB:
+                return 3;
+            case GLES20.GL_LUMINANCE_ALPHA:
+                return 2;
+            case GLES20.GL_LUMINANCE:
+            case GLES20.GL_ALPHA:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+    /**
+     * Delete the texture and buffers, and unregister it from the registry.
+     */
+    public void release() {
+        if (mRestored) {
+            GLES20.glDeleteTextures(1, mTexture, 0);
+            mRegistry.onDeleteTextures(1, mTexture, 0);
+            if (mUseBuffers) {
+                GLES20.glDeleteBuffers(BUFFER_COUNT, mBuffers, 0);
+            }
+        }
+        onContextLost();
+        mRegistry.unregister(this);
+    }
+
+    /**
+     * @return the texture name, or 0 if it isn't restored
+     */
+    public int getTexture() {
+        mRegistry.ensureRestored(this);
+        return mTexture[0];
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Change the size. The content becomes blank.
+     */
+    public void setSize(int width, int height) {
+        if (mWidth == width && mHeight == height) {
+            return;
+        }
+        mWidth = width;
+        mHeight = height;
+        if (mRestored) {
+            allocate();
+        }
+    }
+
+    /**
+     * Replace the content of the texture. The texture is left bound
+     * to {@link GLES20#GL_TEXTURE_2D} of the active texture unit.
+     *
+     * @param pixels a direct buffer of width * height pixels, rows are
+     *               tightly packed, from the position to the limit
+     */
+    public void update(ByteBuffer pixels) {
+        final int size = mWidth * mHeight * mBytesPerPixel;
+        if (!pixels.isDirect()) {
+            throw new IllegalArgumentException("pixels must be a direct buffer");
+        }
+        if (pixels.remaining() < size) {
+            throw new IllegalArgumentException("pixels is too small: "
+                    + pixels.remaining() + " < " + size);
+        }
+        if (!mRegistry.ensureRestored(this)) {
+            return;
+        }
+
+        final boolean packed = (mWidth * mBytesPerPixel) % 4 != 0;
+        if (packed) {
+            GLES20.glPixelStorei(GLES20.GL_UNPACK_ALIGNMENT, 1);
+        }
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        if (mUseBuffers) {
+            updateFromBuffer(pixels, size);
+        } else {
+            GLES20.glTexSubImage2D(GLES20.GL_TEXTURE_2D, 0, 0, 0, mWidth, mHeight,
+                    mFormat, GLES20.GL_UNSIGNED_BYTE, pixels);
+        }
+        if (packed) {
+            GLES20.glPixelStorei(GLES20.GL_UNPACK_ALIGNMENT, 4);
+        }
+        // The pixel unpack buffer binding is not tracked by the state caches
+        mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void updateFromBuffer(ByteBuffer pixels, int size) {
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER, mBuffers[mBufferIndex]);
+        // Orphan the old storage, the copy never waits for a transfer in flight
+        GLES20.glBufferData(GLES30.GL_PIXEL_UNPACK_BUFFER, size, null, GLES20.GL_STREAM_DRAW);
+        GLES20.glBufferSubData(GLES30.GL_PIXEL_UNPACK_BUFFER, 0, size, pixels);
+        GlExt.glTexSubImage2D(GLES20.GL_TEXTURE_2D, 0, 0, 0, mWidth, mHeight,
+                mFormat, GLES20.GL_UNSIGNED_BYTE, 0);
+        GLES20.glBindBuffer(GLES30.GL_PIXEL_UNPACK_BUFFER, 0);
+        mBufferIndex = (mBufferIndex + 1) % BUFFER_COUNT;
+    }
+
+    private void allocate() {
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, mFormat, mWidth, mHeight, 0,
+                mFormat, GLES20.GL_UNSIGNED_BYTE, null);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+    }
+
+    @Override
+    public void onRestore() {
+        GLES20.glGenTextures(1, mTexture, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        allocate();
+
+        // The offset variant of glTexSubImage2D is only in the native library
+        mUseBuffers = GlExt.isGLES3() && NativeLibrary.load();
+        if (mUseBuffers) {
+            // Storage is allocated by the first update
+            GLES20.glGenBuffers(BUFFER_COUNT, mBuffers, 0);
+        }
+        mBufferIndex = 0;
+        mRestored = true;
+    }
+
+    @Override
+    public void onContextLost() {
+        mTexture[0] = 0;
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            mBuffers[i] = 0;
+        }
+        mRestored = false;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.opengl.GLES20;
+import android.opengl.GLUtils;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Packs many small bitmaps into one texture, so they can be drawn without
+ * switching textures, e.g. by one {@link SpriteBatch} run.
+ * <p>
+ * Bitmaps are packed into shelves, rows of entries with similar heights.
+ * Space freed by removed entries is reused within its shelf, and empty
+ * shelves are reused by any entry which fits. If a bitmap doesn't fit,
+ * the least recently used entries are evicted until it does.
+ * <p>
+ * Each entry has a one texel border of its edge pixels, so linear filtering
+ * at the edges of an entry never picks up its neighbours.
+ * <p>
+ * The atlas is a cache: it is a {@link GLResource} which comes back empty
+ * after the EGL context is lost, and {@link #get(Object)} may return
+ * {@code null} for a key put before. Look up each key every frame and put
+ * the bitmap again on a miss.
+ * <p>
+ * All methods must be called on the rendering thread.
+ */
+public final class TextureAtlas implements GLResource {
+
+    // The border on each side of an entry
+    private static final int PADDING = 1;
+    // Don't put an entry on a shelf much taller than it
+    private static final float MAX_SHELF_WASTE = 1.5f;
+
+    /**
+     * The location of a bitmap in the atlas.
+     */
+    public static final class Entry {
+
+        private final Shelf mShelf;
+        private final int mX;
+        private final int mY;
+        private final int mWidth;
+        private final int mHeight;
+        private final float mU0;
+        private final float mV0;
+        private final float mU1;
+        private final float mV1;
+
+        Entry(Shelf shelf, int x, int y, int width, int height, int atlasWidth, int atlasHeight) {
+            mShelf = shelf;
+            mX = x;
+            mY = y;
+            mWidth = width;
+            mHeight = height;
+            mU0 = (float) x / atlasWidth;
+            mV0 = (float) y / atlasHeight;
+            mU1 = (float) (x + width) / atlasWidth;
+            mV1 = (float) (y + height) / atlasHeight;
+        }
+
+        public int getX() {
+            return mX;
+        }
+
+        public int getY() {
+            return mY;
+        }
+
+        public int getWidth() {
+            return mWidth;
+        }
+
+        public int getHeight() {
+            return mHeight;
+        }
+
+        public float getU0() {
+            return mU0;
+        }
+
+        public float getV0() {
+            return mV0;
+        }
+
+        public float getU1() {
+            return mU1;
+        }
+
+        public float getV1() {
+            return mV1;
+        }
+    }
+
+    private static final class Shelf {
+
+        final int y;
+        final int height;
+        // Free spans of x and width pairs, sorted by x
+        private int[] mSpans = new int[8];
+        private int mSpanCount;
+
+        Shelf(int y, int height, int width) {
+            this.y = y;
+            this.height = height;
+            mSpans[0] = 0;
+            mSpans[1] = width;
+            mSpanCount = 1;
+        }
+
+        boolean isEmpty(int width) {
+            return mSpanCount == 1 && mSpans[0] == 0 && mSpans[1] == width;
+        }
+
+        /**
+         * @return the x of the allocated span, or -1
+         */
+        int allocate(int width) {
+            for (int i = 0; i < mSpanCount; i++) {
+                final int spanWidth = mSpans[i * 2 + 1];
+                if (spanWidth >= width) {
+                    final int x = mSpans[i * 2];
+                    if (spanWidth == width) {
+                        System.arraycopy(mSpans, (i + 1) * 2, mSpans, i * 2,
+                                (mSpanCount - i - 1) * 2);
+                        mSpanCount--;
+                    } else {
+                        mSpans[i * 2] = x + width;
+                        mSpans[i * 2 + 1] = spanWidth - width;
+                    }
+                    return x;
+                }
+            }
+            return -1;
+        }
+
+        void free(int x, int width) {
+            int i = 0;
+            while (i < mSpanCount && mSpans[i * 2] < x) {
+                i++;
+            }
+            // Merge with the previous span
+            if (i > 0 && mSpans[(i - 1) * 2] + mSpans[(i - 1) * 2 + 1] == x) {
+                mSpans[(i - 1) * 2 + 1] += width;
+                // Merge with the next span too
+                if (i < mSpanCount && x + width == mSpans[i * 2]) {
+                    mSpans[(i - 1) * 2 + 1] += mSpans[i * 2 + 1];
+                    System.arraycopy(mSpans, (i + 1) * 2, mSpans, i * 2,
+                            (mSpanCount - i - 1) * 2);
+                    mSpanCount--;
+                }
+                return;
+            }
+            // Merge with the next span
+            if (i < mSpanCount && x + width == mSpans[i * 2]) {
+                mSpans[i * 2] = x;
+                mSpans[i * 2 + 1] += width;
+                return;
+            }
+            if (mSpanCount * 2 == mSpans.length) {
+                final int[] spans = new int[mSpans.length * 2];
+                System.arraycopy(mSpans, 0, spans, 0, mSpans.length);
+                mSpans = spans;
+            }
+            System.arraycopy(mSpans, i * 2, mSpans, (i + 1) * 2, (mSpanCount - i) * 2);
+            mSpans[i * 2] = x;
+            mSpans[i * 2 + 1] = width;
+            mSpanCount++;
+        }
+    }
+
+    private final GLResourceRegistry mRegistry;
+    private final int mWidth;
+    private final int mHeight;
+
+    private final LinkedHashMap<Object, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayList<Shelf> mShelves = new ArrayList<>();
+    private int mShelfTop;
+
+    private final int[] mTexture = new int[1];
+    private boolean mRestored;
+
+    private final Rect mSrc = new Rect();
+    private final Rect mDst = new Rect();
+
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+
+    /**
+     * Create an atlas and register it to the registry.
+     *
+     * @see GLStuff#getGLResourceRegistry()
+     */
+    public TextureAtlas(GLResourceRegistry registry, int width, int height) {
+        mRegistry = registry;
+        mWidth = width;
+        mHeight = height;
+        registry.register(this, GLResourceRegistry.PRIORITY_NORMAL);
+    }
+
+    /**
+     * Delete the texture and unregister the atlas from the registry.
+     */
+    public void release() {
+        if (mRestored) {
+            GLES20.glDeleteTextures(1, mTexture, 0);
+            mRegistry.onDeleteTextures(1, mTexture, 0);
+        }
+        onContextLost();
+        mRegistry.unregister(this);
+    }
+
+    /**
+     * @return the texture name, or 0 if it isn't restored
+     */
+    public int getTexture() {
+        mRegistry.ensureRestored(this);
+        return mTexture[0];
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Look up an entry and mark it as recently used.
+     *
+     * @return the entry, or {@code null} if the key isn't in the atlas
+     */
+    public Entry get(Object key) {
+        final Entry entry = mEntries.get(key);
+        if (entry != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Put a bitmap into the atlas, evicting the least recently used entries
+     * if there is no room. The bitmap is uploaded now.
+     *
+     * @param bitmap a software bitmap, it's converted to
+     *               {@link Bitmap.Config#ARGB_8888} if it isn't
+     * @return the entry, or {@code null} if the bitmap is larger than the atlas
+     */
+    public Entry put(Object key, Bitmap bitmap) {
+        final Bitmap.Config config = bitmap.getConfig();
+        if (config == null || (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                && config == Bitmap.Config.HARDWARE)) {
+            throw new IllegalArgumentException("Unsupported bitmap config: " + config);
+        }
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+        if (width + 2 * PADDING > mWidth || height + 2 * PADDING > mHeight
+                || !mRegistry.ensureRestored(this)) {
+            return null;
+        }
+        remove(key);
+
+        Entry entry;
+        while ((entry = allocate(width, height)) == null) {
+            if (mEntries.isEmpty()) {
+                return null;
+            }
+            final Iterator<Map.Entry<Object, Entry>> iterator = mEntries.entrySet().iterator();
+            final Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            free(eldest);
+            mEvictionCount++;
+        }
+
+        final Bitmap padded = pad(bitmap);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLUtils.texSubImage2D(GLES20.GL_TEXTURE_2D, 0,
+                entry.mX - PADDING, entry.mY - PADDING, padded);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        padded.recycle();
+        mEntries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Copy the bitmap into an ARGB_8888 bitmap with its edge pixels
+     * extruded into the border.
+     */
+    private Bitmap pad(Bitmap bitmap) {
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+        final Bitmap padded = Bitmap.createBitmap(width + 2 * PADDING, height + 2 * PADDING,
+                Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(padded);
+        canvas.drawBitmap(bitmap, PADDING, PADDING, null);
+        // Edges, stretched without filtering
+        drawExtruded(canvas, bitmap, 0, 0, width, 1,
+                PADDING, 0, PADDING + width, PADDING);
+        drawExtruded(canvas, bitmap, 0, height - 1, width, height,
+                PADDING, PADDING + height, PADDING + width, 2 * PADDING + height);
+        drawExtruded(canvas, bitmap, 0, 0, 1, height,
+                0, PADDING, PADDING, PADDING + height);
+        drawExtruded(canvas, bitmap, width - 1, 0, width, height,
+                PADDING + width, PADDING, 2 * PADDING + width, PADDING + height);
+        // Corners
+        drawExtruded(canvas, bitmap, 0, 0, 1, 1,
+                0, 0, PADDING, PADDING);
+        drawExtruded(canvas, bitmap, width - 1, 0, width, 1,
+                PADDING + width, 0, 2 * PADDING + width, PADDING);
+        drawExtruded(canvas, bitmap, 0, height - 1, 1, height,
+                0, PADDING + height, PADDING, 2 * PADDING + height);
+        drawExtruded(canvas, bitmap, width - 1, height - 1, width, height,
+                PADDING + width, PADDING + height, 2 * PADDING + width, 2 * PADDING + height);
+        return padded;
+    }
+
+    private void drawExtruded(Canvas canvas, Bitmap bitmap,
+            int srcLeft, int srcTop, int srcRight, int srcBottom,
+            int dstLeft, int dstTop, int dstRight, int dstBottom) {
+        mSrc.set(srcLeft, srcTop, srcRight, srcBottom);
+        mDst.set(dstLeft, dstTop, dstRight, dstBottom);
+        canvas.drawBitmap(bitmap, mSrc, mDst, null);
+    }
+
+    /**
+     * Remove an entry. Its space is reused by later entries.
+     */
+    public void remove(Object key) {
+        final Entry entry = mEntries.remove(key);
+        if (entry != null) {
+            free(entry);
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        mEntries.clear();
+        mShelves.clear();
+        mShelfTop = 0;
+    }
+
+    public int getEntryCount() {
+        return mEntries.size();
+    }
+
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    public long getMissCount() {
+        return mMissCount;
+    }
+
+    public long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    private Entry allocate(int width, int height) {
+        final int paddedWidth = width + 2 * PADDING;
+        final int paddedHeight = height + 2 * PADDING;
+
+        // The best fitting shelf
+        Shelf emptyShelf = null;
+        for (int i = 0, n = mShelves.size(); i < n; i++) {
+            final Shelf shelf = mShelves.get(i);
+            if (shelf.height < paddedHeight) {
+                continue;
+            }
+            if (shelf.height <= paddedHeight * MAX_SHELF_WASTE) {
+                final int x = shelf.allocate(paddedWidth);
+                if (x >= 0) {
+                    return newEntry(shelf, x, width, height);
+                }
+            } else if (emptyShelf == null && shelf.isEmpty(mWidth)) {
+                emptyShelf = shelf;
+            }
+        }
+
+        // A new shelf
+        if (mShelfTop + paddedHeight <= mHeight) {
+            final Shelf shelf = new Shelf(mShelfTop, paddedHeight, mWidth);
+            mShelves.add(shelf);
+            mShelfTop += paddedHeight;
+            final int x = shelf.allocate(paddedWidth);
+            return newEntry(shelf, x, width, height);
+        }
+
+        // Waste an empty shelf
+        if (emptyShelf != null) {
+            final int x = emptyShelf.allocate(paddedWidth);
+            return newEntry(emptyShelf, x, width, height);
+        }
+        return null;
+    }
+
+    private Entry newEntry(Shelf shelf, int x, int width, int height) {
+        return new Entry(shelf, x + PADDING, shelf.y + PADDING, width, height, mWidth, mHeight);
+    }
+
+    private void free(Entry entry) {
+        final Shelf shelf = entry.mShelf;
+        shelf.free(entry.mX - PADDING, entry.mWidth + 2 * PADDING);
+        // Give empty shelves at the top back, so their height can be reused
+        while (!mShelves.isEmpty()) {
+            final Shelf top = mShelves.get(mShelves.size() - 1);
+            if (!top.isEmpty(mWidth)) {
+                break;
+            }
+            mShelves.remove(mShelves.size() - 1);
+            mShelfTop = top.y;
+        }
+    }
+
+    @Override
+    public void onRestore() {
+        GLES20.glGenTextures(1, mTexture, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, mTexture[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA, mWidth, mHeight, 0,
+                GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, null);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        mRestored = true;
+    }
+
+    @Override
+    public void onContextLost() {
+        clear();
+        mTexture[0] = 0;
+        mRestored = false;
+    }
+}
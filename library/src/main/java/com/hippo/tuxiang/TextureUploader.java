@@ -0,0 +1,517 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.opengl.GLUtils;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.util.Log;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+import javax.microedition.khronos.egl.EGLSurface;
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * Uploads bitmaps to textures on a worker thread, so large uploads don't
+ * stall the rendering thread.
+ * <p>
+ * The worker has a pbuffer EGL context in the share group of the view's
+ * EGL context. Each upload is guarded by a sync fence on OpenGL ES 3.0,
+ * or finished with {@code glFinish()} on the worker on OpenGL ES 2.0.
+ * The rendering thread checks fences before each frame without waiting,
+ * and passes finished textures to {@link OnTextureUploadedListener}.
+ * <p>
+ * The uploader follows the EGL context. Uploads which aren't delivered when
+ * the context is lost are submitted again to the new context. If the worker
+ * context can't be created, bitmaps are uploaded on the rendering thread,
+ * one per frame.
+ * <p>
+ * Create the uploader on the rendering thread, e.g. in {@link Renderer#onSurfaceCreated}.
+ * {@link #upload(Bitmap, boolean, OnTextureUploadedListener)} could be called from any thread.
+ */
+public final class TextureUploader implements GLFrameHook, GLResource {
+
+    private static final String TAG = "TextureUploader";
+
+    private static final int EGL_CONTEXT_CLIENT_VERSION = 0x3098;
+    private static final int EGL_OPENGL_ES2_BIT = 0x0004;
+    private static final int EGL_OPENGL_ES3_BIT_KHR = 0x0040;
+
+    /**
+     * Called on the rendering thread when a texture is uploaded.
+     */
+    public interface OnTextureUploadedListener {
+        /**
+         * @param texture the texture name, the listener owns it
+         * @param width the width of the bitmap
+         * @param height the height of the bitmap
+         */
+        void onTextureUploaded(int texture, int width, int height);
+    }
+
+    private final WeakReference<GLStuff> mGLStuffWeakRef;
+    private final GLResourceRegistry mRegistry;
+
+    private final Object mLock = new Object();
+    // Guarded by mLock
+    private final ArrayList<Request> mRequests = new ArrayList<>();
+    private final ArrayList<Request> mCompleted = new ArrayList<>();
+    private Worker mWorker;
+
+    // Only accessed on the rendering thread
+    private boolean mRestored;
+    private final ArrayList<Request> mWaiting = new ArrayList<>();
+    private final int[] mValue = new int[1];
+
+    // The worker requests render on the main thread. The rendering thread
+    // waits for the worker to quit with the GLThreadManager lock held, so
+    // the worker must not take it.
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mRequestRender = new Runnable() {
+        @Override
+        public void run() {
+            requestRender();
+        }
+    };
+
+    /**
+     * Create an uploader, register it to the registry of the view
+     * and add it as a frame hook of the view.
+     */
+    public TextureUploader(GLStuff stuff) {
+        mGLStuffWeakRef = new WeakReference<>(stuff);
+        mRegistry = stuff.getGLResourceRegistry();
+        mRegistry.register(this, GLResourceRegistry.PRIORITY_HIGH);
+        stuff.addGLFrameHook(this);
+    }
+
+    /**
+     * Stop the worker, delete textures not delivered yet and drop all uploads.
+     * Must be called on the rendering thread.
+     */
+    public void release() {
+        final GLStuff stuff = mGLStuffWeakRef.get();
+        if (stuff != null) {
+            stuff.removeGLFrameHook(this);
+        }
+        mRegistry.unregister(this);
+
+        synchronized (mLock) {
+            mWaiting.addAll(mCompleted);
+            mCompleted.clear();
+            mRequests.clear();
+        }
+        if (mRestored) {
+            for (int i = 0, n = mWaiting.size(); i < n; i++) {
+                deleteRequest(mWaiting.get(i));
+            }
+        }
+        onContextLost();
+    }
+
+    /**
+     * Upload a bitmap.
+     *
+     * @param recycle true to recycle the bitmap after the texture is delivered
+     */
+    public void upload(Bitmap bitmap, boolean recycle, OnTextureUploadedListener listener) {
+        final Request request = new Request(bitmap, recycle, listener);
+        synchronized (mLock) {
+            mRequests.add(request);
+            if (mWorker != null) {
+                mWorker.post(request);
+            }
+        }
+        requestRender();
+    }
+
+    /**
+     * @return the number of uploads not delivered yet
+     */
+    public int getPendingCount() {
+        synchronized (mLock) {
+            return mRequests.size();
+        }
+    }
+
+    private void requestRender() {
+        final GLStuff stuff = mGLStuffWeakRef.get();
+        if (stuff != null) {
+            stuff.requestRender();
+        }
+    }
+
+    @Override
+    public void onRestore() {
+        final Worker worker = Worker.create(this);
+        synchronized (mLock) {
+            mWorker = worker;
+            if (worker != null) {
+                for (int i = 0, n = mRequests.size(); i < n; i++) {
+                    worker.post(mRequests.get(i));
+                }
+            }
+        }
+        mRestored = true;
+    }
+
+    @Override
+    public void onContextLost() {
+        final Worker worker;
+        synchronized (mLock) {
+            worker = mWorker;
+            mWorker = null;
+            mCompleted.clear();
+        }
+        if (worker != null) {
+            worker.quit();
+        }
+        // Textures and fences are gone with the share group
+        mWaiting.clear();
+        mRestored = false;
+    }
+
+    @Override
+    public void onFrameBegin(GL10 gl) {
+        if (!mRestored) {
+            return;
+        }
+
+        final boolean fallback;
+        synchronized (mLock) {
+            mWaiting.addAll(mCompleted);
+            mCompleted.clear();
+            fallback = mWorker == null && !mRequests.isEmpty();
+        }
+
+        if (fallback) {
+            final Request request;
+            synchronized (mLock) {
+                request = mRequests.get(0);
+            }
+            uploadOnCurrentThread(request, false);
+            mRegistry.onBindTexture(GLES20.GL_TEXTURE_2D, 0);
+            mWaiting.add(request);
+        }
+
+        for (int i = 0; i < mWaiting.size(); ) {
+            final Request request = mWaiting.get(i);
+            if (request.sync != 0 && !checkSync(request.sync)) {
+                i++;
+                continue;
+            }
+            mWaiting.remove(i);
+            if (request.sync != 0) {
+                deleteSync(request.sync);
+                request.sync = 0;
+            }
+            synchronized (mLock) {
+                mRequests.remove(request);
+            }
+            request.listener.onTextureUploaded(request.texture, request.width, request.height);
+            if (request.recycle) {
+                request.bitmap.recycle();
+            }
+            request.bitmap = null;
+        }
+    }
+
+    @Override
+    public void onFrameEnd(GL10 gl, boolean drew) {
+        if (!mWaiting.isEmpty()) {
+            // Check fences again next frame
+            requestRender();
+        } else {
+            synchronized (mLock) {
+                if (mWorker == null && mRestored && !mRequests.isEmpty()) {
+                    requestRender();
+                }
+            }
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static boolean checkSync(long sync) {
+        return GLES30.glClientWaitSync(sync, 0, 0) != GLES30.GL_TIMEOUT_EXPIRED;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void deleteSync(long sync) {
+        GLES30.glDeleteSync(sync);
+    }
+
+    private void deleteRequest(Request request) {
+        if (request.sync != 0) {
+            deleteSync(request.sync);
+            request.sync = 0;
+        }
+        mValue[0] = request.texture;
+        GLES20.glDeleteTextures(1, mValue, 0);
+        mRegistry.onDeleteTextures(1, mValue, 0);
+        request.texture = 0;
+    }
+
+    /**
+     * Upload the bitmap of the request on the thread which has a current
+     * EGL context.
+     *
+     * @param fence true to guard the upload with a sync fence,
+     *              false to finish it before return
+     */
+    private static void uploadOnCurrentThread(Request request, boolean fence) {
+        final int[] textures = new int[1];
+        GLES20.glGenTextures(1, textures, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textures[0]);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, request.bitmap, 0);
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, 0);
+        request.texture = textures[0];
+        if (fence) {
+            request.sync = createSync();
+            // Make sure the fence reaches the GPU
+            GLES20.glFlush();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static long createSync() {
+        return GLES30.glFenceSync(GLES30.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+    }
+
+    private void onUploaded(Worker worker, Request request) {
+        synchronized (mLock) {
+            if (mWorker != worker) {
+                // The context is lost, the request will be submitted again
+                return;
+            }
+            mCompleted.add(request);
+        }
+        mMainHandler.post(mRequestRender);
+    }
+
+    private void onWorkerFailed(Worker worker) {
+        synchronized (mLock) {
+            if (mWorker != worker) {
+                return;
+            }
+            // Upload on the rendering thread
+            mWorker = null;
+        }
+        worker.quit();
+        mMainHandler.post(mRequestRender);
+    }
+
+    private static class Request {
+        // Cleared on the rendering thread after delivery, read on the worker
+        volatile Bitmap bitmap;
+        final boolean recycle;
+        final OnTextureUploadedListener listener;
+        final int width;
+        final int height;
+        int texture;
+        long sync;
+
+        Request(Bitmap bitmap, boolean recycle, OnTextureUploadedListener listener) {
+            this.bitmap = bitmap;
+            this.recycle = recycle;
+            this.listener = listener;
+            this.width = bitmap.getWidth();
+            this.height = bitmap.getHeight();
+        }
+    }
+
+    private static final class Worker implements Handler.Callback {
+
+        private static final int MSG_INIT = 0;
+        private static final int MSG_UPLOAD = 1;
+        private static final int MSG_QUIT = 2;
+
+        private final TextureUploader mUploader;
+        private final EGL10 mEgl;
+        private final EGLDisplay mEglDisplay;
+        private final EGLContext mEglContext;
+        private final EGLSurface mEglSurface;
+        private final boolean mFenceSupported;
+        private final HandlerThread mThread;
+        private final Handler mHandler;
+        private boolean mReady;
+
+        private Worker(TextureUploader uploader, EGL10 egl, EGLDisplay display,
+                EGLContext context, EGLSurface surface, boolean fenceSupported) {
+            mUploader = uploader;
+            mEgl = egl;
+            mEglDisplay = display;
+            mEglContext = context;
+            mEglSurface = surface;
+            mFenceSupported = fenceSupported;
+            mThread = new HandlerThread(TAG);
+            mThread.start();
+            mHandler = new Handler(mThread.getLooper(), this);
+            mHandler.sendEmptyMessage(MSG_INIT);
+        }
+
+        /**
+         * Create a worker sharing the EGL context current on the calling thread.
+         *
+         * @return the worker, or null if the EGL context can't be created
+         */
+        static Worker create(TextureUploader uploader) {
+            final EGL10 egl = (EGL10) EGLContext.getEGL();
+            final EGLDisplay display = egl.eglGetCurrentDisplay();
+            final EGLContext shareContext = egl.eglGetCurrentContext();
+            if (display == EGL10.EGL_NO_DISPLAY || shareContext == EGL10.EGL_NO_CONTEXT) {
+                return null;
+            }
+
+            final int[] value = new int[1];
+            final int clientVersion = egl.eglQueryContext(display, shareContext,
+                    EGL_CONTEXT_CLIENT_VERSION, value) ? value[0] : 2;
+            final EGLConfig config = chooseConfig(egl, display, clientVersion);
+            if (config == null) {
+                Log.w(TAG, "No pbuffer config");
+                return null;
+            }
+
+            final int[] contextAttribs = {EGL_CONTEXT_CLIENT_VERSION, clientVersion, EGL10.EGL_NONE};
+            final EGLContext context = egl.eglCreateContext(display, config, shareContext,
+                    contextAttribs);
+            if (context == null || context == EGL10.EGL_NO_CONTEXT) {
+                EglHelper.logEglErrorAsWarning(TAG, "eglCreateContext", egl.eglGetError());
+                return null;
+            }
+            final int[] surfaceAttribs = {EGL10.EGL_WIDTH, 1, EGL10.EGL_HEIGHT, 1, EGL10.EGL_NONE};
+            final EGLSurface surface = egl.eglCreatePbufferSurface(display, config, surfaceAttribs);
+            if (surface == null || surface == EGL10.EGL_NO_SURFACE) {
+                EglHelper.logEglErrorAsWarning(TAG, "eglCreatePbufferSurface", egl.eglGetError());
+                egl.eglDestroyContext(display, context);
+                return null;
+            }
+
+            final boolean fenceSupported = clientVersion >= 3
+                    && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+            return new Worker(uploader, egl, display, context, surface, fenceSupported);
+        }
+
+        private static EGLConfig chooseConfig(EGL10 egl, EGLDisplay display, int clientVersion) {
+            final int renderableType = clientVersion >= 3
+                    ? EGL_OPENGL_ES3_BIT_KHR : EGL_OPENGL_ES2_BIT;
+            final int[] spec = {
+                    EGL10.EGL_SURFACE_TYPE, EGL10.EGL_PBUFFER_BIT,
+                    EGL10.EGL_RENDERABLE_TYPE, renderableType,
+                    EGL10.EGL_NONE
+            };
+            final EGLConfig[] configs = new EGLConfig[1];
+            final int[] numConfig = new int[1];
+            if (!egl.eglChooseConfig(display, spec, configs, 1, numConfig) || numConfig[0] <= 0) {
+                return null;
+            }
+            return configs[0];
+        }
+
+        void post(Request request) {
+            mHandler.obtainMessage(MSG_UPLOAD, request).sendToTarget();
+        }
+
+        /**
+         * Release the worker context and stop the thread. If it's called on
+         * other threads, it waits for the worker to finish, so the share
+         * context could be destroyed safely after it.
+         */
+        void quit() {
+            if (Thread.currentThread() == mThread) {
+                release();
+                return;
+            }
+            mHandler.sendMessageAtFrontOfQueue(mHandler.obtainMessage(MSG_QUIT));
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    mThread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void release() {
+            mHandler.removeCallbacksAndMessages(null);
+            mReady = false;
+            mEgl.eglMakeCurrent(mEglDisplay, EGL10.EGL_NO_SURFACE,
+                    EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_CONTEXT);
+            mEgl.eglDestroySurface(mEglDisplay, mEglSurface);
+            mEgl.eglDestroyContext(mEglDisplay, mEglContext);
+            mThread.quit();
+        }
+
+        @Override
+        public boolean handleMessage(Message msg) {
+            switch (msg.what) {
+                case MSG_INIT:
+                    mReady = mEgl.eglMakeCurrent(mEglDisplay, mEglSurface, mEglSurface, mEglContext);
+                    if (!mReady) {
+                        EglHelper.logEglErrorAsWarning(TAG, "eglMakeCurrent", mEgl.eglGetError());
+                        mUploader.onWorkerFailed(this);
+                    }
+                    return true;
+                case MSG_UPLOAD:
+                    upload((Request) msg.obj);
+                    return true;
+                case MSG_QUIT:
+                    release();
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private void upload(Request request) {
+            if (!mReady) {
+                return;
+            }
+            final Bitmap bitmap = request.bitmap;
+            if (bitmap == null || bitmap.isRecycled()) {
+                // Delivered or released
+                return;
+            }
+            uploadOnCurrentThread(request, mFenceSupported);
+            if (!mFenceSupported) {
+                GLES20.glFinish();
+            }
+            mUploader.onUploaded(this, request);
+        }
+    }
+}
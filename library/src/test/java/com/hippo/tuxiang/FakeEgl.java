@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+import javax.microedition.khronos.egl.EGLSurface;
+import javax.microedition.khronos.opengles.GL;
+
+/**
+ * An EGL which succeeds at everything and draws nothing, so the rendering
+ * thread can run on the JVM.
+ */
+final class FakeEgl implements EGL10 {
+
+    static final EGLDisplay DISPLAY = new EGLDisplay() {};
+    static final EGLConfig CONFIG = new EGLConfig() {};
+    static final EGLSurface SURFACE = new EGLSurface() {};
+    static final EGLContext CONTEXT = new EGLContext() {
+        @Override
+        public GL getGL() {
+            return null;
+        }
+    };
+
+    private volatile int mSwapCount;
+
+    int getSwapCount() {
+        return mSwapCount;
+    }
+
+    @Override
+    public boolean eglChooseConfig(EGLDisplay display, int[] attrib_list, EGLConfig[] configs,
+            int config_size, int[] num_config) {
+        if (configs != null && config_size > 0) {
+            configs[0] = CONFIG;
+        }
+        num_config[0] = 1;
+        return true;
+    }
+
+    @Override
+    public boolean eglCopyBuffers(EGLDisplay display, EGLSurface surface, Object native_pixmap) {
+        return true;
+    }
+
+    @Override
+    public EGLContext eglCreateContext(EGLDisplay display, EGLConfig config,
+            EGLContext share_context, int[] attrib_list) {
+        return CONTEXT;
+    }
+
+    @Override
+    public EGLSurface eglCreatePbufferSurface(EGLDisplay display, EGLConfig config,
+            int[] attrib_list) {
+        return SURFACE;
+    }
+
+    @Override
+    public EGLSurface eglCreatePixmapSurface(EGLDisplay display, EGLConfig config,
+            Object native_pixmap, int[] attrib_list) {
+        return SURFACE;
+    }
+
+    @Override
+    public EGLSurface eglCreateWindowSurface(EGLDisplay display, EGLConfig config,
+            Object native_window, int[] attrib_list) {
+        return SURFACE;
+    }
+
+    @Override
+    public boolean eglDestroyContext(EGLDisplay display, EGLContext context) {
+        return true;
+    }
+
+    @Override
+    public boolean eglDestroySurface(EGLDisplay display, EGLSurface surface) {
+        return true;
+    }
+
+    @Override
+    public boolean eglGetConfigAttrib(EGLDisplay display, EGLConfig config, int attribute,
+            int[] value) {
+        value[0] = 0;
+        return true;
+    }
+
+    @Override
+    public boolean eglGetConfigs(EGLDisplay display, EGLConfig[] configs, int config_size,
+            int[] num_config) {
+        return eglChooseConfig(display, null, configs, config_size, num_config);
+    }
+
+    @Override
+    public EGLContext eglGetCurrentContext() {
+        return CONTEXT;
+    }
+
+    @Override
+    public EGLDisplay eglGetCurrentDisplay() {
+        return DISPLAY;
+    }
+
+    @Override
+    public EGLSurface eglGetCurrentSurface(int readdraw) {
+        return SURFACE;
+    }
+
+    @Override
+    public EGLDisplay eglGetDisplay(Object native_display) {
+        return DISPLAY;
+    }
+
+    @Override
+    public int eglGetError() {
+        return EGL_SUCCESS;
+    }
+
+    @Override
+    public boolean eglInitialize(EGLDisplay display, int[] major_minor) {
+        major_minor[0] = 1;
+        major_minor[1] = 4;
+        return true;
+    }
+
+    @Override
+    public boolean eglMakeCurrent(EGLDisplay display, EGLSurface draw, EGLSurface read,
+            EGLContext context) {
+        return true;
+    }
+
+    @Override
+    public boolean eglQueryContext(EGLDisplay display, EGLContext context, int attribute,
+            int[] value) {
+        value[0] = 0;
+        return true;
+    }
+
+    @Override
+    public String eglQueryString(EGLDisplay display, int name) {
+        // No extensions, so the native library is never touched
+        return "";
+    }
+
+    @Override
+    public boolean eglQuerySurface(EGLDisplay display, EGLSurface surface, int attribute,
+            int[] value) {
+        value[0] = 0;
+        return true;
+    }
+
+    @Override
+    public boolean eglReleaseThread() {
+        return true;
+    }
+
+    @Override
+    public boolean eglSwapBuffers(EGLDisplay display, EGLSurface surface) {
+        mSwapCount++;
+        return true;
+    }
+
+    @Override
+    public boolean eglTerminate(EGLDisplay display) {
+        return true;
+    }
+
+    @Override
+    public boolean eglWaitGL() {
+        return true;
+    }
+
+    @Override
+    public boolean eglWaitNative(int engine, Object bindTarget) {
+        return true;
+    }
+}
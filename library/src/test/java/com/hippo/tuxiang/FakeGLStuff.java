@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import java.lang.ref.WeakReference;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLDisplay;
+
+/**
+ * A {@link GLStuff} without a view, which runs a {@link GLThread} on
+ * a {@link FakeEgl}. Only the parts the rendering thread reads are real.
+ */
+final class FakeGLStuff implements GLStuff {
+
+    private final FakeEgl mEgl = new FakeEgl();
+    private final Object mNativeWindow = new Object();
+    private final GLResourceRegistry mGLResourceRegistry = new GLResourceRegistry();
+    private final DirectBufferPool mDirectBufferPool = new DirectBufferPool();
+    private final FrameMetrics mFrameMetrics = new FrameMetrics();
+    private final BlockingMetrics mBlockingMetrics = new BlockingMetrics();
+    private final GLFrameHooks mGLFrameHooks = new GLFrameHooks();
+    private final GLThread mGLThread;
+
+    private Renderer mRenderer;
+    private GLWrapper mGLWrapper;
+    private int mDebugFlags;
+    private boolean mPreserveEGLContextOnPause;
+    private boolean mPreserveEGLBackBuffer;
+    private int mResizePolicy = RESIZE_POLICY_BLOCKING;
+    private long mResizeSettleDelay = 100;
+    private EGLConfigChooser mEGLConfigChooser = new EGLConfigChooser() {
+        @Override
+        public EGLConfig chooseConfig(EGL10 egl, EGLDisplay display) {
+            return FakeEgl.CONFIG;
+        }
+    };
+    private EGLContextFactory mEGLContextFactory = new DefaultContextFactory(2);
+    private EGLWindowSurfaceFactory mEGLWindowSurfaceFactory = new DefaultWindowSurfaceFactory();
+
+    FakeGLStuff(Renderer renderer) {
+        mRenderer = renderer;
+        mGLThread = new GLThread(new WeakReference<GLStuff>(this), mEgl);
+    }
+
+    FakeEgl getEgl() {
+        return mEgl;
+    }
+
+    GLThread getGLThread() {
+        return mGLThread;
+    }
+
+    @Override
+    public Object getNativeWindow() {
+        return mNativeWindow;
+    }
+
+    @Override
+    public void setGLWrapper(GLWrapper glWrapper) {
+        mGLWrapper = glWrapper;
+    }
+
+    @Override
+    public GLWrapper getGLWrapper() {
+        return mGLWrapper;
+    }
+
+    @Override
+    public void addGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.add(hook);
+    }
+
+    @Override
+    public void removeGLFrameHook(GLFrameHook hook) {
+        mGLFrameHooks.remove(hook);
+    }
+
+    @Override
+    public GLFrameHook[] getGLFrameHooks() {
+        return mGLFrameHooks.get();
+    }
+
+    @Override
+    public void setDebugFlags(int debugFlags) {
+        mDebugFlags = debugFlags;
+    }
+
+    @Override
+    public int getDebugFlags() {
+        return mDebugFlags;
+    }
+
+    @Override
+    public void setPreserveEGLContextOnPause(boolean preserveOnPause) {
+        mPreserveEGLContextOnPause = preserveOnPause;
+    }
+
+    @Override
+    public boolean getPreserveEGLContextOnPause() {
+        return mPreserveEGLContextOnPause;
+    }
+
+    @Override
+    public void setPreserveEGLBackBuffer(boolean preserve) {
+        mPreserveEGLBackBuffer = preserve;
+    }
+
+    @Override
+    public boolean getPreserveEGLBackBuffer() {
+        return mPreserveEGLBackBuffer;
+    }
+
+    @Override
+    public boolean isEGLBackBufferPreserved() {
+        return mGLThread.isEGLBackBufferPreserved();
+    }
+
+    @Override
+    public void setRenderer(Renderer renderer) {
+        mRenderer = renderer;
+    }
+
+    @Override
+    public Renderer getRenderer() {
+        return mRenderer;
+    }
+
+    @Override
+    public GLResourceRegistry getGLResourceRegistry() {
+        return mGLResourceRegistry;
+    }
+
+    @Override
+    public DirectBufferPool getDirectBufferPool() {
+        return mDirectBufferPool;
+    }
+
+    @Override
+    public FrameMetrics getFrameMetrics() {
+        return mFrameMetrics;
+    }
+
+    @Override
+    public BlockingMetrics getBlockingMetrics() {
+        return mBlockingMetrics;
+    }
+
+    @Override
+    public void setEGLContextFactory(EGLContextFactory factory) {
+        mEGLContextFactory = factory;
+    }
+
+    @Override
+    public EGLWindowSurfaceFactory getEGLWindowSurfaceFactory() {
+        return mEGLWindowSurfaceFactory;
+    }
+
+    @Override
+    public void setEGLWindowSurfaceFactory(EGLWindowSurfaceFactory factory) {
+        mEGLWindowSurfaceFactory = factory;
+    }
+
+    @Override
+    public EGLContextFactory getEGLContextFactory() {
+        return mEGLContextFactory;
+    }
+
+    @Override
+    public void setEGLConfigChooser(EGLConfigChooser configChooser) {
+        mEGLConfigChooser = configChooser;
+    }
+
+    @Override
+    public EGLConfigChooser getEGLConfigChooser() {
+        return mEGLConfigChooser;
+    }
+
+    @Override
+    public void setEGLContextClientVersion(int version) {
+        mEGLContextFactory = new DefaultContextFactory(version);
+    }
+
+    @Override
+    public int getEGLContextClientVersion() {
+        return 2;
+    }
+
+    @Override
+    public void setRenderMode(int renderMode) {
+        mGLThread.setRenderMode(renderMode);
+    }
+
+    @Override
+    public int getRenderMode() {
+        return mGLThread.getRenderMode();
+    }
+
+    @Override
+    public void requestRender() {
+        mGLThread.requestRender();
+    }
+
+    @Override
+    public void setResizePolicy(int policy) {
+        mResizePolicy = policy;
+    }
+
+    @Override
+    public int getResizePolicy() {
+        return mResizePolicy;
+    }
+
+    @Override
+    public void setResizeSettleDelay(long delayMillis) {
+        mResizeSettleDelay = delayMillis;
+    }
+
+    @Override
+    public long getResizeSettleDelay() {
+        return mResizeSettleDelay;
+    }
+
+    @Override
+    public void onPause() {
+        mGLThread.onPause();
+    }
+
+    @Override
+    public void onResume() {
+        mGLThread.onResume();
+    }
+
+    @Override
+    public void queueEvent(Runnable r) {
+        mGLThread.queueEvent(r);
+    }
+
+    @Override
+    public void captureFrameAsync(FrameCaptureCallback callback) {
+        mGLThread.captureFrameAsync(callback);
+    }
+
+    @Override
+    public RenderThreadState getRenderThreadState() {
+        return mGLThread.getRenderThreadState();
+    }
+}
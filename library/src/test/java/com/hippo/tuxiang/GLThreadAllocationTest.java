@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Hippo Seven
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hippo.tuxiang;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.opengles.GL10;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class GLThreadAllocationTest {
+
+    // Frames before measuring, the JIT may allocate while compiled code is swapped in
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 10000;
+    // The allocation counter may allocate a few arrays itself
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+
+    /**
+     * Counts the bytes allocated by the rendering thread across the
+     * measured frames, from inside onDrawFrame.
+     */
+    private static final class CountingRenderer implements Renderer {
+
+        private final com.sun.management.ThreadMXBean mThreadMXBean;
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private int mFrame;
+        private long mStartBytes;
+        private volatile long mAllocatedBytes = -1;
+
+        CountingRenderer(com.sun.management.ThreadMXBean threadMXBean) {
+            mThreadMXBean = threadMXBean;
+        }
+
+        @Override
+        public void onSurfaceCreated(GL10 gl, EGLConfig config) {}
+
+        @Override
+        public void onSurfaceChanged(GL10 gl, int width, int height) {}
+
+        @Override
+        public boolean onDrawFrame(GL10 gl) {
+            final int frame = mFrame++;
+            if (frame == WARMUP_FRAMES) {
+                mStartBytes = mThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            } else if (frame == WARMUP_FRAMES + MEASURED_FRAMES) {
+                mAllocatedBytes = mThreadMXBean.getThreadAllocatedBytes(
+                        Thread.currentThread().getId()) - mStartBytes;
+                mDone.countDown();
+            }
+            return true;
+        }
+
+        @Override
+        public void onGLThreadStart() {}
+
+        @Override
+        public void onGLThreadExit() {}
+
+        @Override
+        public void onGLThreadPause() {}
+
+        @Override
+        public void onGLThreadResume() {}
+    }
+
+    @Test
+    public void steadyStateFramesDoNotAllocate() throws InterruptedException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        final CountingRenderer renderer = new CountingRenderer(threadMXBean);
+        final FakeGLStuff stuff = new FakeGLStuff(renderer);
+        final GLThread thread = stuff.getGLThread();
+        thread.start();
+        thread.surfaceCreated();
+        thread.onWindowResize(64, 64);
+        try {
+            assertTrue("Frames aren't drawn", renderer.mDone.await(60, TimeUnit.SECONDS));
+        } finally {
+            thread.requestExitAndWait();
+        }
+
+        assertTrue(stuff.getEgl().getSwapCount() >= WARMUP_FRAMES + MEASURED_FRAMES);
+        assertTrue("The rendering thread allocated " + renderer.mAllocatedBytes
+                        + " bytes in " + MEASURED_FRAMES + " frames",
+                renderer.mAllocatedBytes <= MAX_ALLOCATED_BYTES);
+    }
+}